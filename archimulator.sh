@@ -1,2 +1,6 @@
 #!/usr/bin/env bash
-java -Xmx30g -jar target/archimulator.jar $*
+if [ "$1" == "sweep_worker" ]; then
+    java -Xmx30g -cp target/archimulator.jar archimulator.util.cmd.Startup $*
+else
+    java -Xmx30g -jar target/archimulator.jar $*
+fi
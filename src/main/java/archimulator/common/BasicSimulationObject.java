@@ -78,6 +78,15 @@ public abstract class BasicSimulationObject<ExperimentT extends Experiment<?>, S
         return cycleAccurateEventQueue;
     }
 
+    /**
+     * Set the cycle accurate queue, e.g., when the object is moved into a partition driven by its own queue.
+     *
+     * @param cycleAccurateEventQueue the cycle accurate queue
+     */
+    public void setCycleAccurateEventQueue(CycleAccurateEventQueue cycleAccurateEventQueue) {
+        this.cycleAccurateEventQueue = cycleAccurateEventQueue;
+    }
+
     /**
      * Get the parent experiment.
      *
@@ -21,11 +21,14 @@
 package archimulator.common;
 
 import archimulator.os.Kernel;
+import archimulator.os.KernelCheckpoint;
 import archimulator.util.Reference;
 import archimulator.util.event.BlockingEvent;
 import archimulator.util.event.BlockingEventDispatcher;
 import archimulator.util.event.CycleAccurateEventQueue;
 
+import java.io.File;
+
 /**
  * CPU Experiment.
  *
@@ -42,6 +45,12 @@ public class CPUExperiment extends Experiment<CPUExperimentConfig> {
      */
     public transient int currentProcessId;
 
+    private transient volatile Simulation simulation;
+
+    private transient long numCyclesSimulated;
+
+    private transient long numInstructionsSimulated;
+
     /**
      * Create an experiment.
      */
@@ -54,29 +63,71 @@ public class CPUExperiment extends Experiment<CPUExperimentConfig> {
      */
     @Override
     protected void simulate() {
-        CycleAccurateEventQueue cycleAccurateEventQueue = new CycleAccurateEventQueue();
+        try {
+            doSimulate();
+        } finally {
+            this.numCyclesSimulated = this.getNumCyclesSimulated();
+            this.numInstructionsSimulated = this.getNumInstructionsSimulated();
+            this.simulation = null;
+        }
+    }
+
+    /**
+     * Simulate according to the experiment type.
+     */
+    private void doSimulate() {
+        getConfig().validate();
+
+        CycleAccurateEventQueue cycleAccurateEventQueue = new CycleAccurateEventQueue(getConfig().getCycleAccurateEventQueueType());
 
         if (getConfig().getType() == ExperimentType.FUNCTIONAL) {
             BlockingEventDispatcher<BlockingEvent> blockingEventDispatcher = new BlockingEventDispatcher<>();
-            new FunctionalSimulation(this, blockingEventDispatcher, cycleAccurateEventQueue).simulate();
+            run(new FunctionalSimulation(this, blockingEventDispatcher, cycleAccurateEventQueue));
         } else if (getConfig().getType() == ExperimentType.DETAILED) {
             BlockingEventDispatcher<BlockingEvent> blockingEventDispatcher = new BlockingEventDispatcher<>();
-            new DetailedSimulation(this, blockingEventDispatcher, cycleAccurateEventQueue).simulate();
+            run(new DetailedSimulation(this, blockingEventDispatcher, cycleAccurateEventQueue));
         } else if (getConfig().getType() == ExperimentType.TWO_PHASE) {
             Reference<Kernel> kernelRef = new Reference<>();
 
             BlockingEventDispatcher<BlockingEvent> blockingEventDispatcher = new BlockingEventDispatcher<>();
 
-            new ToRoiFastForwardSimulation(this, blockingEventDispatcher, cycleAccurateEventQueue, kernelRef).simulate();
+            if (getConfig().getRoiCheckpointFile() == null || !KernelCheckpoint.matches(getConfig(), new File(getConfig().getRoiCheckpointFile()))) {
+                run(new ToRoiFastForwardSimulation(this, blockingEventDispatcher, cycleAccurateEventQueue, kernelRef));
 
-            blockingEventDispatcher.clearListeners();
+                blockingEventDispatcher.clearListeners();
 
-            cycleAccurateEventQueue.resetCurrentCycle();
+                cycleAccurateEventQueue.resetCurrentCycle();
+            }
 
-            new FromRoiDetailedSimulation(this, blockingEventDispatcher, cycleAccurateEventQueue, kernelRef).simulate();
+            run(new FromRoiDetailedSimulation(this, blockingEventDispatcher, cycleAccurateEventQueue, kernelRef));
+        } else if (getConfig().getType() == ExperimentType.SAMPLED) {
+            BlockingEventDispatcher<BlockingEvent> blockingEventDispatcher = new BlockingEventDispatcher<>();
+            run(new SampledSimulation(this, blockingEventDispatcher, cycleAccurateEventQueue));
         }
     }
 
+    /**
+     * Run the specified simulation, keeping track of it for reporting the progress.
+     *
+     * @param simulation the simulation
+     */
+    private void run(Simulation simulation) {
+        this.simulation = simulation;
+        simulation.simulate();
+    }
+
+    @Override
+    public long getNumCyclesSimulated() {
+        Simulation simulation = this.simulation;
+        return simulation != null ? simulation.getCycleAccurateEventQueue().getCurrentCycle() : numCyclesSimulated;
+    }
+
+    @Override
+    public long getNumInstructionsSimulated() {
+        Simulation simulation = this.simulation;
+        return simulation != null && simulation.getProcessor() != null ? simulation.getProcessor().getNumInstructions() : numInstructionsSimulated;
+    }
+
     /**
      * Get the output directory.
      *
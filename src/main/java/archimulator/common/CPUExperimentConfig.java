@@ -4,6 +4,8 @@ import archimulator.core.bpred.BranchPredictorType;
 import archimulator.uncore.cache.replacement.CacheReplacementPolicyType;
 import archimulator.uncore.dram.MemoryControllerType;
 import archimulator.util.StorageUnitHelper;
+import archimulator.util.event.CycleAccurateEventQueue;
+import archimulator.util.event.CycleAccurateEventQueueType;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +18,18 @@ import java.util.List;
 public class CPUExperimentConfig implements NoCConfig {
     private ExperimentType type;
 
+    private CycleAccurateEventQueueType cycleAccurateEventQueueType;
+
+    private boolean idleCycleSkippingEnabled;
+
+    private boolean basicBlockFastForwardEnabled;
+
+    private boolean parallelDetailedSimulationEnabled;
+
+    private int parallelDetailedSimulationQuantum;
+
+    private boolean deterministicSimulationEnabled;
+
     private String outputDirectory;
 
     private List<ContextMapping> contextMappings;
@@ -24,6 +38,28 @@ public class CPUExperimentConfig implements NoCConfig {
 
     private int helperThreadPthreadSpawnIndex;
 
+    private String roiCheckpointFile;
+
+    private String traceCaptureDirectory;
+
+    private String traceReplayDirectory;
+
+    private long samplingPeriod;
+
+    private long samplingWarmupLength;
+
+    private long samplingDetailedWarmupLength;
+
+    private long samplingUnitLength;
+
+    private int samplingMinNumSamples;
+
+    private double samplingTargetRelativeError;
+
+    private double samplingConfidenceLevel;
+
+    private List<String> samplingStatPaths;
+
     private boolean dynamicSpeculativePrecomputationEnabled;
 
     private int numMainThreadWaysInStaticPartitionedLRUPolicy;
@@ -46,6 +82,12 @@ public class CPUExperimentConfig implements NoCConfig {
 
     private int loadStoreQueueCapacity;
 
+    private boolean storeSetPredictorEnabled;
+
+    private int storeSetIdTableSize;
+
+    private int numStoreSets;
+
     private BranchPredictorType branchPredictorType;
 
     private int twoBitBranchPredictorBimodSize;
@@ -136,6 +178,8 @@ public class CPUExperimentConfig implements NoCConfig {
 
     private CacheReplacementPolicyType l2ReplacementPolicyType;
 
+    private int l2StackDistanceProfilingSamplingPeriod;
+
     private MemoryControllerType memoryControllerType;
 
     private int memoryControllerLineSize;
@@ -192,6 +236,18 @@ public class CPUExperimentConfig implements NoCConfig {
     public CPUExperimentConfig() {
         this.type = ExperimentType.DETAILED;
 
+        this.cycleAccurateEventQueueType = CycleAccurateEventQueue.DEFAULT_TYPE;
+
+        this.idleCycleSkippingEnabled = false;
+
+        this.basicBlockFastForwardEnabled = false;
+
+        this.parallelDetailedSimulationEnabled = false;
+
+        this.parallelDetailedSimulationQuantum = 0;
+
+        this.deterministicSimulationEnabled = false;
+
         this.outputDirectory = "";
 
         this.contextMappings = new ArrayList<>();
@@ -200,6 +256,20 @@ public class CPUExperimentConfig implements NoCConfig {
 
         this.helperThreadPthreadSpawnIndex = 3720;
 
+        this.roiCheckpointFile = null;
+
+        this.traceCaptureDirectory = null;
+        this.traceReplayDirectory = null;
+
+        this.samplingPeriod = 1000000;
+        this.samplingWarmupLength = 100000;
+        this.samplingDetailedWarmupLength = 2000;
+        this.samplingUnitLength = 10000;
+        this.samplingMinNumSamples = 30;
+        this.samplingTargetRelativeError = 0.03;
+        this.samplingConfidenceLevel = 0.997;
+        this.samplingStatPaths = new ArrayList<>();
+
         this.dynamicSpeculativePrecomputationEnabled = false;
 
         this.numMainThreadWaysInStaticPartitionedLRUPolicy = -1;
@@ -215,6 +285,10 @@ public class CPUExperimentConfig implements NoCConfig {
         this.reorderBufferCapacity = 96;
         this.loadStoreQueueCapacity = 48;
 
+        this.storeSetPredictorEnabled = false;
+        this.storeSetIdTableSize = 1024;
+        this.numStoreSets = 128;
+
         this.branchPredictorType = BranchPredictorType.PERFECT;
 
         this.twoBitBranchPredictorBimodSize = 2048;
@@ -267,6 +341,7 @@ public class CPUExperimentConfig implements NoCConfig {
         this.l2LineSize = 64;
         this.l2HitLatency = 10;
         this.l2ReplacementPolicyType = CacheReplacementPolicyType.LRU;
+        this.l2StackDistanceProfilingSamplingPeriod = 1;
 
         this.memoryControllerType = MemoryControllerType.FIXED_LATENCY;
         this.memoryControllerLineSize = 64;
@@ -301,6 +376,18 @@ public class CPUExperimentConfig implements NoCConfig {
         this.reinforcementFactor = 0.05;
     }
 
+    /**
+     * Validate the combination of the config values, rejecting the ones that cannot be simulated together.
+     *
+     * @throws IllegalArgumentException if the config values cannot be simulated together
+     */
+    public void validate() {
+        if (this.traceReplayDirectory != null && this.type != ExperimentType.DETAILED) {
+            throw new IllegalArgumentException(String.format(
+                    "Instruction traces can only be replayed by detailed experiments, not by %s experiments", this.type));
+        }
+    }
+
     /**
      * Get the experiment type.
      *
@@ -319,6 +406,114 @@ public class CPUExperimentConfig implements NoCConfig {
         this.type = type;
     }
 
+    /**
+     * Get the cycle accurate event queue type.
+     *
+     * @return the cycle accurate event queue type
+     */
+    public CycleAccurateEventQueueType getCycleAccurateEventQueueType() {
+        return cycleAccurateEventQueueType;
+    }
+
+    /**
+     * Set the cycle accurate event queue type.
+     *
+     * @param cycleAccurateEventQueueType the cycle accurate event queue type
+     */
+    public void setCycleAccurateEventQueueType(CycleAccurateEventQueueType cycleAccurateEventQueueType) {
+        this.cycleAccurateEventQueueType = cycleAccurateEventQueueType;
+    }
+
+    /**
+     * Get a boolean value indicating whether idle cycle skipping is enabled or not.
+     *
+     * @return a boolean value indicating whether idle cycle skipping is enabled or not
+     */
+    public boolean isIdleCycleSkippingEnabled() {
+        return idleCycleSkippingEnabled;
+    }
+
+    /**
+     * Set a boolean value indicating whether idle cycle skipping is enabled or not.
+     *
+     * @param idleCycleSkippingEnabled a boolean value indicating whether idle cycle skipping is enabled or not
+     */
+    public void setIdleCycleSkippingEnabled(boolean idleCycleSkippingEnabled) {
+        this.idleCycleSkippingEnabled = idleCycleSkippingEnabled;
+    }
+
+    /**
+     * Get a boolean value indicating whether a whole decoded basic block is executed per thread per cycle in the fast forward mode or not.
+     *
+     * @return a boolean value indicating whether a whole decoded basic block is executed per thread per cycle in the fast forward mode or not
+     */
+    public boolean isBasicBlockFastForwardEnabled() {
+        return basicBlockFastForwardEnabled;
+    }
+
+    /**
+     * Set a boolean value indicating whether a whole decoded basic block is executed per thread per cycle in the fast forward mode or not.
+     *
+     * @param basicBlockFastForwardEnabled a boolean value indicating whether a whole decoded basic block is executed per thread per cycle in the fast forward mode or not
+     */
+    public void setBasicBlockFastForwardEnabled(boolean basicBlockFastForwardEnabled) {
+        this.basicBlockFastForwardEnabled = basicBlockFastForwardEnabled;
+    }
+
+    /**
+     * Get a boolean value indicating whether the cores are simulated in parallel in the measurement mode or not.
+     *
+     * @return a boolean value indicating whether the cores are simulated in parallel in the measurement mode or not
+     */
+    public boolean isParallelDetailedSimulationEnabled() {
+        return parallelDetailedSimulationEnabled;
+    }
+
+    /**
+     * Set a boolean value indicating whether the cores are simulated in parallel in the measurement mode or not.
+     *
+     * @param parallelDetailedSimulationEnabled a boolean value indicating whether the cores are simulated in parallel in the measurement mode or not
+     */
+    public void setParallelDetailedSimulationEnabled(boolean parallelDetailedSimulationEnabled) {
+        this.parallelDetailedSimulationEnabled = parallelDetailedSimulationEnabled;
+    }
+
+    /**
+     * Get the number of cycles in a quantum of the parallel detailed simulation, or 0 if the quantum is bounded by the lookahead only.
+     *
+     * @return the number of cycles in a quantum of the parallel detailed simulation, or 0 if the quantum is bounded by the lookahead only
+     */
+    public int getParallelDetailedSimulationQuantum() {
+        return parallelDetailedSimulationQuantum;
+    }
+
+    /**
+     * Set the number of cycles in a quantum of the parallel detailed simulation, or 0 if the quantum is bounded by the lookahead only.
+     *
+     * @param parallelDetailedSimulationQuantum the number of cycles in a quantum of the parallel detailed simulation, or 0 if the quantum is bounded by the lookahead only
+     */
+    public void setParallelDetailedSimulationQuantum(int parallelDetailedSimulationQuantum) {
+        this.parallelDetailedSimulationQuantum = parallelDetailedSimulationQuantum;
+    }
+
+    /**
+     * Get a boolean value indicating whether the simulation is required to be deterministic or not.
+     *
+     * @return a boolean value indicating whether the simulation is required to be deterministic or not
+     */
+    public boolean isDeterministicSimulationEnabled() {
+        return deterministicSimulationEnabled;
+    }
+
+    /**
+     * Set a boolean value indicating whether the simulation is required to be deterministic or not.
+     *
+     * @param deterministicSimulationEnabled a boolean value indicating whether the simulation is required to be deterministic or not
+     */
+    public void setDeterministicSimulationEnabled(boolean deterministicSimulationEnabled) {
+        this.deterministicSimulationEnabled = deterministicSimulationEnabled;
+    }
+
     /**
      * Get the output directory.
      *
@@ -382,6 +577,200 @@ public class CPUExperimentConfig implements NoCConfig {
         this.helperThreadPthreadSpawnIndex = helperThreadPthreadSpawnIndex;
     }
 
+    /**
+     * Get the path of the ROI checkpoint file used by two phase experiments, or null if checkpointing is disabled.
+     * The checkpoint is written when the fast forward phase reaches the ROI, and if it exists already, the fast forward phase is skipped.
+     *
+     * @return the path of the ROI checkpoint file, or null if checkpointing is disabled
+     */
+    public String getRoiCheckpointFile() {
+        return roiCheckpointFile;
+    }
+
+    /**
+     * Set the path of the ROI checkpoint file used by two phase experiments, or null if checkpointing is disabled.
+     *
+     * @param roiCheckpointFile the path of the ROI checkpoint file, or null if checkpointing is disabled
+     */
+    public void setRoiCheckpointFile(String roiCheckpointFile) {
+        this.roiCheckpointFile = roiCheckpointFile;
+    }
+
+    /**
+     * Get the directory into which functional experiments capture the committed instructions of each thread as an
+     * instruction trace file named after the thread, or null if trace capturing is disabled.
+     *
+     * @return the directory into which the instruction traces are captured, or null if trace capturing is disabled
+     */
+    public String getTraceCaptureDirectory() {
+        return traceCaptureDirectory;
+    }
+
+    /**
+     * Set the directory into which functional experiments capture the committed instructions of each thread as an
+     * instruction trace file named after the thread, or null if trace capturing is disabled.
+     *
+     * @param traceCaptureDirectory the directory into which the instruction traces are captured, or null if trace capturing is disabled
+     */
+    public void setTraceCaptureDirectory(String traceCaptureDirectory) {
+        this.traceCaptureDirectory = traceCaptureDirectory;
+    }
+
+    /**
+     * Get the directory of the instruction traces that detailed experiments replay instead of executing the contexts
+     * functionally, or null if trace replaying is disabled.
+     *
+     * @return the directory of the instruction traces to be replayed, or null if trace replaying is disabled
+     */
+    public String getTraceReplayDirectory() {
+        return traceReplayDirectory;
+    }
+
+    /**
+     * Set the directory of the instruction traces that detailed experiments replay instead of executing the contexts
+     * functionally, or null if trace replaying is disabled.
+     *
+     * @param traceReplayDirectory the directory of the instruction traces to be replayed, or null if trace replaying is disabled
+     */
+    public void setTraceReplayDirectory(String traceReplayDirectory) {
+        this.traceReplayDirectory = traceReplayDirectory;
+    }
+
+    /**
+     * Get the number of main thread instructions between the beginnings of two consecutive samples in sampled experiments.
+     *
+     * @return the number of main thread instructions between the beginnings of two consecutive samples in sampled experiments
+     */
+    public long getSamplingPeriod() {
+        return samplingPeriod;
+    }
+
+    /**
+     * Set the number of main thread instructions between the beginnings of two consecutive samples in sampled experiments.
+     *
+     * @param samplingPeriod the number of main thread instructions between the beginnings of two consecutive samples in sampled experiments
+     */
+    public void setSamplingPeriod(long samplingPeriod) {
+        this.samplingPeriod = samplingPeriod;
+    }
+
+    /**
+     * Get the number of main thread instructions for which the caches are warmed up before each sample in sampled experiments.
+     *
+     * @return the number of main thread instructions for which the caches are warmed up before each sample in sampled experiments
+     */
+    public long getSamplingWarmupLength() {
+        return samplingWarmupLength;
+    }
+
+    /**
+     * Set the number of main thread instructions for which the caches are warmed up before each sample in sampled experiments.
+     *
+     * @param samplingWarmupLength the number of main thread instructions for which the caches are warmed up before each sample in sampled experiments
+     */
+    public void setSamplingWarmupLength(long samplingWarmupLength) {
+        this.samplingWarmupLength = samplingWarmupLength;
+    }
+
+    /**
+     * Get the number of main thread instructions which are simulated in detail but not measured before each sample in sampled experiments.
+     *
+     * @return the number of main thread instructions which are simulated in detail but not measured before each sample in sampled experiments
+     */
+    public long getSamplingDetailedWarmupLength() {
+        return samplingDetailedWarmupLength;
+    }
+
+    /**
+     * Set the number of main thread instructions which are simulated in detail but not measured before each sample in sampled experiments.
+     *
+     * @param samplingDetailedWarmupLength the number of main thread instructions which are simulated in detail but not measured before each sample in sampled experiments
+     */
+    public void setSamplingDetailedWarmupLength(long samplingDetailedWarmupLength) {
+        this.samplingDetailedWarmupLength = samplingDetailedWarmupLength;
+    }
+
+    /**
+     * Get the number of main thread instructions measured in each sample in sampled experiments.
+     *
+     * @return the number of main thread instructions measured in each sample in sampled experiments
+     */
+    public long getSamplingUnitLength() {
+        return samplingUnitLength;
+    }
+
+    /**
+     * Set the number of main thread instructions measured in each sample in sampled experiments.
+     *
+     * @param samplingUnitLength the number of main thread instructions measured in each sample in sampled experiments
+     */
+    public void setSamplingUnitLength(long samplingUnitLength) {
+        this.samplingUnitLength = samplingUnitLength;
+    }
+
+    /**
+     * Get the minimum number of samples taken before a sampled experiment can stop on reaching the target error bound.
+     *
+     * @return the minimum number of samples taken before a sampled experiment can stop on reaching the target error bound
+     */
+    public int getSamplingMinNumSamples() {
+        return samplingMinNumSamples;
+    }
+
+    /**
+     * Set the minimum number of samples taken before a sampled experiment can stop on reaching the target error bound.
+     *
+     * @param samplingMinNumSamples the minimum number of samples taken before a sampled experiment can stop on reaching the target error bound
+     */
+    public void setSamplingMinNumSamples(int samplingMinNumSamples) {
+        this.samplingMinNumSamples = samplingMinNumSamples;
+    }
+
+    /**
+     * Get the target relative error of the mean CPI at which a sampled experiment stops, or 0 if it runs to completion.
+     *
+     * @return the target relative error of the mean CPI at which a sampled experiment stops, or 0 if it runs to completion
+     */
+    public double getSamplingTargetRelativeError() {
+        return samplingTargetRelativeError;
+    }
+
+    /**
+     * Set the target relative error of the mean CPI at which a sampled experiment stops, or 0 if it runs to completion.
+     *
+     * @param samplingTargetRelativeError the target relative error of the mean CPI at which a sampled experiment stops, or 0 if it runs to completion
+     */
+    public void setSamplingTargetRelativeError(double samplingTargetRelativeError) {
+        this.samplingTargetRelativeError = samplingTargetRelativeError;
+    }
+
+    /**
+     * Get the confidence level of the confidence intervals computed in sampled experiments.
+     *
+     * @return the confidence level of the confidence intervals computed in sampled experiments
+     */
+    public double getSamplingConfidenceLevel() {
+        return samplingConfidenceLevel;
+    }
+
+    /**
+     * Set the confidence level of the confidence intervals computed in sampled experiments.
+     *
+     * @param samplingConfidenceLevel the confidence level of the confidence intervals computed in sampled experiments
+     */
+    public void setSamplingConfidenceLevel(double samplingConfidenceLevel) {
+        this.samplingConfidenceLevel = samplingConfidenceLevel;
+    }
+
+    /**
+     * Get the list of the paths of the counter stats which are sampled per kilo instructions in sampled experiments, in addition to the CPI, IPC and L2 MPKI.
+     *
+     * @return the list of the paths of the counter stats which are sampled per kilo instructions in sampled experiments
+     */
+    public List<String> getSamplingStatPaths() {
+        return samplingStatPaths;
+    }
+
     /**
      * Get a boolean value indicating whether dynamic speculative precomputation is enabled or not.
      *
@@ -580,6 +969,60 @@ public class CPUExperimentConfig implements NoCConfig {
         this.loadStoreQueueCapacity = loadStoreQueueCapacity;
     }
 
+    /**
+     * Get a boolean value indicating whether loads are scheduled by the store set memory dependence predictor instead of the oracle memory disambiguation or not.
+     *
+     * @return a boolean value indicating whether loads are scheduled by the store set memory dependence predictor instead of the oracle memory disambiguation or not
+     */
+    public boolean isStoreSetPredictorEnabled() {
+        return storeSetPredictorEnabled;
+    }
+
+    /**
+     * Set a boolean value indicating whether loads are scheduled by the store set memory dependence predictor instead of the oracle memory disambiguation or not.
+     *
+     * @param storeSetPredictorEnabled a boolean value indicating whether loads are scheduled by the store set memory dependence predictor instead of the oracle memory disambiguation or not
+     */
+    public void setStoreSetPredictorEnabled(boolean storeSetPredictorEnabled) {
+        this.storeSetPredictorEnabled = storeSetPredictorEnabled;
+    }
+
+    /**
+     * Get the size of the store set ID table (SSIT) of the store set predictor.
+     *
+     * @return the size of the store set ID table (SSIT) of the store set predictor
+     */
+    public int getStoreSetIdTableSize() {
+        return storeSetIdTableSize;
+    }
+
+    /**
+     * Set the size of the store set ID table (SSIT) of the store set predictor.
+     *
+     * @param storeSetIdTableSize the size of the store set ID table (SSIT) of the store set predictor
+     */
+    public void setStoreSetIdTableSize(int storeSetIdTableSize) {
+        this.storeSetIdTableSize = storeSetIdTableSize;
+    }
+
+    /**
+     * Get the number of store sets, i.e., the size of the last fetched store table (LFST) of the store set predictor.
+     *
+     * @return the number of store sets
+     */
+    public int getNumStoreSets() {
+        return numStoreSets;
+    }
+
+    /**
+     * Set the number of store sets, i.e., the size of the last fetched store table (LFST) of the store set predictor.
+     *
+     * @param numStoreSets the number of store sets
+     */
+    public void setNumStoreSets(int numStoreSets) {
+        this.numStoreSets = numStoreSets;
+    }
+
     /**
      * Get the branch predictor type.
      *
@@ -1390,6 +1833,24 @@ public class CPUExperimentConfig implements NoCConfig {
         this.l2ReplacementPolicyType = l2ReplacementPolicyType;
     }
 
+    /**
+     * Get the sampling period of the L2 stack distance profiling, i.e., one in every how many L2 sets is profiled.
+     *
+     * @return the sampling period of the L2 stack distance profiling
+     */
+    public int getL2StackDistanceProfilingSamplingPeriod() {
+        return l2StackDistanceProfilingSamplingPeriod;
+    }
+
+    /**
+     * Set the sampling period of the L2 stack distance profiling, i.e., one in every how many L2 sets is profiled.
+     *
+     * @param l2StackDistanceProfilingSamplingPeriod the sampling period of the L2 stack distance profiling
+     */
+    public void setL2StackDistanceProfilingSamplingPeriod(int l2StackDistanceProfilingSamplingPeriod) {
+        this.l2StackDistanceProfilingSamplingPeriod = l2StackDistanceProfilingSamplingPeriod;
+    }
+
     /**
      * Get the type of the memory controller.
      *
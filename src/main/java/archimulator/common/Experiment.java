@@ -1,5 +1,6 @@
 package archimulator.common;
 
+import archimulator.common.report.ColumnarStatsStore;
 import archimulator.util.dateTime.DateHelper;
 import archimulator.util.serialization.JsonSerializationHelper;
 import org.apache.commons.io.FileUtils;
@@ -27,6 +28,8 @@ public abstract class Experiment<ExperimentConfigT> {
 
     private Map<String, Object> statsMap;
 
+    private transient ColumnarStatsStore statsStore;
+
     /**
      * Create an experiment.
      */
@@ -100,6 +103,15 @@ public abstract class Experiment<ExperimentConfigT> {
         return config;
     }
 
+    /**
+     * Set the experiment config.
+     *
+     * @param config the experiment config
+     */
+    public void setConfig(ExperimentConfigT config) {
+        this.config = config;
+    }
+
     /**
      * Get the experiment state.
      *
@@ -153,6 +165,8 @@ public abstract class Experiment<ExperimentConfigT> {
     public Map<String, Object> getStatsMap() {
         if (statsMap != null) {
             return statsMap;
+        } else if (statsStore != null) {
+            return statsStore.getRow(this.getStatsStoreRowKey());
         } else {
             Map<String, Object> result = new LinkedHashMap<>();
 
@@ -200,20 +214,133 @@ public abstract class Experiment<ExperimentConfigT> {
             String json = FileUtils.readFileToString(file);
 
             statsMap = JsonSerializationHelper.fromJson(Map.class, json);
+            statsStore = null;
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Get the typed value of the specified statistic.
+     *
+     * @param path the statistic path
+     * @return the value of the specified statistic as a Long, a Double or a String if the statistics are backed by a
+     * columnar statistics store, or as it is in the map of statistics otherwise; null if it does not exist
+     */
+    public Object getStat(String path) {
+        return statsStore != null ? statsStore.get(this.getStatsStoreRowKey(), path) : this.getStatsMap().get(path);
+    }
+
+    /**
+     * Get the value of the specified statistic as a double.
+     *
+     * @param path the statistic path
+     * @return the value of the specified statistic as a double if it is numeric; otherwise NaN
+     */
+    public double getStatAsDouble(String path) {
+        if (statsStore != null) {
+            return statsStore.getDouble(this.getStatsStoreRowKey(), path);
+        }
+
+        Object value = this.getStatsMap().get(path);
+
+        try {
+            return value instanceof Number ? ((Number) value).doubleValue() : value != null ? Double.parseDouble(value.toString()) : Double.NaN;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Get the key of the row of the experiment in a columnar statistics store.
+     *
+     * @return the key of the row of the experiment in a columnar statistics store
+     */
+    private String getStatsStoreRowKey() {
+        return new File(this.getOutputDirectory()).getPath();
+    }
+
+    /**
+     * Load the statistics of the specified list of experiments through the specified columnar statistics store file.
+     * The statistics of the experiments missing in the store or written since are read from their "stats.json" files
+     * once and appended to the store; the statistics of all the experiments are then backed by the store.
+     *
+     * @param experiments the list of experiments
+     * @param statsStoreFile the columnar statistics store file
+     */
+    public static void loadStats(List<? extends Experiment<?>> experiments, File statsStoreFile) {
+        ColumnarStatsStore store = new ColumnarStatsStore(statsStoreFile);
+
+        Map<String, Map<String, Object>> rowsToAppend = new LinkedHashMap<>();
+        Map<String, Map<String, String>> metadataToAppend = new LinkedHashMap<>();
+
+        for (Experiment<?> experiment : experiments) {
+            String rowKey = experiment.getStatsStoreRowKey();
+            String lastModified = String.format("%d", new File(experiment.getOutputDirectory(), "stats.json").lastModified());
+
+            if (!lastModified.equals(store.getMetadata(rowKey, METADATA_KEY_STATS_FILE_LAST_MODIFIED)) && !rowsToAppend.containsKey(rowKey)) {
+                experiment.loadStats();
+
+                rowsToAppend.put(rowKey, experiment.getStatsMap());
+                metadataToAppend.put(rowKey, Collections.singletonMap(METADATA_KEY_STATS_FILE_LAST_MODIFIED, lastModified));
+            }
+        }
+
+        if (!rowsToAppend.isEmpty()) {
+            ColumnarStatsStore.append(statsStoreFile, rowsToAppend, metadataToAppend);
+            store = new ColumnarStatsStore(statsStoreFile);
+        }
+
+        for (Experiment<?> experiment : experiments) {
+            experiment.statsMap = null;
+            experiment.statsStore = store;
+        }
+    }
+
+    /**
+     * The metadata key of the last modified time of the "stats.json" file that a row in a columnar statistics store is
+     * read from.
+     */
+    public static final String METADATA_KEY_STATS_FILE_LAST_MODIFIED = "statsFileLastModified";
+
+    /**
+     * Get the number of cycles simulated so far, used for reporting the progress.
+     *
+     * @return the number of cycles simulated so far
+     */
+    public long getNumCyclesSimulated() {
+        return 0;
+    }
+
+    /**
+     * Get the number of instructions simulated so far, used for reporting the progress.
+     *
+     * @return the number of instructions simulated so far
+     */
+    public long getNumInstructionsSimulated() {
+        return 0;
+    }
+
+    /**
+     * Run the specified list of experiments, assuming the default heap size needed by one experiment when running in parallel.
+     *
+     * @param experiments the list of experiments
+     * @param parallel a boolean value indicating whether runs the experiments in parallel on an {@link ExperimentFarm} or not
+     */
+    public static void runExperiments(List<? extends Experiment<?>> experiments, boolean parallel) {
+        runExperiments(experiments, parallel, ExperimentFarm.DEFAULT_HEAP_SIZE_PER_EXPERIMENT);
+    }
+
     /**
      * Run the specified list of experiments.
      *
      * @param experiments the list of experiments
-     * @param parallel a boolean value indicating whether runs the experiments in parallel or not
+     * @param parallel a boolean value indicating whether runs the experiments in parallel on an {@link ExperimentFarm} or not
+     * @param heapSizePerExperiment the estimated heap size in bytes needed by one experiment, which bounds the number of experiments running in parallel
      */
-    public static void runExperiments(List<? extends Experiment> experiments, boolean parallel) {
+    public static void runExperiments(List<? extends Experiment<?>> experiments, boolean parallel, long heapSizePerExperiment) {
         if(parallel) {
-            experiments.parallelStream().forEach(Experiment::run);
+            ExperimentFarm.withHeapSizePerExperiment(heapSizePerExperiment).run(experiments);
         } else {
             experiments.forEach(Experiment::run);
         }
@@ -0,0 +1,380 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.common;
+
+import archimulator.util.serialization.JsonSerializationHelper;
+import com.google.common.hash.Hashing;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.exception.ExceptionUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Experiment farm, which runs a batch of experiments on a bounded work-stealing pool.
+ *
+ * The number of experiments running at the same time is bounded by both the number of processors and the number of
+ * experiments fitting into the maximum heap. The state of each experiment is persisted to the "state.json" file in its
+ * output directory together with the hash of its config, so that rerunning a batch, e.g., after a crash, skips the
+ * experiments already completed with the same config and only redoes the unfinished ones.
+ *
+ * @author Min Cai
+ */
+public class ExperimentFarm {
+    private int parallelism;
+
+    private long progressReportInterval;
+
+    private Map<Experiment<?>, Progress> running;
+
+    private AtomicInteger numCompleted;
+    private AtomicInteger numSkipped;
+    private AtomicInteger numAborted;
+
+    /**
+     * Create an experiment farm running as many experiments at the same time as both the processors and the maximum
+     * heap allow, assuming the default heap size needed by one experiment.
+     */
+    public ExperimentFarm() {
+        this(getParallelism(DEFAULT_HEAP_SIZE_PER_EXPERIMENT));
+    }
+
+    /**
+     * Create an experiment farm.
+     *
+     * @param parallelism the maximum number of experiments running at the same time
+     */
+    public ExperimentFarm(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.parallelism = parallelism;
+
+        this.progressReportInterval = 10;
+
+        this.running = new ConcurrentHashMap<>();
+
+        this.numCompleted = new AtomicInteger();
+        this.numSkipped = new AtomicInteger();
+        this.numAborted = new AtomicInteger();
+    }
+
+    /**
+     * Create an experiment farm running as many experiments at the same time as both the processors and the maximum
+     * heap allow.
+     *
+     * @param heapSizePerExperiment the estimated heap size in bytes needed by one experiment
+     * @return the newly created experiment farm
+     */
+    public static ExperimentFarm withHeapSizePerExperiment(long heapSizePerExperiment) {
+        return new ExperimentFarm(getParallelism(heapSizePerExperiment));
+    }
+
+    /**
+     * Get the number of experiments that can run at the same time, bounded by both the processors and the maximum heap.
+     *
+     * @param heapSizePerExperiment the estimated heap size in bytes needed by one experiment
+     * @return the number of experiments that can run at the same time
+     */
+    private static int getParallelism(long heapSizePerExperiment) {
+        if (heapSizePerExperiment <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        long numFittingIntoHeap = Runtime.getRuntime().maxMemory() / heapSizePerExperiment;
+
+        return (int) Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), numFittingIntoHeap));
+    }
+
+    /**
+     * Run the specified list of experiments, skipping the ones already completed with the same config.
+     *
+     * @param experiments the list of experiments
+     */
+    public void run(List<? extends Experiment<?>> experiments) {
+        List<Experiment<?>> pending = new ArrayList<>();
+
+        for (Experiment<?> experiment : experiments) {
+            if (ExperimentFarm.isCompleted(experiment)) {
+                experiment.loadStats();
+                experiment.setState(ExperimentState.COMPLETED);
+                this.numSkipped.incrementAndGet();
+            } else {
+                experiment.setState(ExperimentState.READY_TO_RUN);
+                pending.add(experiment);
+            }
+        }
+
+        System.out.printf("[farm] %d experiments, %d already completed, running %d with parallelism %d%n",
+                experiments.size(), this.numSkipped.get(), pending.size(), this.parallelism);
+
+        ExecutorService executor = Executors.newWorkStealingPool(this.parallelism);
+
+        ScheduledExecutorService progressReporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "experiment-farm-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        progressReporter.scheduleAtFixedRate(
+                () -> this.reportProgress(experiments.size()),
+                this.progressReportInterval, this.progressReportInterval, TimeUnit.SECONDS
+        );
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (Experiment<?> experiment : pending) {
+                futures.add(executor.submit(() -> this.run(experiment)));
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                } catch (ExecutionException e) {
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        } finally {
+            progressReporter.shutdownNow();
+            executor.shutdownNow();
+        }
+
+        System.out.printf("[farm] done: %d completed, %d skipped, %d aborted%n",
+                this.numCompleted.get(), this.numSkipped.get(), this.numAborted.get());
+    }
+
+    /**
+     * Run the specified experiment and persist its state.
+     *
+     * @param experiment the experiment
+     */
+    private void run(Experiment<?> experiment) {
+        Progress progress = new Progress(experiment);
+        this.running.put(experiment, progress);
+
+        experiment.setState(ExperimentState.RUNNING);
+        this.saveState(experiment, progress);
+
+        try {
+            experiment.run();
+        } catch (RuntimeException e) {
+            experiment.setState(ExperimentState.ABORTED);
+            experiment.setFailedReason(ExceptionUtils.getStackTrace(e));
+            e.printStackTrace();
+        } finally {
+            this.running.remove(experiment);
+        }
+
+        this.saveState(experiment, progress);
+
+        double duration = Math.max(1, System.currentTimeMillis() - progress.beginTime) / 1000.0;
+
+        if (experiment.getState() == ExperimentState.COMPLETED) {
+            this.numCompleted.incrementAndGet();
+        } else {
+            this.numAborted.incrementAndGet();
+        }
+
+        System.out.printf("[farm] %s %s in %.1f s: %.0f cycles/s, %.0f instructions/s%n",
+                experiment.getOutputDirectory(), experiment.getState(), duration,
+                experiment.getNumCyclesSimulated() / duration,
+                experiment.getNumInstructionsSimulated() / duration);
+    }
+
+    /**
+     * Print the overall progress and the throughput of each running experiment since the last report.
+     *
+     * @param numExperiments the total number of experiments
+     */
+    private void reportProgress(int numExperiments) {
+        System.out.printf("[farm] %d/%d finished (%d skipped, %d aborted), %d running%n",
+                this.numCompleted.get() + this.numSkipped.get() + this.numAborted.get(), numExperiments,
+                this.numSkipped.get(), this.numAborted.get(), this.running.size());
+
+        for (Progress progress : this.running.values()) {
+            long now = System.currentTimeMillis();
+            long numCycles = progress.experiment.getNumCyclesSimulated();
+            long numInstructions = progress.experiment.getNumInstructionsSimulated();
+
+            double interval = Math.max(1, now - progress.lastReportTime) / 1000.0;
+
+            System.out.printf("[farm]   %s: %d cycles, %d instructions, %.0f cycles/s, %.0f instructions/s%n",
+                    progress.experiment.getOutputDirectory(), numCycles, numInstructions,
+                    Math.max(0, numCycles - progress.lastNumCycles) / interval,
+                    Math.max(0, numInstructions - progress.lastNumInstructions) / interval);
+
+            progress.lastReportTime = now;
+            progress.lastNumCycles = numCycles;
+            progress.lastNumInstructions = numInstructions;
+        }
+    }
+
+    /**
+     * Get a value indicating whether the specified experiment has already been completed with the same config.
+     *
+     * @param experiment the experiment
+     * @return a value indicating whether the specified experiment has already been completed with the same config
+     */
+    static boolean isCompleted(Experiment<?> experiment) {
+        File stateFile = new File(experiment.getOutputDirectory(), STATE_FILE_NAME);
+
+        if (!stateFile.exists() || !new File(experiment.getOutputDirectory(), "stats.json").exists()) {
+            return false;
+        }
+
+        try {
+            PersistedState persistedState = JsonSerializationHelper.fromJson(
+                    PersistedState.class, FileUtils.readFileToString(stateFile, StandardCharsets.UTF_8)
+            );
+
+            return persistedState != null
+                    && persistedState.state == ExperimentState.COMPLETED
+                    && getConfigHash(experiment).equals(persistedState.configHash);
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Persist the state of the specified experiment.
+     *
+     * @param experiment the experiment
+     * @param progress   the progress of the experiment
+     */
+    private void saveState(Experiment<?> experiment, Progress progress) {
+        PersistedState persistedState = new PersistedState();
+        persistedState.state = experiment.getState();
+        persistedState.failedReason = experiment.getFailedReason();
+        persistedState.configHash = progress.configHash;
+        persistedState.numCyclesSimulated = experiment.getNumCyclesSimulated();
+        persistedState.numInstructionsSimulated = experiment.getNumInstructionsSimulated();
+        persistedState.durationInMilliseconds = System.currentTimeMillis() - progress.beginTime;
+
+        File outputDirectory = new File(experiment.getOutputDirectory());
+
+        if (!outputDirectory.exists() && !outputDirectory.mkdirs()) {
+            throw new RuntimeException();
+        }
+
+        JsonSerializationHelper.writeJsonFile(persistedState, experiment.getOutputDirectory(), STATE_FILE_NAME);
+    }
+
+    /**
+     * Get the hash of the config of the specified experiment. As the simulation may adjust some config values, the
+     * hash of an experiment to be run must be taken before running it.
+     *
+     * @param experiment the experiment
+     * @return the hash of the config of the specified experiment
+     */
+    static String getConfigHash(Experiment<?> experiment) {
+        return Hashing.sha256().hashString(JsonSerializationHelper.toJson(experiment.getConfig()), StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Get the maximum number of experiments running at the same time.
+     *
+     * @return the maximum number of experiments running at the same time
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Get the interval in seconds between two progress reports.
+     *
+     * @return the interval in seconds between two progress reports
+     */
+    public long getProgressReportInterval() {
+        return progressReportInterval;
+    }
+
+    /**
+     * Set the interval in seconds between two progress reports.
+     *
+     * @param progressReportInterval the interval in seconds between two progress reports
+     */
+    public void setProgressReportInterval(long progressReportInterval) {
+        this.progressReportInterval = progressReportInterval;
+    }
+
+    /**
+     * The default estimated heap size in bytes needed by one experiment.
+     */
+    public static final long DEFAULT_HEAP_SIZE_PER_EXPERIMENT = 512L * 1024 * 1024;
+
+    /**
+     * The name of the file where the state of an experiment is persisted.
+     */
+    public static final String STATE_FILE_NAME = "state.json";
+
+    /**
+     * The progress of a running experiment.
+     */
+    private static class Progress {
+        private Experiment<?> experiment;
+        private String configHash;
+        private long beginTime;
+        private long lastReportTime;
+        private long lastNumCycles;
+        private long lastNumInstructions;
+
+        /**
+         * Create the progress of the specified running experiment.
+         *
+         * @param experiment the experiment
+         */
+        private Progress(Experiment<?> experiment) {
+            this.experiment = experiment;
+            this.configHash = getConfigHash(experiment);
+            this.beginTime = System.currentTimeMillis();
+            this.lastReportTime = this.beginTime;
+        }
+    }
+
+    /**
+     * The state of an experiment as persisted to disk.
+     */
+    private static class PersistedState {
+        private ExperimentState state;
+        private String failedReason;
+        private String configHash;
+        private long numCyclesSimulated;
+        private long numInstructionsSimulated;
+        private long durationInMilliseconds;
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.common;
+
+import archimulator.uncore.noc.NoCExperiment;
+import archimulator.uncore.noc.NoCExperimentConfig;
+
+/**
+ * Experiment job, i.e., the self-contained description of an experiment as spooled to disk for a sweep worker.
+ *
+ * @author Min Cai
+ */
+public class ExperimentJob {
+    /**
+     * Experiment job type.
+     */
+    public enum Type {
+        /**
+         * CPU experiment.
+         */
+        CPU,
+
+        /**
+         * NoC experiment.
+         */
+        NOC
+    }
+
+    private Type type;
+
+    private String configHash;
+
+    private int numAttempts;
+
+    private CPUExperimentConfig cpuExperimentConfig;
+
+    private NoCExperimentConfig noCExperimentConfig;
+
+    private String outputDirectory;
+
+    private int numNodes;
+
+    private int maxCycles;
+
+    private int maxPackets;
+
+    private boolean noDrain;
+
+    /**
+     * Create an experiment job describing the specified experiment.
+     *
+     * @param experiment the experiment
+     */
+    public ExperimentJob(Experiment<?> experiment) {
+        this.configHash = ExperimentFarm.getConfigHash(experiment);
+
+        if (experiment instanceof CPUExperiment) {
+            this.type = Type.CPU;
+            this.cpuExperimentConfig = ((CPUExperiment) experiment).getConfig();
+        } else if (experiment instanceof NoCExperiment) {
+            NoCExperiment noCExperiment = (NoCExperiment) experiment;
+
+            this.type = Type.NOC;
+            this.noCExperimentConfig = noCExperiment.getConfig();
+            this.outputDirectory = noCExperiment.getOutputDirectory();
+            this.numNodes = noCExperiment.getNumNodes();
+            this.maxCycles = noCExperiment.getMaxCycles();
+            this.maxPackets = noCExperiment.getMaxPackets();
+            this.noDrain = noCExperiment.isNoDrain();
+        } else {
+            throw new IllegalArgumentException(experiment.getClass().getName());
+        }
+    }
+
+    /**
+     * Create the experiment described by the job.
+     *
+     * @return the newly created experiment described by the job
+     */
+    public Experiment<?> createExperiment() {
+        switch (this.type) {
+            case CPU:
+                CPUExperiment cpuExperiment = new CPUExperiment();
+                cpuExperiment.setConfig(this.cpuExperimentConfig);
+                return cpuExperiment;
+            case NOC:
+                NoCExperiment noCExperiment = new NoCExperiment(this.outputDirectory, this.numNodes, this.maxCycles, this.maxPackets, this.noDrain);
+                noCExperiment.setConfig(this.noCExperimentConfig);
+                return noCExperiment;
+            default:
+                throw new IllegalArgumentException(this.type + "");
+        }
+    }
+
+    /**
+     * Get the experiment job type.
+     *
+     * @return the experiment job type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the hash of the config of the experiment.
+     *
+     * @return the hash of the config of the experiment
+     */
+    public String getConfigHash() {
+        return configHash;
+    }
+
+    /**
+     * Get the number of attempts made to run the job so far.
+     *
+     * @return the number of attempts made to run the job so far
+     */
+    public int getNumAttempts() {
+        return numAttempts;
+    }
+
+    /**
+     * Set the number of attempts made to run the job so far.
+     *
+     * @param numAttempts the number of attempts made to run the job so far
+     */
+    public void setNumAttempts(int numAttempts) {
+        this.numAttempts = numAttempts;
+    }
+}
@@ -0,0 +1,409 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.common;
+
+import archimulator.util.serialization.JsonSerializationHelper;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Experiment spool, i.e., a job directory through which a sweep of experiments is run by any number of worker processes,
+ * possibly on different machines sharing the directory.
+ *
+ * The coordinator serializes each experiment into a job file under "pending". Workers claim the jobs by atomically
+ * renaming them into "running", run them in isolation from each other, and move them into "done" or "failed" afterwards,
+ * the results being written into the output directories of the experiments as usual. Running jobs are kept alive by a
+ * heartbeat on their job files; the jobs whose workers have died are requeued, up to a maximum number of attempts.
+ *
+ * @author Min Cai
+ */
+public class ExperimentSpool {
+    private File pendingDirectory;
+    private File runningDirectory;
+    private File doneDirectory;
+    private File failedDirectory;
+
+    private long heartbeatInterval;
+    private long staleTimeout;
+    private int maxNumAttempts;
+
+    /**
+     * Create an experiment spool in the specified directory.
+     *
+     * @param directory the spool directory
+     */
+    public ExperimentSpool(String directory) {
+        this.pendingDirectory = new File(directory, "pending");
+        this.runningDirectory = new File(directory, "running");
+        this.doneDirectory = new File(directory, "done");
+        this.failedDirectory = new File(directory, "failed");
+
+        for (File dir : Arrays.asList(this.pendingDirectory, this.runningDirectory, this.doneDirectory, this.failedDirectory)) {
+            if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+                throw new RuntimeException(String.format("Cannot create the spool directory %s", dir));
+            }
+        }
+
+        this.heartbeatInterval = 30;
+        this.staleTimeout = 600;
+        this.maxNumAttempts = 2;
+    }
+
+    /**
+     * Submit the specified list of experiments as jobs, skipping the ones already completed with the same config or
+     * already in the spool.
+     *
+     * @param experiments the list of experiments
+     * @return the number of jobs submitted
+     */
+    public int submit(List<? extends Experiment<?>> experiments) {
+        int numSubmitted = 0;
+
+        for (Experiment<?> experiment : experiments) {
+            String jobName = getJobName(experiment);
+
+            if (ExperimentFarm.isCompleted(experiment)
+                    || new File(this.pendingDirectory, jobName).exists()
+                    || new File(this.runningDirectory, jobName).exists()
+                    || new File(this.failedDirectory, jobName).exists()) {
+                continue;
+            }
+
+            this.writeJob(new ExperimentJob(experiment), this.pendingDirectory, jobName);
+            numSubmitted++;
+        }
+
+        System.out.printf("[spool] %d experiments, %d jobs submitted%n", experiments.size(), numSubmitted);
+
+        return numSubmitted;
+    }
+
+    /**
+     * Claim and run pending jobs one at a time until no pending jobs are left.
+     *
+     * @return the number of jobs run
+     */
+    public int work() {
+        String workerId = ManagementFactory.getRuntimeMXBean().getName();
+
+        int numJobs = 0;
+
+        for (File jobFile; (jobFile = this.claim()) != null; ) {
+            ExperimentJob job = this.readJob(jobFile);
+            job.setNumAttempts(job.getNumAttempts() + 1);
+            this.writeJob(job, this.runningDirectory, jobFile.getName());
+
+            System.out.printf("[spool] %s: running %s (attempt %d)%n", workerId, jobFile.getName(), job.getNumAttempts());
+
+            ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "experiment-spool-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            final File runningJobFile = jobFile;
+            heartbeat.scheduleAtFixedRate(
+                    () -> runningJobFile.setLastModified(System.currentTimeMillis()),
+                    this.heartbeatInterval, this.heartbeatInterval, TimeUnit.SECONDS
+            );
+
+            boolean completed;
+
+            try {
+                Experiment<?> experiment = job.createExperiment();
+                new ExperimentFarm(1).run(Collections.singletonList(experiment));
+                completed = experiment.getState() == ExperimentState.COMPLETED;
+            } catch (Throwable e) {
+                e.printStackTrace();
+                completed = false;
+            } finally {
+                heartbeat.shutdownNow();
+            }
+
+            this.move(jobFile, completed ? this.doneDirectory : this.failedDirectory, true);
+
+            numJobs++;
+        }
+
+        System.out.printf("[spool] %s: no pending jobs left after running %d jobs%n", workerId, numJobs);
+
+        return numJobs;
+    }
+
+    /**
+     * Wait until the jobs of the specified list of experiments are all done or failed, requeuing the stale jobs in the
+     * meantime, and then load the statistics of the completed experiments.
+     *
+     * @param experiments the list of experiments
+     */
+    public void await(List<? extends Experiment<?>> experiments) {
+        Map<Experiment<?>, String> jobNames = new LinkedHashMap<>();
+
+        for (Experiment<?> experiment : experiments) {
+            jobNames.put(experiment, getJobName(experiment));
+        }
+
+        for (; ; ) {
+            this.requeueStaleJobs();
+
+            int numUnfinished = 0;
+
+            for (String jobName : jobNames.values()) {
+                if (new File(this.pendingDirectory, jobName).exists() || new File(this.runningDirectory, jobName).exists()) {
+                    numUnfinished++;
+                }
+            }
+
+            if (numUnfinished == 0) {
+                break;
+            }
+
+            System.out.printf("[spool] waiting for %d unfinished jobs%n", numUnfinished);
+
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(this.heartbeatInterval));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+
+        int numCompleted = 0;
+
+        for (Experiment<?> experiment : experiments) {
+            if (ExperimentFarm.isCompleted(experiment)) {
+                experiment.loadStats();
+                experiment.setState(ExperimentState.COMPLETED);
+                numCompleted++;
+            } else {
+                experiment.setState(ExperimentState.ABORTED);
+            }
+        }
+
+        System.out.printf("[spool] %d experiments completed, %d failed%n", numCompleted, experiments.size() - numCompleted);
+    }
+
+    /**
+     * Move the running jobs without a heartbeat within the stale timeout back into pending, or into failed if they have
+     * already been attempted for the maximum number of times.
+     */
+    public void requeueStaleJobs() {
+        long now = System.currentTimeMillis();
+
+        for (File jobFile : listJobFiles(this.runningDirectory)) {
+            if (now - jobFile.lastModified() < TimeUnit.SECONDS.toMillis(this.staleTimeout)) {
+                continue;
+            }
+
+            ExperimentJob job;
+
+            try {
+                job = this.readJob(jobFile);
+            } catch (RuntimeException e) {
+                continue;
+            }
+
+            File target = job.getNumAttempts() < this.maxNumAttempts ? this.pendingDirectory : this.failedDirectory;
+
+            if (this.move(jobFile, target, target == this.failedDirectory)) {
+                System.out.printf("[spool] requeued the stale job %s into %s%n", jobFile.getName(), target.getName());
+            }
+        }
+    }
+
+    /**
+     * Claim the next pending job by atomically renaming it into the running directory.
+     *
+     * @return the claimed job file in the running directory if any pending jobs are left; otherwise null
+     */
+    private File claim() {
+        this.requeueStaleJobs();
+
+        for (File jobFile : listJobFiles(this.pendingDirectory)) {
+            if (this.move(jobFile, this.runningDirectory, false)) {
+                File runningJobFile = new File(this.runningDirectory, jobFile.getName());
+                runningJobFile.setLastModified(System.currentTimeMillis());
+                return runningJobFile;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Atomically move the specified job file into the specified directory.
+     *
+     * @param jobFile         the job file
+     * @param directory       the target directory
+     * @param replaceExisting a value indicating whether any existing job file of the same name in the target directory,
+     *                        e.g., the one of an earlier attempt, is replaced or not
+     * @return a value indicating whether the job file has been moved by this call or not, i.e., false if it has been
+     * claimed or moved by another process in the meantime
+     */
+    private boolean move(File jobFile, File directory, boolean replaceExisting) {
+        File target = new File(directory, jobFile.getName());
+
+        try {
+            if (replaceExisting) {
+                Files.move(jobFile.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.move(jobFile.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Write the specified job into the specified directory, atomically replacing any existing job file of the same name.
+     *
+     * @param job       the job
+     * @param directory the directory
+     * @param jobName   the job name
+     */
+    private void writeJob(ExperimentJob job, File directory, String jobName) {
+        File temporaryFile = new File(directory, "." + jobName + ".tmp");
+
+        try {
+            FileUtils.writeStringToFile(temporaryFile, JsonSerializationHelper.toJson(job, true), StandardCharsets.UTF_8);
+            Files.move(temporaryFile.toPath(), new File(directory, jobName).toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Read the job from the specified job file.
+     *
+     * @param jobFile the job file
+     * @return the job read from the specified job file
+     */
+    private ExperimentJob readJob(File jobFile) {
+        try {
+            return JsonSerializationHelper.fromJson(ExperimentJob.class, FileUtils.readFileToString(jobFile, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * List the job files in the specified directory in the order of their names.
+     *
+     * @param directory the directory
+     * @return the job files in the specified directory in the order of their names
+     */
+    private static List<File> listJobFiles(File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".json") && !name.startsWith("."));
+
+        List<File> jobFiles = new ArrayList<>();
+
+        if (files != null) {
+            jobFiles.addAll(Arrays.asList(files));
+            jobFiles.sort((file1, file2) -> file1.getName().compareTo(file2.getName()));
+        }
+
+        return jobFiles;
+    }
+
+    /**
+     * Get the job name of the specified experiment.
+     *
+     * @param experiment the experiment
+     * @return the job name of the specified experiment
+     */
+    private static String getJobName(Experiment<?> experiment) {
+        String outputDirectory = new File(experiment.getOutputDirectory()).getPath();
+        return String.format("%08x-%s.json", outputDirectory.hashCode(), ExperimentFarm.getConfigHash(experiment).substring(0, 16));
+    }
+
+    /**
+     * Get the interval in seconds between two heartbeats on a running job.
+     *
+     * @return the interval in seconds between two heartbeats on a running job
+     */
+    public long getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    /**
+     * Set the interval in seconds between two heartbeats on a running job.
+     *
+     * @param heartbeatInterval the interval in seconds between two heartbeats on a running job
+     */
+    public void setHeartbeatInterval(long heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    /**
+     * Get the time in seconds without a heartbeat after which a running job is considered stale.
+     *
+     * @return the time in seconds without a heartbeat after which a running job is considered stale
+     */
+    public long getStaleTimeout() {
+        return staleTimeout;
+    }
+
+    /**
+     * Set the time in seconds without a heartbeat after which a running job is considered stale.
+     *
+     * @param staleTimeout the time in seconds without a heartbeat after which a running job is considered stale
+     */
+    public void setStaleTimeout(long staleTimeout) {
+        this.staleTimeout = staleTimeout;
+    }
+
+    /**
+     * Get the maximum number of attempts made to run a job.
+     *
+     * @return the maximum number of attempts made to run a job
+     */
+    public int getMaxNumAttempts() {
+        return maxNumAttempts;
+    }
+
+    /**
+     * Set the maximum number of attempts made to run a job.
+     *
+     * @param maxNumAttempts the maximum number of attempts made to run a job
+     */
+    public void setMaxNumAttempts(int maxNumAttempts) {
+        this.maxNumAttempts = maxNumAttempts;
+    }
+}
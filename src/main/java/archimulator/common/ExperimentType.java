@@ -39,7 +39,12 @@ public enum ExperimentType {
     /**
      * Two-phase "fast forward and measurement" experiment.
      */
-    TWO_PHASE;
+    TWO_PHASE,
+
+    /**
+     * Sampled experiment which alternates fast forward, warmup and measurement on a systematic schedule.
+     */
+    SAMPLED;
 
     /**
      * Get the measurement simulation title prefix from the specified experiment type.
@@ -54,6 +59,8 @@ public enum ExperimentType {
                 return "functional";
             case DETAILED:
                 return "detailed";
+            case SAMPLED:
+                return "sampled";
             default:
                 throw new IllegalArgumentException();
         }
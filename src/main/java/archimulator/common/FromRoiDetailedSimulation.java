@@ -21,11 +21,15 @@
 package archimulator.common;
 
 import archimulator.os.Kernel;
+import archimulator.os.KernelCheckpoint;
 import archimulator.util.Reference;
 import archimulator.util.event.BlockingEvent;
 import archimulator.util.event.BlockingEventDispatcher;
 import archimulator.util.event.CycleAccurateEventQueue;
 
+import java.io.File;
+import java.io.IOException;
+
 /**
  * "From ROI" detailed simulation.
  *
@@ -91,13 +95,26 @@ public class FromRoiDetailedSimulation extends Simulation {
     }
 
     /**
-     * Prepare the kernel.
+     * Prepare the kernel. The kernel is handed over from the fast forward phase if any; otherwise it is restored from the ROI checkpoint.
      *
      * @return the prepared kernel
      */
     @Override
     public Kernel prepareKernel() {
-        return this.kernelRef.get();
+        if (this.kernelRef.get() != null) {
+            return this.kernelRef.get();
+        }
+
+        String roiCheckpointFile = getExperiment().getConfig().getRoiCheckpointFile();
+
+        try {
+            Kernel kernel = new Kernel(this);
+            KernelCheckpoint.load(kernel, getExperiment().getConfig(), new File(roiCheckpointFile));
+            Logger.infof(Logger.ROI, "ROI checkpoint restored from %s.", this.getCycleAccurateEventQueue().getCurrentCycle(), roiCheckpointFile);
+            return kernel;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
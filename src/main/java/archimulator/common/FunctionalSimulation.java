@@ -20,10 +20,13 @@
  */
 package archimulator.common;
 
+import archimulator.core.Thread;
 import archimulator.util.event.BlockingEvent;
 import archimulator.util.event.BlockingEventDispatcher;
 import archimulator.util.event.CycleAccurateEventQueue;
 
+import java.io.File;
+
 /**
  * Functional simulation.
  *
@@ -78,6 +81,17 @@ public class FunctionalSimulation extends Simulation {
      */
     @Override
     public void beginSimulation() {
+        String traceCaptureDirectory = getExperiment().getConfig().getTraceCaptureDirectory();
+        if (traceCaptureDirectory != null) {
+            File traceCaptureDirectoryFile = new File(traceCaptureDirectory);
+            if (!traceCaptureDirectoryFile.exists() && !traceCaptureDirectoryFile.mkdirs()) {
+                throw new RuntimeException();
+            }
+
+            for (Thread thread : this.getProcessor().getThreads()) {
+                thread.beginInstructionTraceCapture(new File(traceCaptureDirectoryFile, thread.getName() + ".trace"));
+            }
+        }
     }
 
     /**
@@ -0,0 +1,792 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.common;
+
+import archimulator.common.report.ReportNode;
+import archimulator.common.report.Reportable;
+import archimulator.core.Core;
+import archimulator.core.Thread;
+import archimulator.os.Context;
+import archimulator.uncore.MemoryHierarchy;
+import archimulator.uncore.coherence.msi.controller.CacheController;
+import archimulator.uncore.coherence.msi.controller.DirectoryController;
+import archimulator.uncore.noc.NoCMemoryHierarchy;
+import archimulator.util.event.CycleAccurateEvent;
+import archimulator.util.event.CycleAccurateEventQueue;
+import archimulator.util.event.CycleAccurateEventQueueGateway;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel detailed simulation engine.
+ * <p>
+ * Each core, together with its threads and its private L1 cache controllers, forms a partition which is driven by a cycle accurate event queue of its own,
+ * while the rest of the simulated system, i.e., the L2 cache controller, the memory controller and the net, forms the uncore partition driven by the shared
+ * cycle accurate event queue. All the partitions advance concurrently over the same quantum of cycles on the host threads of the engine,
+ * and then exchange the events scheduled across them and let the kernel do the housekeeping work for the quantum at the barrier.
+ * <p>
+ * The partitions journal the order in which they schedule events and the events take place, which is replayed at the barrier to give every event
+ * the ID it would have been given by the serial simulation, so that the events taking place at the same cycle keep their serial order on every queue.
+ * The cores take their turns in the serial order of the cores and the cycles to execute instructions on the process memories and the kernel.
+ * With a quantum of one cycle, the engine hence reproduces the serial simulation exactly.
+ * <p>
+ * The quantum defaults to the lookahead, i.e., the minimum number of cycles taken to transfer a message from an L1 cache controller to the L2 cache controller,
+ * and always ends at the cycle at which the kernel processes the system events. Within a longer quantum, the engine deviates from the serial simulation
+ * in that the events which reach a partition that has already advanced past the cycle at which they take place are delayed, the contexts are switched
+ * at the end of the quantum, and the simulation stops at the end of the quantum in which it cannot go on. The delayed events and the quanta
+ * in which the contexts are switched are reported as the deviation from the serial simulation.
+ *
+ * @author Min Cai
+ */
+public class ParallelDetailedSimulationEngine implements CycleAccurateEventQueueGateway, Reportable {
+    private Simulation simulation;
+
+    private CycleAccurateEventQueue cycleAccurateEventQueue;
+
+    private int lookahead;
+    private int quantum;
+
+    private List<Partition> partitions;
+    private Map<CycleAccurateEventQueue, Partition> queuesToPartitions;
+
+    private ThreadLocal<Partition> currentPartition;
+
+    private AtomicLongArray nextCyclesOfCores;
+
+    private long nextEventId;
+
+    private long currentQuantumBeginCycle;
+    private int currentQuantum;
+
+    private volatile boolean running;
+    private volatile boolean aborted;
+    private boolean stopped;
+
+    private long numQuanta;
+
+    private long numCrossPartitionEvents;
+    private long numDelayedCrossPartitionEvents;
+    private long totalCrossPartitionEventDelay;
+    private long maxCrossPartitionEventDelay;
+
+    private long numQuantaWithDeferredContextSwitches;
+
+    /**
+     * Create a parallel detailed simulation engine.
+     *
+     * @param simulation the parent simulation
+     */
+    public ParallelDetailedSimulationEngine(Simulation simulation) {
+        this.simulation = simulation;
+
+        this.cycleAccurateEventQueue = simulation.getCycleAccurateEventQueue();
+
+        this.lookahead = getLookahead(simulation.getProcessor().getMemoryHierarchy());
+
+        int quantum = simulation.getExperiment().getConfig().getParallelDetailedSimulationQuantum();
+        this.quantum = quantum > 0 ? Math.min(quantum, this.lookahead) : this.lookahead;
+
+        this.partitions = new ArrayList<>();
+        this.queuesToPartitions = new IdentityHashMap<>();
+
+        this.currentPartition = new ThreadLocal<>();
+    }
+
+    /**
+     * Get the lookahead of the specified memory hierarchy, i.e., the minimum number of cycles taken to transfer a message from an L1 cache controller
+     * to the L2 cache controller.
+     *
+     * @param memoryHierarchy the memory hierarchy
+     * @return the lookahead of the specified memory hierarchy
+     */
+    private static int getLookahead(MemoryHierarchy memoryHierarchy) {
+        if (!(memoryHierarchy instanceof NoCMemoryHierarchy)) {
+            return 1;
+        }
+
+        NoCMemoryHierarchy noCMemoryHierarchy = (NoCMemoryHierarchy) memoryHierarchy;
+
+        DirectoryController l2Controller = noCMemoryHierarchy.getL2Controller();
+
+        List<CacheController> l1Controllers = new ArrayList<>();
+        l1Controllers.addAll(noCMemoryHierarchy.getL1IControllers());
+        l1Controllers.addAll(noCMemoryHierarchy.getL1DControllers());
+
+        int lookahead = Integer.MAX_VALUE;
+
+        for (CacheController l1Controller : l1Controllers) {
+            lookahead = Math.min(lookahead, noCMemoryHierarchy.getMinTransferLatency(l1Controller, l2Controller));
+        }
+
+        return Math.max(lookahead, 1);
+    }
+
+    /**
+     * Run the measurement until the simulation cannot go on.
+     */
+    public void run() {
+        List<Core> cores = this.simulation.getProcessor().getCores();
+
+        for (Core core : cores) {
+            Partition partition = new Partition(core);
+            this.partitions.add(partition);
+            this.queuesToPartitions.put(partition.cycleAccurateEventQueue, partition);
+        }
+
+        Partition uncorePartition = new Partition(null);
+        this.partitions.add(uncorePartition);
+        this.queuesToPartitions.put(uncorePartition.cycleAccurateEventQueue, uncorePartition);
+
+        this.nextCyclesOfCores = new AtomicLongArray(cores.size());
+        for (int i = 0; i < cores.size(); i++) {
+            this.nextCyclesOfCores.set(i, this.cycleAccurateEventQueue.getCurrentCycle());
+        }
+
+        this.nextEventId = this.cycleAccurateEventQueue.currentId;
+
+        Logger.infof(Logger.SIMULATION, "Simulating %d cores in parallel with a quantum of %d cycles (lookahead: %d cycles).",
+                this.cycleAccurateEventQueue.getCurrentCycle(), cores.size(), this.quantum, this.lookahead);
+
+        this.simulation.getBlockingEventDispatcher().setSynchronizedDispatchEnabled(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.partitions.size(), runnable -> {
+            java.lang.Thread thread = new java.lang.Thread(runnable, "parallel-detailed-simulation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        CyclicBarrier barrier = new CyclicBarrier(this.partitions.size(), this::endQuantum);
+
+        this.running = true;
+
+        try {
+            this.beginQuantum();
+
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (Partition partition : this.partitions) {
+                futures.add(executor.submit(() -> {
+                    partition.run(barrier);
+                    return null;
+                }));
+            }
+
+            Throwable cause = null;
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (cause == null || cause instanceof BrokenBarrierException) {
+                        cause = e.getCause();
+                    }
+                }
+            }
+
+            if (cause != null) {
+                throw new RuntimeException(cause);
+            }
+        } catch (InterruptedException e) {
+            java.lang.Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
+
+            this.running = false;
+
+            this.simulation.getBlockingEventDispatcher().setSynchronizedDispatchEnabled(false);
+
+            for (Partition partition : this.partitions) {
+                partition.close();
+            }
+        }
+    }
+
+    /**
+     * Begin the next quantum, which ends no later than the cycle at which the kernel processes the system events.
+     */
+    private void beginQuantum() {
+        this.stopped = this.simulation.getProcessor().getKernel().getContexts().isEmpty() || !this.simulation.canDoMeasurementOneCycle();
+
+        this.currentQuantumBeginCycle = this.cycleAccurateEventQueue.getCurrentCycle();
+        this.currentQuantum = (int) Math.min(this.quantum, this.simulation.getProcessor().getKernel().getNumIdleCycles() + 1);
+
+        for (Partition partition : this.partitions) {
+            partition.cycleAccurateEventQueue.currentId = this.nextEventId;
+        }
+    }
+
+    /**
+     * End the current quantum on the last host thread reaching the barrier, once all the partitions have advanced over it.
+     */
+    private void endQuantum() {
+        this.replayJournals();
+
+        for (Partition to : this.partitions) {
+            for (Partition partition : this.partitions) {
+                partition.flush(to);
+            }
+        }
+
+        List<Context> contexts = this.getContextsOfThreads();
+
+        for (int i = 0; i < this.currentQuantum; i++) {
+            this.simulation.doHouseKeeping();
+        }
+
+        if (this.currentQuantum > 1 && !contexts.equals(this.getContextsOfThreads())) {
+            this.numQuantaWithDeferredContextSwitches++;
+        }
+
+        this.numQuanta++;
+
+        this.beginQuantum();
+    }
+
+    /**
+     * Get the list of the contexts of all the threads.
+     *
+     * @return the list of the contexts of all the threads
+     */
+    private List<Context> getContextsOfThreads() {
+        List<Context> contexts = new ArrayList<>();
+
+        for (Thread thread : this.simulation.getProcessor().getThreads()) {
+            contexts.add(thread.getContext());
+        }
+
+        return contexts;
+    }
+
+    /**
+     * Replay the journals of the partitions for the current quantum in the serial order, i.e., cycle by cycle, the cores in order,
+     * the events in the order of their IDs and then the per-cycle events, giving the events scheduled along the way the IDs
+     * that they would have been given by the serial simulation.
+     */
+    private void replayJournals() {
+        for (long cycle = this.currentQuantumBeginCycle; cycle < this.currentQuantumBeginCycle + this.currentQuantum; cycle++) {
+            for (Partition partition : this.partitions) {
+                partition.replay(JournalEntry.PIPELINE, cycle);
+            }
+
+            for (; ; ) {
+                Partition next = null;
+
+                for (Partition partition : this.partitions) {
+                    JournalEntry entry = partition.peek(JournalEntry.EVENT, cycle);
+
+                    if (entry != null && (next == null || entry.event.compareTo(next.peek(JournalEntry.EVENT, cycle).event) < 0)) {
+                        next = partition;
+                    }
+                }
+
+                if (next == null) {
+                    break;
+                }
+
+                next.replay(JournalEntry.EVENT, cycle);
+            }
+
+            for (Partition partition : this.partitions) {
+                partition.replay(JournalEntry.PER_CYCLE_EVENTS, cycle);
+            }
+        }
+
+        for (Partition partition : this.partitions) {
+            partition.clearJournal();
+        }
+    }
+
+    /**
+     * Wait until the specified thread may take its turn to execute instructions on the process memories and the kernel,
+     * i.e., until the other cores have finished the cycles before the current one in the serial order.
+     * <p>
+     * The turns are taken by all the cores rather than the cores running the same process only, as the pages of all the process memories
+     * are numbered in the order in which they are touched.
+     *
+     * @param thread the thread
+     */
+    public void awaitTurn(Thread thread) {
+        int coreNum = thread.getCore().getNum();
+        long currentCycle = thread.getCycleAccurateEventQueue().getCurrentCycle();
+
+        for (int i = 0; i < this.nextCyclesOfCores.length(); i++) {
+            if (i == coreNum) {
+                continue;
+            }
+
+            long nextCycle = i < coreNum ? currentCycle + 1 : currentCycle;
+
+            while (this.nextCyclesOfCores.get(i) < nextCycle) {
+                if (this.aborted) {
+                    throw new IllegalStateException("Parallel detailed simulation aborted");
+                }
+
+                java.lang.Thread.yield();
+            }
+        }
+    }
+
+    @Override
+    public boolean offer(CycleAccurateEventQueue queue, Object sender, Runnable action, int delay) {
+        Partition partition = this.currentPartition.get();
+
+        if (partition == null || queue == partition.cycleAccurateEventQueue) {
+            return false;
+        }
+
+        Partition partitionTo = this.queuesToPartitions.get(queue);
+
+        if (partitionTo == null) {
+            throw new IllegalArgumentException();
+        }
+
+        CrossPartitionEvent event = new CrossPartitionEvent(queue, sender, action, partition.cycleAccurateEventQueue.getCurrentCycle() + delay);
+
+        partition.channels.get(partitionTo.num).add(event);
+        partition.journal.add(event);
+
+        return true;
+    }
+
+    @Override
+    public void onScheduled(CycleAccurateEventQueue queue, CycleAccurateEvent event) {
+        Partition partition = this.currentPartition.get();
+
+        if (partition != null) {
+            partition.journal.add(event);
+        }
+    }
+
+    @Override
+    public void onTakingPlace(CycleAccurateEventQueue queue, CycleAccurateEvent event) {
+        Partition partition = this.currentPartition.get();
+
+        if (partition != null) {
+            partition.journal.add(new JournalEntry(JournalEntry.EVENT, queue.getCurrentCycle(), event));
+        }
+    }
+
+    @Override
+    public void onPerCycleEventsTakingPlace(CycleAccurateEventQueue queue) {
+        Partition partition = this.currentPartition.get();
+
+        if (partition != null) {
+            partition.journal.add(new JournalEntry(JournalEntry.PER_CYCLE_EVENTS, queue.getCurrentCycle(), null));
+        }
+    }
+
+    /**
+     * Deliver the specified cross partition event to its destination queue, delaying it if the queue has already advanced past it.
+     *
+     * @param event the cross partition event
+     */
+    private void deliver(CrossPartitionEvent event) {
+        long when = event.when;
+        long currentCycle = event.queue.getCurrentCycle();
+
+        if (when < currentCycle) {
+            long delay = currentCycle - when;
+
+            this.numDelayedCrossPartitionEvents++;
+            this.totalCrossPartitionEventDelay += delay;
+            this.maxCrossPartitionEventDelay = Math.max(this.maxCrossPartitionEventDelay, delay);
+
+            when = currentCycle;
+        }
+
+        event.queue.scheduleAt(event.sender, event.action, when, event.id);
+
+        this.numCrossPartitionEvents++;
+    }
+
+    @Override
+    public void dumpStats(ReportNode reportNode) {
+        reportNode.getChildren().add(new ReportNode(reportNode, "parallelDetailedSimulation") {{
+            getChildren().add(new ReportNode(this, "lookahead", getLookahead() + ""));
+            getChildren().add(new ReportNode(this, "quantum", getQuantum() + ""));
+            getChildren().add(new ReportNode(this, "numQuanta", getNumQuanta() + ""));
+            getChildren().add(new ReportNode(this, "numCrossPartitionEvents", getNumCrossPartitionEvents() + ""));
+            getChildren().add(new ReportNode(this, "numDelayedCrossPartitionEvents", getNumDelayedCrossPartitionEvents() + ""));
+            getChildren().add(new ReportNode(this, "totalCrossPartitionEventDelay", getTotalCrossPartitionEventDelay() + ""));
+            getChildren().add(new ReportNode(this, "maxCrossPartitionEventDelay", getMaxCrossPartitionEventDelay() + ""));
+            getChildren().add(new ReportNode(this, "numQuantaWithDeferredContextSwitches", getNumQuantaWithDeferredContextSwitches() + ""));
+        }});
+    }
+
+    /**
+     * Get a value indicating whether the partitions are being advanced in parallel or not.
+     *
+     * @return a value indicating whether the partitions are being advanced in parallel or not
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Get the lookahead, i.e., the minimum number of cycles taken to transfer a message from an L1 cache controller to the L2 cache controller.
+     *
+     * @return the lookahead
+     */
+    public int getLookahead() {
+        return lookahead;
+    }
+
+    /**
+     * Get the maximum number of cycles in a quantum.
+     *
+     * @return the maximum number of cycles in a quantum
+     */
+    public int getQuantum() {
+        return quantum;
+    }
+
+    /**
+     * Get the number of quanta simulated.
+     *
+     * @return the number of quanta simulated
+     */
+    public long getNumQuanta() {
+        return numQuanta;
+    }
+
+    /**
+     * Get the number of events scheduled across partitions.
+     *
+     * @return the number of events scheduled across partitions
+     */
+    public long getNumCrossPartitionEvents() {
+        return numCrossPartitionEvents;
+    }
+
+    /**
+     * Get the number of events scheduled across partitions which are delayed as their destination partitions have advanced past them.
+     *
+     * @return the number of events scheduled across partitions which are delayed
+     */
+    public long getNumDelayedCrossPartitionEvents() {
+        return numDelayedCrossPartitionEvents;
+    }
+
+    /**
+     * Get the total number of cycles by which the events scheduled across partitions are delayed.
+     *
+     * @return the total number of cycles by which the events scheduled across partitions are delayed
+     */
+    public long getTotalCrossPartitionEventDelay() {
+        return totalCrossPartitionEventDelay;
+    }
+
+    /**
+     * Get the maximum number of cycles by which an event scheduled across partitions is delayed.
+     *
+     * @return the maximum number of cycles by which an event scheduled across partitions is delayed
+     */
+    public long getMaxCrossPartitionEventDelay() {
+        return maxCrossPartitionEventDelay;
+    }
+
+    /**
+     * Get the number of quanta longer than one cycle at the end of which the contexts are switched, possibly later than in the serial simulation.
+     *
+     * @return the number of quanta longer than one cycle at the end of which the contexts are switched
+     */
+    public long getNumQuantaWithDeferredContextSwitches() {
+        return numQuantaWithDeferredContextSwitches;
+    }
+
+    /**
+     * Partition of the simulated system, i.e., either a core, its threads and its private L1 cache controllers, driven by a cycle accurate event queue of its own,
+     * or the rest of the simulated system, driven by the shared cycle accurate event queue.
+     */
+    private class Partition {
+        private int num;
+
+        private Core core;
+
+        private List<BasicSimulationObject<?, ?>> members;
+
+        private CycleAccurateEventQueue cycleAccurateEventQueue;
+
+        private List<List<CrossPartitionEvent>> channels;
+
+        private List<Object> journal;
+        private int journalPosition;
+
+        /**
+         * Create a partition for the specified core and move the core, its threads and its private L1 cache controllers into it,
+         * or create the uncore partition if the specified core is null.
+         *
+         * @param core the core, or null for the uncore partition
+         */
+        private Partition(Core core) {
+            CycleAccurateEventQueue sharedCycleAccurateEventQueue = ParallelDetailedSimulationEngine.this.cycleAccurateEventQueue;
+
+            int numCores = simulation.getProcessor().getCores().size();
+
+            this.core = core;
+
+            this.members = new ArrayList<>();
+
+            if (core != null) {
+                this.num = core.getNum();
+
+                this.members.add((BasicSimulationObject<?, ?>) core);
+                for (Thread thread : core.getThreads()) {
+                    this.members.add((BasicSimulationObject<?, ?>) thread);
+                }
+                this.members.add(core.getL1IController());
+                this.members.add(core.getL1DController());
+
+                this.cycleAccurateEventQueue = new CycleAccurateEventQueue(sharedCycleAccurateEventQueue.getType(), sharedCycleAccurateEventQueue.getCurrentCycle());
+            } else {
+                this.num = numCores;
+
+                this.cycleAccurateEventQueue = sharedCycleAccurateEventQueue;
+            }
+
+            this.cycleAccurateEventQueue.setGateway(ParallelDetailedSimulationEngine.this);
+
+            for (BasicSimulationObject<?, ?> member : this.members) {
+                member.setCycleAccurateEventQueue(this.cycleAccurateEventQueue);
+            }
+
+            this.channels = new ArrayList<>();
+            for (int i = 0; i <= numCores; i++) {
+                this.channels.add(new ArrayList<>());
+            }
+
+            this.journal = new ArrayList<>();
+        }
+
+        /**
+         * Advance the partition quantum by quantum on the current host thread until the simulation is stopped.
+         *
+         * @param barrier the barrier at which the partitions wait for each other at the end of each quantum
+         * @throws InterruptedException   if the current host thread is interrupted
+         * @throws BrokenBarrierException if another partition fails
+         */
+        private void run(CyclicBarrier barrier) throws InterruptedException, BrokenBarrierException {
+            try {
+                while (!stopped) {
+                    this.advance(currentQuantum);
+                    barrier.await();
+                }
+            } catch (RuntimeException | Error e) {
+                aborted = true;
+                barrier.reset();
+                throw e;
+            }
+        }
+
+        /**
+         * Advance the partition for the specified number of cycles on the current host thread.
+         *
+         * @param numCycles the number of cycles
+         */
+        private void advance(int numCycles) {
+            currentPartition.set(this);
+
+            try {
+                for (int i = 0; i < numCycles; i++) {
+                    if (this.core != null) {
+                        long currentCycle = this.cycleAccurateEventQueue.getCurrentCycle();
+
+                        this.journal.add(new JournalEntry(JournalEntry.PIPELINE, currentCycle, null));
+                        this.core.doMeasurementOneCycle();
+
+                        nextCyclesOfCores.set(this.num, currentCycle + 1);
+                    }
+
+                    this.cycleAccurateEventQueue.advanceOneCycle();
+                }
+            } finally {
+                currentPartition.remove();
+            }
+        }
+
+        /**
+         * Get the next entry in the journal if it is of the specified type and cycle.
+         *
+         * @param type  the type of the journal entry
+         * @param cycle the cycle
+         * @return the next entry in the journal if it is of the specified type and cycle; otherwise null
+         */
+        private JournalEntry peek(int type, long cycle) {
+            if (this.journalPosition < this.journal.size()) {
+                JournalEntry entry = (JournalEntry) this.journal.get(this.journalPosition);
+
+                if (entry.type == type && entry.cycle == cycle) {
+                    return entry;
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Replay the next entry in the journal if it is of the specified type and cycle,
+         * giving the events scheduled until the following entry the next event IDs.
+         *
+         * @param type  the type of the journal entry
+         * @param cycle the cycle
+         */
+        private void replay(int type, long cycle) {
+            if (this.peek(type, cycle) == null) {
+                return;
+            }
+
+            for (this.journalPosition++; this.journalPosition < this.journal.size(); this.journalPosition++) {
+                Object scheduledEvent = this.journal.get(this.journalPosition);
+
+                if (scheduledEvent instanceof CycleAccurateEvent) {
+                    ((CycleAccurateEvent) scheduledEvent).setId(nextEventId++);
+                } else if (scheduledEvent instanceof CrossPartitionEvent) {
+                    ((CrossPartitionEvent) scheduledEvent).id = nextEventId++;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Clear the journal once it has been replayed.
+         */
+        private void clearJournal() {
+            if (this.journalPosition != this.journal.size()) {
+                throw new IllegalStateException(String.format("Journal of partition %d not replayed to the end: %s", this.num, this.journal.get(this.journalPosition)));
+            }
+
+            this.journal.clear();
+            this.journalPosition = 0;
+        }
+
+        /**
+         * Deliver the events buffered in the channel to the specified destination partition.
+         *
+         * @param to the destination partition
+         */
+        private void flush(Partition to) {
+            List<CrossPartitionEvent> channel = this.channels.get(to.num);
+
+            for (CrossPartitionEvent event : channel) {
+                deliver(event);
+            }
+
+            channel.clear();
+        }
+
+        /**
+         * Move the members and the pending events of the partition back to the shared cycle accurate event queue.
+         */
+        private void close() {
+            CycleAccurateEventQueue sharedCycleAccurateEventQueue = ParallelDetailedSimulationEngine.this.cycleAccurateEventQueue;
+
+            for (BasicSimulationObject<?, ?> member : this.members) {
+                member.setCycleAccurateEventQueue(sharedCycleAccurateEventQueue);
+            }
+
+            this.cycleAccurateEventQueue.setGateway(null);
+
+            if (this.cycleAccurateEventQueue != sharedCycleAccurateEventQueue) {
+                this.cycleAccurateEventQueue.moveEventsTo(sharedCycleAccurateEventQueue);
+            }
+        }
+    }
+
+    /**
+     * Entry in the journal of a partition, after which the events scheduled along the way are journaled.
+     */
+    private static class JournalEntry {
+        /**
+         * The pipeline of the core is advanced.
+         */
+        private static final int PIPELINE = 0;
+
+        /**
+         * An event takes place.
+         */
+        private static final int EVENT = 1;
+
+        /**
+         * The per-cycle events take place.
+         */
+        private static final int PER_CYCLE_EVENTS = 2;
+
+        private int type;
+        private long cycle;
+        private CycleAccurateEvent event;
+
+        /**
+         * Create an entry in the journal of a partition.
+         *
+         * @param type  the type of the journal entry
+         * @param cycle the cycle
+         * @param event the event taking place if any
+         */
+        private JournalEntry(int type, long cycle, CycleAccurateEvent event) {
+            this.type = type;
+            this.cycle = cycle;
+            this.event = event;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("JournalEntry{type=%d, cycle=%d, event=%s}", type, cycle, event);
+        }
+    }
+
+    /**
+     * Event scheduled across partitions.
+     */
+    private static class CrossPartitionEvent {
+        private CycleAccurateEventQueue queue;
+        private Object sender;
+        private Runnable action;
+        private long when;
+        private long id;
+
+        /**
+         * Create an event scheduled across partitions.
+         *
+         * @param queue  the destination cycle accurate event queue
+         * @param sender the event sender
+         * @param action the action that is to be performed when the event takes place
+         * @param when   the cycle at which the event takes place
+         */
+        private CrossPartitionEvent(CycleAccurateEventQueue queue, Object sender, Runnable action, long when) {
+            this.queue = queue;
+            this.sender = sender;
+            this.action = action;
+            this.when = when;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.common;
+
+import archimulator.common.report.ReportNode;
+import archimulator.core.Thread;
+import archimulator.util.event.BlockingEvent;
+import archimulator.util.event.BlockingEventDispatcher;
+import archimulator.util.event.CycleAccurateEventQueue;
+import org.apache.commons.math3.distribution.TDistribution;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sampled simulation in the style of SMARTS. Each sample fast forwards, warms up the caches, simulates a few instructions in detail
+ * to fill the pipeline, and then measures a sampling unit in detail. The per-sample metrics are aggregated into means and confidence intervals,
+ * and the simulation stops once the relative error of the mean CPI reaches the target error bound.
+ *
+ * @author Min Cai
+ */
+public class SampledSimulation extends Simulation {
+    /**
+     * Sampled metric.
+     */
+    private class SampledMetric {
+        private List<Double> values;
+        private SummaryStatistics statistics;
+
+        /**
+         * Create a sampled metric.
+         */
+        private SampledMetric() {
+            this.values = new ArrayList<>();
+            this.statistics = new SummaryStatistics();
+        }
+
+        /**
+         * Add the value of the specified sample.
+         *
+         * @param value the value of the sample
+         */
+        private void addValue(double value) {
+            this.values.add(value);
+            this.statistics.addValue(value);
+        }
+
+        /**
+         * Get the half width of the confidence interval of the mean.
+         *
+         * @return the half width of the confidence interval of the mean
+         */
+        private double getConfidenceIntervalHalfWidth() {
+            long n = this.statistics.getN();
+
+            if (n < 2) {
+                return Double.NaN;
+            }
+
+            double t = new TDistribution(n - 1).inverseCumulativeProbability((1 + getExperiment().getConfig().getSamplingConfidenceLevel()) / 2);
+            return t * this.statistics.getStandardDeviation() / Math.sqrt(n);
+        }
+
+        /**
+         * Get the relative error of the mean.
+         *
+         * @return the relative error of the mean
+         */
+        private double getRelativeError() {
+            return this.getConfidenceIntervalHalfWidth() / Math.abs(this.statistics.getMean());
+        }
+
+        /**
+         * Dump the statistics of the metric under the specified report node.
+         *
+         * @param reportNode the report node
+         * @param name       the name of the metric
+         */
+        private void dumpStats(ReportNode reportNode, String name) {
+            double halfWidth = this.getConfidenceIntervalHalfWidth();
+
+            reportNode.getChildren().add(new ReportNode(reportNode, name + "/mean", this.statistics.getMean() + ""));
+            reportNode.getChildren().add(new ReportNode(reportNode, name + "/standardDeviation", this.statistics.getStandardDeviation() + ""));
+            reportNode.getChildren().add(new ReportNode(reportNode, name + "/confidenceIntervalLowerBound", (this.statistics.getMean() - halfWidth) + ""));
+            reportNode.getChildren().add(new ReportNode(reportNode, name + "/confidenceIntervalUpperBound", (this.statistics.getMean() + halfWidth) + ""));
+            reportNode.getChildren().add(new ReportNode(reportNode, name + "/relativeError", this.getRelativeError() + ""));
+
+            for (int i = 0; i < this.values.size(); i++) {
+                reportNode.getChildren().add(new ReportNode(reportNode, String.format("%s/%d", name, i), this.values.get(i) + ""));
+            }
+        }
+    }
+
+    /**
+     * Snapshot of the counters at the beginning or the end of a sampling unit.
+     */
+    private class Snapshot {
+        private long currentCycle;
+        private long numMainThreadInstructions;
+        private long numInstructions;
+        private long numL2Misses;
+        private Map<String, Double> stats;
+
+        /**
+         * Create a snapshot of the counters.
+         */
+        private Snapshot() {
+            this.currentCycle = getCycleAccurateEventQueue().getCurrentCycle();
+            this.numMainThreadInstructions = getProcessor().getC0t0NumInstructions();
+            this.numInstructions = getProcessor().getNumInstructions();
+            this.numL2Misses = getProcessor().getMemoryHierarchy().getL2Controller().getNumDownwardMisses();
+
+            this.stats = new HashMap<>();
+
+            if (!statMetrics.isEmpty()) {
+                buildReport().traverse(node -> {
+                    if (statMetrics.containsKey(node.getPath())) {
+                        try {
+                            stats.put(node.getPath(), Double.parseDouble(node.getValue()));
+                        } catch (NumberFormatException e) {
+                            stats.put(node.getPath(), Double.NaN);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private long phaseEnd;
+
+    private SampledMetric cpi;
+    private SampledMetric ipc;
+    private SampledMetric l2Mpki;
+
+    private Map<String, SampledMetric> statMetrics;
+
+    private boolean targetRelativeErrorReached;
+
+    /**
+     * Create a sampled simulation.
+     *
+     * @param experiment              the parent experiment
+     * @param blockingEventDispatcher the blocking event dispatcher
+     * @param cycleAccurateEventQueue the cycle accurate event queue
+     */
+    public SampledSimulation(CPUExperiment experiment, BlockingEventDispatcher<BlockingEvent> blockingEventDispatcher, CycleAccurateEventQueue cycleAccurateEventQueue) {
+        super(SimulationType.MEASUREMENT, experiment, blockingEventDispatcher, cycleAccurateEventQueue, null);
+
+        this.cpi = new SampledMetric();
+        this.ipc = new SampledMetric();
+        this.l2Mpki = new SampledMetric();
+
+        this.statMetrics = new LinkedHashMap<>();
+        for (String statPath : experiment.getConfig().getSamplingStatPaths()) {
+            this.statMetrics.put(statPath, new SampledMetric());
+        }
+    }
+
+    /**
+     * Get a value indicating whether it can do fast forward for one cycle or not.
+     *
+     * @return a value indicating whether it can do fast forward for one cycle or not
+     */
+    @Override
+    public boolean canDoFastForwardOneCycle() {
+        return this.getProcessor().getC0t0NumInstructions() < this.phaseEnd;
+    }
+
+    /**
+     * Get a value indicating whether it can do warmup for one cycle or not.
+     *
+     * @return a value indicating whether it can do warmup for one cycle or not
+     */
+    @Override
+    public boolean canDoWarmupOneCycle() {
+        return this.getProcessor().getC0t0NumInstructions() < this.phaseEnd;
+    }
+
+    /**
+     * Get a value indicating whether it can do measurement for one cycle or not.
+     *
+     * @return a value indicating whether it can do measurement for one cycle or not
+     */
+    @Override
+    public boolean canDoMeasurementOneCycle() {
+        return this.getProcessor().getC0t0NumInstructions() < this.phaseEnd;
+    }
+
+    /**
+     * Begin the simulation.
+     */
+    @Override
+    public void beginSimulation() {
+    }
+
+    /**
+     * End the simulation.
+     */
+    @Override
+    public void endSimulation() {
+    }
+
+    /**
+     * Do measurement by taking samples on the systematic schedule until the target error bound, the maximum number of instructions or the end of the workload is reached.
+     */
+    @Override
+    public void doMeasurement() {
+        CPUExperimentConfig config = this.getExperiment().getConfig();
+
+        long fastForwardLength = Math.max(0, config.getSamplingPeriod() - config.getSamplingWarmupLength() - config.getSamplingDetailedWarmupLength() - config.getSamplingUnitLength());
+
+        while (!this.getProcessor().getKernel().getContexts().isEmpty() && !this.targetRelativeErrorReached
+                && (config.getNumMaxInstructions() == -1 || this.getProcessor().getC0t0NumInstructions() < config.getNumMaxInstructions())) {
+            if (!this.doPhase(SimulationType.FAST_FORWARD, fastForwardLength)
+                    || !this.doPhase(SimulationType.WARMUP, config.getSamplingWarmupLength())
+                    || !this.doPhase(SimulationType.MEASUREMENT, config.getSamplingDetailedWarmupLength())) {
+                break;
+            }
+
+            Snapshot begin = new Snapshot();
+
+            if (!this.doPhase(SimulationType.MEASUREMENT, config.getSamplingUnitLength())) {
+                break;
+            }
+
+            this.addSample(begin, new Snapshot());
+
+            if (config.getSamplingTargetRelativeError() > 0 && this.cpi.statistics.getN() >= Math.max(2, config.getSamplingMinNumSamples())
+                    && this.cpi.getRelativeError() <= config.getSamplingTargetRelativeError()) {
+                this.targetRelativeErrorReached = true;
+
+                Logger.infof(
+                        Logger.SIMULATION, "Target relative error of the mean CPI reached after %d samples: %s.",
+                        this.getCycleAccurateEventQueue().getCurrentCycle(), this.cpi.statistics.getN(), this.cpi.getRelativeError()
+                );
+            }
+        }
+    }
+
+    /**
+     * Run the specified number of main thread instructions in the specified mode.
+     *
+     * @param type            the simulation mode
+     * @param numInstructions the number of main thread instructions
+     * @return a value indicating whether all the instructions have been run or not
+     */
+    private boolean doPhase(SimulationType type, long numInstructions) {
+        if (numInstructions <= 0) {
+            return true;
+        }
+
+        if (this.getType() != type) {
+            this.getProcessor().getThreads().forEach(Thread::flushPipeline);
+            this.setType(type);
+        }
+
+        long numMaxInstructions = this.getExperiment().getConfig().getNumMaxInstructions();
+
+        this.phaseEnd = this.getProcessor().getC0t0NumInstructions() + numInstructions;
+
+        boolean truncated = numMaxInstructions != -1 && numMaxInstructions < this.phaseEnd;
+        if (truncated) {
+            this.phaseEnd = numMaxInstructions;
+        }
+
+        switch (type) {
+            case FAST_FORWARD:
+                this.doFastForward();
+                break;
+            case WARMUP:
+                this.doWarmup();
+                break;
+            case MEASUREMENT:
+                super.doMeasurement();
+                break;
+            default:
+                throw new IllegalArgumentException();
+        }
+
+        return !truncated && this.getProcessor().getC0t0NumInstructions() >= this.phaseEnd;
+    }
+
+    /**
+     * Add a sample measured between the specified snapshots.
+     *
+     * @param begin the snapshot at the beginning of the sampling unit
+     * @param end   the snapshot at the end of the sampling unit
+     */
+    private void addSample(Snapshot begin, Snapshot end) {
+        long numCycles = end.currentCycle - begin.currentCycle;
+        long numInstructions = end.numInstructions - begin.numInstructions;
+
+        this.cpi.addValue((double) numCycles / (end.numMainThreadInstructions - begin.numMainThreadInstructions));
+        this.ipc.addValue((double) numInstructions / numCycles);
+        this.l2Mpki.addValue((double) (end.numL2Misses - begin.numL2Misses) / ((double) numInstructions / 1000));
+
+        this.statMetrics.forEach((statPath, statMetric) -> statMetric.addValue((end.stats.getOrDefault(statPath, Double.NaN) - begin.stats.getOrDefault(statPath, Double.NaN)) / ((double) numInstructions / 1000)));
+    }
+
+    @Override
+    public void dumpStats(ReportNode reportNode) {
+        super.dumpStats(reportNode);
+
+        reportNode.getChildren().add(new ReportNode(reportNode, "sampling") {{
+            getChildren().add(new ReportNode(this, "numSamples", cpi.statistics.getN() + ""));
+            getChildren().add(new ReportNode(this, "confidenceLevel", getExperiment().getConfig().getSamplingConfidenceLevel() + ""));
+            getChildren().add(new ReportNode(this, "targetRelativeError", getExperiment().getConfig().getSamplingTargetRelativeError() + ""));
+            getChildren().add(new ReportNode(this, "targetRelativeErrorReached", targetRelativeErrorReached + ""));
+
+            cpi.dumpStats(this, "cpi");
+            ipc.dumpStats(this, "ipc");
+            l2Mpki.dumpStats(this, "l2Mpki");
+
+            statMetrics.forEach((statPath, statMetric) -> statMetric.dumpStats(this, "stats/" + statPath + "/perKiloInstructions"));
+        }});
+    }
+
+    /**
+     * Get the title prefix.
+     *
+     * @return the title prefix
+     */
+    @Override
+    public String getPrefix() {
+        return "sampled";
+    }
+}
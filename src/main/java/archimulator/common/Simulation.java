@@ -50,12 +50,15 @@ import archimulator.util.dateTime.DateHelper;
 import archimulator.util.event.BlockingEvent;
 import archimulator.util.event.BlockingEventDispatcher;
 import archimulator.util.event.CycleAccurateEventQueue;
+import archimulator.util.event.Quiescent;
 import org.apache.commons.lang.time.DurationFormatUtils;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Simulation.
@@ -103,25 +106,27 @@ public abstract class Simulation implements SimulationObject<CPUExperiment, Simu
 
     private IntervalHelper intervalHelper;
 
+    private ParallelDetailedSimulationEngine parallelDetailedSimulationEngine;
+
     /**
      * Current (max) dynamic instruction ID.
      */
-    public long currentDynamicInstructionId;
+    public final AtomicLong currentDynamicInstructionId = new AtomicLong();
 
     /**
      * Current (max) reorder buffer entry ID.
      */
-    public long currentReorderBufferEntryId;
+    public final AtomicLong currentReorderBufferEntryId = new AtomicLong();
 
     /**
      * Current (max) decode buffer entry ID.
      */
-    public long currentDecodeBufferEntryId;
+    public final AtomicLong currentDecodeBufferEntryId = new AtomicLong();
 
     /**
      * Current (max) memory hierarchy access ID.
      */
-    public long currentMemoryHierarchyAccessId;
+    public final AtomicLong currentMemoryHierarchyAccessId = new AtomicLong();
 
     /**
      * Current (max) net message ID.
@@ -129,12 +134,12 @@ public abstract class Simulation implements SimulationObject<CPUExperiment, Simu
     public long currentNetMessageId;
 
     /**
-     * Current (max) cache coherence flow ID.
+     * Current (max) cache coherence flow ID, guarded by the list of pending cache coherence flows when the cores are simulated in parallel.
      */
     public long currentCacheCoherenceFlowId;
 
     /**
-     * Pending cache coherence flows.
+     * Pending cache coherence flows, which also guards the bookkeeping of the cache coherence flows when the cores are simulated in parallel.
      */
     public List<CacheCoherenceFlow> pendingFlows = new ArrayList<>();
 
@@ -216,6 +221,8 @@ public abstract class Simulation implements SimulationObject<CPUExperiment, Simu
             this.endTime = DateHelper.toTick(new Date());
             this.collectStats();
 
+            this.getProcessor().getThreads().forEach(Thread::closeInstructionTrace);
+
             this.endSimulation();
 
             Logger.info(Logger.SIMULATION, "Simulation aborted with errors.", this.getCycleAccurateEventQueue().getCurrentCycle());
@@ -228,6 +235,8 @@ public abstract class Simulation implements SimulationObject<CPUExperiment, Simu
 
         Logger.info(Logger.SIMULATION, "Simulation completed successfully.", this.getCycleAccurateEventQueue().getCurrentCycle());
 
+        this.getProcessor().getThreads().forEach(Thread::closeInstructionTrace);
+
         this.endSimulation();
     }
 
@@ -237,6 +246,23 @@ public abstract class Simulation implements SimulationObject<CPUExperiment, Simu
     private void collectStats() {
         final List<ExperimentStat> stats = new ArrayList<>();
 
+        ReportNode rootReportNode = this.buildReport();
+
+        rootReportNode.traverse(node -> stats.add(new ExperimentStat(getPrefix(), node.getPath(), node.getValue())));
+
+        if (this.getType() == SimulationType.MEASUREMENT || this.getType() == SimulationType.WARMUP) {
+            getProcessor().getMemoryHierarchy().dumpCacheControllerFsmStats(stats);
+        }
+
+        this.getExperiment().getStats().addAll(stats);
+    }
+
+    /**
+     * Build the report tree of the statistics of the simulation and its components.
+     *
+     * @return the root node of the report tree
+     */
+    protected ReportNode buildReport() {
         ReportNode rootReportNode = new ReportNode(null, "");
 
         this.dumpStats(rootReportNode);
@@ -279,13 +305,7 @@ public abstract class Simulation implements SimulationObject<CPUExperiment, Simu
 
         this.getProcessor().getMemoryHierarchy().getL2Controller().getCache().getReplacementPolicy().dumpStats(rootReportNode);
 
-        rootReportNode.traverse(node -> stats.add(new ExperimentStat(getPrefix(), node.getPath(), node.getValue())));
-
-        if (this.getType() == SimulationType.MEASUREMENT || this.getType() == SimulationType.WARMUP) {
-            getProcessor().getMemoryHierarchy().dumpCacheControllerFsmStats(stats);
-        }
-
-        this.getExperiment().getStats().addAll(stats);
+        return rootReportNode;
     }
 
     /**
@@ -349,6 +369,16 @@ public abstract class Simulation implements SimulationObject<CPUExperiment, Simu
     public void doMeasurement() {
         Logger.info(Logger.SIMULATION, "Switched to measurement mode.", this.getCycleAccurateEventQueue().getCurrentCycle());
 
+        if (this.getExperiment().getConfig().isParallelDetailedSimulationEnabled()) {
+            if (this.getExperiment().getConfig().isDeterministicSimulationEnabled() || this.getExperiment().getConfig().isDynamicSpeculativePrecomputationEnabled()) {
+                Logger.info(Logger.SIMULATION, "Falling back to lockstep simulation of the cores.", this.getCycleAccurateEventQueue().getCurrentCycle());
+            } else {
+                this.parallelDetailedSimulationEngine = new ParallelDetailedSimulationEngine(this);
+                this.parallelDetailedSimulationEngine.run();
+                return;
+            }
+        }
+
         while (!this.getProcessor().getKernel().getContexts().isEmpty() && this.canDoMeasurementOneCycle()) {
             this.getProcessor().getCores().forEach(Core::doMeasurementOneCycle);
             this.advanceOneCycle();
@@ -361,6 +391,10 @@ public abstract class Simulation implements SimulationObject<CPUExperiment, Simu
     private void advanceOneCycle() {
         this.doHouseKeeping();
         this.getCycleAccurateEventQueue().advanceOneCycle();
+
+        if (this.getType() != SimulationType.FAST_FORWARD && this.getExperiment().getConfig().isIdleCycleSkippingEnabled()) {
+            this.getCycleAccurateEventQueue().skipIdleCycles(Quiescent.NEVER, Collections.singletonList(this.getProcessor()));
+        }
     }
 
     /**
@@ -421,9 +455,32 @@ public abstract class Simulation implements SimulationObject<CPUExperiment, Simu
             getChildren().add(new ReportNode(this, "durationInSeconds", getDurationInSeconds() + ""));
 
             getChildren().add(new ReportNode(this, "cycleAccurateEventQueue/currentCycle", getCycleAccurateEventQueue().getCurrentCycle() + ""));
+            getChildren().add(new ReportNode(this, "cycleAccurateEventQueue/numSkippedIdleCycles", getCycleAccurateEventQueue().getNumSkippedIdleCycles() + ""));
+
+            if (parallelDetailedSimulationEngine != null) {
+                parallelDetailedSimulationEngine.dumpStats(this);
+            }
         }});
     }
 
+    /**
+     * Get the parallel detailed simulation engine.
+     *
+     * @return the parallel detailed simulation engine if the cores are simulated in parallel in the measurement mode; otherwise null
+     */
+    public ParallelDetailedSimulationEngine getParallelDetailedSimulationEngine() {
+        return parallelDetailedSimulationEngine;
+    }
+
+    /**
+     * Get a value indicating whether the cores are being simulated in parallel or not.
+     *
+     * @return a value indicating whether the cores are being simulated in parallel or not
+     */
+    public boolean isSimulatingCoresInParallel() {
+        return parallelDetailedSimulationEngine != null && parallelDetailedSimulationEngine.isRunning();
+    }
+
     /**
      * Get the simulation type.
      *
@@ -433,6 +490,15 @@ public abstract class Simulation implements SimulationObject<CPUExperiment, Simu
         return type;
     }
 
+    /**
+     * Set the simulation type. It is used by the simulations which switch between the fast forward, warmup and measurement modes.
+     *
+     * @param type the simulation type
+     */
+    protected void setType(SimulationType type) {
+        this.type = type;
+    }
+
     /**
      * Get the time in ticks when the simulation begins.
      *
@@ -22,11 +22,15 @@ package archimulator.common;
 
 import archimulator.isa.event.PseudoCallEncounteredEvent;
 import archimulator.os.Kernel;
+import archimulator.os.KernelCheckpoint;
 import archimulator.util.Reference;
 import archimulator.util.event.BlockingEvent;
 import archimulator.util.event.BlockingEventDispatcher;
 import archimulator.util.event.CycleAccurateEventQueue;
 
+import java.io.File;
+import java.io.IOException;
+
 /**
  * "To ROI" fast forward simulation.
  *
@@ -97,6 +101,16 @@ public class ToRoiFastForwardSimulation extends Simulation {
     @Override
     public void endSimulation() {
         this.kernelRef.set(this.getProcessor().getKernel());
+
+        String roiCheckpointFile = getExperiment().getConfig().getRoiCheckpointFile();
+        if (pthreadHasSpawned && roiCheckpointFile != null && !KernelCheckpoint.matches(getExperiment().getConfig(), new File(roiCheckpointFile))) {
+            try {
+                KernelCheckpoint.save(this.getProcessor().getKernel(), getExperiment().getConfig(), new File(roiCheckpointFile));
+                Logger.infof(Logger.ROI, "ROI checkpoint saved to %s.", this.getCycleAccurateEventQueue().getCurrentCycle(), roiCheckpointFile);
+            } catch (IOException | IllegalStateException e) {
+                Logger.warnf(Logger.ROI, "Cannot save ROI checkpoint to %s: %s.", this.getCycleAccurateEventQueue().getCurrentCycle(), roiCheckpointFile, e.getMessage());
+            }
+        }
     }
 
     /**
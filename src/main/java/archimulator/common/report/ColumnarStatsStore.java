@@ -0,0 +1,653 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.common.report;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Columnar statistics store, i.e., an append-only binary file holding the statistics of many experiments, one row per
+ * experiment and one column per statistic path.
+ *
+ * Each append writes a segment in which the values of each column are laid out contiguously and typed: the values
+ * that round-trip losslessly through a long or a double are stored as such, and the others as indices into the string
+ * table of the segment. The segments are memory-mapped on reading, so that looking up a few statistics of many
+ * experiments touches only the columns involved. A later row with the same key supersedes the earlier ones.
+ *
+ * Besides the statistics, each row may carry metadata, e.g., when its statistics are read, which are kept apart from
+ * the statistic columns and hence never show up as statistics.
+ *
+ * @author Min Cai
+ */
+public class ColumnarStatsStore {
+    /**
+     * Column type.
+     */
+    public enum ColumnType {
+        /**
+         * Long.
+         */
+        LONG,
+
+        /**
+         * Double.
+         */
+        DOUBLE,
+
+        /**
+         * String.
+         */
+        STRING
+    }
+
+    private static final int MAGIC = 0x41525354;
+
+    private static final long MISSING_LONG = Long.MIN_VALUE;
+
+    private static final long MISSING_DOUBLE = 0x7ff80000deadbeefL;
+
+    private static final int MISSING_STRING = -1;
+
+    private List<Segment> segments;
+
+    private Map<String, Location> rows;
+
+    private Map<String, ColumnType> columnTypes;
+
+    /**
+     * Open the specified columnar statistics store file for reading.
+     *
+     * @param file the columnar statistics store file
+     */
+    public ColumnarStatsStore(File file) {
+        this.segments = new ArrayList<>();
+        this.rows = new LinkedHashMap<>();
+        this.columnTypes = new LinkedHashMap<>();
+
+        if (!file.exists()) {
+            return;
+        }
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            FileChannel channel = randomAccessFile.getChannel();
+
+            long size = channel.size();
+
+            for (long position = 0; position + 8 <= size; ) {
+                ByteBuffer header = ByteBuffer.allocate(8);
+                channel.read(header, position);
+                header.flip();
+
+                if (header.getInt() != MAGIC) {
+                    throw new IllegalArgumentException(String.format("Corrupted columnar statistics store %s at %d", file, position));
+                }
+
+                int length = header.getInt();
+
+                if (position + 8 + length > size) {
+                    break;
+                }
+
+                Segment segment = new Segment(channel.map(FileChannel.MapMode.READ_ONLY, position + 8, length));
+
+                for (int row = 0; row < segment.rowKeys.length; row++) {
+                    this.rows.remove(segment.rowKeys[row]);
+                    this.rows.put(segment.rowKeys[row], new Location(segment, row));
+                }
+
+                for (Column column : segment.columns.values()) {
+                    ColumnType existingType = this.columnTypes.get(column.path);
+                    this.columnTypes.put(column.path, existingType == null ? column.type : widen(existingType, column.type));
+                }
+
+                this.segments.add(segment);
+
+                position += 8 + length;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Append the specified rows of statistics to the specified columnar statistics store file as a new segment.
+     *
+     * @param file the columnar statistics store file
+     * @param rows the map of the rows of statistics, keyed by the row keys
+     */
+    public static void append(File file, Map<String, ? extends Map<String, ?>> rows) {
+        append(file, rows, Collections.emptyMap());
+    }
+
+    /**
+     * Append the specified rows of statistics together with their metadata to the specified columnar statistics store
+     * file as a new segment.
+     *
+     * @param file     the columnar statistics store file
+     * @param rows     the map of the rows of statistics, keyed by the row keys
+     * @param metadata the map of the metadata of the rows, keyed by the row keys
+     */
+    public static void append(File file, Map<String, ? extends Map<String, ?>> rows, Map<String, ? extends Map<String, String>> metadata) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        byte[] segment = encode(rows, metadata);
+
+        File dir = file.getAbsoluteFile().getParentFile();
+
+        if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            throw new RuntimeException(String.format("Cannot create the directory %s", dir));
+        }
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            FileChannel channel = randomAccessFile.getChannel();
+
+            FileLock lock = channel.lock();
+
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(8 + segment.length);
+                buffer.putInt(MAGIC);
+                buffer.putInt(segment.length);
+                buffer.put(segment);
+                buffer.flip();
+
+                long position = channel.size();
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+
+                channel.force(false);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Encode the specified rows of statistics and their metadata into a segment.
+     *
+     * @param rows     the map of the rows of statistics, keyed by the row keys
+     * @param metadata the map of the metadata of the rows, keyed by the row keys
+     * @return the encoded segment
+     */
+    private static byte[] encode(Map<String, ? extends Map<String, ?>> rows, Map<String, ? extends Map<String, String>> metadata) {
+        List<String> rowKeys = new ArrayList<>(rows.keySet());
+
+        Map<String, ColumnType> columnTypes = new LinkedHashMap<>();
+
+        for (Map<String, ?> row : rows.values()) {
+            for (Map.Entry<String, ?> entry : row.entrySet()) {
+                if (entry.getValue() != null) {
+                    ColumnType type = getType(entry.getValue().toString());
+                    ColumnType existingType = columnTypes.get(entry.getKey());
+                    columnTypes.put(entry.getKey(), existingType == null ? type : widen(existingType, type));
+                }
+            }
+        }
+
+        Map<String, Integer> strings = new LinkedHashMap<>();
+
+        for (String rowKey : rowKeys) {
+            intern(strings, rowKey);
+        }
+
+        for (String path : columnTypes.keySet()) {
+            intern(strings, path);
+        }
+
+        for (String rowKey : rowKeys) {
+            for (Map.Entry<String, String> entry : getMetadata(metadata, rowKey).entrySet()) {
+                intern(strings, entry.getKey());
+                intern(strings, entry.getValue());
+            }
+        }
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(data)) {
+            for (Map.Entry<String, ColumnType> column : columnTypes.entrySet()) {
+                for (String rowKey : rowKeys) {
+                    Object value = rows.get(rowKey).get(column.getKey());
+                    String text = value != null ? value.toString() : null;
+
+                    switch (column.getValue()) {
+                        case LONG:
+                            out.writeLong(text != null ? Long.parseLong(text) : MISSING_LONG);
+                            break;
+                        case DOUBLE:
+                            out.writeLong(text != null ? Double.doubleToRawLongBits(Double.parseDouble(text)) : MISSING_DOUBLE);
+                            break;
+                        case STRING:
+                            out.writeInt(text != null ? intern(strings, text) : MISSING_STRING);
+                            break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        ByteArrayOutputStream segment = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(segment)) {
+            out.writeInt(rowKeys.size());
+            out.writeInt(columnTypes.size());
+            out.writeInt(strings.size());
+
+            for (String string : strings.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            for (String rowKey : rowKeys) {
+                out.writeInt(strings.get(rowKey));
+
+                Map<String, String> rowMetadata = getMetadata(metadata, rowKey);
+                out.writeInt(rowMetadata.size());
+
+                for (Map.Entry<String, String> entry : rowMetadata.entrySet()) {
+                    out.writeInt(strings.get(entry.getKey()));
+                    out.writeInt(strings.get(entry.getValue()));
+                }
+            }
+
+            long offset = 0;
+
+            for (Map.Entry<String, ColumnType> column : columnTypes.entrySet()) {
+                out.writeInt(strings.get(column.getKey()));
+                out.writeByte(column.getValue().ordinal());
+                out.writeLong(offset);
+                offset += (long) rowKeys.size() * (column.getValue() == ColumnType.STRING ? 4 : 8);
+            }
+
+            data.writeTo(out);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        return segment.toByteArray();
+    }
+
+    /**
+     * Get the metadata of the specified row in the specified map of the metadata of the rows.
+     *
+     * @param metadata the map of the metadata of the rows, keyed by the row keys
+     * @param rowKey   the row key
+     * @return the metadata of the specified row, being empty if there is none
+     */
+    private static Map<String, String> getMetadata(Map<String, ? extends Map<String, String>> metadata, String rowKey) {
+        Map<String, String> rowMetadata = metadata.get(rowKey);
+        return rowMetadata != null ? rowMetadata : Collections.emptyMap();
+    }
+
+    /**
+     * Get the narrowest column type representing the specified value losslessly.
+     *
+     * @param value the value
+     * @return the narrowest column type representing the specified value losslessly
+     */
+    private static ColumnType getType(String value) {
+        try {
+            long longValue = Long.parseLong(value);
+
+            if (longValue != MISSING_LONG && Long.toString(longValue).equals(value)) {
+                return ColumnType.LONG;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+
+        try {
+            if (Double.toString(Double.parseDouble(value)).equals(value)) {
+                return ColumnType.DOUBLE;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+
+        return ColumnType.STRING;
+    }
+
+    /**
+     * Get the narrowest column type representing the values of both the specified column types losslessly.
+     *
+     * @param type1 the first column type
+     * @param type2 the second column type
+     * @return the narrowest column type representing the values of both the specified column types losslessly
+     */
+    private static ColumnType widen(ColumnType type1, ColumnType type2) {
+        return type1 == type2 ? type1 : ColumnType.STRING;
+    }
+
+    /**
+     * Get the index of the specified string in the specified string table, adding it if it is not there yet.
+     *
+     * @param strings the string table
+     * @param string  the string
+     * @return the index of the specified string in the specified string table
+     */
+    private static int intern(Map<String, Integer> strings, String string) {
+        Integer index = strings.get(string);
+
+        if (index == null) {
+            index = strings.size();
+            strings.put(string, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Get the list of the row keys.
+     *
+     * @return the list of the row keys
+     */
+    public List<String> getRowKeys() {
+        return new ArrayList<>(this.rows.keySet());
+    }
+
+    /**
+     * Get a value indicating whether the store contains the row of the specified key or not.
+     *
+     * @param rowKey the row key
+     * @return a value indicating whether the store contains the row of the specified key or not
+     */
+    public boolean containsRow(String rowKey) {
+        return this.rows.containsKey(rowKey);
+    }
+
+    /**
+     * Get the set of the statistic paths in any of the rows.
+     *
+     * @return the set of the statistic paths in any of the rows
+     */
+    public Set<String> getPaths() {
+        return Collections.unmodifiableSet(this.columnTypes.keySet());
+    }
+
+    /**
+     * Get the type of the column of the specified statistic path, i.e., the narrowest column type representing its
+     * values in all the segments losslessly.
+     *
+     * @param path the statistic path
+     * @return the type of the column of the specified statistic path if it exists; otherwise null
+     */
+    public ColumnType getColumnType(String path) {
+        return this.columnTypes.get(path);
+    }
+
+    /**
+     * Get the value of the specified metadata key of the specified row.
+     *
+     * @param rowKey the row key
+     * @param key    the metadata key
+     * @return the value of the specified metadata key of the specified row if any exists; otherwise null
+     */
+    public String getMetadata(String rowKey, String key) {
+        Location location = this.rows.get(rowKey);
+        return location != null ? location.segment.metadata.get(location.row).get(key) : null;
+    }
+
+    /**
+     * Get the typed value of the specified statistic in the specified row.
+     *
+     * @param rowKey the row key
+     * @param path   the statistic path
+     * @return the value of the specified statistic in the specified row as a Long, a Double or a String if any exists;
+     * otherwise null
+     */
+    public Object get(String rowKey, String path) {
+        Location location = this.rows.get(rowKey);
+        return location != null ? location.segment.get(location.row, path) : null;
+    }
+
+    /**
+     * Get the value of the specified statistic in the specified row as a long.
+     *
+     * @param rowKey       the row key
+     * @param path         the statistic path
+     * @param defaultValue the default value
+     * @return the value of the specified statistic in the specified row as a long if it is integral; otherwise the
+     * default value
+     */
+    public long getLong(String rowKey, String path, long defaultValue) {
+        Object value = this.get(rowKey, path);
+        return value instanceof Long ? (Long) value : defaultValue;
+    }
+
+    /**
+     * Get the value of the specified statistic in the specified row as a double.
+     *
+     * @param rowKey the row key
+     * @param path   the statistic path
+     * @return the value of the specified statistic in the specified row as a double if it is numeric; otherwise NaN
+     */
+    public double getDouble(String rowKey, String path) {
+        Object value = this.get(rowKey, path);
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+    }
+
+    /**
+     * Get the value of the specified statistic in the specified row as the original text.
+     *
+     * @param rowKey the row key
+     * @param path   the statistic path
+     * @return the value of the specified statistic in the specified row as the original text if any exists; otherwise null
+     */
+    public String getString(String rowKey, String path) {
+        Object value = this.get(rowKey, path);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Get the values of the specified statistic in the specified rows as doubles.
+     *
+     * @param rowKeys the list of the row keys
+     * @param path    the statistic path
+     * @return the values of the specified statistic in the specified rows as doubles, being NaN for the missing or
+     * non-numeric ones
+     */
+    public double[] getDoubles(List<String> rowKeys, String path) {
+        double[] values = new double[rowKeys.size()];
+
+        for (int i = 0; i < rowKeys.size(); i++) {
+            values[i] = this.getDouble(rowKeys.get(i), path);
+        }
+
+        return values;
+    }
+
+    /**
+     * Get the specified row as a map from the statistic paths to the typed values, excluding the metadata.
+     *
+     * @param rowKey the row key
+     * @return the specified row as a map from the statistic paths to the typed values if it exists; otherwise null
+     */
+    public Map<String, Object> getRow(String rowKey) {
+        Location location = this.rows.get(rowKey);
+
+        if (location == null) {
+            return null;
+        }
+
+        Map<String, Object> row = new LinkedHashMap<>();
+
+        for (String path : location.segment.columns.keySet()) {
+            Object value = location.segment.get(location.row, path);
+
+            if (value != null) {
+                row.put(path, value);
+            }
+        }
+
+        return row;
+    }
+
+    /**
+     * The location of a row.
+     */
+    private static class Location {
+        private Segment segment;
+        private int row;
+
+        /**
+         * Create the location of a row.
+         *
+         * @param segment the segment
+         * @param row     the row index in the segment
+         */
+        private Location(Segment segment, int row) {
+            this.segment = segment;
+            this.row = row;
+        }
+    }
+
+    /**
+     * A memory-mapped segment.
+     */
+    private static class Segment {
+        private MappedByteBuffer buffer;
+        private String[] strings;
+        private String[] rowKeys;
+        private List<Map<String, String>> metadata;
+        private Map<String, Column> columns;
+
+        /**
+         * Create a memory-mapped segment.
+         *
+         * @param buffer the memory-mapped buffer of the segment
+         */
+        private Segment(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+
+            int numRows = buffer.getInt();
+            int numColumns = buffer.getInt();
+            int numStrings = buffer.getInt();
+
+            this.strings = new String[numStrings];
+
+            for (int i = 0; i < numStrings; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                this.strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            this.rowKeys = new String[numRows];
+            this.metadata = new ArrayList<>(numRows);
+
+            for (int i = 0; i < numRows; i++) {
+                this.rowKeys[i] = this.strings[buffer.getInt()];
+
+                int numMetadata = buffer.getInt();
+
+                Map<String, String> rowMetadata = numMetadata > 0 ? new LinkedHashMap<>() : Collections.emptyMap();
+
+                for (int j = 0; j < numMetadata; j++) {
+                    String key = this.strings[buffer.getInt()];
+                    rowMetadata.put(key, this.strings[buffer.getInt()]);
+                }
+
+                this.metadata.add(rowMetadata);
+            }
+
+            List<Column> columns = new ArrayList<>();
+
+            for (int i = 0; i < numColumns; i++) {
+                String path = this.strings[buffer.getInt()];
+                ColumnType type = ColumnType.values()[buffer.get()];
+                long offset = buffer.getLong();
+                columns.add(new Column(path, type, offset));
+            }
+
+            int dataOffset = buffer.position();
+
+            this.columns = new LinkedHashMap<>();
+
+            for (Column column : columns) {
+                column.offset += dataOffset;
+                this.columns.put(column.path, column);
+            }
+        }
+
+        /**
+         * Get the typed value of the specified statistic in the specified row.
+         *
+         * @param row  the row index
+         * @param path the statistic path
+         * @return the value of the specified statistic in the specified row as a Long, a Double or a String if any
+         * exists; otherwise null
+         */
+        private Object get(int row, String path) {
+            Column column = this.columns.get(path);
+
+            if (column == null) {
+                return null;
+            }
+
+            switch (column.type) {
+                case LONG:
+                    long longValue = this.buffer.getLong((int) (column.offset + row * 8L));
+                    return longValue != MISSING_LONG ? longValue : null;
+                case DOUBLE:
+                    long bits = this.buffer.getLong((int) (column.offset + row * 8L));
+                    return bits != MISSING_DOUBLE ? Double.longBitsToDouble(bits) : null;
+                case STRING:
+                    int index = this.buffer.getInt((int) (column.offset + row * 4L));
+                    return index != MISSING_STRING ? this.strings[index] : null;
+                default:
+                    throw new IllegalArgumentException();
+            }
+        }
+    }
+
+    /**
+     * A column in a segment.
+     */
+    private static class Column {
+        private String path;
+        private ColumnType type;
+        private long offset;
+
+        /**
+         * Create a column in a segment.
+         *
+         * @param path   the statistic path
+         * @param type   the column type
+         * @param offset the offset of the values in the segment
+         */
+        private Column(String path, ColumnType type, long offset) {
+            this.path = path;
+            this.type = type;
+            this.offset = offset;
+        }
+    }
+}
@@ -20,13 +20,17 @@
  */
 package archimulator.core;
 
+import archimulator.core.functionalUnit.FunctionalUnitOperationType;
 import archimulator.core.functionalUnit.FunctionalUnitPool;
+import archimulator.core.functionalUnit.FunctionalUnitType;
 import archimulator.uncore.MemoryAccessInitiatedEvent;
 import archimulator.uncore.MemoryHierarchyAccess;
 import archimulator.uncore.MemoryHierarchyAccessType;
 import archimulator.util.math.Counter;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 /**
@@ -46,25 +50,21 @@ public abstract class AbstractBasicCore extends AbstractMemoryHierarchyCore impl
     protected FunctionalUnitPool functionalUnitPool;
 
     /**
-     * The waiting instruction queue.
+     * The ready instruction queues, one per functional unit type plus one for the instructions requiring no functional unit,
+     * each in the order in which the instructions become ready.
      */
-    protected List<AbstractReorderBufferEntry> waitingInstructionQueue;
+    protected List<Deque<AbstractReorderBufferEntry>> readyInstructionQueues;
 
     /**
-     * The ready instruction queue.
+     * The waiting instructions and stores whose operands have become ready since the last wakeup.
      */
-    protected List<AbstractReorderBufferEntry> readyInstructionQueue;
+    protected List<AbstractReorderBufferEntry> wokenUpQueue;
 
     /**
      * The ready load queue.
      */
     protected List<AbstractReorderBufferEntry> readyLoadQueue;
 
-    /**
-     * The waiting store queue.
-     */
-    protected List<AbstractReorderBufferEntry> waitingStoreQueue;
-
     /**
      * The ready store queue.
      */
@@ -75,6 +75,9 @@ public abstract class AbstractBasicCore extends AbstractMemoryHierarchyCore impl
      */
     protected List<AbstractReorderBufferEntry> oooEventQueue;
 
+    private long currentWaitingSequence;
+    private long currentReadySequence;
+
     /**
      * Create an abstract basic core.
      *
@@ -88,12 +91,15 @@ public abstract class AbstractBasicCore extends AbstractMemoryHierarchyCore impl
 
         this.functionalUnitPool = new FunctionalUnitPool(this);
 
-        this.waitingInstructionQueue = new ArrayList<>();
-        this.readyInstructionQueue = new ArrayList<>();
+        this.readyInstructionQueues = new ArrayList<>();
+        for (int i = 0; i <= FunctionalUnitType.values().length; i++) {
+            this.readyInstructionQueues.add(new ArrayDeque<>());
+        }
+
+        this.wokenUpQueue = new ArrayList<>();
 
         this.readyLoadQueue = new ArrayList<>();
 
-        this.waitingStoreQueue = new ArrayList<>();
         this.readyStoreQueue = new ArrayList<>();
 
         this.oooEventQueue = new ArrayList<>();
@@ -154,41 +160,87 @@ public abstract class AbstractBasicCore extends AbstractMemoryHierarchyCore impl
     protected abstract void commit();
 
     @Override
-    public void removeFromQueues(AbstractReorderBufferEntry reorderBufferEntry) {
-        this.oooEventQueue.remove(reorderBufferEntry);
+    public void dispatchToInstructionQueue(AbstractReorderBufferEntry reorderBufferEntry) {
+        if (reorderBufferEntry.isAllOperandReady()) {
+            this.addToReadyInstructionQueue(reorderBufferEntry);
+        } else {
+            reorderBufferEntry.setWaitingForOperands(this.currentWaitingSequence++);
+        }
+    }
 
-        this.readyInstructionQueue.remove(reorderBufferEntry);
-        this.waitingInstructionQueue.remove(reorderBufferEntry);
+    @Override
+    public void dispatchToStoreQueue(AbstractReorderBufferEntry loadStoreQueueEntry) {
+        if (loadStoreQueueEntry.isAllOperandReady()) {
+            this.readyStoreQueue.add(loadStoreQueueEntry);
+        } else {
+            loadStoreQueueEntry.setWaitingForOperands(this.currentWaitingSequence++);
+        }
+    }
 
-        this.readyLoadQueue.remove(reorderBufferEntry);
+    @Override
+    public void signalOperandsReady(AbstractReorderBufferEntry reorderBufferEntry) {
+        this.wokenUpQueue.add(reorderBufferEntry);
+    }
+
+    /**
+     * Add the specified reorder buffer entry to the ready instruction queue for the functional unit type it requires.
+     *
+     * @param reorderBufferEntry the reorder buffer entry
+     */
+    protected void addToReadyInstructionQueue(AbstractReorderBufferEntry reorderBufferEntry) {
+        reorderBufferEntry.setReadySequence(this.currentReadySequence++);
+        this.readyInstructionQueues.get(this.getReadyInstructionQueueIndex(reorderBufferEntry)).add(reorderBufferEntry);
+    }
 
-        this.readyStoreQueue.remove(reorderBufferEntry);
-        this.waitingStoreQueue.remove(reorderBufferEntry);
+    /**
+     * Get the index of the ready instruction queue for the specified reorder buffer entry.
+     *
+     * @param reorderBufferEntry the reorder buffer entry
+     * @return the index of the ready instruction queue for the specified reorder buffer entry
+     */
+    private int getReadyInstructionQueueIndex(AbstractReorderBufferEntry reorderBufferEntry) {
+        FunctionalUnitOperationType functionalUnitOperationType = reorderBufferEntry.getDynamicInstruction().getStaticInstruction().getMnemonic().getFunctionalUnitOperationType();
+        return functionalUnitOperationType == FunctionalUnitOperationType.NONE
+                ? FunctionalUnitType.values().length
+                : this.functionalUnitPool.getFunctionalUnitType(functionalUnitOperationType).ordinal();
+    }
 
+    @Override
+    public void removeFromQueues(AbstractReorderBufferEntry reorderBufferEntry) {
+        // the entry is left in place as a tombstone and dropped lazily when the queues are next scanned
         reorderBufferEntry.setSquashed();
     }
 
+    @Override
+    public void removeSquashedFromQueues() {
+        this.readyInstructionQueues.forEach(readyInstructionQueue -> readyInstructionQueue.removeIf(AbstractReorderBufferEntry::isSquashed));
+        this.wokenUpQueue.removeIf(AbstractReorderBufferEntry::isSquashed);
+        this.readyLoadQueue.removeIf(AbstractReorderBufferEntry::isSquashed);
+        this.readyStoreQueue.removeIf(AbstractReorderBufferEntry::isSquashed);
+        this.oooEventQueue.removeIf(AbstractReorderBufferEntry::isSquashed);
+    }
+
     @Override
     public boolean canIfetch(Thread thread, int virtualAddress) {
-        int physicalTag = this.getL1IController().getCache().getTag(thread.getContext().getProcess().getMemory().getPhysicalAddress(virtualAddress));
+        int physicalTag = this.getL1IController().getCache().getTag(thread.getPhysicalAddress(virtualAddress));
         return this.getL1IController().canAccess(MemoryHierarchyAccessType.IFETCH, physicalTag);
     }
 
     @Override
     public boolean canLoad(Thread thread, int virtualAddress) {
-        int physicalTag = this.getL1DController().getCache().getTag(thread.getContext().getProcess().getMemory().getPhysicalAddress(virtualAddress));
+        int physicalTag = this.getL1DController().getCache().getTag(thread.getPhysicalAddress(virtualAddress));
         return this.getL1DController().canAccess(MemoryHierarchyAccessType.LOAD, physicalTag);
     }
 
     @Override
     public boolean canStore(Thread thread, int virtualAddress) {
-        int physicalTag = this.getL1DController().getCache().getTag(thread.getContext().getProcess().getMemory().getPhysicalAddress(virtualAddress));
+        int physicalTag = this.getL1DController().getCache().getTag(thread.getPhysicalAddress(virtualAddress));
         return this.getL1DController().canAccess(MemoryHierarchyAccessType.STORE, physicalTag);
     }
 
     @Override
     public void ifetch(Thread thread, int virtualAddress, int virtualPc, final Runnable onCompletedCallback) {
-        final int physicalAddress = thread.getContext().getProcess().getMemory().getPhysicalAddress(virtualAddress);
+        final int physicalAddress = thread.getPhysicalAddress(virtualAddress);
         final int physicalTag = this.getL1IController().getCache().getTag(physicalAddress);
 
         final Counter counterPending = new Counter(0);
@@ -218,24 +270,30 @@ public abstract class AbstractBasicCore extends AbstractMemoryHierarchyCore impl
             this.getL1IController().receiveIfetch(access, () -> getL1IController().endAccess(physicalTag));
         }
 
-        this.getBlockingEventDispatcher().dispatch(new MemoryAccessInitiatedEvent(thread, virtualPc, physicalAddress, physicalTag, MemoryHierarchyAccessType.IFETCH));
+        if (this.getBlockingEventDispatcher().hasListeners(MemoryAccessInitiatedEvent.class)) {
+            this.getBlockingEventDispatcher().dispatch(new MemoryAccessInitiatedEvent(thread, virtualPc, physicalAddress, physicalTag, MemoryHierarchyAccessType.IFETCH));
+        }
     }
 
     @Override
     public void load(DynamicInstruction dynamicInstruction, int virtualAddress, int virtualPc, final Runnable onCompletedCallback) {
-        final int physicalAddress = dynamicInstruction.getThread().getContext().getProcess().getMemory().getPhysicalAddress(virtualAddress);
+        final int physicalAddress = dynamicInstruction.getThread().getPhysicalAddress(virtualAddress);
         final int physicalTag = this.getL1DController().getCache().getTag(physicalAddress);
 
         final Counter counterPending = new Counter(0);
 
         counterPending.increment();
 
+        // the memory hierarchy access keeps referring to the dynamic instruction until it is completed
+        dynamicInstruction.retain();
+
         MemoryHierarchyAccess alias = this.getL1DController().findAccess(physicalTag);
         MemoryHierarchyAccess access = this.getL1DController().beginAccess(dynamicInstruction, dynamicInstruction.getThread(), MemoryHierarchyAccessType.LOAD, virtualPc, physicalAddress, physicalTag, () -> {
             counterPending.decrement();
 
             if (counterPending.getValue() == 0) {
                 onCompletedCallback.run();
+                dynamicInstruction.release();
             }
         });
 
@@ -247,30 +305,37 @@ public abstract class AbstractBasicCore extends AbstractMemoryHierarchyCore impl
 
                 if (counterPending.getValue() == 0) {
                     onCompletedCallback.run();
+                    dynamicInstruction.release();
                 }
             });
 
             this.getL1DController().receiveLoad(access, () -> getL1DController().endAccess(physicalTag));
         }
 
-        this.getBlockingEventDispatcher().dispatch(new MemoryAccessInitiatedEvent(dynamicInstruction.getThread(), virtualPc, physicalAddress, physicalTag, MemoryHierarchyAccessType.LOAD));
+        if (this.getBlockingEventDispatcher().hasListeners(MemoryAccessInitiatedEvent.class)) {
+            this.getBlockingEventDispatcher().dispatch(new MemoryAccessInitiatedEvent(dynamicInstruction.getThread(), virtualPc, physicalAddress, physicalTag, MemoryHierarchyAccessType.LOAD));
+        }
     }
 
     @Override
     public void store(DynamicInstruction dynamicInstruction, int virtualAddress, int virtualPc, final Runnable onCompletedCallback) {
-        final int physicalAddress = dynamicInstruction.getThread().getContext().getProcess().getMemory().getPhysicalAddress(virtualAddress);
+        final int physicalAddress = dynamicInstruction.getThread().getPhysicalAddress(virtualAddress);
         final int physicalTag = this.getL1DController().getCache().getTag(physicalAddress);
 
         final Counter counterPending = new Counter(0);
 
         counterPending.increment();
 
+        // the memory hierarchy access keeps referring to the dynamic instruction until it is completed
+        dynamicInstruction.retain();
+
         MemoryHierarchyAccess alias = this.getL1DController().findAccess(physicalTag);
         MemoryHierarchyAccess access = this.getL1DController().beginAccess(dynamicInstruction, dynamicInstruction.getThread(), MemoryHierarchyAccessType.STORE, virtualPc, physicalAddress, physicalTag, () -> {
             counterPending.decrement();
 
             if (counterPending.getValue() == 0) {
                 onCompletedCallback.run();
+                dynamicInstruction.release();
             }
         });
 
@@ -282,13 +347,16 @@ public abstract class AbstractBasicCore extends AbstractMemoryHierarchyCore impl
 
                 if (counterPending.getValue() == 0) {
                     onCompletedCallback.run();
+                    dynamicInstruction.release();
                 }
             });
 
             this.getL1DController().receiveStore(access, () -> getL1DController().endAccess(physicalTag));
         }
 
-        this.getBlockingEventDispatcher().dispatch(new MemoryAccessInitiatedEvent(dynamicInstruction.getThread(), virtualPc, physicalAddress, physicalTag, MemoryHierarchyAccessType.STORE));
+        if (this.getBlockingEventDispatcher().hasListeners(MemoryAccessInitiatedEvent.class)) {
+            this.getBlockingEventDispatcher().dispatch(new MemoryAccessInitiatedEvent(dynamicInstruction.getThread(), virtualPc, physicalAddress, physicalTag, MemoryHierarchyAccessType.STORE));
+        }
     }
 
     @Override
@@ -331,26 +399,11 @@ public abstract class AbstractBasicCore extends AbstractMemoryHierarchyCore impl
         return functionalUnitPool;
     }
 
-    @Override
-    public List<AbstractReorderBufferEntry> getWaitingInstructionQueue() {
-        return waitingInstructionQueue;
-    }
-
-    @Override
-    public List<AbstractReorderBufferEntry> getReadyInstructionQueue() {
-        return readyInstructionQueue;
-    }
-
     @Override
     public List<AbstractReorderBufferEntry> getReadyLoadQueue() {
         return readyLoadQueue;
     }
 
-    @Override
-    public List<AbstractReorderBufferEntry> getWaitingStoreQueue() {
-        return waitingStoreQueue;
-    }
-
     @Override
     public List<AbstractReorderBufferEntry> getReadyStoreQueue() {
         return readyStoreQueue;
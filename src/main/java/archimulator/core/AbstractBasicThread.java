@@ -88,7 +88,12 @@ public abstract class AbstractBasicThread extends BasicSimulationObject<CPUExper
     /**
      * The load/store queue.
      */
-    protected PipelineBuffer<LoadStoreQueueEntry> loadStoreQueue;
+    protected LoadStoreQueue loadStoreQueue;
+
+    /**
+     * The store set memory dependence predictor, or null if the oracle memory disambiguation is used.
+     */
+    protected StoreSetPredictor storeSetPredictor;
 
     /**
      * The integer physical register file.
@@ -175,6 +180,11 @@ public abstract class AbstractBasicThread extends BasicSimulationObject<CPUExper
      */
     private long numSelectionStallsOnNoFreeFunctionalUnit;
 
+    /**
+     * The number of memory order violations detected when the store set predictor is enabled.
+     */
+    private long numMemoryOrderViolations;
+
     private Map<Mnemonic, Long> executedMnemonics;
     private Map<String, Long> executedSystemCalls;
 
@@ -259,10 +269,17 @@ public abstract class AbstractBasicThread extends BasicSimulationObject<CPUExper
         this.reorderBuffer = new PipelineBuffer<>(
                 getExperiment().getConfig().getReorderBufferCapacity()
         );
-        this.loadStoreQueue = new PipelineBuffer<>(
+        this.loadStoreQueue = new LoadStoreQueue(
                 getExperiment().getConfig().getLoadStoreQueueCapacity()
         );
 
+        if (getExperiment().getConfig().isStoreSetPredictorEnabled()) {
+            this.storeSetPredictor = new StoreSetPredictor(
+                    getExperiment().getConfig().getStoreSetIdTableSize(),
+                    getExperiment().getConfig().getNumStoreSets()
+            );
+        }
+
         this.executedMnemonics = new TreeMap<>();
         this.executedSystemCalls = new TreeMap<>();
 
@@ -289,28 +306,37 @@ public abstract class AbstractBasicThread extends BasicSimulationObject<CPUExper
 
     @Override
     public void updatePerCycleStats() {
+        this.updatePerCycleStats(1);
+    }
+
+    /**
+     * Update statistics for the specified number of cycles in which the pipeline state does not change.
+     *
+     * @param numCycles the number of cycles
+     */
+    protected void updatePerCycleStats(long numCycles) {
         if (this.decodeBuffer.isFull()) {
-            this.numDecodeBufferFullStalls++;
+            this.numDecodeBufferFullStalls += numCycles;
         }
 
         if (this.reorderBuffer.isFull()) {
-            this.numReorderBufferFullStalls++;
+            this.numReorderBufferFullStalls += numCycles;
         }
 
         if (this.loadStoreQueue.isFull()) {
-            this.numLoadStoreQueueFullStalls++;
+            this.numLoadStoreQueueFullStalls += numCycles;
         }
 
         if (this.intPhysicalRegisterFile.isFull()) {
-            this.numIntPhysicalRegisterFileFullStalls++;
+            this.numIntPhysicalRegisterFileFullStalls += numCycles;
         }
 
         if (this.fpPhysicalRegisterFile.isFull()) {
-            this.numFpPhysicalRegisterFileFullStalls++;
+            this.numFpPhysicalRegisterFileFullStalls += numCycles;
         }
 
         if (this.miscPhysicalRegisterFile.isFull()) {
-            this.numMiscPhysicalRegisterFileFullStalls++;
+            this.numMiscPhysicalRegisterFileFullStalls += numCycles;
         }
     }
 
@@ -350,10 +376,15 @@ public abstract class AbstractBasicThread extends BasicSimulationObject<CPUExper
     }
 
     @Override
-    public PipelineBuffer<LoadStoreQueueEntry> getLoadStoreQueue() {
+    public LoadStoreQueue getLoadStoreQueue() {
         return loadStoreQueue;
     }
 
+    @Override
+    public StoreSetPredictor getStoreSetPredictor() {
+        return storeSetPredictor;
+    }
+
     @Override
     public long getNumInstructions() {
         return numInstructions;
@@ -370,13 +401,13 @@ public abstract class AbstractBasicThread extends BasicSimulationObject<CPUExper
     }
 
     @Override
-    public void incrementNumRegisterRenameStallsOnDecodeBufferIsEmpty() {
-        this.numRegisterRenameStallsOnDecodeBufferIsEmpty++;
+    public void incrementNumRegisterRenameStallsOnDecodeBufferIsEmpty(long numStalls) {
+        this.numRegisterRenameStallsOnDecodeBufferIsEmpty += numStalls;
     }
 
     @Override
-    public void incrementNumRegisterRenameStallsOnReorderBufferIsFull() {
-        this.numRegisterRenameStallsOnReorderBufferIsFull++;
+    public void incrementNumRegisterRenameStallsOnReorderBufferIsFull(long numStalls) {
+        this.numRegisterRenameStallsOnReorderBufferIsFull += numStalls;
     }
 
     @Override
@@ -394,6 +425,11 @@ public abstract class AbstractBasicThread extends BasicSimulationObject<CPUExper
         this.numSelectionStallsOnNoFreeFunctionalUnit++;
     }
 
+    @Override
+    public void incrementNumMemoryOrderViolations() {
+        this.numMemoryOrderViolations++;
+    }
+
     @Override
     public long getNumDecodeBufferFullStalls() {
         return numDecodeBufferFullStalls;
@@ -459,6 +495,11 @@ public abstract class AbstractBasicThread extends BasicSimulationObject<CPUExper
         return numSelectionStallsOnNoFreeFunctionalUnit;
     }
 
+    @Override
+    public long getNumMemoryOrderViolations() {
+        return numMemoryOrderViolations;
+    }
+
     @Override
     public Map<Mnemonic, Long> getExecutedMnemonics() {
         return executedMnemonics;
@@ -22,8 +22,7 @@ package archimulator.core;
 
 import archimulator.core.bpred.BranchPredictorUpdate;
 
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.Arrays;
 
 /**
  * Abstract reorder buffer entry.
@@ -31,6 +30,8 @@ import java.util.TreeMap;
  * @author Min Cai
  */
 public abstract class AbstractReorderBufferEntry {
+    static final PhysicalRegister[] NO_PHYSICAL_REGISTERS = new PhysicalRegister[0];
+
     /**
      * The ID of the abstract reorder buffer entry.
      */
@@ -62,19 +63,19 @@ public abstract class AbstractReorderBufferEntry {
     private DynamicInstruction dynamicInstruction;
 
     /**
-     * The map of the old physical registers.
+     * The old physical registers, indexed in the same way as the target dependencies of the static instruction.
      */
-    private Map<Integer, PhysicalRegister> oldPhysicalRegisters;
+    private PhysicalRegister[] oldPhysicalRegisters;
 
     /**
-     * The map of the target physical registers.
+     * The target physical registers, indexed in the same way as the target dependencies of the static instruction.
      */
-    private Map<Integer, PhysicalRegister> targetPhysicalRegisters;
+    private PhysicalRegister[] targetPhysicalRegisters;
 
     /**
-     * The map of the source physical registers.
+     * The source physical registers, indexed in the same way as the source dependencies of the static instruction.
      */
-    private Map<Integer, PhysicalRegister> sourcePhysicalRegisters;
+    private PhysicalRegister[] sourcePhysicalRegisters;
 
     /**
      * A value indicating whether the reorder buffer entry is speculative or not.
@@ -113,6 +114,27 @@ public abstract class AbstractReorderBufferEntry {
 
     private int numNotReadyOperands;
 
+    /**
+     * A value indicating whether the reorder buffer entry is waiting in the instruction or store queue for its operands or not.
+     */
+    private boolean waitingForOperands;
+
+    /**
+     * The sequence number assigned when the reorder buffer entry starts waiting for its operands.
+     */
+    private long waitingSequence;
+
+    /**
+     * The sequence number assigned when the reorder buffer entry becomes ready to be issued.
+     */
+    private long readySequence;
+
+    /**
+     * The generation of the reorder buffer entry, which is advanced whenever the entry is recycled, so that the events
+     * scheduled on behalf of an earlier use of the entry can be told apart.
+     */
+    private int generation;
+
     /**
      * Create an abstract reorder buffer entry.
      *
@@ -126,10 +148,29 @@ public abstract class AbstractReorderBufferEntry {
      * @param speculative                    a value indicating whether the reorder buffer entry is speculative or not
      */
     public AbstractReorderBufferEntry(Thread thread, DynamicInstruction dynamicInstruction, int npc, int nnpc, int predictedNnpc, int returnAddressStackRecoverIndex, BranchPredictorUpdate branchPredictorUpdate, boolean speculative) {
-        this.id = thread.getSimulation().currentReorderBufferEntryId++;
-
         this.thread = thread;
 
+        this.oldPhysicalRegisters = NO_PHYSICAL_REGISTERS;
+        this.targetPhysicalRegisters = NO_PHYSICAL_REGISTERS;
+        this.sourcePhysicalRegisters = NO_PHYSICAL_REGISTERS;
+
+        this.reset(dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
+    }
+
+    /**
+     * Reset the abstract reorder buffer entry so that it can be reused for another instruction of the same thread.
+     *
+     * @param dynamicInstruction             the dynamic instruction
+     * @param npc                            the value of the next program counter (NPC)
+     * @param nnpc                           the value of the next next program counter (NNPC)
+     * @param predictedNnpc                  the predicted value of the next next program counter (predicted NNPC)
+     * @param returnAddressStackRecoverIndex the return address stack recover index
+     * @param branchPredictorUpdate          the branch predictor update
+     * @param speculative                    a value indicating whether the reorder buffer entry is speculative or not
+     */
+    public void reset(DynamicInstruction dynamicInstruction, int npc, int nnpc, int predictedNnpc, int returnAddressStackRecoverIndex, BranchPredictorUpdate branchPredictorUpdate, boolean speculative) {
+        this.id = thread.getSimulation().currentReorderBufferEntryId.getAndIncrement();
+
         this.dynamicInstruction = dynamicInstruction;
 
         this.npc = npc;
@@ -139,9 +180,56 @@ public abstract class AbstractReorderBufferEntry {
         this.branchPredictorUpdate = branchPredictorUpdate;
         this.speculative = speculative;
 
-        this.oldPhysicalRegisters = new TreeMap<>();
-        this.targetPhysicalRegisters = new TreeMap<>();
-        this.sourcePhysicalRegisters = new TreeMap<>();
+        this.dispatched = false;
+        this.issued = false;
+        this.completed = false;
+        this.squashed = false;
+
+        this.numNotReadyOperands = 0;
+
+        this.waitingForOperands = false;
+        this.waitingSequence = 0;
+        this.readySequence = 0;
+    }
+
+    /**
+     * Size the old, target and source physical register arrays for the dynamic instruction, reusing the arrays of the
+     * earlier use of the entry where possible.
+     */
+    protected void allocatePhysicalRegisters() {
+        int numSourceDependencies = dynamicInstruction.getStaticInstruction().getSourceDependencies().length;
+        int numTargetDependencies = dynamicInstruction.getStaticInstruction().getTargetDependencies().length;
+
+        this.oldPhysicalRegisters = resize(this.oldPhysicalRegisters, numTargetDependencies);
+        this.targetPhysicalRegisters = resize(this.targetPhysicalRegisters, numTargetDependencies);
+        this.sourcePhysicalRegisters = resize(this.sourcePhysicalRegisters, numSourceDependencies);
+    }
+
+    /**
+     * Get a cleared physical register array of the specified length, reusing the specified array if it has the same length.
+     *
+     * @param physicalRegisters the physical register array to be reused
+     * @param length            the length
+     * @return a cleared physical register array of the specified length
+     */
+    private static PhysicalRegister[] resize(PhysicalRegister[] physicalRegisters, int length) {
+        if (length == 0) {
+            return NO_PHYSICAL_REGISTERS;
+        }
+
+        if (physicalRegisters.length == length) {
+            Arrays.fill(physicalRegisters, null);
+            return physicalRegisters;
+        }
+
+        return new PhysicalRegister[length];
+    }
+
+    /**
+     * Recycle the reorder buffer entry, so that the events scheduled on behalf of the current use of the entry become stale.
+     */
+    public void recycle() {
+        this.generation++;
     }
 
     /**
@@ -164,9 +252,11 @@ public abstract class AbstractReorderBufferEntry {
      * Do the write back process.
      */
     private void doWriteBack() {
-        this.targetPhysicalRegisters.entrySet().stream().filter(entry -> entry.getKey() != 0).forEach(entry -> {
-            entry.getValue().writeback();
-        });
+        for (PhysicalRegister targetPhysicalRegister : this.targetPhysicalRegisters) {
+            if (targetPhysicalRegister != null) {
+                targetPhysicalRegister.writeback();
+            }
+        }
     }
 
     /**
@@ -178,6 +268,24 @@ public abstract class AbstractReorderBufferEntry {
         }
     }
 
+    /**
+     * Signal that one of the operands is ready.
+     */
+    public void signalOperandReady() {
+        this.numNotReadyOperands--;
+        this.wakeUpIfAllOperandReady();
+    }
+
+    /**
+     * Wake up the reorder buffer entry if it is waiting and all of its operands are ready now.
+     */
+    protected void wakeUpIfAllOperandReady() {
+        if (this.waitingForOperands && !this.squashed && this.isAllOperandReady()) {
+            this.waitingForOperands = false;
+            this.thread.getCore().signalOperandsReady(this);
+        }
+    }
+
     /**
      * Get a value indicating whether all of the operands involved are ready.
      *
@@ -196,6 +304,15 @@ public abstract class AbstractReorderBufferEntry {
         return id;
     }
 
+    /**
+     * Get the generation of the reorder buffer entry.
+     *
+     * @return the generation of the reorder buffer entry
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
     /**
      * Get the value of the next program counter (NPC).
      *
@@ -242,47 +359,47 @@ public abstract class AbstractReorderBufferEntry {
     }
 
     /**
-     * Get the map of the old physical registers.
+     * Get the old physical registers.
      *
-     * @return the map of the old physical registers
+     * @return the old physical registers
      */
-    public Map<Integer, PhysicalRegister> getOldPhysicalRegisters() {
+    public PhysicalRegister[] getOldPhysicalRegisters() {
         return oldPhysicalRegisters;
     }
 
     /**
-     * Get the map of the target physical registers.
+     * Get the target physical registers.
      *
-     * @return the map of the target physical registers
+     * @return the target physical registers
      */
-    public Map<Integer, PhysicalRegister> getTargetPhysicalRegisters() {
+    public PhysicalRegister[] getTargetPhysicalRegisters() {
         return targetPhysicalRegisters;
     }
 
     /**
-     * Set the the map of the target physical registers.
+     * Set the target physical registers.
      *
-     * @param targetPhysicalRegisters the map of the target physical registers
+     * @param targetPhysicalRegisters the target physical registers
      */
-    public void setTargetPhysicalRegisters(Map<Integer, PhysicalRegister> targetPhysicalRegisters) {
+    public void setTargetPhysicalRegisters(PhysicalRegister[] targetPhysicalRegisters) {
         this.targetPhysicalRegisters = targetPhysicalRegisters;
     }
 
     /**
-     * Get the map of the source physical registers.
+     * Get the source physical registers.
      *
-     * @return the map of the source physical registers
+     * @return the source physical registers
      */
-    public Map<Integer, PhysicalRegister> getSourcePhysicalRegisters() {
+    public PhysicalRegister[] getSourcePhysicalRegisters() {
         return sourcePhysicalRegisters;
     }
 
     /**
-     * Set the map of the source physical registers.
+     * Set the source physical registers.
      *
-     * @param sourcePhysicalRegisters the map of the source physical registers
+     * @param sourcePhysicalRegisters the source physical registers
      */
-    public void setSourcePhysicalRegisters(Map<Integer, PhysicalRegister> sourcePhysicalRegisters) {
+    public void setSourcePhysicalRegisters(PhysicalRegister[] sourcePhysicalRegisters) {
         this.sourcePhysicalRegisters = sourcePhysicalRegisters;
     }
 
@@ -394,4 +511,50 @@ public abstract class AbstractReorderBufferEntry {
     public void setNumNotReadyOperands(int numNotReadyOperands) {
         this.numNotReadyOperands = numNotReadyOperands;
     }
+
+    /**
+     * Get a value indicating whether the reorder buffer entry is waiting in the instruction or store queue for its operands or not.
+     *
+     * @return a value indicating whether the reorder buffer entry is waiting in the instruction or store queue for its operands or not
+     */
+    public boolean isWaitingForOperands() {
+        return waitingForOperands;
+    }
+
+    /**
+     * Set the reorder buffer entry is waiting in the instruction or store queue for its operands.
+     *
+     * @param waitingSequence the sequence number assigned when the reorder buffer entry starts waiting
+     */
+    public void setWaitingForOperands(long waitingSequence) {
+        this.waitingForOperands = true;
+        this.waitingSequence = waitingSequence;
+    }
+
+    /**
+     * Get the sequence number assigned when the reorder buffer entry starts waiting for its operands.
+     *
+     * @return the sequence number assigned when the reorder buffer entry starts waiting for its operands
+     */
+    public long getWaitingSequence() {
+        return waitingSequence;
+    }
+
+    /**
+     * Get the sequence number assigned when the reorder buffer entry becomes ready to be issued.
+     *
+     * @return the sequence number assigned when the reorder buffer entry becomes ready to be issued
+     */
+    public long getReadySequence() {
+        return readySequence;
+    }
+
+    /**
+     * Set the sequence number assigned when the reorder buffer entry becomes ready to be issued.
+     *
+     * @param readySequence the sequence number assigned when the reorder buffer entry becomes ready to be issued
+     */
+    public void setReadySequence(long readySequence) {
+        this.readySequence = readySequence;
+    }
 }
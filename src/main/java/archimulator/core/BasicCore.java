@@ -20,12 +20,15 @@
  */
 package archimulator.core;
 
+import archimulator.common.SimulationType;
 import archimulator.core.functionalUnit.FunctionalUnitOperationType;
-import archimulator.isa.StaticInstructionType;
+import archimulator.core.functionalUnit.FunctionalUnitType;
 import archimulator.os.ContextState;
 import archimulator.util.Reference;
 import archimulator.util.RoundRobinScheduler;
 
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 
@@ -35,6 +38,10 @@ import java.util.List;
  * @author Min Cai
  */
 public class BasicCore extends AbstractBasicCore {
+    private static final FunctionalUnitType[] FUNCTIONAL_UNIT_TYPES = FunctionalUnitType.values();
+
+    private static final Comparator<AbstractReorderBufferEntry> WAITING_ORDER = Comparator.comparingLong(AbstractReorderBufferEntry::getWaitingSequence);
+
     private RoundRobinScheduler<Thread> registerRenameScheduler;
     private RoundRobinScheduler<Thread> dispatchScheduler;
 
@@ -49,14 +56,14 @@ public class BasicCore extends AbstractBasicCore {
 
         this.registerRenameScheduler = new RoundRobinScheduler<>(
                 this.threads,
-                thread -> {
+                (thread, numTimes) -> {
                     if (thread.getContext() == null) {
                         return false;
                     } else if (thread.getDecodeBuffer().isEmpty()) {
-                        thread.incrementNumRegisterRenameStallsOnDecodeBufferIsEmpty();
+                        thread.incrementNumRegisterRenameStallsOnDecodeBufferIsEmpty(numTimes);
                         return false;
                     } else if (thread.getReorderBuffer().isFull()) {
-                        thread.incrementNumRegisterRenameStallsOnReorderBufferIsFull();
+                        thread.incrementNumRegisterRenameStallsOnReorderBufferIsFull(numTimes);
                         return false;
                     } else {
                         return true;
@@ -68,7 +75,7 @@ public class BasicCore extends AbstractBasicCore {
 
         this.dispatchScheduler = new RoundRobinScheduler<>(
                 this.threads,
-                thread -> thread.getContext() != null,
+                (thread, numTimes) -> thread.getContext() != null,
                 Thread::dispatchOne,
                 getExperiment().getConfig().getDecodeWidth()
         );
@@ -93,19 +100,26 @@ public class BasicCore extends AbstractBasicCore {
 
     @Override
     protected void wakeUp() {
-        this.wakeUp(this.waitingInstructionQueue, this.readyInstructionQueue);
-        this.wakeUp(this.waitingStoreQueue, this.readyStoreQueue);
-    }
+        if (this.wokenUpQueue.isEmpty()) {
+            return;
+        }
 
-    /**
-     * Wake up.
-     *
-     * @param waitingQueue the waiting queue
-     * @param readyQueue   the ready queue
-     */
-    private void wakeUp(List<AbstractReorderBufferEntry> waitingQueue, List<AbstractReorderBufferEntry> readyQueue) {
-        waitingQueue.stream().filter(AbstractReorderBufferEntry::isAllOperandReady).forEach(readyQueue::add);
-        waitingQueue.removeIf(AbstractReorderBufferEntry::isAllOperandReady);
+        // entries join the ready queues in the order in which they started waiting, regardless of the order in which their operands became ready
+        this.wokenUpQueue.sort(WAITING_ORDER);
+
+        for (AbstractReorderBufferEntry reorderBufferEntry : this.wokenUpQueue) {
+            if (reorderBufferEntry.isSquashed()) {
+                continue;
+            }
+
+            if (reorderBufferEntry instanceof LoadStoreQueueEntry) {
+                this.readyStoreQueue.add(reorderBufferEntry);
+            } else {
+                this.addToReadyInstructionQueue(reorderBufferEntry);
+            }
+        }
+
+        this.wokenUpQueue.clear();
     }
 
     @Override
@@ -119,29 +133,81 @@ public class BasicCore extends AbstractBasicCore {
 
     /**
      * Issue the instruction queue.
+     * <p>
+     * The oldest ready instructions (in the order in which they became ready) are selected from the ready instruction
+     * queues whose functional unit type has free units. The ready instructions scanned but skipped for lack of free
+     * functional units are then accounted as selection stalls.
      *
      * @param quant the quant
      */
     private void issueInstructionQueue(Reference<Integer> quant) {
-        for (Iterator<AbstractReorderBufferEntry> it = this.readyInstructionQueue.iterator(); quant.get() > 0 && it.hasNext(); ) {
-            final ReorderBufferEntry reorderBufferEntry = (ReorderBufferEntry) it.next();
+        long selectionLimit = quant.get() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
 
-            if (reorderBufferEntry.getDynamicInstruction().getStaticInstruction().getMnemonic().getFunctionalUnitOperationType() != FunctionalUnitOperationType.NONE) {
-                if (this.functionalUnitPool.acquire(reorderBufferEntry, reorderBufferEntry::signalCompleted)) {
-                    reorderBufferEntry.setIssued();
-                } else {
-                    reorderBufferEntry.getThread().incrementNumSelectionStallsOnNoFreeFunctionalUnit();
+        while (quant.get() > 0) {
+            Deque<AbstractReorderBufferEntry> oldestReadyInstructionQueue = null;
+
+            for (int i = 0; i < this.readyInstructionQueues.size(); i++) {
+                if (i < FUNCTIONAL_UNIT_TYPES.length && !this.functionalUnitPool.isAvailable(FUNCTIONAL_UNIT_TYPES[i])) {
                     continue;
                 }
+
+                Deque<AbstractReorderBufferEntry> readyInstructionQueue = this.readyInstructionQueues.get(i);
+
+                while (!readyInstructionQueue.isEmpty() && readyInstructionQueue.peekFirst().isSquashed()) {
+                    readyInstructionQueue.pollFirst();
+                }
+
+                if (!readyInstructionQueue.isEmpty() && (oldestReadyInstructionQueue == null
+                        || readyInstructionQueue.peekFirst().getReadySequence() < oldestReadyInstructionQueue.peekFirst().getReadySequence())) {
+                    oldestReadyInstructionQueue = readyInstructionQueue;
+                }
+            }
+
+            if (oldestReadyInstructionQueue == null) {
+                break;
+            }
+
+            final ReorderBufferEntry reorderBufferEntry = (ReorderBufferEntry) oldestReadyInstructionQueue.pollFirst();
+
+            if (reorderBufferEntry.getDynamicInstruction().getStaticInstruction().getMnemonic().getFunctionalUnitOperationType() != FunctionalUnitOperationType.NONE) {
+                if (!this.functionalUnitPool.acquire(reorderBufferEntry, reorderBufferEntry::signalCompleted)) {
+                    throw new IllegalStateException();
+                }
+
+                reorderBufferEntry.setIssued();
             } else {
                 reorderBufferEntry.setIssued();
                 reorderBufferEntry.setCompleted();
                 reorderBufferEntry.writeBack();
             }
 
-            it.remove();
-
             quant.set(quant.get() - 1);
+
+            if (quant.get() == 0) {
+                selectionLimit = reorderBufferEntry.getReadySequence();
+            }
+        }
+
+        for (int i = 0; i < FUNCTIONAL_UNIT_TYPES.length; i++) {
+            if (this.functionalUnitPool.isAvailable(FUNCTIONAL_UNIT_TYPES[i])) {
+                continue;
+            }
+
+            for (Iterator<AbstractReorderBufferEntry> it = this.readyInstructionQueues.get(i).iterator(); it.hasNext(); ) {
+                AbstractReorderBufferEntry reorderBufferEntry = it.next();
+
+                if (reorderBufferEntry.getReadySequence() >= selectionLimit) {
+                    break;
+                }
+
+                if (reorderBufferEntry.isSquashed()) {
+                    it.remove();
+                    continue;
+                }
+
+                this.functionalUnitPool.recordAcquireFailure(reorderBufferEntry.getDynamicInstruction().getStaticInstruction().getMnemonic().getFunctionalUnitOperationType());
+                reorderBufferEntry.getThread().incrementNumSelectionStallsOnNoFreeFunctionalUnit();
+            }
         }
     }
 
@@ -154,11 +220,30 @@ public class BasicCore extends AbstractBasicCore {
         for (Iterator<AbstractReorderBufferEntry> it = this.readyLoadQueue.iterator(); quant.get() > 0 && it.hasNext(); ) {
             final LoadStoreQueueEntry loadStoreQueueEntry = (LoadStoreQueueEntry) it.next();
 
-            boolean hitInLoadStoreQueue = loadStoreQueueEntry.getThread().getLoadStoreQueue().getEntries().stream().anyMatch(
-                    loadStoreQueueEntryFound
-                            -> loadStoreQueueEntryFound.getDynamicInstruction().getStaticInstruction().getMnemonic().getType() == StaticInstructionType.STORE
-                            && loadStoreQueueEntryFound.getEffectiveAddress() == loadStoreQueueEntry.getEffectiveAddress()
-            );
+            if (loadStoreQueueEntry.isSquashed()) {
+                it.remove();
+                continue;
+            }
+
+            StoreSetPredictor storeSetPredictor = loadStoreQueueEntry.getThread().getStoreSetPredictor();
+
+            if (storeSetPredictor != null) {
+                LoadStoreQueueEntry storeFound = loadStoreQueueEntry.getThread().getLoadStoreQueue().findOlderUnissuedStore(loadStoreQueueEntry);
+
+                if (storeFound != null) {
+                    // the load would read stale data: train the predictor and replay the load once the store is issued
+                    storeSetPredictor.violation(loadStoreQueueEntry, storeFound);
+                    loadStoreQueueEntry.getThread().incrementNumMemoryOrderViolations();
+
+                    loadStoreQueueEntry.setStoreDependence(storeFound);
+                    loadStoreQueueEntry.setInReadyLoadQueue(false);
+                    loadStoreQueueEntry.getThread().getLoadStoreQueue().waitFor(loadStoreQueueEntry, storeFound);
+                    it.remove();
+                    continue;
+                }
+            }
+
+            boolean hitInLoadStoreQueue = loadStoreQueueEntry.getThread().getLoadStoreQueue().containsStore(loadStoreQueueEntry.getEffectiveAddress());
 
             if (hitInLoadStoreQueue) {
                 loadStoreQueueEntry.setIssued();
@@ -169,11 +254,17 @@ public class BasicCore extends AbstractBasicCore {
                     break;
                 }
 
+                final int generation = loadStoreQueueEntry.getGeneration();
+
                 this.load(
                         loadStoreQueueEntry.getDynamicInstruction(),
                         loadStoreQueueEntry.getEffectiveAddress(),
                         loadStoreQueueEntry.getDynamicInstruction().getPc(),
-                        loadStoreQueueEntry::signalCompleted
+                        () -> {
+                            if (loadStoreQueueEntry.getGeneration() == generation) {
+                                loadStoreQueueEntry.signalCompleted();
+                            }
+                        }
                 );
                 loadStoreQueueEntry.setIssued();
             }
@@ -193,6 +284,11 @@ public class BasicCore extends AbstractBasicCore {
         for (Iterator<AbstractReorderBufferEntry> it = this.readyStoreQueue.iterator(); quant.get() > 0 && it.hasNext(); ) {
             final LoadStoreQueueEntry loadStoreQueueEntry = (LoadStoreQueueEntry) it.next();
 
+            if (loadStoreQueueEntry.isSquashed()) {
+                it.remove();
+                continue;
+            }
+
             if (!this.canStore(loadStoreQueueEntry.getThread(), loadStoreQueueEntry.getEffectiveAddress())) {
                 loadStoreQueueEntry.getThread().incrementNumSelectionStallsOnCanNotStore();
                 break;
@@ -204,6 +300,8 @@ public class BasicCore extends AbstractBasicCore {
             loadStoreQueueEntry.setIssued();
             loadStoreQueueEntry.signalCompleted(); //TODO: should we need to wait for store to complete?
 
+            loadStoreQueueEntry.getThread().getLoadStoreQueue().storeIssued(loadStoreQueueEntry);
+
             it.remove();
 
             quant.set(quant.get() - 1);
@@ -213,6 +311,10 @@ public class BasicCore extends AbstractBasicCore {
     @Override
     protected void writeBack() {
         for (AbstractReorderBufferEntry reorderBufferEntry : this.oooEventQueue) {
+            if (reorderBufferEntry.isSquashed()) {
+                continue;
+            }
+
             reorderBufferEntry.setCompleted();
             reorderBufferEntry.writeBack();
         }
@@ -229,4 +331,51 @@ public class BasicCore extends AbstractBasicCore {
     protected void commit() {
         this.threads.stream().filter(thread -> thread.getContext() != null).forEach(Thread::commit);
     }
+
+    @Override
+    public long getNextBusyCycle() {
+        long currentCycle = this.getCycleAccurateEventQueue().getCurrentCycle();
+
+        switch (this.getSimulation().getType()) {
+            case WARMUP:
+                break;
+            case MEASUREMENT:
+                if (this.oooEventQueue.stream().anyMatch(reorderBufferEntry -> !reorderBufferEntry.isSquashed())
+                        || this.readyInstructionQueues.stream().anyMatch(readyInstructionQueue -> readyInstructionQueue.stream().anyMatch(reorderBufferEntry -> !reorderBufferEntry.isSquashed()))
+                        || this.readyLoadQueue.stream().anyMatch(reorderBufferEntry -> !reorderBufferEntry.isSquashed())
+                        || this.readyStoreQueue.stream().anyMatch(reorderBufferEntry -> !reorderBufferEntry.isSquashed())
+                        || this.wokenUpQueue.stream().anyMatch(reorderBufferEntry -> !reorderBufferEntry.isSquashed())) {
+                    return currentCycle;
+                }
+                break;
+            default:
+                return currentCycle;
+        }
+
+        long nextBusyCycle = NEVER;
+
+        for (Thread thread : this.threads) {
+            nextBusyCycle = Math.min(nextBusyCycle, thread.getNextBusyCycle());
+
+            if (nextBusyCycle <= currentCycle) {
+                return currentCycle;
+            }
+        }
+
+        return nextBusyCycle;
+    }
+
+    @Override
+    public void skipIdleCycles(long numCycles) {
+        if (this.getSimulation().getType() != SimulationType.MEASUREMENT) {
+            return;
+        }
+
+        this.threads.forEach(thread -> thread.skipIdleCycles(numCycles));
+
+        this.functionalUnitPool.updatePerCycleStats(numCycles);
+
+        this.dispatchScheduler.skipIdleCycles(numCycles);
+        this.registerRenameScheduler.skipIdleCycles(numCycles);
+    }
 }
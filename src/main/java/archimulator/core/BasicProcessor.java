@@ -32,6 +32,7 @@ import archimulator.util.event.BlockingEvent;
 import archimulator.util.event.BlockingEventDispatcher;
 import archimulator.util.event.CycleAccurateEventQueue;
 
+import java.io.File;
 import java.util.*;
 
 /**
@@ -74,11 +75,15 @@ public class BasicProcessor extends BasicSimulationObject<CPUExperiment, Simulat
 
         this.cores = new ArrayList<>();
 
+        // detailed experiments replay the instruction traces if any instead of executing the contexts functionally
+        File traceReplayDirectory = getExperiment().getConfig().getTraceReplayDirectory() != null
+                ? new File(getExperiment().getConfig().getTraceReplayDirectory()) : null;
+
         for (int i = 0; i < getExperiment().getConfig().getNumCores(); i++) {
             Core core = new BasicCore(this, i);
 
             for (int j = 0; j < getExperiment().getConfig().getNumThreadsPerCore(); j++) {
-                BasicThread thread = new BasicThread(core, j);
+                BasicThread thread = traceReplayDirectory != null ? new TraceDrivenThread(core, j, traceReplayDirectory) : new BasicThread(core, j);
                 core.getThreads().add(thread);
             }
 
@@ -117,6 +122,46 @@ public class BasicProcessor extends BasicSimulationObject<CPUExperiment, Simulat
         }
     }
 
+    @Override
+    public long getNextBusyCycle() {
+        long currentCycle = this.getCycleAccurateEventQueue().getCurrentCycle();
+
+        long numIdleCyclesInKernel = this.kernel.getNumIdleCycles();
+        if (numIdleCyclesInKernel == 0) {
+            return currentCycle;
+        }
+
+        for (Context context : this.kernel.getContexts()) {
+            if (context.getThreadId() != -1 && this.contextToThreadMappings.get(context) == null) {
+                return currentCycle;
+            } else if (context.getState() == ContextState.FINISHED) {
+                Thread thread = this.contextToThreadMappings.get(context);
+                if (thread.isLastDecodedDynamicInstructionCommitted() && thread.getReorderBuffer().isEmpty()) {
+                    return currentCycle;
+                }
+            }
+        }
+
+        long nextBusyCycle = currentCycle + numIdleCyclesInKernel;
+
+        for (Core core : this.cores) {
+            nextBusyCycle = Math.min(nextBusyCycle, core.getNextBusyCycle());
+
+            if (nextBusyCycle <= currentCycle) {
+                return currentCycle;
+            }
+        }
+
+        return nextBusyCycle;
+    }
+
+    @Override
+    public void skipIdleCycles(long numCycles) {
+        this.kernel.skipIdleCycles(numCycles);
+
+        this.cores.forEach(core -> core.skipIdleCycles(numCycles));
+    }
+
     /**
      * Kill the specified context.
      *
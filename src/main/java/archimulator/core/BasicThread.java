@@ -20,21 +20,29 @@
  */
 package archimulator.core;
 
+import archimulator.common.SimulationType;
 import archimulator.core.bpred.BranchPredictorUpdate;
 import archimulator.core.bpred.DynamicBranchPredictor;
 import archimulator.core.event.DynamicInstructionCommittedEvent;
 import archimulator.core.event.DynamicInstructionDecodedEvent;
 import archimulator.core.event.StaticInstructionFetchBeginEvent;
 import archimulator.core.event.StaticInstructionFetchEndEvent;
+import archimulator.core.trace.InstructionTraceWriter;
+import archimulator.isa.Memory;
 import archimulator.isa.RegisterDependencyType;
 import archimulator.isa.StaticInstruction;
 import archimulator.isa.StaticInstructionType;
 import archimulator.os.ContextState;
 import archimulator.util.Reference;
 
+import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 /**
  * Basic thread.
@@ -42,21 +50,66 @@ import java.util.Map;
  * @author Min Cai
  */
 public class BasicThread extends AbstractBasicThread {
-    private int lineSizeOfICache;
+    /**
+     * The number of cycles without any committed instructions after which the commit timeout is handled.
+     */
+    private static final int COMMIT_TIMEOUT = 1000000;
+
+    private static final RegisterDependencyType[] REGISTER_DEPENDENCY_TYPES = RegisterDependencyType.values();
+
+    private static final Comparator<LoadStoreQueueEntry> COMPARATOR_LOAD_STORE_QUEUE_ENTRY_SEQUENCE = Comparator.comparingLong(LoadStoreQueueEntry::getSequence);
+
+    /**
+     * The line size of the instruction cache.
+     */
+    protected int lineSizeOfICache;
+
+    /**
+     * The fetch NPC.
+     */
+    protected int fetchNpc;
+
+    /**
+     * The fetch NNPC.
+     */
+    protected int fetchNnpc;
 
-    private int fetchNpc;
-    private int fetchNnpc;
     private boolean fetchStalled;
     private int lastFetchedCacheLine;
 
-    private DynamicInstruction lastDecodedDynamicInstruction;
-    private boolean lastDecodedDynamicInstructionCommitted;
+    /**
+     * The last decoded dynamic instruction before the context finishes.
+     */
+    protected DynamicInstruction lastDecodedDynamicInstruction;
 
-    private long lastCommitCycle;
+    /**
+     * A value indicating whether the last decoded dynamic instruction is committed or not.
+     */
+    protected boolean lastDecodedDynamicInstructionCommitted;
+
+    /**
+     * The cycle when the last instruction is committed.
+     */
+    protected long lastCommitCycle;
     private int noDynamicInstructionCommittedCounterThreshold;
 
     private DynamicInstruction nextDynamicInstructionInWarmupPhase;
 
+    /**
+     * The reference to the return address stack recover index of the instruction being fetched.
+     */
+    protected Reference<Integer> returnAddressStackRecoverIndexRef;
+
+    private Deque<DynamicInstruction> freeDynamicInstructions;
+    private Deque<BranchPredictorUpdate> freeBranchPredictorUpdates;
+    private Deque<DecodeBufferEntry> freeDecodeBufferEntries;
+    private Deque<ReorderBufferEntry> freeReorderBufferEntries;
+    private Deque<LoadStoreQueueEntry> freeLoadStoreQueueEntries;
+
+    private List<ReorderBufferEntry> squashedReorderBufferEntries;
+
+    private InstructionTraceWriter traceWriter;
+
     /**
      * Create a basic thread.
      *
@@ -67,18 +120,42 @@ public class BasicThread extends AbstractBasicThread {
         super(core, num);
 
         this.lineSizeOfICache = this.core.getL1IController().getCache().getGeometry().getLineSize();
+
+        this.returnAddressStackRecoverIndexRef = new Reference<>(0);
+
+        this.freeDynamicInstructions = new ArrayDeque<>();
+        this.freeBranchPredictorUpdates = new ArrayDeque<>();
+        this.freeDecodeBufferEntries = new ArrayDeque<>();
+        this.freeReorderBufferEntries = new ArrayDeque<>();
+        this.freeLoadStoreQueueEntries = new ArrayDeque<>();
+
+        this.squashedReorderBufferEntries = new ArrayList<>();
     }
 
     @Override
     public void fastForwardOneCycle() {
         if (this.context != null && this.context.getState() == ContextState.RUNNING) {
+            if (getExperiment().getConfig().isBasicBlockFastForwardEnabled() && this.traceWriter == null) {
+                this.numInstructions += this.context.executeNextBasicBlock();
+                return;
+            }
+
             StaticInstruction staticInstruction;
             do {
                 staticInstruction = this.context.decodeNextInstruction();
+
+                int pc = this.context.getRegisterFile().getPc();
+                int effectiveAddress = this.traceWriter != null && (staticInstruction.getMnemonic().getType() == StaticInstructionType.LOAD || staticInstruction.getMnemonic().getType() == StaticInstructionType.STORE)
+                        ? StaticInstruction.getEffectiveAddress(this.context, staticInstruction.getMachineInstruction()) : -1;
+
                 StaticInstruction.execute(staticInstruction, this.context);
 
                 if (!this.context.isPseudoCallEncounteredInLastInstructionExecution() && staticInstruction.getMnemonic().getType() != StaticInstructionType.NOP) {
                     this.numInstructions++;
+
+                    if (this.traceWriter != null) {
+                        this.captureInstruction(pc, staticInstruction, effectiveAddress);
+                    }
                 }
 
             }
@@ -86,6 +163,40 @@ public class BasicThread extends AbstractBasicThread {
         }
     }
 
+    /**
+     * Capture the specified instruction that has just been executed into the instruction trace, together with the
+     * mappings of the pages that it touches.
+     *
+     * @param pc                the value of the program counter (PC)
+     * @param staticInstruction the static instruction
+     * @param effectiveAddress  the effective address if the instruction is a load or a store
+     */
+    private void captureInstruction(int pc, StaticInstruction staticInstruction, int effectiveAddress) {
+        Memory memory = this.context.getProcess().getMemory();
+
+        this.traceWriter.writePageMapping(pc, memory.getPhysicalAddress(pc));
+
+        if (effectiveAddress != -1) {
+            this.traceWriter.writePageMapping(effectiveAddress, memory.getPhysicalAddress(effectiveAddress));
+        }
+
+        this.traceWriter.write(pc, staticInstruction, effectiveAddress, this.context.getRegisterFile().getNpc(), this.context.getRegisterFile().getNnpc());
+    }
+
+    @Override
+    public void beginInstructionTraceCapture(File file) {
+        this.closeInstructionTrace();
+        this.traceWriter = new InstructionTraceWriter(file);
+    }
+
+    @Override
+    public void closeInstructionTrace() {
+        if (this.traceWriter != null) {
+            this.traceWriter.close();
+            this.traceWriter = null;
+        }
+    }
+
     @Override
     public void warmupOneCycle() {
         if (this.context != null && this.context.getState() == ContextState.RUNNING && !this.fetchStalled) {
@@ -93,7 +204,8 @@ public class BasicThread extends AbstractBasicThread {
                 StaticInstruction staticInstruction;
                 do {
                     staticInstruction = this.context.decodeNextInstruction();
-                    this.nextDynamicInstructionInWarmupPhase = new DynamicInstruction(this, this.context.getRegisterFile().getPc(), staticInstruction);
+                    this.releaseNextDynamicInstructionInWarmupPhase();
+                    this.nextDynamicInstructionInWarmupPhase = this.newDynamicInstruction(this.context.getRegisterFile().getPc(), staticInstruction);
                     StaticInstruction.execute(staticInstruction, this.context);
 
                     if (!this.context.isPseudoCallEncounteredInLastInstructionExecution() && staticInstruction.getMnemonic().getType() != StaticInstructionType.NOP) {
@@ -124,21 +236,31 @@ public class BasicThread extends AbstractBasicThread {
                     this.core.load(this.nextDynamicInstructionInWarmupPhase, effectiveAddress, pc, () -> {
                     });
 
-                    this.nextDynamicInstructionInWarmupPhase = null;
+                    this.releaseNextDynamicInstructionInWarmupPhase();
                 }
             } else if (this.nextDynamicInstructionInWarmupPhase.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.STORE) {
                 if (this.core.canStore(this, effectiveAddress)) {
                     this.core.store(this.nextDynamicInstructionInWarmupPhase, effectiveAddress, pc, () -> {
                     });
 
-                    this.nextDynamicInstructionInWarmupPhase = null;
+                    this.releaseNextDynamicInstructionInWarmupPhase();
                 }
             } else {
-                this.nextDynamicInstructionInWarmupPhase = null;
+                this.releaseNextDynamicInstructionInWarmupPhase();
             }
         }
     }
 
+    /**
+     * Release the next dynamic instruction in the warmup phase if any.
+     */
+    private void releaseNextDynamicInstructionInWarmupPhase() {
+        if (this.nextDynamicInstructionInWarmupPhase != null) {
+            this.nextDynamicInstructionInWarmupPhase.release();
+            this.nextDynamicInstructionInWarmupPhase = null;
+        }
+    }
+
     @Override
     public void updateFetchNpcAndNnpcFromRegs() {
         this.fetchNpc = this.context.getRegisterFile().getNpc();
@@ -152,7 +274,7 @@ public class BasicThread extends AbstractBasicThread {
      *
      * @return a value indicating whether the thread can fetch instructions at the moment or not
      */
-    private boolean canFetch() {
+    protected boolean canFetch() {
         if (!this.context.useICache()) {
             this.lastFetchedCacheLine = aligned(this.fetchNpc, this.lineSizeOfICache);
             return true;
@@ -168,9 +290,13 @@ public class BasicThread extends AbstractBasicThread {
                 } else {
                     this.core.ifetch(this, this.fetchNpc, this.fetchNpc, () -> {
                         fetchStalled = false;
-                        this.getBlockingEventDispatcher().dispatch(new StaticInstructionFetchEndEvent(this, this.getCycleAccurateEventQueue().getCurrentCycle(), this.id, this.fetchNpc));
+                        if (this.getBlockingEventDispatcher().hasListeners(StaticInstructionFetchEndEvent.class)) {
+                            this.getBlockingEventDispatcher().dispatch(new StaticInstructionFetchEndEvent(this, this.getCycleAccurateEventQueue().getCurrentCycle(), this.id, this.fetchNpc));
+                        }
                     });
-                    this.getBlockingEventDispatcher().dispatch(new StaticInstructionFetchBeginEvent(this, this.getCycleAccurateEventQueue().getCurrentCycle(), this.id, this.fetchNpc));
+                    if (this.getBlockingEventDispatcher().hasListeners(StaticInstructionFetchBeginEvent.class)) {
+                        this.getBlockingEventDispatcher().dispatch(new StaticInstructionFetchBeginEvent(this, this.getCycleAccurateEventQueue().getCurrentCycle(), this.id, this.fetchNpc));
+                    }
 
                     this.fetchStalled = true;
                     this.lastFetchedCacheLine = cacheLineToFetch;
@@ -201,45 +327,37 @@ public class BasicThread extends AbstractBasicThread {
                 break;
             }
 
-            if (this.context.getRegisterFile().getNpc() != this.fetchNpc) {
-                if (this.context.isSpeculative()) {
-                    this.context.getRegisterFile().setNpc(this.fetchNpc);
-                } else {
-                    this.context.enterSpeculativeState();
-                }
+            if (this.getSimulation().isSimulatingCoresInParallel()) {
+                // the kernel and the process memories are shared among the cores simulated in parallel
+                this.getSimulation().getParallelDetailedSimulationEngine().awaitTurn(this);
             }
 
-            DynamicInstruction dynamicInstruction;
-
-            do {
-                StaticInstruction staticInstruction = this.context.decodeNextInstruction();
-                dynamicInstruction = new DynamicInstruction(this, this.context.getRegisterFile().getPc(), staticInstruction);
-                StaticInstruction.execute(staticInstruction, this.context);
-
-                if (this.context.isPseudoCallEncounteredInLastInstructionExecution() || dynamicInstruction.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.NOP) {
-                    this.updateFetchNpcAndNnpcFromRegs();
-                }
-
-            }
-            while (this.context.isPseudoCallEncounteredInLastInstructionExecution() || dynamicInstruction.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.NOP);
+            DynamicInstruction dynamicInstruction = this.executeNextInstruction();
 
             this.fetchNpc = this.fetchNnpc;
 
             if (!this.context.isSpeculative() && this.context.getState() != ContextState.RUNNING) {
+                if (this.lastDecodedDynamicInstruction != null) {
+                    this.lastDecodedDynamicInstruction.release();
+                }
+
+                dynamicInstruction.retain();
                 this.lastDecodedDynamicInstruction = dynamicInstruction;
                 this.lastDecodedDynamicInstructionCommitted = false;
             }
 
-            this.getBlockingEventDispatcher().dispatch(new DynamicInstructionDecodedEvent(dynamicInstruction));
+            if (this.getBlockingEventDispatcher().hasListeners(DynamicInstructionDecodedEvent.class)) {
+                this.getBlockingEventDispatcher().dispatch(new DynamicInstructionDecodedEvent(dynamicInstruction));
+            }
 
             if ((this.fetchNpc + 4) % this.lineSizeOfICache == 0) {
                 hasDone = true;
             }
 
-            BranchPredictorUpdate branchPredictorUpdate = new BranchPredictorUpdate();
+            BranchPredictorUpdate branchPredictorUpdate = this.newBranchPredictorUpdate();
 
-            Reference<Integer> returnAddressStackRecoverIndexRef = new Reference<>(0);
-            int destination = dynamicInstruction.getStaticInstruction().getMnemonic().isControl() ? this.branchPredictor.predict(this.fetchNpc, 0, dynamicInstruction.getStaticInstruction().getMnemonic(), branchPredictorUpdate, returnAddressStackRecoverIndexRef) : this.fetchNpc + 4;
+            this.returnAddressStackRecoverIndexRef.set(0);
+            int destination = dynamicInstruction.getStaticInstruction().getMnemonic().isControl() ? this.branchPredictor.predict(this.fetchNpc, 0, dynamicInstruction.getStaticInstruction().getMnemonic(), branchPredictorUpdate, this.returnAddressStackRecoverIndexRef) : this.fetchNpc + 4;
 
             this.fetchNnpc = destination <= 1 ? this.fetchNpc + 4 : destination;
 
@@ -247,18 +365,54 @@ public class BasicThread extends AbstractBasicThread {
                 hasDone = true;
             }
 
-            this.decodeBuffer.getEntries().add(new DecodeBufferEntry(dynamicInstruction, this.context.getRegisterFile().getNpc(), this.context.getRegisterFile().getNnpc(), this.fetchNnpc, returnAddressStackRecoverIndexRef.get(), branchPredictorUpdate, this.context.isSpeculative()));
+            this.decodeBuffer.add(this.newDecodeBufferEntry(dynamicInstruction, this.context.getRegisterFile().getNpc(), this.context.getRegisterFile().getNnpc(), this.fetchNnpc, this.returnAddressStackRecoverIndexRef.get(), branchPredictorUpdate, this.context.isSpeculative()));
         }
     }
 
+    /**
+     * Execute the next instruction on the context, skipping the pseudo calls and NOPs which are not put into the decode buffer.
+     *
+     * @return the dynamic instruction executed
+     */
+    private DynamicInstruction executeNextInstruction() {
+        if (this.context.getRegisterFile().getNpc() != this.fetchNpc) {
+            if (this.context.isSpeculative()) {
+                this.context.getRegisterFile().setNpc(this.fetchNpc);
+            } else {
+                this.context.enterSpeculativeState();
+            }
+        }
+
+        DynamicInstruction dynamicInstruction = null;
+
+        do {
+            if (dynamicInstruction != null) {
+                // the pseudo call or NOP is not put into the decode buffer
+                dynamicInstruction.release();
+            }
+
+            StaticInstruction staticInstruction = this.context.decodeNextInstruction();
+            dynamicInstruction = this.newDynamicInstruction(this.context.getRegisterFile().getPc(), staticInstruction);
+            StaticInstruction.execute(staticInstruction, this.context);
+
+            if (this.context.isPseudoCallEncounteredInLastInstructionExecution() || dynamicInstruction.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.NOP) {
+                this.updateFetchNpcAndNnpcFromRegs();
+            }
+
+        }
+        while (this.context.isPseudoCallEncounteredInLastInstructionExecution() || dynamicInstruction.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.NOP);
+
+        return dynamicInstruction;
+    }
+
     @Override
     public boolean registerRenameOne() {
-        DecodeBufferEntry decodeBufferEntry = this.decodeBuffer.getEntries().get(0);
+        DecodeBufferEntry decodeBufferEntry = this.decodeBuffer.getFirst();
 
         DynamicInstruction dynamicInstruction = decodeBufferEntry.getDynamicInstruction();
 
-        for (Map.Entry<RegisterDependencyType, Integer> entry : dynamicInstruction.getStaticInstruction().getNumFreePhysicalRegistersToAllocate().entrySet()) {
-            if (this.getPhysicalRegisterFile(entry.getKey()).getNumFreePhysicalRegisters() < entry.getValue()) {
+        for (RegisterDependencyType registerDependencyType : REGISTER_DEPENDENCY_TYPES) {
+            if (this.getPhysicalRegisterFile(registerDependencyType).getNumFreePhysicalRegisters() < dynamicInstruction.getStaticInstruction().getNumFreePhysicalRegistersToAllocate(registerDependencyType)) {
                 return false;
             }
         }
@@ -268,27 +422,36 @@ public class BasicThread extends AbstractBasicThread {
             return false;
         }
 
-        ReorderBufferEntry reorderBufferEntry = new ReorderBufferEntry(this, dynamicInstruction, decodeBufferEntry.getNpc(), decodeBufferEntry.getNnpc(), decodeBufferEntry.getPredictedNnpc(), decodeBufferEntry.getReturnAddressStackRecoverIndex(), decodeBufferEntry.getBranchPredictorUpdate(), decodeBufferEntry.isSpeculative());
+        ReorderBufferEntry reorderBufferEntry = this.newReorderBufferEntry(dynamicInstruction, decodeBufferEntry.getNpc(), decodeBufferEntry.getNnpc(), decodeBufferEntry.getPredictedNnpc(), decodeBufferEntry.getReturnAddressStackRecoverIndex(), decodeBufferEntry.getBranchPredictorUpdate(), decodeBufferEntry.isSpeculative());
         reorderBufferEntry.setEffectiveAddressComputation(dynamicInstruction.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.LOAD || dynamicInstruction.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.STORE);
 
-        for (int inputDependency : reorderBufferEntry.getDynamicInstruction().getStaticInstruction().getInputDependencies()) {
-            reorderBufferEntry.getSourcePhysicalRegisters().put(inputDependency, this.renameTable.get(inputDependency));
+        int[] sourceDependencies = dynamicInstruction.getStaticInstruction().getSourceDependencies();
+        PhysicalRegister[] sourcePhysicalRegisters = reorderBufferEntry.getSourcePhysicalRegisters();
+
+        for (int i = 0; i < sourceDependencies.length; i++) {
+            sourcePhysicalRegisters[i] = this.renameTable.get(sourceDependencies[i]);
         }
 
-        reorderBufferEntry.getDynamicInstruction().getStaticInstruction().getOutputDependencies().stream().filter(outputDependency -> outputDependency != 0).forEach(outputDependency -> {
-            reorderBufferEntry.getOldPhysicalRegisters().put(outputDependency, this.renameTable.get(outputDependency));
-            PhysicalRegister physReg = this.getPhysicalRegisterFile(RegisterDependencyType.getType(outputDependency)).allocate(outputDependency);
-            this.renameTable.put(outputDependency, physReg);
-            reorderBufferEntry.getTargetPhysicalRegisters().put(outputDependency, physReg);
-        });
+        int[] targetDependencies = dynamicInstruction.getStaticInstruction().getTargetDependencies();
+        PhysicalRegister[] oldPhysicalRegisters = reorderBufferEntry.getOldPhysicalRegisters();
+        PhysicalRegister[] targetPhysicalRegisters = reorderBufferEntry.getTargetPhysicalRegisters();
+
+        for (int i = 0; i < targetDependencies.length; i++) {
+            oldPhysicalRegisters[i] = this.renameTable.get(targetDependencies[i]);
+            PhysicalRegister physReg = this.getPhysicalRegisterFile(RegisterDependencyType.getType(targetDependencies[i])).allocate(targetDependencies[i]);
+            this.renameTable.put(targetDependencies[i], physReg);
+            targetPhysicalRegisters[i] = physReg;
+        }
 
-        reorderBufferEntry.getSourcePhysicalRegisters().values().stream().filter(physicalRegister -> !physicalRegister.isReady()).forEach(physicalRegister -> {
-            reorderBufferEntry.setNumNotReadyOperands(reorderBufferEntry.getNumNotReadyOperands() + 1);
-            physicalRegister.getDependents().add(reorderBufferEntry);
-        });
+        for (PhysicalRegister physicalRegister : sourcePhysicalRegisters) {
+            if (!physicalRegister.isReady()) {
+                reorderBufferEntry.setNumNotReadyOperands(reorderBufferEntry.getNumNotReadyOperands() + 1);
+                physicalRegister.getDependents().add(reorderBufferEntry);
+            }
+        }
 
         if (reorderBufferEntry.isEffectiveAddressComputation()) {
-            PhysicalRegister physicalRegister = reorderBufferEntry.getSourcePhysicalRegisters().get(reorderBufferEntry.getDynamicInstruction().getStaticInstruction().getInputDependencies().get(0));
+            PhysicalRegister physicalRegister = sourcePhysicalRegisters[0];
             if (!physicalRegister.isReady()) {
                 physicalRegister.getEffectiveAddressComputationOperandDependents().add(reorderBufferEntry);
             } else {
@@ -297,101 +460,160 @@ public class BasicThread extends AbstractBasicThread {
         }
 
         if (dynamicInstruction.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.LOAD || dynamicInstruction.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.STORE) {
-            LoadStoreQueueEntry loadStoreQueueEntry = new LoadStoreQueueEntry(this, dynamicInstruction, decodeBufferEntry.getNpc(), decodeBufferEntry.getNnpc(), decodeBufferEntry.getPredictedNnpc(), 0, null, false);
+            LoadStoreQueueEntry loadStoreQueueEntry = this.newLoadStoreQueueEntry(dynamicInstruction, decodeBufferEntry.getNpc(), decodeBufferEntry.getNnpc(), decodeBufferEntry.getPredictedNnpc(), 0, null, false);
             loadStoreQueueEntry.setEffectiveAddress(dynamicInstruction.getEffectiveAddress());
 
             loadStoreQueueEntry.setSourcePhysicalRegisters(reorderBufferEntry.getSourcePhysicalRegisters());
             loadStoreQueueEntry.setTargetPhysicalRegisters(reorderBufferEntry.getTargetPhysicalRegisters());
 
-            loadStoreQueueEntry.getSourcePhysicalRegisters().values().stream().filter(physicalRegister -> !physicalRegister.isReady()).forEach(physicalRegister -> {
-                physicalRegister.getDependents().add(loadStoreQueueEntry);
-            });
+            for (PhysicalRegister physicalRegister : sourcePhysicalRegisters) {
+                if (!physicalRegister.isReady()) {
+                    physicalRegister.getDependents().add(loadStoreQueueEntry);
+                }
+            }
 
             loadStoreQueueEntry.setNumNotReadyOperands(reorderBufferEntry.getNumNotReadyOperands());
 
-            PhysicalRegister storeAddressPhysicalRegister = loadStoreQueueEntry.getSourcePhysicalRegisters().get(loadStoreQueueEntry.getDynamicInstruction().getStaticInstruction().getInputDependencies().get(0));
+            PhysicalRegister storeAddressPhysicalRegister = sourcePhysicalRegisters[0];
             if (!storeAddressPhysicalRegister.isReady()) {
                 storeAddressPhysicalRegister.getStoreAddressDependents().add(loadStoreQueueEntry);
             } else {
                 loadStoreQueueEntry.setStoreAddressReady(true);
             }
 
-            this.loadStoreQueue.getEntries().add(loadStoreQueueEntry);
+            this.loadStoreQueue.add(loadStoreQueueEntry);
+
+            if (this.storeSetPredictor != null) {
+                if (dynamicInstruction.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.STORE) {
+                    this.storeSetPredictor.storeRenamed(loadStoreQueueEntry);
+                } else {
+                    loadStoreQueueEntry.setStoreDependence(this.storeSetPredictor.predict(loadStoreQueueEntry));
+                }
+            }
 
             reorderBufferEntry.setLoadStoreQueueEntry(loadStoreQueueEntry);
         }
 
-        this.reorderBuffer.getEntries().add(reorderBufferEntry);
+        this.reorderBuffer.add(reorderBufferEntry);
+
+        this.decodeBuffer.removeFirst();
 
-        this.decodeBuffer.getEntries().remove(0);
+        // the dynamic instruction and the branch predictor update are handed over to the reorder buffer entry
+        this.freeDecodeBufferEntries.push(decodeBufferEntry);
 
         return true;
     }
 
     @Override
     public boolean dispatchOne() {
-        for (ReorderBufferEntry reorderBufferEntry : this.reorderBuffer.getEntries()) {
-            if (!reorderBufferEntry.isDispatched()) {
-                if (reorderBufferEntry.isAllOperandReady()) {//TODO: is it correct or efficient?
-                    this.core.getReadyInstructionQueue().add(reorderBufferEntry);
-                } else {
-                    this.core.getWaitingInstructionQueue().add(reorderBufferEntry);
-                }
+        ReorderBufferEntry reorderBufferEntry = this.reorderBuffer.getNextToDispatch();
 
-                reorderBufferEntry.setDispatched();
+        if (reorderBufferEntry == null) {
+            return false;
+        }
 
-                if (reorderBufferEntry.getLoadStoreQueueEntry() != null) {
-                    LoadStoreQueueEntry loadStoreQueueEntry = reorderBufferEntry.getLoadStoreQueueEntry();
+        this.core.dispatchToInstructionQueue(reorderBufferEntry);
 
-                    if (loadStoreQueueEntry.getDynamicInstruction().getStaticInstruction().getMnemonic().getType() == StaticInstructionType.STORE) {
-                        if (loadStoreQueueEntry.isAllOperandReady()) {//TODO: is it correct or efficient?
-                            this.core.getReadyStoreQueue().add(loadStoreQueueEntry);
-                        } else {
-                            this.core.getWaitingStoreQueue().add(loadStoreQueueEntry);
-                        }
-                    }
+        reorderBufferEntry.setDispatched();
+        this.reorderBuffer.advanceDispatchPointer();
 
-                    loadStoreQueueEntry.setDispatched();
-                }
+        if (reorderBufferEntry.getLoadStoreQueueEntry() != null) {
+            LoadStoreQueueEntry loadStoreQueueEntry = reorderBufferEntry.getLoadStoreQueueEntry();
 
-                return true;
+            if (loadStoreQueueEntry.getDynamicInstruction().getStaticInstruction().getMnemonic().getType() == StaticInstructionType.STORE) {
+                this.core.dispatchToStoreQueue(loadStoreQueueEntry);
+            }
+
+            loadStoreQueueEntry.setDispatched();
+
+            if (loadStoreQueueEntry.getDynamicInstruction().getStaticInstruction().getMnemonic().getType() == StaticInstructionType.LOAD) {
+                this.loadStoreQueue.wakeUp(loadStoreQueueEntry);
             }
         }
 
-        return false;
+        return true;
     }
 
     @Override
-    public void refreshLoadStoreQueue() { //TODO: to be clarified
-        List<Integer> stdUnknowns = new ArrayList<>();
+    public void refreshLoadStoreQueue() {
+        this.refreshLoadStoreQueue(false);
+    }
 
-        for (LoadStoreQueueEntry loadStoreQueueEntry : this.loadStoreQueue.getEntries()) {
-            if (loadStoreQueueEntry.getDynamicInstruction().getStaticInstruction().getMnemonic().getType() == StaticInstructionType.STORE) {
-                if (loadStoreQueueEntry.isStoreAddressReady()) {
-                    break;
-                } else if (!loadStoreQueueEntry.isAllOperandReady()) {
-                    stdUnknowns.add(loadStoreQueueEntry.getEffectiveAddress());
-                } else {
-                    for (int i = 0; i < stdUnknowns.size(); i++) {
-                        if (stdUnknowns.get(i) == loadStoreQueueEntry.getEffectiveAddress()) {
-                            stdUnknowns.set(i, 0);
-                        }
-                    }
-                }
+    /**
+     * Refresh the load/store queue by examining the loads that have been woken up since it was last refreshed in program order.
+     * A load becomes ready as soon as it has been dispatched, its operands are ready and it waits for no store;
+     * otherwise it waits for the store which keeps it from becoming ready, until the store is issued or retired.
+     *
+     * @param dryRun a value indicating whether the load/store queue is left untouched or not
+     * @return a value indicating whether any load is (or would be) added to the ready load queue or not
+     */
+    private boolean refreshLoadStoreQueue(boolean dryRun) {
+        List<LoadStoreQueueEntry> loadsToRefresh = this.loadStoreQueue.getLoadsToRefresh();
+
+        if (loadsToRefresh.isEmpty()) {
+            return false;
+        }
+
+        if (!dryRun) {
+            loadsToRefresh.sort(COMPARATOR_LOAD_STORE_QUEUE_ENTRY_SEQUENCE);
+        }
+
+        boolean refreshed = false;
+
+        LoadStoreQueueEntry previousLoad = null;
+
+        for (LoadStoreQueueEntry load : loadsToRefresh) {
+            if (load == previousLoad) {
+                continue;
             }
 
-            if (loadStoreQueueEntry.getDynamicInstruction().getStaticInstruction().getMnemonic().getType() == StaticInstructionType.LOAD && loadStoreQueueEntry.isDispatched() && !this.core.getReadyLoadQueue().contains(loadStoreQueueEntry) && !loadStoreQueueEntry.isIssued() && !loadStoreQueueEntry.isCompleted() && loadStoreQueueEntry.isAllOperandReady()) {
-                if (!stdUnknowns.contains(loadStoreQueueEntry.getEffectiveAddress())) {
-                    this.core.getReadyLoadQueue().add(loadStoreQueueEntry);
+            previousLoad = load;
+
+            if (!this.loadStoreQueue.contains(load) || !load.isDispatched() || load.isInReadyLoadQueue() || load.isIssued() || load.isCompleted() || !load.isAllOperandReady()) {
+                continue;
+            }
+
+            LoadStoreQueueEntry store = this.getStoreToWaitFor(load);
+
+            if (store != null) {
+                if (!dryRun) {
+                    this.loadStoreQueue.waitFor(load, store);
+                }
+            } else {
+                if (dryRun) {
+                    return true;
                 }
+
+                this.core.getReadyLoadQueue().add(load);
+                load.setInReadyLoadQueue(true);
+                refreshed = true;
             }
         }
+
+        if (!dryRun) {
+            loadsToRefresh.clear();
+        }
+
+        return refreshed;
+    }
+
+    /**
+     * Get the store that the specified load has to wait for, which is the store that it is predicted to depend on when the store set predictor is enabled;
+     * otherwise the oldest store older than the load that either has its address ready or writes to the same effective address.
+     *
+     * @param load the load
+     * @return the store that the specified load has to wait for if any; otherwise null
+     */
+    private LoadStoreQueueEntry getStoreToWaitFor(LoadStoreQueueEntry load) {
+        if (this.storeSetPredictor != null) {
+            return load.isWaitingForStoreDependence() ? load.getStoreDependence() : null;
+        }
+
+        return this.loadStoreQueue.findOldestBlockingStore(load);
     }
 
     @Override
     public void commit() {
-        int COMMIT_TIMEOUT = 1000000;
-
         if (this.getCycleAccurateEventQueue().getCurrentCycle() - this.lastCommitCycle > COMMIT_TIMEOUT) {
             if (noDynamicInstructionCommittedCounterThreshold > 5) {
                 getSimulation().dumpPendingFlowTree();
@@ -406,7 +628,7 @@ public class BasicThread extends AbstractBasicThread {
         int numCommitted = 0;
 
         while (!this.reorderBuffer.isEmpty() && numCommitted < getExperiment().getConfig().getCommitWidth()) {
-            ReorderBufferEntry reorderBufferEntry = this.reorderBuffer.getEntries().get(0);
+            ReorderBufferEntry reorderBufferEntry = this.reorderBuffer.getFirst();
 
             if (!reorderBufferEntry.isCompleted()) {
                 reorderBufferEntry.getDynamicInstruction().setNumCyclesSpentAtHeadOfReorderBuffer(reorderBufferEntry.getDynamicInstruction().getNumCyclesSpentAtHeadOfReorderBuffer() + 1);
@@ -418,6 +640,10 @@ public class BasicThread extends AbstractBasicThread {
                     ((DynamicBranchPredictor) this.branchPredictor).getReturnAddressStack().recover(reorderBufferEntry.getReturnAddressStackRecoverIndex());
                 }
 
+                if (this.getSimulation().isSimulatingCoresInParallel()) {
+                    this.getSimulation().getParallelDetailedSimulationEngine().awaitTurn(this);
+                }
+
                 this.context.exitSpeculativeState();
 
                 this.fetchNpc = this.context.getRegisterFile().getNpc();
@@ -436,13 +662,13 @@ public class BasicThread extends AbstractBasicThread {
 
                 this.core.removeFromQueues(loadStoreQueueEntry);
 
-                this.loadStoreQueue.getEntries().remove(loadStoreQueueEntry);
+                checkLoadStoreQueueEntryRemoved(loadStoreQueueEntry, this.loadStoreQueue.removeFirst());
             }
 
-            reorderBufferEntry.getDynamicInstruction().getStaticInstruction().getOutputDependencies().stream().filter(outputDependency -> outputDependency != 0).forEach(outputDependency -> {
-                reorderBufferEntry.getOldPhysicalRegisters().get(outputDependency).reclaim();
-                reorderBufferEntry.getTargetPhysicalRegisters().get(outputDependency).commit();
-            });
+            for (int i = 0; i < reorderBufferEntry.getTargetPhysicalRegisters().length; i++) {
+                reorderBufferEntry.getOldPhysicalRegisters()[i].reclaim();
+                reorderBufferEntry.getTargetPhysicalRegisters()[i].commit();
+            }
 
             if (reorderBufferEntry.getDynamicInstruction().getStaticInstruction().getMnemonic().isControl()) {
                 this.branchPredictor.update(
@@ -458,13 +684,17 @@ public class BasicThread extends AbstractBasicThread {
 
             this.core.removeFromQueues(reorderBufferEntry);
 
-            this.getBlockingEventDispatcher().dispatch(new DynamicInstructionCommittedEvent(reorderBufferEntry.getDynamicInstruction()));
+            if (this.getBlockingEventDispatcher().hasListeners(DynamicInstructionCommittedEvent.class)) {
+                this.getBlockingEventDispatcher().dispatch(new DynamicInstructionCommittedEvent(reorderBufferEntry.getDynamicInstruction()));
+            }
 
             if (this.context.getState() == ContextState.FINISHED && reorderBufferEntry.getDynamicInstruction() == this.lastDecodedDynamicInstruction) {
                 this.lastDecodedDynamicInstructionCommitted = true;
             }
 
-            this.reorderBuffer.getEntries().remove(0);
+            this.reorderBuffer.removeFirst();
+
+            this.recycle(reorderBufferEntry);
 
             this.numInstructions++;
 
@@ -481,35 +711,333 @@ public class BasicThread extends AbstractBasicThread {
 //		Logger.infof(Logger.THREAD, "%s: squash", this.getName());
 
         while (!this.reorderBuffer.isEmpty()) {
-            ReorderBufferEntry reorderBufferEntry = this.reorderBuffer.getEntries().get(this.reorderBuffer.getEntries().size() - 1);
+            ReorderBufferEntry reorderBufferEntry = this.reorderBuffer.getLast();
 
             if (reorderBufferEntry.isEffectiveAddressComputation()) {
                 LoadStoreQueueEntry loadStoreQueueEntry = reorderBufferEntry.getLoadStoreQueueEntry();
 
                 this.core.removeFromQueues(loadStoreQueueEntry);
 
-                this.loadStoreQueue.getEntries().remove(loadStoreQueueEntry);
+                checkLoadStoreQueueEntryRemoved(loadStoreQueueEntry, this.loadStoreQueue.removeLast());
             }
 
             this.core.removeFromQueues(reorderBufferEntry);
 
-            reorderBufferEntry.getDynamicInstruction().getStaticInstruction().getOutputDependencies().stream().filter(outputDependency -> outputDependency != 0).forEach(outputDependency -> {
-                reorderBufferEntry.getTargetPhysicalRegisters().get(outputDependency).recover();
-                this.renameTable.put(outputDependency, reorderBufferEntry.getOldPhysicalRegisters().get(outputDependency));
-            });
+            for (PhysicalRegister sourcePhysicalRegister : reorderBufferEntry.getSourcePhysicalRegisters()) {
+                sourcePhysicalRegister.removeSquashedDependents();
+            }
+
+            int[] targetDependencies = reorderBufferEntry.getDynamicInstruction().getStaticInstruction().getTargetDependencies();
+
+            for (int i = 0; i < targetDependencies.length; i++) {
+                reorderBufferEntry.getTargetPhysicalRegisters()[i].recover();
+                this.renameTable.put(targetDependencies[i], reorderBufferEntry.getOldPhysicalRegisters()[i]);
+            }
+
+            Arrays.fill(reorderBufferEntry.getTargetPhysicalRegisters(), null);
 
-            reorderBufferEntry.getTargetPhysicalRegisters().clear();
+            this.reorderBuffer.removeLast();
 
-            this.reorderBuffer.getEntries().remove(reorderBufferEntry);
+            this.squashedReorderBufferEntries.add(reorderBufferEntry);
         }
 
-        if (!this.reorderBuffer.getEntries().isEmpty() || !this.loadStoreQueue.getEntries().isEmpty()) {
+        if (!this.reorderBuffer.isEmpty() || !this.loadStoreQueue.isEmpty()) {
             throw new IllegalArgumentException();
         }
 
+        // the squashed entries can be recycled once they are no longer reachable from the queues of the core
+        this.core.removeSquashedFromQueues();
+
+        for (ReorderBufferEntry reorderBufferEntry : this.squashedReorderBufferEntries) {
+            this.recycle(reorderBufferEntry);
+        }
+
+        this.squashedReorderBufferEntries.clear();
+
         this.core.getFunctionalUnitPool().releaseAll(); //TODO: is it correct or just release those FUs that this thread uses?
 
-        this.decodeBuffer.getEntries().clear();
+        for (DecodeBufferEntry decodeBufferEntry : this.decodeBuffer) {
+            this.recycle(decodeBufferEntry);
+        }
+
+        this.decodeBuffer.clear();
+    }
+
+    /**
+     * Get a dynamic instruction for the specified PC and static instruction, reusing a recycled one if any.
+     *
+     * @param pc                the value of the program counter (PC)
+     * @param staticInstruction the static instruction
+     * @return a dynamic instruction for the specified PC and static instruction
+     */
+    protected DynamicInstruction newDynamicInstruction(int pc, StaticInstruction staticInstruction) {
+        DynamicInstruction dynamicInstruction = this.freeDynamicInstructions.poll();
+
+        if (dynamicInstruction == null) {
+            return new DynamicInstruction(this, pc, staticInstruction);
+        }
+
+        dynamicInstruction.reset(pc, staticInstruction);
+        return dynamicInstruction;
+    }
+
+    /**
+     * Get a dynamic instruction for the specified PC, static instruction and effective address, reusing a recycled one if any.
+     *
+     * @param pc                the value of the program counter (PC)
+     * @param staticInstruction the static instruction
+     * @param effectiveAddress  the effective address if the instruction is a load or a store
+     * @return a dynamic instruction for the specified PC, static instruction and effective address
+     */
+    protected DynamicInstruction newDynamicInstruction(int pc, StaticInstruction staticInstruction, int effectiveAddress) {
+        DynamicInstruction dynamicInstruction = this.freeDynamicInstructions.poll();
+
+        if (dynamicInstruction == null) {
+            return new DynamicInstruction(this, pc, staticInstruction, effectiveAddress);
+        }
+
+        dynamicInstruction.reset(pc, staticInstruction, effectiveAddress);
+        return dynamicInstruction;
+    }
+
+    /**
+     * Get a cleared branch predictor update, reusing a recycled one if any.
+     *
+     * @return a cleared branch predictor update
+     */
+    protected BranchPredictorUpdate newBranchPredictorUpdate() {
+        BranchPredictorUpdate branchPredictorUpdate = this.freeBranchPredictorUpdates.poll();
+
+        if (branchPredictorUpdate == null) {
+            return new BranchPredictorUpdate();
+        }
+
+        branchPredictorUpdate.reset();
+        return branchPredictorUpdate;
+    }
+
+    /**
+     * Get a decode buffer entry, reusing a recycled one if any.
+     *
+     * @param dynamicInstruction             the dynamic instruction
+     * @param npc                            the value of the next program counter (NPC)
+     * @param nnpc                           the value of the next next program counter (NNPC)
+     * @param predictedNnpc                  the predicted value of the next next program counter (predicted NNPC)
+     * @param returnAddressStackRecoverIndex the return address stack recover index
+     * @param branchPredictorUpdate          the branch predictor update
+     * @param speculative                    a value indicating whether the decode buffer entry is speculative or not
+     * @return a decode buffer entry
+     */
+    protected DecodeBufferEntry newDecodeBufferEntry(DynamicInstruction dynamicInstruction, int npc, int nnpc, int predictedNnpc, int returnAddressStackRecoverIndex, BranchPredictorUpdate branchPredictorUpdate, boolean speculative) {
+        DecodeBufferEntry decodeBufferEntry = this.freeDecodeBufferEntries.poll();
+
+        if (decodeBufferEntry == null) {
+            return new DecodeBufferEntry(dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
+        }
+
+        decodeBufferEntry.reset(dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
+        return decodeBufferEntry;
+    }
+
+    /**
+     * Get a reorder buffer entry, reusing a recycled one if any.
+     *
+     * @param dynamicInstruction             the dynamic instruction
+     * @param npc                            the value of the next program counter (NPC)
+     * @param nnpc                           the value of the next next program counter (NNPC)
+     * @param predictedNnpc                  the predicted value of the next next program counter (predicted NNPC)
+     * @param returnAddressStackRecoverIndex the return address stack recover index
+     * @param branchPredictorUpdate          the branch predictor update
+     * @param speculative                    a value indicating whether the reorder buffer entry is speculative or not
+     * @return a reorder buffer entry
+     */
+    private ReorderBufferEntry newReorderBufferEntry(DynamicInstruction dynamicInstruction, int npc, int nnpc, int predictedNnpc, int returnAddressStackRecoverIndex, BranchPredictorUpdate branchPredictorUpdate, boolean speculative) {
+        ReorderBufferEntry reorderBufferEntry = this.freeReorderBufferEntries.poll();
+
+        if (reorderBufferEntry == null) {
+            return new ReorderBufferEntry(this, dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
+        }
+
+        reorderBufferEntry.reset(dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
+        return reorderBufferEntry;
+    }
+
+    /**
+     * Get a load/store queue entry, reusing a recycled one if any.
+     *
+     * @param dynamicInstruction             the dynamic instruction
+     * @param npc                            the value of the next program counter (NPC)
+     * @param nnpc                           the value of the next next program counter (NNPC)
+     * @param predictedNnpc                  the predicted value of the next next program counter (predicted NNPC)
+     * @param returnAddressStackRecoverIndex the return address stack recover index
+     * @param branchPredictorUpdate          the branch predictor update
+     * @param speculative                    a value indicating whether the load/store queue entry is speculative or not
+     * @return a load/store queue entry
+     */
+    private LoadStoreQueueEntry newLoadStoreQueueEntry(DynamicInstruction dynamicInstruction, int npc, int nnpc, int predictedNnpc, int returnAddressStackRecoverIndex, BranchPredictorUpdate branchPredictorUpdate, boolean speculative) {
+        LoadStoreQueueEntry loadStoreQueueEntry = this.freeLoadStoreQueueEntries.poll();
+
+        if (loadStoreQueueEntry == null) {
+            return new LoadStoreQueueEntry(this, dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
+        }
+
+        loadStoreQueueEntry.reset(dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
+        return loadStoreQueueEntry;
+    }
+
+    /**
+     * Recycle the specified decode buffer entry that is squashed, together with its dynamic instruction and branch predictor update.
+     *
+     * @param decodeBufferEntry the decode buffer entry
+     */
+    private void recycle(DecodeBufferEntry decodeBufferEntry) {
+        decodeBufferEntry.getDynamicInstruction().release();
+        this.freeBranchPredictorUpdates.push(decodeBufferEntry.getBranchPredictorUpdate());
+        this.freeDecodeBufferEntries.push(decodeBufferEntry);
+    }
+
+    /**
+     * Recycle the specified reorder buffer entry that is committed or squashed, together with its load/store queue
+     * entry, dynamic instruction and branch predictor update.
+     *
+     * @param reorderBufferEntry the reorder buffer entry
+     */
+    private void recycle(ReorderBufferEntry reorderBufferEntry) {
+        LoadStoreQueueEntry loadStoreQueueEntry = reorderBufferEntry.getLoadStoreQueueEntry();
+
+        if (loadStoreQueueEntry != null) {
+            loadStoreQueueEntry.recycle();
+            this.freeLoadStoreQueueEntries.push(loadStoreQueueEntry);
+        }
+
+        this.freeBranchPredictorUpdates.push(reorderBufferEntry.getBranchPredictorUpdate());
+
+        reorderBufferEntry.getDynamicInstruction().release();
+
+        reorderBufferEntry.recycle();
+        this.freeReorderBufferEntries.push(reorderBufferEntry);
+    }
+
+    @Override
+    public void recycleDynamicInstruction(DynamicInstruction dynamicInstruction) {
+        this.freeDynamicInstructions.push(dynamicInstruction);
+    }
+
+    /**
+     * Check that the load/store queue entry retired from the load/store queue matches the one of the reorder buffer entry being retired.
+     *
+     * @param loadStoreQueueEntry the load/store queue entry of the reorder buffer entry being retired
+     * @param removed             the load/store queue entry retired from the load/store queue
+     */
+    private static void checkLoadStoreQueueEntryRemoved(LoadStoreQueueEntry loadStoreQueueEntry, LoadStoreQueueEntry removed) {
+        if (removed != loadStoreQueueEntry) {
+            throw new IllegalStateException("The load/store queue is out of order with the reorder buffer");
+        }
+    }
+
+    @Override
+    public void flushPipeline() {
+        if (this.context != null && this.context.isSpeculative()) {
+            if (this.branchPredictor.isDynamic()) {
+                Optional<Integer> returnAddressStackRecoverIndex = this.reorderBuffer.stream().filter(ReorderBufferEntry::isSpeculative).map(ReorderBufferEntry::getReturnAddressStackRecoverIndex).findFirst();
+                if (!returnAddressStackRecoverIndex.isPresent()) {
+                    returnAddressStackRecoverIndex = this.decodeBuffer.stream().filter(DecodeBufferEntry::isSpeculative).map(DecodeBufferEntry::getReturnAddressStackRecoverIndex).findFirst();
+                }
+
+                if (returnAddressStackRecoverIndex.isPresent()) {
+                    ((DynamicBranchPredictor) this.branchPredictor).getReturnAddressStack().recover(returnAddressStackRecoverIndex.get());
+                }
+            }
+
+            this.context.exitSpeculativeState();
+        }
+
+        // the non-speculative instructions in flight have already been executed on the context and are not to be
+        // fetched again, so they are counted as if they were committed
+        this.numInstructions += this.reorderBuffer.stream().filter(reorderBufferEntry -> !reorderBufferEntry.isSpeculative()).count()
+                + this.decodeBuffer.stream().filter(decodeBufferEntry -> !decodeBufferEntry.isSpeculative()).count();
+
+        this.squash();
+
+        this.releaseNextDynamicInstructionInWarmupPhase();
+
+        if (this.context != null) {
+            if (this.context.getState() == ContextState.FINISHED) {
+                this.lastDecodedDynamicInstructionCommitted = true;
+            }
+
+            this.updateFetchNpcAndNnpcFromRegs();
+        }
+    }
+
+    @Override
+    public long getNextBusyCycle() {
+        long currentCycle = this.getCycleAccurateEventQueue().getCurrentCycle();
+
+        if (this.context == null) {
+            return NEVER;
+        }
+
+        switch (this.getSimulation().getType()) {
+            case WARMUP:
+                return this.context.getState() != ContextState.RUNNING || this.fetchStalled ? NEVER : currentCycle;
+            case MEASUREMENT:
+                if (!this.reorderBuffer.isEmpty() && this.reorderBuffer.getFirst().isCompleted()
+                        || this.reorderBuffer.getNextToDispatch() != null
+                        || !this.decodeBuffer.isEmpty() && !this.reorderBuffer.isFull()
+                        || this.refreshLoadStoreQueue(true)
+                        || this.context.getState() == ContextState.RUNNING && this.wouldFetch()) {
+                    return currentCycle;
+                }
+
+                return Math.max(currentCycle, this.lastCommitCycle + COMMIT_TIMEOUT + 1);
+            default:
+                return currentCycle;
+        }
+    }
+
+    /**
+     * Get a value indicating whether the thread would fetch instructions at the moment or not, provided that its context is running.
+     *
+     * @return a value indicating whether the thread would fetch instructions at the moment or not, provided that its context is running
+     */
+    private boolean wouldFetch() {
+        if (this.context.useICache()) {
+            if (this.fetchStalled) {
+                return false;
+            }
+
+            if (aligned(this.fetchNpc, this.lineSizeOfICache) != this.lastFetchedCacheLine) {
+                return true;
+            }
+        }
+
+        return !this.decodeBuffer.isFull();
+    }
+
+    @Override
+    public void skipIdleCycles(long numCycles) {
+        if (this.getSimulation().getType() != SimulationType.MEASUREMENT) {
+            return;
+        }
+
+        if (this.context != null) {
+            if (!this.reorderBuffer.isEmpty()) {
+                DynamicInstruction dynamicInstructionAtHead = this.reorderBuffer.getFirst().getDynamicInstruction();
+                dynamicInstructionAtHead.setNumCyclesSpentAtHeadOfReorderBuffer(dynamicInstructionAtHead.getNumCyclesSpentAtHeadOfReorderBuffer() + (int) numCycles);
+            }
+
+            if (this.context.getState() == ContextState.RUNNING) {
+                if (!this.context.useICache()) {
+                    this.lastFetchedCacheLine = aligned(this.fetchNpc, this.lineSizeOfICache);
+                    this.numFetchStallsOnDecodeBufferIsFull += numCycles;
+                } else if (!this.fetchStalled) {
+                    this.numFetchStallsOnDecodeBufferIsFull += numCycles;
+                }
+            }
+        }
+
+        this.updatePerCycleStats(numCycles);
     }
 
     @Override
@@ -25,6 +25,7 @@ import archimulator.common.report.Reportable;
 import archimulator.core.functionalUnit.FunctionalUnitOperationType;
 import archimulator.core.functionalUnit.FunctionalUnitPool;
 import archimulator.core.functionalUnit.FunctionalUnitType;
+import archimulator.util.event.Quiescent;
 
 import java.util.List;
 
@@ -33,7 +34,7 @@ import java.util.List;
  *
  * @author Min Cai
  */
-public interface Core extends MemoryHierarchyCore, Reportable {
+public interface Core extends MemoryHierarchyCore, Reportable, Quiescent {
     /**
      * Get a value indicating whether the specified thread can fetch the instruction at the specified address.
      *
@@ -92,12 +93,17 @@ public interface Core extends MemoryHierarchyCore, Reportable {
     void store(DynamicInstruction dynamicInstruction, int virtualAddress, int virtualPc, Runnable onCompletedCallback);
 
     /**
-     * Remove the entry from the queues.
+     * Remove the entry from the queues. The entry is marked as squashed and dropped lazily when the queues are next scanned.
      *
      * @param reorderBufferEntry the entry to be removed from the queues
      */
     void removeFromQueues(AbstractReorderBufferEntry reorderBufferEntry);
 
+    /**
+     * Drop the entries marked as squashed from the queues right away, so that the squashed entries can be recycled.
+     */
+    void removeSquashedFromQueues();
+
     /**
      * Do fast forward for one cycle.
      */
@@ -136,32 +142,32 @@ public interface Core extends MemoryHierarchyCore, Reportable {
     FunctionalUnitPool getFunctionalUnitPool();
 
     /**
-     * Get the waiting instruction queue.
+     * Dispatch the specified reorder buffer entry to the instruction queue, where it waits until all of its operands are ready.
      *
-     * @return the waiting instruction queue
+     * @param reorderBufferEntry the reorder buffer entry
      */
-    List<AbstractReorderBufferEntry> getWaitingInstructionQueue();
+    void dispatchToInstructionQueue(AbstractReorderBufferEntry reorderBufferEntry);
 
     /**
-     * Get the ready instruction queue.
+     * Dispatch the specified store to the store queue, where it waits until all of its operands are ready.
      *
-     * @return the ready instruction queue
+     * @param loadStoreQueueEntry the load/store queue entry of the store
      */
-    List<AbstractReorderBufferEntry> getReadyInstructionQueue();
+    void dispatchToStoreQueue(AbstractReorderBufferEntry loadStoreQueueEntry);
 
     /**
-     * Get the ready load queue.
+     * Signal that all the operands of the specified waiting entry are ready, so that it is moved to the corresponding ready queue at the next wakeup.
      *
-     * @return the ready load queue
+     * @param reorderBufferEntry the entry
      */
-    List<AbstractReorderBufferEntry> getReadyLoadQueue();
+    void signalOperandsReady(AbstractReorderBufferEntry reorderBufferEntry);
 
     /**
-     * Get the waiting store queue.
+     * Get the ready load queue.
      *
-     * @return the waiting store queue
+     * @return the ready load queue
      */
-    List<AbstractReorderBufferEntry> getWaitingStoreQueue();
+    List<AbstractReorderBufferEntry> getReadyLoadQueue();
 
     /**
      * Get the ready store queue.
@@ -57,7 +57,30 @@ public class DecodeBufferEntry {
             BranchPredictorUpdate branchPredictorUpdate,
             boolean speculative
     ) {
-        this.id = dynamicInstruction.getThread().getSimulation().currentDecodeBufferEntryId++;
+        this.reset(dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
+    }
+
+    /**
+     * Reset the decode buffer entry so that it can be reused for another fetched instruction.
+     *
+     * @param dynamicInstruction             the dynamic instruction
+     * @param npc                            the value of the next program counter (NPC)
+     * @param nnpc                           the value of the next next program counter (NNPC)
+     * @param predictedNnpc                  the predicted value of the next next program counter (predicted NNPC)
+     * @param returnAddressStackRecoverIndex the return address stack recover index
+     * @param branchPredictorUpdate          the branch predictor update
+     * @param speculative                    a value indicating whether the decode buffer entry is speculative or not
+     */
+    public void reset(
+            DynamicInstruction dynamicInstruction,
+            int npc,
+            int nnpc,
+            int predictedNnpc,
+            int returnAddressStackRecoverIndex,
+            BranchPredictorUpdate branchPredictorUpdate,
+            boolean speculative
+    ) {
+        this.id = dynamicInstruction.getThread().getSimulation().currentDecodeBufferEntryId.getAndIncrement();
         this.dynamicInstruction = dynamicInstruction;
         this.npc = npc;
         this.nnpc = nnpc;
@@ -39,6 +39,8 @@ public class DynamicInstruction extends MemoryHierarchyDynamicInstruction {
 
     private int numCyclesSpentAtHeadOfReorderBuffer;
 
+    private int numReferences;
+
     /**
      * Create a dynamic instruction.
      *
@@ -49,17 +51,92 @@ public class DynamicInstruction extends MemoryHierarchyDynamicInstruction {
     public DynamicInstruction(Thread thread, int pc, StaticInstruction staticInstruction) {
         super(thread, pc, -1);
 
+        this.reset(pc, staticInstruction);
+    }
+
+    /**
+     * Create a dynamic instruction whose effective address is known in advance, e.g., from an instruction trace.
+     *
+     * @param thread            the thread
+     * @param pc                the value of the program counter (PC)
+     * @param staticInstruction the static instruction
+     * @param effectiveAddress  the effective address if the instruction is a load or a store
+     */
+    public DynamicInstruction(Thread thread, int pc, StaticInstruction staticInstruction, int effectiveAddress) {
+        super(thread, pc, -1);
+
+        this.reset(pc, staticInstruction, effectiveAddress);
+    }
+
+    /**
+     * Reset the dynamic instruction so that it can be reused for another instruction of the same thread.
+     *
+     * @param pc                the value of the program counter (PC)
+     * @param staticInstruction the static instruction
+     */
+    public void reset(int pc, StaticInstruction staticInstruction) {
+        this.reset(pc, staticInstruction, isLoadOrStore(staticInstruction) ? StaticInstruction.getEffectiveAddress(this.getThread().getContext(), staticInstruction.getMachineInstruction()) : -1);
+    }
+
+    /**
+     * Reset the dynamic instruction so that it can be reused for another instruction of the same thread whose effective address is known in advance.
+     *
+     * @param pc                the value of the program counter (PC)
+     * @param staticInstruction the static instruction
+     * @param effectiveAddress  the effective address if the instruction is a load or a store
+     */
+    public void reset(int pc, StaticInstruction staticInstruction, int effectiveAddress) {
+        this.reset(pc, -1);
+
         this.staticInstruction = staticInstruction;
 
-        if (this.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.LOAD || this.getStaticInstruction().getMnemonic().getType() == StaticInstructionType.STORE) {
-            this.effectiveAddress = StaticInstruction.getEffectiveAddress(this.getThread().getContext(), this.staticInstruction.getMachineInstruction());
-            this.effectiveAddressBase = StaticInstruction.getEffectiveAddressBase(this.getThread().getContext(), this.staticInstruction.getMachineInstruction());
+        if (isLoadOrStore(this.staticInstruction)) {
+            this.effectiveAddress = effectiveAddress;
             this.effectiveAddressDisplacement = StaticInstruction.getEffectiveAddressDisplacement(this.staticInstruction.getMachineInstruction());
+            this.effectiveAddressBase = effectiveAddress - this.effectiveAddressDisplacement;
 
             this.useStackPointerAsEffectiveAddressBase = StaticInstruction.useStackPointerAsEffectiveAddressBase(this.staticInstruction.getMachineInstruction());
+        } else {
+            this.effectiveAddressBase = 0;
+            this.effectiveAddressDisplacement = 0;
+
+            this.useStackPointerAsEffectiveAddressBase = false;
         }
 
         this.numCyclesSpentAtHeadOfReorderBuffer = 0;
+
+        this.numReferences = 1;
+    }
+
+    /**
+     * Get a value indicating whether the specified static instruction is a load or a store.
+     *
+     * @param staticInstruction the static instruction
+     * @return a value indicating whether the specified static instruction is a load or a store
+     */
+    private static boolean isLoadOrStore(StaticInstruction staticInstruction) {
+        return staticInstruction.getMnemonic().getType() == StaticInstructionType.LOAD || staticInstruction.getMnemonic().getType() == StaticInstructionType.STORE;
+    }
+
+    /**
+     * Retain the dynamic instruction on behalf of a holder other than the pipeline, e.g., an in-flight memory hierarchy access.
+     */
+    public void retain() {
+        this.numReferences++;
+    }
+
+    /**
+     * Release a reference to the dynamic instruction. The dynamic instruction is recycled by its thread once the
+     * pipeline and all the other holders have released it.
+     */
+    public void release() {
+        if (this.numReferences <= 0) {
+            throw new IllegalStateException();
+        }
+
+        if (--this.numReferences == 0) {
+            this.getThread().recycleDynamicInstruction(this);
+        }
     }
 
     /**
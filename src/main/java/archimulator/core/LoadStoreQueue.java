@@ -0,0 +1,391 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.core;
+
+import archimulator.isa.StaticInstructionType;
+import archimulator.util.collection.IntegerObjectHashMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Load/store queue, which maintains an index of the stores it holds by their effective addresses and by whether their addresses are ready.
+ * The indexes are updated incrementally as entries are added at rename and retired at commit or squash,
+ * so that store-to-load forwarding is determined by a single hash lookup and the stores that a load has to wait for are looked up directly.
+ * <p>
+ * A load which is not ready to be issued waits for a specific store and is woken up when the store is issued or retired,
+ * so that the load/store queue is refreshed by examining the loads that have been woken up only.
+ *
+ * @author Min Cai
+ */
+public class LoadStoreQueue extends PipelineBuffer<LoadStoreQueueEntry> {
+    private IntegerObjectHashMap<StoreSequences> storeSequencesPerAddress;
+    private Deque<StoreSequences> freeStoreSequences;
+
+    private BitSet addressReadyStores;
+
+    private List<LoadStoreQueueEntry> loadsToRefresh;
+
+    /**
+     * Create a load/store queue.
+     *
+     * @param capacity the capacity of the load/store queue
+     */
+    public LoadStoreQueue(int capacity) {
+        super(capacity);
+
+        this.storeSequencesPerAddress = new IntegerObjectHashMap<>(capacity);
+        this.freeStoreSequences = new ArrayDeque<>();
+
+        this.addressReadyStores = new BitSet(this.getNumSlots());
+
+        this.loadsToRefresh = new ArrayList<>();
+    }
+
+    @Override
+    public long add(LoadStoreQueueEntry entry) {
+        long sequence = super.add(entry);
+
+        entry.setSequence(sequence);
+
+        if (isStore(entry)) {
+            StoreSequences storeSequences = this.storeSequencesPerAddress.get(entry.getEffectiveAddress());
+
+            if (storeSequences == null) {
+                storeSequences = this.freeStoreSequences.isEmpty() ? new StoreSequences() : this.freeStoreSequences.pop();
+                this.storeSequencesPerAddress.put(entry.getEffectiveAddress(), storeSequences);
+            }
+
+            storeSequences.addLast(sequence);
+
+            if (entry.isStoreAddressReady()) {
+                this.addressReadyStores.set(this.getIndex(sequence));
+            }
+        }
+
+        return sequence;
+    }
+
+    @Override
+    public LoadStoreQueueEntry removeFirst() {
+        long sequence = this.getHeadSequence();
+
+        LoadStoreQueueEntry entry = super.removeFirst();
+
+        if (isStore(entry)) {
+            StoreSequences storeSequences = this.unindex(entry, sequence);
+            storeSequences.removeFirst();
+            this.recycleIfEmpty(entry.getEffectiveAddress(), storeSequences);
+
+            this.wakeUpWaitingLoads(entry);
+        }
+
+        return entry;
+    }
+
+    @Override
+    public LoadStoreQueueEntry removeLast() {
+        long sequence = this.getTailSequence() - 1;
+
+        LoadStoreQueueEntry entry = super.removeLast();
+
+        if (isStore(entry)) {
+            StoreSequences storeSequences = this.unindex(entry, sequence);
+            storeSequences.removeLast();
+            this.recycleIfEmpty(entry.getEffectiveAddress(), storeSequences);
+
+            // the loads waiting for a squashed store are younger than it and hence squashed as well
+            entry.getWaitingLoads().clear();
+        }
+
+        if (this.isEmpty()) {
+            this.loadsToRefresh.clear();
+        }
+
+        return entry;
+    }
+
+    /**
+     * Remove the specified store that has been removed from the load/store queue at the specified sequence number from the index of the stores whose addresses are ready.
+     *
+     * @param store    the store
+     * @param sequence the sequence number of the store
+     * @return the sequence numbers of the stores in the load/store queue to the effective address of the specified store
+     */
+    private StoreSequences unindex(LoadStoreQueueEntry store, long sequence) {
+        this.addressReadyStores.clear(this.getIndex(sequence));
+
+        return this.storeSequencesPerAddress.get(store.getEffectiveAddress());
+    }
+
+    /**
+     * Recycle the specified sequence numbers of the stores to the specified effective address if there is no more store to the address.
+     *
+     * @param effectiveAddress the effective address
+     * @param storeSequences   the sequence numbers of the stores to the specified effective address
+     */
+    private void recycleIfEmpty(int effectiveAddress, StoreSequences storeSequences) {
+        if (storeSequences.isEmpty()) {
+            this.storeSequencesPerAddress.remove(effectiveAddress);
+            this.freeStoreSequences.push(storeSequences);
+        }
+    }
+
+    /**
+     * Act on when the address of the specified entry becomes ready.
+     *
+     * @param entry the entry
+     */
+    public void storeAddressReady(LoadStoreQueueEntry entry) {
+        if (isStore(entry) && this.contains(entry)) {
+            this.addressReadyStores.set(this.getIndex(entry.getSequence()));
+        }
+    }
+
+    /**
+     * Act on when the specified store is issued, waking up the loads waiting for it.
+     *
+     * @param store the store
+     */
+    public void storeIssued(LoadStoreQueueEntry store) {
+        this.wakeUpWaitingLoads(store);
+    }
+
+    /**
+     * Let the specified load wait for the specified store to be issued or retired.
+     *
+     * @param load  the load
+     * @param store the store
+     */
+    public void waitFor(LoadStoreQueueEntry load, LoadStoreQueueEntry store) {
+        store.getWaitingLoads().add(load);
+    }
+
+    /**
+     * Wake up the loads waiting for the specified store.
+     *
+     * @param store the store
+     */
+    private void wakeUpWaitingLoads(LoadStoreQueueEntry store) {
+        if (!store.getWaitingLoads().isEmpty()) {
+            this.loadsToRefresh.addAll(store.getWaitingLoads());
+            store.getWaitingLoads().clear();
+        }
+    }
+
+    /**
+     * Wake up the specified load, which is to be examined on the next refresh of the load/store queue.
+     *
+     * @param load the load
+     */
+    public void wakeUp(LoadStoreQueueEntry load) {
+        this.loadsToRefresh.add(load);
+    }
+
+    /**
+     * Get the list of the loads that have been woken up since the load/store queue was last refreshed, possibly including duplicates.
+     *
+     * @return the list of the loads that have been woken up since the load/store queue was last refreshed
+     */
+    public List<LoadStoreQueueEntry> getLoadsToRefresh() {
+        return loadsToRefresh;
+    }
+
+    /**
+     * Get a value indicating whether the load/store queue holds the specified entry or not.
+     *
+     * @param entry the entry
+     * @return a value indicating whether the load/store queue holds the specified entry or not
+     */
+    public boolean contains(LoadStoreQueueEntry entry) {
+        return entry.getSequence() >= this.getHeadSequence() && entry.getSequence() < this.getTailSequence() && this.get(entry.getSequence()) == entry;
+    }
+
+    /**
+     * Get a value indicating whether the load/store queue holds any store to the specified effective address or not.
+     *
+     * @param effectiveAddress the effective address
+     * @return a value indicating whether the load/store queue holds any store to the specified effective address or not
+     */
+    public boolean containsStore(int effectiveAddress) {
+        return this.storeSequencesPerAddress.containsKey(effectiveAddress);
+    }
+
+    /**
+     * Find the youngest store older than the specified load that writes to the same effective address and has not been issued yet.
+     *
+     * @param load the load
+     * @return the youngest store older than the specified load that writes to the same effective address and has not been issued yet if any; otherwise null
+     */
+    public LoadStoreQueueEntry findOlderUnissuedStore(LoadStoreQueueEntry load) {
+        StoreSequences storeSequences = this.storeSequencesPerAddress.get(load.getEffectiveAddress());
+
+        if (storeSequences == null) {
+            return null;
+        }
+
+        for (int i = storeSequences.indexOfLastBefore(load.getSequence()); i >= 0; i--) {
+            LoadStoreQueueEntry store = this.get(storeSequences.get(i));
+
+            if (!store.isIssued()) {
+                return store;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Find the oldest store older than the specified load that either has its address ready or writes to the same effective address,
+     * which keeps the load from becoming ready until it is retired.
+     *
+     * @param load the load
+     * @return the oldest store older than the specified load that either has its address ready or writes to the same effective address if any; otherwise null
+     */
+    public LoadStoreQueueEntry findOldestBlockingStore(LoadStoreQueueEntry load) {
+        long sequence = load.getSequence();
+
+        int headIndex = this.getIndex(this.getHeadSequence());
+        int index = this.addressReadyStores.nextSetBit(headIndex);
+        if (index == -1) {
+            index = this.addressReadyStores.nextSetBit(0);
+        }
+
+        if (index != -1) {
+            sequence = Math.min(sequence, this.getHeadSequence() + ((index - headIndex + this.getNumSlots()) % this.getNumSlots()));
+        }
+
+        StoreSequences storeSequences = this.storeSequencesPerAddress.get(load.getEffectiveAddress());
+
+        if (storeSequences != null) {
+            sequence = Math.min(sequence, storeSequences.get(0));
+        }
+
+        return sequence < load.getSequence() ? this.get(sequence) : null;
+    }
+
+    /**
+     * Get a value indicating whether the specified entry is a store or not.
+     *
+     * @param entry the entry
+     * @return a value indicating whether the specified entry is a store or not
+     */
+    private static boolean isStore(LoadStoreQueueEntry entry) {
+        return entry.getDynamicInstruction().getStaticInstruction().getMnemonic().getType() == StaticInstructionType.STORE;
+    }
+
+    /**
+     * Sequence numbers of the stores in the load/store queue to an effective address, ordered from the oldest to the youngest.
+     */
+    private static class StoreSequences {
+        private long[] sequences;
+        private int first;
+        private int size;
+
+        /**
+         * Create an empty list of the sequence numbers of the stores to an effective address.
+         */
+        private StoreSequences() {
+            this.sequences = new long[4];
+        }
+
+        /**
+         * Get the sequence number at the specified position.
+         *
+         * @param i the position, where 0 stands for the oldest store
+         * @return the sequence number at the specified position
+         */
+        private long get(int i) {
+            return this.sequences[(this.first + i) & (this.sequences.length - 1)];
+        }
+
+        /**
+         * Add the sequence number of the youngest store.
+         *
+         * @param sequence the sequence number
+         */
+        private void addLast(long sequence) {
+            if (this.size == this.sequences.length) {
+                long[] sequences = new long[this.sequences.length * 2];
+
+                for (int i = 0; i < this.size; i++) {
+                    sequences[i] = this.get(i);
+                }
+
+                this.sequences = sequences;
+                this.first = 0;
+            }
+
+            this.sequences[(this.first + this.size) & (this.sequences.length - 1)] = sequence;
+            this.size++;
+        }
+
+        /**
+         * Remove the sequence number of the oldest store.
+         */
+        private void removeFirst() {
+            this.first = (this.first + 1) & (this.sequences.length - 1);
+            this.size--;
+        }
+
+        /**
+         * Remove the sequence number of the youngest store.
+         */
+        private void removeLast() {
+            this.size--;
+        }
+
+        /**
+         * Get a value indicating whether the list is empty or not.
+         *
+         * @return a value indicating whether the list is empty or not
+         */
+        private boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        /**
+         * Get the position of the youngest store older than the specified sequence number by binary search.
+         *
+         * @param sequence the sequence number
+         * @return the position of the youngest store older than the specified sequence number if any; otherwise -1
+         */
+        private int indexOfLastBefore(long sequence) {
+            int low = 0;
+            int high = this.size - 1;
+
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+
+                if (this.get(middle) < sequence) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+
+            return high;
+        }
+    }
+}
@@ -21,6 +21,10 @@
 package archimulator.core;
 
 import archimulator.core.bpred.BranchPredictorUpdate;
+import archimulator.isa.StaticInstructionType;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Load/store queue entry.
@@ -30,6 +34,11 @@ import archimulator.core.bpred.BranchPredictorUpdate;
 public class LoadStoreQueueEntry extends AbstractReorderBufferEntry {
     private int effectiveAddress;
     private boolean storeAddressReady;
+    private boolean inReadyLoadQueue;
+    private LoadStoreQueueEntry storeDependence;
+    private int storeDependenceGeneration;
+    private long sequence;
+    private List<LoadStoreQueueEntry> waitingLoads;
 
     /**
      * Create a load/store queue entry.
@@ -54,6 +63,37 @@ public class LoadStoreQueueEntry extends AbstractReorderBufferEntry {
             boolean speculative
     ) {
         super(thread, dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
+
+        this.waitingLoads = new ArrayList<>();
+    }
+
+    @Override
+    public void reset(DynamicInstruction dynamicInstruction, int npc, int nnpc, int predictedNnpc, int returnAddressStackRecoverIndex, BranchPredictorUpdate branchPredictorUpdate, boolean speculative) {
+        super.reset(dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
+
+        // the physical registers are shared with the reorder buffer entry and set on register renaming
+        this.setSourcePhysicalRegisters(NO_PHYSICAL_REGISTERS);
+        this.setTargetPhysicalRegisters(NO_PHYSICAL_REGISTERS);
+
+        this.effectiveAddress = 0;
+        this.storeAddressReady = false;
+        this.inReadyLoadQueue = false;
+        this.storeDependence = null;
+        this.storeDependenceGeneration = 0;
+        this.sequence = -1;
+
+        if (this.waitingLoads != null) {
+            this.waitingLoads.clear();
+        }
+    }
+
+    @Override
+    public void signalOperandReady() {
+        super.signalOperandReady();
+
+        if (this.isAllOperandReady() && this.getDynamicInstruction().getStaticInstruction().getMnemonic().getType() == StaticInstructionType.LOAD) {
+            this.getThread().getLoadStoreQueue().wakeUp(this);
+        }
     }
 
     @Override
@@ -77,6 +117,10 @@ public class LoadStoreQueueEntry extends AbstractReorderBufferEntry {
      */
     public void setStoreAddressReady(boolean storeAddressReady) {
         this.storeAddressReady = storeAddressReady;
+
+        if (storeAddressReady) {
+            this.getThread().getLoadStoreQueue().storeAddressReady(this);
+        }
     }
 
     /**
@@ -96,4 +140,78 @@ public class LoadStoreQueueEntry extends AbstractReorderBufferEntry {
     public void setEffectiveAddress(int effectiveAddress) {
         this.effectiveAddress = effectiveAddress;
     }
+
+    /**
+     * Get a value indicating whether the load/store queue entry has been put into the ready load queue or not.
+     *
+     * @return a value indicating whether the load/store queue entry has been put into the ready load queue or not
+     */
+    public boolean isInReadyLoadQueue() {
+        return inReadyLoadQueue;
+    }
+
+    /**
+     * Set a value indicating whether the load/store queue entry has been put into the ready load queue or not.
+     *
+     * @param inReadyLoadQueue a value indicating whether the load/store queue entry has been put into the ready load queue or not
+     */
+    public void setInReadyLoadQueue(boolean inReadyLoadQueue) {
+        this.inReadyLoadQueue = inReadyLoadQueue;
+    }
+
+    /**
+     * Get the store that the load is predicted to depend on.
+     *
+     * @return the store that the load is predicted to depend on if any; otherwise null
+     */
+    public LoadStoreQueueEntry getStoreDependence() {
+        return storeDependence;
+    }
+
+    /**
+     * Set the store that the load is predicted to depend on.
+     *
+     * @param storeDependence the store that the load is predicted to depend on
+     */
+    public void setStoreDependence(LoadStoreQueueEntry storeDependence) {
+        this.storeDependence = storeDependence;
+        this.storeDependenceGeneration = storeDependence != null ? storeDependence.getGeneration() : 0;
+    }
+
+    /**
+     * Get a value indicating whether the load is still waiting for the store that it is predicted to depend on or not.
+     *
+     * @return a value indicating whether the load is still waiting for the store that it is predicted to depend on or not
+     */
+    public boolean isWaitingForStoreDependence() {
+        return this.storeDependence != null && this.storeDependence.getGeneration() == this.storeDependenceGeneration
+                && !this.storeDependence.isIssued() && !this.storeDependence.isSquashed();
+    }
+
+    /**
+     * Get the sequence number of the entry in the load/store queue.
+     *
+     * @return the sequence number of the entry in the load/store queue
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Set the sequence number of the entry in the load/store queue.
+     *
+     * @param sequence the sequence number of the entry in the load/store queue
+     */
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Get the list of the loads waiting for the store to be issued or retired.
+     *
+     * @return the list of the loads waiting for the store to be issued or retired
+     */
+    public List<LoadStoreQueueEntry> getWaitingLoads() {
+        return waitingLoads;
+    }
 }
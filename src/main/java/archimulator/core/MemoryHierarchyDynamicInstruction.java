@@ -42,8 +42,18 @@ public class MemoryHierarchyDynamicInstruction {
      * @param effectiveAddress  the effective address
      */
     public MemoryHierarchyDynamicInstruction(Thread thread, int pc, int effectiveAddress) {
-        this.id = thread.getSimulation().currentDynamicInstructionId++;
         this.thread = thread;
+        this.reset(pc, effectiveAddress);
+    }
+
+    /**
+     * Reset the dynamic instruction so that it can be reused for another instruction of the same thread.
+     *
+     * @param pc               the value of the program counter (PC)
+     * @param effectiveAddress the effective address
+     */
+    protected void reset(int pc, int effectiveAddress) {
+        this.id = thread.getSimulation().currentDynamicInstructionId.getAndIncrement();
         this.pc = pc;
         this.effectiveAddress = effectiveAddress;
 
@@ -100,7 +100,7 @@ public class PhysicalRegister {
         }
 
         for (AbstractReorderBufferEntry dependent : this.dependents) {
-            dependent.setNumNotReadyOperands(dependent.getNumNotReadyOperands() - 1);
+            dependent.signalOperandReady();
         }
 
         this.effectiveAddressComputationOperandDependents.clear();
@@ -130,9 +130,23 @@ public class PhysicalRegister {
         this.dependency = -1;
         this.state = PhysicalRegisterState.AVAILABLE;
 
+        // the dependents are younger than the squashed producer and hence squashed as well
+        this.effectiveAddressComputationOperandDependents.clear();
+        this.storeAddressDependents.clear();
+        this.dependents.clear();
+
         this.physicalRegisterFile.setNumFreePhysicalRegisters(this.physicalRegisterFile.getNumFreePhysicalRegisters() + 1);
     }
 
+    /**
+     * Remove the squashed reorder buffer entries from the lists of dependents.
+     */
+    public void removeSquashedDependents() {
+        this.effectiveAddressComputationOperandDependents.removeIf(AbstractReorderBufferEntry::isSquashed);
+        this.storeAddressDependents.removeIf(AbstractReorderBufferEntry::isSquashed);
+        this.dependents.removeIf(AbstractReorderBufferEntry::isSquashed);
+    }
+
     /**
      * Reclaim.
      */
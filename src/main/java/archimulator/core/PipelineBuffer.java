@@ -20,18 +20,32 @@
  */
 package archimulator.core;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Pipeline buffer.
+ * Pipeline buffer, organized as a ring buffer indexed by monotonically increasing sequence numbers.
+ * <p>
+ * Entries are inserted at the tail and retired from the head (commit) or from the tail (squash), all in O(1).
+ * A dispatch pointer tracks the oldest entry that has not been dispatched yet, so that in-order dispatch
+ * does not need to rescan the buffer from its head.
  *
  * @param <EntryT>
  * @author Min Cai
  */
-public class PipelineBuffer<EntryT> {
+public class PipelineBuffer<EntryT> implements Iterable<EntryT> {
     private int capacity;
-    private List<EntryT> entries;
+
+    private Object[] entries;
+    private int mask;
+
+    private long headSequence;
+    private long tailSequence;
+    private long dispatchSequence;
 
     /**
      * Create a pipeline buffer.
@@ -39,8 +53,19 @@ public class PipelineBuffer<EntryT> {
      * @param capacity the capacity of the pipeline buffer
      */
     public PipelineBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+
         this.capacity = capacity;
-        this.entries = new ArrayList<>();
+
+        int length = Integer.highestOneBit(capacity);
+        if (length < capacity) {
+            length <<= 1;
+        }
+
+        this.entries = new Object[length];
+        this.mask = length - 1;
     }
 
     /**
@@ -49,7 +74,7 @@ public class PipelineBuffer<EntryT> {
      * @return a value indicating whether the pipeline buffer is full or not
      */
     public boolean isFull() {
-        return this.entries.size() >= this.capacity;
+        return this.size() >= this.capacity;
     }
 
     /**
@@ -58,7 +83,175 @@ public class PipelineBuffer<EntryT> {
      * @return a value indicating whether the pipeline buffer is empty or not
      */
     public boolean isEmpty() {
-        return this.entries.isEmpty();
+        return this.headSequence == this.tailSequence;
+    }
+
+    /**
+     * Get the number of entries in the pipeline buffer.
+     *
+     * @return the number of entries in the pipeline buffer
+     */
+    public int size() {
+        return (int) (this.tailSequence - this.headSequence);
+    }
+
+    /**
+     * Add the specified entry at the tail of the pipeline buffer.
+     *
+     * @param entry the entry to be added
+     * @return the sequence number assigned to the entry
+     */
+    public long add(EntryT entry) {
+        if (this.isFull()) {
+            throw new IllegalStateException("Pipeline buffer is full");
+        }
+
+        long sequence = this.tailSequence++;
+        this.entries[(int) (sequence & this.mask)] = entry;
+        return sequence;
+    }
+
+    /**
+     * Get the entry at the specified sequence number.
+     *
+     * @param sequence the sequence number
+     * @return the entry at the specified sequence number
+     */
+    @SuppressWarnings("unchecked")
+    public EntryT get(long sequence) {
+        if (sequence < this.headSequence || sequence >= this.tailSequence) {
+            throw new IndexOutOfBoundsException("sequence: " + sequence + ", head: " + this.headSequence + ", tail: " + this.tailSequence);
+        }
+
+        return (EntryT) this.entries[(int) (sequence & this.mask)];
+    }
+
+    /**
+     * Get the oldest entry.
+     *
+     * @return the oldest entry
+     */
+    public EntryT getFirst() {
+        if (this.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return this.get(this.headSequence);
+    }
+
+    /**
+     * Get the youngest entry.
+     *
+     * @return the youngest entry
+     */
+    public EntryT getLast() {
+        if (this.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return this.get(this.tailSequence - 1);
+    }
+
+    /**
+     * Remove the oldest entry.
+     *
+     * @return the removed entry
+     */
+    public EntryT removeFirst() {
+        EntryT entry = this.getFirst();
+
+        this.entries[(int) (this.headSequence & this.mask)] = null;
+        this.headSequence++;
+
+        if (this.dispatchSequence < this.headSequence) {
+            this.dispatchSequence = this.headSequence;
+        }
+
+        return entry;
+    }
+
+    /**
+     * Remove the youngest entry.
+     *
+     * @return the removed entry
+     */
+    public EntryT removeLast() {
+        EntryT entry = this.getLast();
+
+        this.tailSequence--;
+        this.entries[(int) (this.tailSequence & this.mask)] = null;
+
+        if (this.dispatchSequence > this.tailSequence) {
+            this.dispatchSequence = this.tailSequence;
+        }
+
+        return entry;
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public void clear() {
+        while (!this.isEmpty()) {
+            this.removeLast();
+        }
+    }
+
+    /**
+     * Get the oldest entry that has not been dispatched yet.
+     *
+     * @return the oldest entry that has not been dispatched yet if any exists; otherwise null
+     */
+    public EntryT getNextToDispatch() {
+        return this.dispatchSequence < this.tailSequence ? this.get(this.dispatchSequence) : null;
+    }
+
+    /**
+     * Advance the dispatch pointer past the entry returned by {@link #getNextToDispatch()}.
+     */
+    public void advanceDispatchPointer() {
+        if (this.dispatchSequence >= this.tailSequence) {
+            throw new IllegalStateException();
+        }
+
+        this.dispatchSequence++;
+    }
+
+    /**
+     * Get the sequence number of the oldest entry.
+     *
+     * @return the sequence number of the oldest entry
+     */
+    public long getHeadSequence() {
+        return headSequence;
+    }
+
+    /**
+     * Get the sequence number to be assigned to the next entry added.
+     *
+     * @return the sequence number to be assigned to the next entry added
+     */
+    public long getTailSequence() {
+        return tailSequence;
+    }
+
+    /**
+     * Get the index in the ring buffer of the entry at the specified sequence number.
+     *
+     * @param sequence the sequence number
+     * @return the index in the ring buffer of the entry at the specified sequence number
+     */
+    protected int getIndex(long sequence) {
+        return (int) (sequence & this.mask);
+    }
+
+    /**
+     * Get the number of slots in the ring buffer, which is the capacity rounded up to a power of two.
+     *
+     * @return the number of slots in the ring buffer
+     */
+    protected int getNumSlots() {
+        return this.entries.length;
     }
 
     /**
@@ -71,11 +264,37 @@ public class PipelineBuffer<EntryT> {
     }
 
     /**
-     * Get the list of entries.
+     * Get an iterator over the entries, from the oldest to the youngest.
+     *
+     * @return an iterator over the entries, from the oldest to the youngest
+     */
+    @Override
+    public Iterator<EntryT> iterator() {
+        return new Iterator<EntryT>() {
+            private long sequence = headSequence;
+
+            @Override
+            public boolean hasNext() {
+                return this.sequence < tailSequence;
+            }
+
+            @Override
+            public EntryT next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return get(this.sequence++);
+            }
+        };
+    }
+
+    /**
+     * Get a sequential stream over the entries, from the oldest to the youngest.
      *
-     * @return the list of entries
+     * @return a sequential stream over the entries, from the oldest to the youngest
      */
-    public List<EntryT> getEntries() {
-        return entries;
+    public Stream<EntryT> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(this.iterator(), this.size(), Spliterator.ORDERED | Spliterator.SIZED), false);
     }
 }
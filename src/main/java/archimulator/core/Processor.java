@@ -21,6 +21,7 @@
 package archimulator.core;
 
 import archimulator.common.report.ReportNode;
+import archimulator.util.event.Quiescent;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,7 +31,7 @@ import java.util.stream.Collectors;
  *
  * @author Min Cai
  */
-public interface Processor extends MemoryHierarchyProcessor {
+public interface Processor extends MemoryHierarchyProcessor, Quiescent {
     /**
      * Get the list of cores.
      *
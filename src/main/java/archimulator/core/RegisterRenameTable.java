@@ -20,17 +20,16 @@
  */
 package archimulator.core;
 
-import java.util.Map;
-import java.util.TreeMap;
+import archimulator.isa.ArchitecturalRegisterFile;
 
 /**
- * Register rename table.
+ * Register rename table, indexed directly by the total ordered dependency.
  *
  * @author Min Cai
  */
 public class RegisterRenameTable {
     private String name;
-    private Map<Integer, PhysicalRegister> entries;
+    private PhysicalRegister[] entries;
 
     /**
      * Create a register rename table.
@@ -39,7 +38,7 @@ public class RegisterRenameTable {
      */
     public RegisterRenameTable(String name) {
         this.name = name;
-        this.entries = new TreeMap<>();
+        this.entries = new PhysicalRegister[ArchitecturalRegisterFile.NUM_INT_REGISTERS + ArchitecturalRegisterFile.NUM_FLOAT_REGISTERS + ArchitecturalRegisterFile.NUM_MISC_REGISTERS];
     }
 
     /**
@@ -49,7 +48,7 @@ public class RegisterRenameTable {
      * @return the corresponding physical register for the specified dependency
      */
     public PhysicalRegister get(int dependency) {
-        return this.entries.get(dependency);
+        return this.entries[dependency];
     }
 
     /**
@@ -59,7 +58,7 @@ public class RegisterRenameTable {
      * @param physicalRegister the physical register
      */
     public void put(int dependency, PhysicalRegister physicalRegister) {
-        this.entries.put(dependency, physicalRegister);
+        this.entries[dependency] = physicalRegister;
     }
 
     /**
@@ -58,6 +58,17 @@ public class ReorderBufferEntry extends AbstractReorderBufferEntry {
         super(thread, dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
     }
 
+    @Override
+    public void reset(DynamicInstruction dynamicInstruction, int npc, int nnpc, int predictedNnpc, int returnAddressStackRecoverIndex, BranchPredictorUpdate branchPredictorUpdate, boolean speculative) {
+        super.reset(dynamicInstruction, npc, nnpc, predictedNnpc, returnAddressStackRecoverIndex, branchPredictorUpdate, speculative);
+
+        this.allocatePhysicalRegisters();
+
+        this.effectiveAddressComputation = false;
+        this.loadStoreQueueEntry = null;
+        this.effectiveAddressComputationOperandReady = false;
+    }
+
     @Override
     protected boolean isNeedWriteBack() {
         return !this.effectiveAddressComputation;
@@ -116,6 +127,10 @@ public class ReorderBufferEntry extends AbstractReorderBufferEntry {
      */
     public void setEffectiveAddressComputationOperandReady(boolean effectiveAddressComputationOperandReady) {
         this.effectiveAddressComputationOperandReady = effectiveAddressComputationOperandReady;
+
+        if (effectiveAddressComputationOperandReady) {
+            this.wakeUpIfAllOperandReady();
+        }
     }
 
     @Override
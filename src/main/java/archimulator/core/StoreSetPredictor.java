@@ -0,0 +1,139 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.core;
+
+import java.util.Arrays;
+
+/**
+ * Store set memory dependence predictor.
+ * <p>
+ * The store set ID table (SSIT), indexed by instruction PC, maps loads and stores to store sets; the last fetched
+ * store table (LFST) records the youngest in-flight store of each store set. A load is predicted to depend on the
+ * last fetched store of its store set. Store sets are created and merged upon memory order violations.
+ *
+ * @author Min Cai
+ */
+public class StoreSetPredictor {
+    private static final int INVALID_STORE_SET_ID = -1;
+
+    private int[] storeSetIdTable;
+    private int storeSetIdTableMask;
+
+    private LoadStoreQueueEntry[] lastFetchedStoreTable;
+    private int[] lastFetchedStoreGenerations;
+
+    private int nextStoreSetId;
+
+    /**
+     * Create a store set predictor.
+     *
+     * @param storeSetIdTableSize the size of the store set ID table (SSIT), which must be a power of two
+     * @param numStoreSets        the number of store sets, i.e., the size of the last fetched store table (LFST)
+     */
+    public StoreSetPredictor(int storeSetIdTableSize, int numStoreSets) {
+        if (storeSetIdTableSize <= 0 || Integer.bitCount(storeSetIdTableSize) != 1) {
+            throw new IllegalArgumentException("storeSetIdTableSize: " + storeSetIdTableSize);
+        }
+
+        if (numStoreSets <= 0) {
+            throw new IllegalArgumentException("numStoreSets: " + numStoreSets);
+        }
+
+        this.storeSetIdTable = new int[storeSetIdTableSize];
+        Arrays.fill(this.storeSetIdTable, INVALID_STORE_SET_ID);
+        this.storeSetIdTableMask = storeSetIdTableSize - 1;
+
+        this.lastFetchedStoreTable = new LoadStoreQueueEntry[numStoreSets];
+        this.lastFetchedStoreGenerations = new int[numStoreSets];
+    }
+
+    /**
+     * Predict the in-flight store that the specified load depends on.
+     *
+     * @param load the load
+     * @return the in-flight store that the specified load is predicted to depend on if any exists; otherwise null
+     */
+    public LoadStoreQueueEntry predict(LoadStoreQueueEntry load) {
+        int storeSetId = this.storeSetIdTable[this.getIndex(load.getDynamicInstruction().getPc())];
+
+        if (storeSetId == INVALID_STORE_SET_ID) {
+            return null;
+        }
+
+        LoadStoreQueueEntry store = this.lastFetchedStoreTable[storeSetId];
+        return store != null && store.getGeneration() == this.lastFetchedStoreGenerations[storeSetId] && !store.isSquashed() && !store.isIssued() ? store : null;
+    }
+
+    /**
+     * Record that the specified store is renamed, which makes it the last fetched store of its store set if any.
+     *
+     * @param store the store
+     */
+    public void storeRenamed(LoadStoreQueueEntry store) {
+        int storeSetId = this.storeSetIdTable[this.getIndex(store.getDynamicInstruction().getPc())];
+
+        if (storeSetId != INVALID_STORE_SET_ID) {
+            this.lastFetchedStoreTable[storeSetId] = store;
+            this.lastFetchedStoreGenerations[storeSetId] = store.getGeneration();
+        }
+    }
+
+    /**
+     * Train the predictor upon the memory order violation between the specified load and store.
+     *
+     * @param load  the load
+     * @param store the store that the load should have waited for
+     */
+    public void violation(LoadStoreQueueEntry load, LoadStoreQueueEntry store) {
+        int loadIndex = this.getIndex(load.getDynamicInstruction().getPc());
+        int storeIndex = this.getIndex(store.getDynamicInstruction().getPc());
+
+        int loadStoreSetId = this.storeSetIdTable[loadIndex];
+        int storeStoreSetId = this.storeSetIdTable[storeIndex];
+
+        int storeSetId;
+
+        if (loadStoreSetId == INVALID_STORE_SET_ID && storeStoreSetId == INVALID_STORE_SET_ID) {
+            storeSetId = this.nextStoreSetId;
+            this.nextStoreSetId = (this.nextStoreSetId + 1) % this.lastFetchedStoreTable.length;
+            this.lastFetchedStoreTable[storeSetId] = null;
+        } else if (loadStoreSetId == INVALID_STORE_SET_ID) {
+            storeSetId = storeStoreSetId;
+        } else if (storeStoreSetId == INVALID_STORE_SET_ID) {
+            storeSetId = loadStoreSetId;
+        } else {
+            storeSetId = Math.min(loadStoreSetId, storeStoreSetId);
+        }
+
+        this.storeSetIdTable[loadIndex] = storeSetId;
+        this.storeSetIdTable[storeIndex] = storeSetId;
+    }
+
+    /**
+     * Get the index in the store set ID table (SSIT) for the specified PC.
+     *
+     * @param pc the PC
+     * @return the index in the store set ID table (SSIT) for the specified PC
+     */
+    private int getIndex(int pc) {
+        return (pc >>> 2) & this.storeSetIdTableMask;
+    }
+}
@@ -25,7 +25,9 @@ import archimulator.core.bpred.BranchPredictor;
 import archimulator.isa.Mnemonic;
 import archimulator.os.Context;
 import archimulator.uncore.tlb.TranslationLookasideBuffer;
+import archimulator.util.event.Quiescent;
 
+import java.io.File;
 import java.util.Map;
 
 /**
@@ -33,7 +35,7 @@ import java.util.Map;
  *
  * @author Min Cai
  */
-public interface Thread extends MemoryHierarchyThread {
+public interface Thread extends MemoryHierarchyThread, Quiescent {
     /**
      * Get the parent core.
      *
@@ -90,11 +92,45 @@ public interface Thread extends MemoryHierarchyThread {
      */
     void squash();
 
+    /**
+     * Flush the pipeline and resume fetching from the non-speculative state of the context, so that the thread can be switched between the fast forward, warmup and measurement modes.
+     */
+    void flushPipeline();
+
+    /**
+     * Recycle the specified dynamic instruction that is no longer referenced, so that it can be reused for the instructions fetched later.
+     *
+     * @param dynamicInstruction the dynamic instruction
+     */
+    void recycleDynamicInstruction(DynamicInstruction dynamicInstruction);
+
     /**
      * Update statistics per cycle.
      */
     void updatePerCycleStats();
 
+    /**
+     * Begin capturing the committed instructions of the thread into the specified instruction trace file.
+     *
+     * @param file the instruction trace file
+     */
+    void beginInstructionTraceCapture(File file);
+
+    /**
+     * Close the instruction trace being captured or replayed by the thread if any.
+     */
+    void closeInstructionTrace();
+
+    /**
+     * Get the physical address that the specified virtual address of the thread is mapped to.
+     *
+     * @param virtualAddress the virtual address
+     * @return the physical address that the specified virtual address is mapped to
+     */
+    default int getPhysicalAddress(int virtualAddress) {
+        return getContext().getProcess().getMemory().getPhysicalAddress(virtualAddress);
+    }
+
     /**
      * Get the instruction translation lookaside buffer (iTLB).
      *
@@ -139,7 +175,14 @@ public interface Thread extends MemoryHierarchyThread {
      *
      * @return the load/store queue
      */
-    PipelineBuffer<LoadStoreQueueEntry> getLoadStoreQueue();
+    LoadStoreQueue getLoadStoreQueue();
+
+    /**
+     * Get the store set memory dependence predictor.
+     *
+     * @return the store set memory dependence predictor if it is enabled; otherwise null
+     */
+    StoreSetPredictor getStoreSetPredictor();
 
     /**
      * Get the number of instructions.
@@ -170,14 +213,18 @@ public interface Thread extends MemoryHierarchyThread {
     boolean isLastDecodedDynamicInstructionCommitted();
 
     /**
-     * Increment the number of register rename stalls when the decode buffer is empty.
+     * Increment the number of register rename stalls when the decode buffer is empty by the specified number.
+     *
+     * @param numStalls the number of stalls
      */
-    void incrementNumRegisterRenameStallsOnDecodeBufferIsEmpty();
+    void incrementNumRegisterRenameStallsOnDecodeBufferIsEmpty(long numStalls);
 
     /**
-     * Increment the number of register rename stalls when the reorder buffer is full.
+     * Increment the number of register rename stalls when the reorder buffer is full by the specified number.
+     *
+     * @param numStalls the number of stalls
      */
-    void incrementNumRegisterRenameStallsOnReorderBufferIsFull();
+    void incrementNumRegisterRenameStallsOnReorderBufferIsFull(long numStalls);
 
     /**
      * Increment the number of selection stalls when loads can not be issued.
@@ -189,6 +236,11 @@ public interface Thread extends MemoryHierarchyThread {
      */
     void incrementNumSelectionStallsOnCanNotStore();
 
+    /**
+     * Increment the number of memory order violations.
+     */
+    void incrementNumMemoryOrderViolations();
+
     /**
      * Increment the number of selection stalls when there is no free functional unit of the a specific type.
      */
@@ -285,6 +337,13 @@ public interface Thread extends MemoryHierarchyThread {
      */
     long getNumSelectionStallsOnNoFreeFunctionalUnit();
 
+    /**
+     * Get the number of memory order violations detected when the store set predictor is enabled.
+     *
+     * @return the number of memory order violations detected when the store set predictor is enabled
+     */
+    long getNumMemoryOrderViolations();
+
     /**
      * Get the executed mnemonics.
      *
@@ -472,6 +531,16 @@ public interface Thread extends MemoryHierarchyThread {
                             String.format("%d", getNumSelectionStallsOnNoFreeFunctionalUnit())
                     )
             );
+
+            if (getStoreSetPredictor() != null) {
+                getChildren().add(
+                        new ReportNode(
+                                this,
+                                "numMemoryOrderViolations",
+                                String.format("%d", getNumMemoryOrderViolations())
+                        )
+                );
+            }
         }});
     }
 }
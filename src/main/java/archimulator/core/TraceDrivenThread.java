@@ -0,0 +1,214 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.core;
+
+import archimulator.core.bpred.BranchPredictorUpdate;
+import archimulator.core.event.DynamicInstructionDecodedEvent;
+import archimulator.core.trace.InstructionTraceReader;
+import archimulator.core.trace.InstructionTraceRecord;
+import archimulator.os.ContextState;
+
+import java.io.File;
+
+/**
+ * Trace driven thread, which feeds the pipeline of a basic thread with the committed instructions replayed from an
+ * instruction trace instead of executing its context functionally. The context only serves to bind the thread to the
+ * trace, with its PC, NPC and NNPC following the trace, and is finished when the trace is exhausted.
+ *
+ * As there is no functional execution to follow a wrong path, the thread stops fetching when the fetch NPC diverges
+ * from the path in the trace, i.e., on a branch misprediction, and resumes fetching from the correct path once the
+ * instructions fetched before the divergence have been committed, which is when the pipeline would have been squashed.
+ *
+ * @author Min Cai
+ */
+public class TraceDrivenThread extends BasicThread {
+    private File traceDirectory;
+
+    private InstructionTraceReader traceReader;
+
+    private InstructionTraceRecord nextRecord;
+    private boolean nextRecordAvailable;
+
+    private int lastNpc;
+    private int lastNnpc;
+
+    /**
+     * Create a trace driven thread.
+     *
+     * @param core           the core
+     * @param num            the num of the thread
+     * @param traceDirectory the directory of the instruction traces
+     */
+    public TraceDrivenThread(Core core, int num, File traceDirectory) {
+        super(core, num);
+
+        this.traceDirectory = traceDirectory;
+
+        this.nextRecord = new InstructionTraceRecord();
+    }
+
+    @Override
+    public void fastForwardOneCycle() {
+        throw new UnsupportedOperationException("Instruction traces are replayed in detailed experiments only");
+    }
+
+    @Override
+    public void warmupOneCycle() {
+        throw new UnsupportedOperationException("Instruction traces are replayed in detailed experiments only");
+    }
+
+    @Override
+    public void updateFetchNpcAndNnpcFromRegs() {
+        if (this.traceReader == null) {
+            this.traceReader = new InstructionTraceReader(new File(this.traceDirectory, this.getName() + ".trace"));
+            this.nextRecordAvailable = this.traceReader.readNext(this.nextRecord);
+
+            this.lastNpc = this.nextRecord.getPc();
+            this.lastNnpc = this.lastNpc + 4;
+
+            if (!this.nextRecordAvailable) {
+                this.context.finish();
+            }
+        }
+
+        this.fetchNpc = this.lastNpc;
+        this.fetchNnpc = this.lastNnpc;
+
+        this.lastCommitCycle = this.getCycleAccurateEventQueue().getCurrentCycle();
+    }
+
+    @Override
+    public void fetch() {
+        if (this.fetchNpc != this.lastNpc) {
+            // the fetch NPC has diverged from the trace, so wait until the pipeline would have been squashed
+            if (!this.decodeBuffer.isEmpty() || !this.reorderBuffer.isEmpty()) {
+                return;
+            }
+
+            this.fetchNpc = this.lastNpc;
+            this.fetchNnpc = this.lastNnpc;
+        }
+
+        this.skipUncapturedInstructions();
+
+        if (!this.canFetch()) {
+            return;
+        }
+
+        boolean hasDone = false;
+
+        while (!hasDone) {
+            if (this.context.getState() != ContextState.RUNNING) {
+                break;
+            }
+
+            if (this.decodeBuffer.isFull()) {
+                this.numFetchStallsOnDecodeBufferIsFull++;
+                break;
+            }
+
+            if (this.fetchNpc != this.lastNpc) {
+                break;
+            }
+
+            this.skipUncapturedInstructions();
+
+            DynamicInstruction dynamicInstruction = this.newDynamicInstruction(this.nextRecord.getPc(), this.nextRecord.getStaticInstruction(), this.nextRecord.getEffectiveAddress());
+
+            int npc = this.nextRecord.getNpc();
+            int nnpc = this.nextRecord.getNnpc();
+
+            // the architectural state visible to the other components, e.g., the perfect branch predictor, follows the trace
+            this.context.getRegisterFile().setPc(this.nextRecord.getPc());
+            this.context.getRegisterFile().setNpc(npc);
+            this.context.getRegisterFile().setNnpc(nnpc);
+
+            this.lastNpc = npc;
+            this.lastNnpc = nnpc;
+
+            this.nextRecordAvailable = this.traceReader.readNext(this.nextRecord);
+
+            this.fetchNpc = this.fetchNnpc;
+
+            if (!this.nextRecordAvailable) {
+                this.context.finish();
+
+                if (this.lastDecodedDynamicInstruction != null) {
+                    this.lastDecodedDynamicInstruction.release();
+                }
+
+                dynamicInstruction.retain();
+                this.lastDecodedDynamicInstruction = dynamicInstruction;
+                this.lastDecodedDynamicInstructionCommitted = false;
+            }
+
+            if (this.getBlockingEventDispatcher().hasListeners(DynamicInstructionDecodedEvent.class)) {
+                this.getBlockingEventDispatcher().dispatch(new DynamicInstructionDecodedEvent(dynamicInstruction));
+            }
+
+            if ((this.fetchNpc + 4) % this.lineSizeOfICache == 0) {
+                hasDone = true;
+            }
+
+            BranchPredictorUpdate branchPredictorUpdate = this.newBranchPredictorUpdate();
+
+            this.returnAddressStackRecoverIndexRef.set(0);
+            int destination = dynamicInstruction.getStaticInstruction().getMnemonic().isControl() ? this.branchPredictor.predict(this.fetchNpc, 0, dynamicInstruction.getStaticInstruction().getMnemonic(), branchPredictorUpdate, this.returnAddressStackRecoverIndexRef) : this.fetchNpc + 4;
+
+            this.fetchNnpc = destination <= 1 ? this.fetchNpc + 4 : destination;
+
+            if (this.fetchNnpc != this.fetchNpc + 4) {
+                hasDone = true;
+            }
+
+            this.decodeBuffer.add(this.newDecodeBufferEntry(dynamicInstruction, npc, nnpc, this.fetchNnpc, this.returnAddressStackRecoverIndexRef.get(), branchPredictorUpdate, false));
+        }
+    }
+
+    /**
+     * Skip the NOPs and the pseudo calls that are not captured in the trace, provided that the fetch NPC follows the
+     * trace, so that the fetch NPC points to the next instruction in the trace.
+     */
+    private void skipUncapturedInstructions() {
+        if (this.nextRecord.getPc() != this.fetchNpc) {
+            this.fetchNpc = this.nextRecord.getPc();
+            this.fetchNnpc = this.fetchNpc + 4;
+
+            this.lastNpc = this.fetchNpc;
+            this.lastNnpc = this.fetchNnpc;
+        }
+    }
+
+    @Override
+    public int getPhysicalAddress(int virtualAddress) {
+        return this.traceReader.getPhysicalAddress(virtualAddress);
+    }
+
+    @Override
+    public void closeInstructionTrace() {
+        super.closeInstructionTrace();
+
+        if (this.traceReader != null) {
+            this.traceReader.close();
+            this.traceReader = null;
+        }
+    }
+}
@@ -43,6 +43,20 @@ public class BranchPredictorUpdate {
     public BranchPredictorUpdate() {
     }
 
+    /**
+     * Reset the branch predictor update so that it can be reused for another branch prediction.
+     */
+    public void reset() {
+        this.counterDir1 = null;
+        this.counterDir2 = null;
+        this.counterMeta = null;
+
+        this.ras = false;
+        this.bimod = false;
+        this.twoLevel = false;
+        this.meta = false;
+    }
+
     /**
      * Get the counter dir 1.
      *
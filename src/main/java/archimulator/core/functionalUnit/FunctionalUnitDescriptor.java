@@ -69,7 +69,7 @@ public class FunctionalUnitDescriptor {
      * Release all.
      */
     public void releaseAll() {
-        this.numFree = this.quantity;
+        this.setNumFree(this.quantity);
     }
 
     /**
@@ -97,6 +97,16 @@ public class FunctionalUnitDescriptor {
      */
     public void setNumFree(int numFree) {
         this.numFree = numFree;
+        this.functionalUnitPool.updateAvailability(this.type, numFree > 0);
+    }
+
+    /**
+     * Get the functional unit type.
+     *
+     * @return the functional unit type
+     */
+    public FunctionalUnitType getType() {
+        return type;
     }
 
     /**
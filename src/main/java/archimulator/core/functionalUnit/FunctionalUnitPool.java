@@ -40,6 +40,8 @@ public class FunctionalUnitPool implements Named {
     private EnumMap<FunctionalUnitType, Long> numStallsOnNoFreeFunctionalUnit;
     private EnumMap<FunctionalUnitOperationType, Long> numStallsOnAcquireFailedOnNoFreeFunctionalUnit;
 
+    private int availableFunctionalUnitTypes;
+
     /**
      * Create a functional unit pool.
      *
@@ -96,9 +98,56 @@ public class FunctionalUnitPool implements Named {
     private FunctionalUnitDescriptor addFunctionalUnitDescriptor(FunctionalUnitType type, int quantity) {
         FunctionalUnitDescriptor desc = new FunctionalUnitDescriptor(this, type, quantity);
         this.descriptors.put(type, desc);
+        this.updateAvailability(type, !desc.isFull());
         return desc;
     }
 
+    /**
+     * Update the availability bitmap for the specified functional unit type.
+     *
+     * @param type      the functional unit type
+     * @param available a value indicating whether any functional unit of the specified type is free or not
+     */
+    void updateAvailability(FunctionalUnitType type, boolean available) {
+        if (available) {
+            this.availableFunctionalUnitTypes |= 1 << type.ordinal();
+        } else {
+            this.availableFunctionalUnitTypes &= ~(1 << type.ordinal());
+        }
+    }
+
+    /**
+     * Get a value indicating whether any functional unit of the specified type is free or not.
+     *
+     * @param type the functional unit type
+     * @return a value indicating whether any functional unit of the specified type is free or not
+     */
+    public boolean isAvailable(FunctionalUnitType type) {
+        return (this.availableFunctionalUnitTypes & (1 << type.ordinal())) != 0;
+    }
+
+    /**
+     * Get the functional unit type that serves the specified functional unit operation type.
+     *
+     * @param functionalUnitOperationType the functional unit operation type
+     * @return the functional unit type that serves the specified functional unit operation type
+     */
+    public FunctionalUnitType getFunctionalUnitType(FunctionalUnitOperationType functionalUnitOperationType) {
+        return this.functionalUnitOperationToFunctionalUnitMap.get(functionalUnitOperationType);
+    }
+
+    /**
+     * Record a failed attempt to acquire a functional unit for the specified functional unit operation type.
+     *
+     * @param functionalUnitOperationType the functional unit operation type
+     */
+    public void recordAcquireFailure(FunctionalUnitOperationType functionalUnitOperationType) {
+        this.numStallsOnAcquireFailedOnNoFreeFunctionalUnit.put(
+                functionalUnitOperationType,
+                this.numStallsOnAcquireFailedOnNoFreeFunctionalUnit.get(functionalUnitOperationType) + 1
+        );
+    }
+
     /**
      * Acquire.
      *
@@ -114,18 +163,17 @@ public class FunctionalUnitPool implements Named {
         final FunctionalUnitDescriptor functionalUnitDescriptor = this.descriptors.get(functionalUnitType);
 
         if (functionalUnitDescriptor.isFull()) {
-            this.numStallsOnAcquireFailedOnNoFreeFunctionalUnit.put(
-                    functionalUnitOperationType,
-                    this.numStallsOnAcquireFailedOnNoFreeFunctionalUnit.get(functionalUnitOperationType) + 1
-            );
+            this.recordAcquireFailure(functionalUnitOperationType);
 
             return false;
         }
 
+        final int generation = reorderBufferEntry.getGeneration();
+
         this.core.getCycleAccurateEventQueue()
                 .schedule(this, () -> functionalUnitDescriptor.setNumFree(functionalUnitDescriptor.getNumFree() + 1), functionalUnitOperation.getIssueLatency())
                 .schedule(this, () -> {
-                    if (!reorderBufferEntry.isSquashed()) {
+                    if (reorderBufferEntry.getGeneration() == generation && !reorderBufferEntry.isSquashed()) {
                         onCompletedCallback.run();
                     }
                 }, functionalUnitOperation.getOperationLatency());
@@ -146,8 +194,17 @@ public class FunctionalUnitPool implements Named {
      * Update statistics per cycle.
      */
     public void updatePerCycleStats() {
+        this.updatePerCycleStats(1);
+    }
+
+    /**
+     * Update statistics for the specified number of cycles in which the functional units are not acquired or released.
+     *
+     * @param numCycles the number of cycles
+     */
+    public void updatePerCycleStats(long numCycles) {
         FunctionalUnitPool.this.numStallsOnNoFreeFunctionalUnit.keySet().stream().filter(fuType -> this.descriptors.get(fuType).isFull()).forEach(fuType -> {
-            this.numStallsOnNoFreeFunctionalUnit.put(fuType, this.numStallsOnNoFreeFunctionalUnit.get(fuType) + 1);
+            this.numStallsOnNoFreeFunctionalUnit.put(fuType, this.numStallsOnNoFreeFunctionalUnit.get(fuType) + numCycles);
         });
     }
 
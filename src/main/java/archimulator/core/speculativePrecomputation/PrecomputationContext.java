@@ -24,6 +24,7 @@ import archimulator.isa.ArchitecturalRegisterFile;
 import archimulator.isa.StaticInstruction;
 import archimulator.os.Context;
 import archimulator.os.ContextState;
+import archimulator.os.DecodedBasicBlock;
 import archimulator.uncore.cache.CacheLine;
 
 /**
@@ -57,7 +58,7 @@ public class PrecomputationContext extends Context {
         DynamicSpeculativePrecomputationHelper.BooleanValueProvider stateProvider = (DynamicSpeculativePrecomputationHelper.BooleanValueProvider) lineFound.getStateProvider();
 
         if (stateProvider.getMachineInstructions().containsKey(pc)) {
-            return super.decode(stateProvider.getMachineInstructions().get(pc));
+            return this.getProcess().decode(stateProvider.getMachineInstructions().get(pc));
         } else {
             if (this.getState() != ContextState.FINISHED) {
                 this.finish();
@@ -66,6 +67,11 @@ public class PrecomputationContext extends Context {
         }
     }
 
+    @Override
+    protected DecodedBasicBlock decodeBasicBlock(int pc) {
+        return null;
+    }
+
     @Override
     public boolean useICache() {
         return false;
@@ -0,0 +1,292 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.core.trace;
+
+import archimulator.isa.Memory;
+import archimulator.isa.Mnemonic;
+import archimulator.isa.MipsDecoder;
+import archimulator.isa.StaticInstruction;
+import archimulator.util.collection.IntegerIntegerHashMap;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static archimulator.core.trace.InstructionTraceWriter.*;
+
+/**
+ * Instruction trace reader, which replays the committed instructions captured by an instruction trace writer.
+ *
+ * @author Min Cai
+ */
+public class InstructionTraceReader implements Closeable {
+    private DataInputStream in;
+
+    private Inflater inflater;
+
+    private byte[] block;
+    private int blockLength;
+    private int position;
+
+    private byte[] compressedBlock;
+
+    private int lastNpc;
+    private int lastEffectiveAddress;
+
+    private IntegerIntegerHashMap machineInstructions;
+    private IntegerIntegerHashMap pageMappings;
+
+    private Map<Integer, StaticInstruction> staticInstructions;
+
+    private long numInstructions;
+
+    /**
+     * Create an instruction trace reader for the specified file.
+     *
+     * @param file the instruction trace file
+     */
+    public InstructionTraceReader(File file) {
+        try {
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+            if (this.in.readInt() != MAGIC) {
+                this.in.close();
+                throw new IllegalArgumentException(String.format("%s is not an instruction trace file", file));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        this.inflater = new Inflater();
+
+        this.block = new byte[BLOCK_SIZE];
+        this.compressedBlock = new byte[BLOCK_SIZE * 2];
+
+        this.machineInstructions = new IntegerIntegerHashMap();
+        this.pageMappings = new IntegerIntegerHashMap();
+
+        this.staticInstructions = new HashMap<>();
+    }
+
+    /**
+     * Read the next instruction into the specified instruction trace record.
+     *
+     * @param record the instruction trace record to be filled in
+     * @return a value indicating whether an instruction is read or the end of the instruction trace is reached
+     */
+    public boolean readNext(InstructionTraceRecord record) {
+        for (; ; ) {
+            if (this.position == this.blockLength && !this.readBlock()) {
+                return false;
+            }
+
+            int flags = this.block[this.position++];
+
+            if ((flags & FLAG_PAGE_MAPPING) != 0) {
+                int virtualPageNumber = this.readVariableLengthInt();
+                int physicalPageNumber = this.readVariableLengthInt();
+                this.pageMappings.put(virtualPageNumber, physicalPageNumber);
+                continue;
+            }
+
+            int pc = this.lastNpc;
+
+            if ((flags & FLAG_PC) != 0) {
+                pc += unzigzag(this.readVariableLengthInt());
+            }
+
+            int machineInstruction;
+
+            if ((flags & FLAG_MACHINE_INSTRUCTION) != 0) {
+                machineInstruction = this.readInt();
+                this.machineInstructions.put(pc, machineInstruction);
+            } else {
+                machineInstruction = this.machineInstructions.get(pc, 0);
+            }
+
+            int effectiveAddress = -1;
+
+            if ((flags & FLAG_EFFECTIVE_ADDRESS) != 0) {
+                this.lastEffectiveAddress += unzigzag(this.readVariableLengthInt());
+                effectiveAddress = this.lastEffectiveAddress;
+            }
+
+            int npc = pc + 4;
+
+            if ((flags & FLAG_NPC) != 0) {
+                npc += unzigzag(this.readVariableLengthInt());
+            }
+
+            int nnpc = npc + 4;
+
+            if ((flags & FLAG_NNPC) != 0) {
+                nnpc += unzigzag(this.readVariableLengthInt());
+            }
+
+            this.lastNpc = npc;
+
+            record.set(pc, this.decode(machineInstruction), effectiveAddress, npc, nnpc);
+
+            this.numInstructions++;
+
+            return true;
+        }
+    }
+
+    /**
+     * Read and decompress the next block.
+     *
+     * @return a value indicating whether a block is read or the end of the instruction trace is reached
+     */
+    private boolean readBlock() {
+        try {
+            int length;
+
+            try {
+                length = this.in.readInt();
+            } catch (EOFException e) {
+                return false;
+            }
+
+            int compressedLength = this.in.readInt();
+            this.in.readFully(this.compressedBlock, 0, compressedLength);
+
+            this.inflater.reset();
+            this.inflater.setInput(this.compressedBlock, 0, compressedLength);
+
+            if (this.inflater.inflate(this.block, 0, length) != length) {
+                throw new IllegalArgumentException("Corrupted instruction trace block");
+            }
+
+            this.blockLength = length;
+            this.position = 0;
+
+            return true;
+        } catch (IOException | DataFormatException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Decode the specified machine instruction. Static instructions are interned per machine instruction.
+     *
+     * @param machineInstruction the machine instruction
+     * @return the decoded static instruction
+     */
+    private StaticInstruction decode(int machineInstruction) {
+        StaticInstruction staticInstruction = this.staticInstructions.get(machineInstruction);
+
+        if (staticInstruction == null) {
+            Mnemonic mnemonic = MipsDecoder.decode(machineInstruction);
+            if (mnemonic == null) {
+                throw new IllegalArgumentException(String.format("Cannot decode the machine instruction 0x%08x in the instruction trace", machineInstruction));
+            }
+
+            staticInstruction = new StaticInstruction(mnemonic, machineInstruction);
+            this.staticInstructions.put(machineInstruction, staticInstruction);
+        }
+
+        return staticInstruction;
+    }
+
+    /**
+     * Get the physical address that the specified virtual address is mapped to, according to the page mappings read so far.
+     *
+     * @param virtualAddress the virtual address
+     * @return the physical address that the specified virtual address is mapped to
+     */
+    public int getPhysicalAddress(int virtualAddress) {
+        int physicalPageNumber = this.pageMappings.get(virtualAddress >>> Memory.getPageSizeInLog2(), -1);
+
+        if (physicalPageNumber == -1) {
+            throw new IllegalArgumentException(String.format("No page mapping for the virtual address 0x%08x in the instruction trace", virtualAddress));
+        }
+
+        return (physicalPageNumber << Memory.getPageSizeInLog2()) + Memory.getDisplacement(virtualAddress);
+    }
+
+    /**
+     * Read a variable length integer of seven bits per byte from the current block.
+     *
+     * @return the value read
+     */
+    private int readVariableLengthInt() {
+        int value = 0;
+
+        for (int shift = 0; ; shift += 7) {
+            byte b = this.block[this.position++];
+            value |= (b & 0x7f) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Read four bytes as an integer from the current block.
+     *
+     * @return the value read
+     */
+    private int readInt() {
+        int value = ((this.block[this.position] & 0xff) << 24)
+                | ((this.block[this.position + 1] & 0xff) << 16)
+                | ((this.block[this.position + 2] & 0xff) << 8)
+                | (this.block[this.position + 3] & 0xff);
+        this.position += 4;
+        return value;
+    }
+
+    /**
+     * Map the specified unsigned value back to the signed one.
+     *
+     * @param value the unsigned value
+     * @return the signed value
+     */
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Close the instruction trace file.
+     */
+    @Override
+    public void close() {
+        try {
+            this.in.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        this.inflater.end();
+    }
+
+    /**
+     * Get the number of instructions read.
+     *
+     * @return the number of instructions read
+     */
+    public long getNumInstructions() {
+        return numInstructions;
+    }
+}
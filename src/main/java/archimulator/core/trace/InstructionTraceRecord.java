@@ -0,0 +1,105 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.core.trace;
+
+import archimulator.isa.StaticInstruction;
+
+/**
+ * Instruction trace record, i.e., a committed instruction of a thread as captured in an instruction trace. The record
+ * is reused by the instruction trace reader across the records read.
+ *
+ * @author Min Cai
+ */
+public class InstructionTraceRecord {
+    private int pc;
+    private StaticInstruction staticInstruction;
+    private int effectiveAddress;
+    private int npc;
+    private int nnpc;
+
+    /**
+     * Set the contents of the instruction trace record.
+     *
+     * @param pc                the value of the program counter (PC)
+     * @param staticInstruction the static instruction
+     * @param effectiveAddress  the effective address if the instruction is a load or a store; otherwise -1
+     * @param npc               the value of the next program counter (NPC) after the instruction is executed
+     * @param nnpc              the value of the next next program counter (NNPC) after the instruction is executed
+     */
+    public void set(int pc, StaticInstruction staticInstruction, int effectiveAddress, int npc, int nnpc) {
+        this.pc = pc;
+        this.staticInstruction = staticInstruction;
+        this.effectiveAddress = effectiveAddress;
+        this.npc = npc;
+        this.nnpc = nnpc;
+    }
+
+    /**
+     * Get the value of the program counter (PC).
+     *
+     * @return the value of the program counter (PC)
+     */
+    public int getPc() {
+        return pc;
+    }
+
+    /**
+     * Get the static instruction.
+     *
+     * @return the static instruction
+     */
+    public StaticInstruction getStaticInstruction() {
+        return staticInstruction;
+    }
+
+    /**
+     * Get the effective address if the instruction is a load or a store.
+     *
+     * @return the effective address if the instruction is a load or a store; otherwise -1
+     */
+    public int getEffectiveAddress() {
+        return effectiveAddress;
+    }
+
+    /**
+     * Get the value of the next program counter (NPC) after the instruction is executed.
+     *
+     * @return the value of the next program counter (NPC) after the instruction is executed
+     */
+    public int getNpc() {
+        return npc;
+    }
+
+    /**
+     * Get the value of the next next program counter (NNPC) after the instruction is executed, which reflects the
+     * outcome of the branch if the instruction is a control instruction.
+     *
+     * @return the value of the next next program counter (NNPC) after the instruction is executed
+     */
+    public int getNnpc() {
+        return nnpc;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InstructionTraceRecord{pc=0x%08x, staticInstruction=%s, effectiveAddress=0x%08x, npc=0x%08x, nnpc=0x%08x}", pc, staticInstruction, effectiveAddress, npc, nnpc);
+    }
+}
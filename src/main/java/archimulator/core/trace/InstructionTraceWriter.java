@@ -0,0 +1,306 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.core.trace;
+
+import archimulator.isa.Memory;
+import archimulator.isa.StaticInstruction;
+import archimulator.isa.StaticInstructionType;
+import archimulator.util.collection.IntegerIntegerHashMap;
+
+import java.io.*;
+import java.util.zip.Deflater;
+
+/**
+ * Instruction trace writer, which captures the committed instructions of a thread into a compact binary file.
+ *
+ * The file starts with a magic number and is followed by blocks, each of which is the length of its uncompressed
+ * contents, the length of its compressed contents and the contents compressed by deflate. The contents of a block are
+ * a sequence of entries, each of which starts with a flags byte. A page mapping entry carries the virtual and the
+ * physical page numbers of a page touched by the following instructions. An instruction entry carries only the fields
+ * that cannot be derived from the preceding entries: the PC if it differs from the NPC of the preceding instruction,
+ * the machine instruction if it differs from the one last seen at the same PC, the effective address of a load or a
+ * store as a delta from the preceding effective address, and the NPC and the NNPC if they differ from the fall through
+ * addresses. The deltas are zigzag encoded as variable length integers, so that most instructions take a single byte
+ * before compression.
+ *
+ * @author Min Cai
+ */
+public class InstructionTraceWriter implements Closeable {
+    /**
+     * The magic number at the beginning of an instruction trace file.
+     */
+    static final int MAGIC = 0x41495452;
+
+    /**
+     * The maximum number of bytes of the uncompressed contents of a block.
+     */
+    static final int BLOCK_SIZE = 1 << 16;
+
+    /**
+     * The flag of a page mapping entry.
+     */
+    static final int FLAG_PAGE_MAPPING = 0x01;
+
+    /**
+     * The flag indicating that the PC of an instruction entry differs from the NPC of the preceding instruction.
+     */
+    static final int FLAG_PC = 0x02;
+
+    /**
+     * The flag indicating that the machine instruction of an instruction entry follows.
+     */
+    static final int FLAG_MACHINE_INSTRUCTION = 0x04;
+
+    /**
+     * The flag indicating that the effective address of an instruction entry follows.
+     */
+    static final int FLAG_EFFECTIVE_ADDRESS = 0x08;
+
+    /**
+     * The flag indicating that the NPC of an instruction entry differs from the fall through address.
+     */
+    static final int FLAG_NPC = 0x10;
+
+    /**
+     * The flag indicating that the NNPC of an instruction entry differs from the fall through address.
+     */
+    static final int FLAG_NNPC = 0x20;
+
+    /**
+     * The maximum number of bytes of an entry.
+     */
+    private static final int MAX_ENTRY_SIZE = 1 + 5 + 4 + 5 + 5 + 5;
+
+    private DataOutputStream out;
+
+    private Deflater deflater;
+
+    private byte[] block;
+    private int blockLength;
+
+    private byte[] compressedBlock;
+
+    private int lastNpc;
+    private int lastEffectiveAddress;
+
+    private IntegerIntegerHashMap machineInstructions;
+    private IntegerIntegerHashMap pageMappings;
+
+    private long numInstructions;
+
+    /**
+     * Create an instruction trace writer for the specified file.
+     *
+     * @param file the instruction trace file
+     */
+    public InstructionTraceWriter(File file) {
+        try {
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            this.out.writeInt(MAGIC);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        this.deflater = new Deflater();
+
+        this.block = new byte[BLOCK_SIZE];
+        this.compressedBlock = new byte[BLOCK_SIZE * 2];
+
+        this.machineInstructions = new IntegerIntegerHashMap();
+        this.pageMappings = new IntegerIntegerHashMap();
+    }
+
+    /**
+     * Write a page mapping entry for the page containing the specified virtual address unless the page is known to be
+     * mapped to the same physical page already.
+     *
+     * @param virtualAddress  the virtual address
+     * @param physicalAddress the physical address that the virtual address is mapped to
+     */
+    public void writePageMapping(int virtualAddress, int physicalAddress) {
+        int virtualPageNumber = virtualAddress >>> Memory.getPageSizeInLog2();
+        int physicalPageNumber = physicalAddress >>> Memory.getPageSizeInLog2();
+
+        if (this.pageMappings.get(virtualPageNumber, -1) == physicalPageNumber) {
+            return;
+        }
+
+        this.pageMappings.put(virtualPageNumber, physicalPageNumber);
+
+        this.reserve();
+
+        this.block[this.blockLength++] = FLAG_PAGE_MAPPING;
+        this.writeVariableLengthInt(virtualPageNumber);
+        this.writeVariableLengthInt(physicalPageNumber);
+    }
+
+    /**
+     * Write an instruction entry.
+     *
+     * @param pc                the value of the program counter (PC)
+     * @param staticInstruction the static instruction
+     * @param effectiveAddress  the effective address if the instruction is a load or a store
+     * @param npc               the value of the next program counter (NPC) after the instruction is executed
+     * @param nnpc              the value of the next next program counter (NNPC) after the instruction is executed
+     */
+    public void write(int pc, StaticInstruction staticInstruction, int effectiveAddress, int npc, int nnpc) {
+        this.reserve();
+
+        int flagsPosition = this.blockLength++;
+        int flags = 0;
+
+        if (pc != this.lastNpc) {
+            flags |= FLAG_PC;
+            this.writeVariableLengthInt(zigzag(pc - this.lastNpc));
+        }
+
+        int machineInstruction = staticInstruction.getMachineInstruction();
+
+        if (this.machineInstructions.get(pc, 0) != machineInstruction) {
+            flags |= FLAG_MACHINE_INSTRUCTION;
+            this.machineInstructions.put(pc, machineInstruction);
+            this.writeInt(machineInstruction);
+        }
+
+        StaticInstructionType type = staticInstruction.getMnemonic().getType();
+
+        if (type == StaticInstructionType.LOAD || type == StaticInstructionType.STORE) {
+            flags |= FLAG_EFFECTIVE_ADDRESS;
+            this.writeVariableLengthInt(zigzag(effectiveAddress - this.lastEffectiveAddress));
+            this.lastEffectiveAddress = effectiveAddress;
+        }
+
+        if (npc != pc + 4) {
+            flags |= FLAG_NPC;
+            this.writeVariableLengthInt(zigzag(npc - (pc + 4)));
+        }
+
+        if (nnpc != npc + 4) {
+            flags |= FLAG_NNPC;
+            this.writeVariableLengthInt(zigzag(nnpc - (npc + 4)));
+        }
+
+        this.block[flagsPosition] = (byte) flags;
+
+        this.lastNpc = npc;
+
+        this.numInstructions++;
+    }
+
+    /**
+     * Make sure that there is room for another entry in the current block, flushing the block if necessary.
+     */
+    private void reserve() {
+        if (this.blockLength > BLOCK_SIZE - MAX_ENTRY_SIZE) {
+            this.flushBlock();
+        }
+    }
+
+    /**
+     * Compress the current block and write it out.
+     */
+    private void flushBlock() {
+        if (this.blockLength == 0) {
+            return;
+        }
+
+        this.deflater.reset();
+        this.deflater.setInput(this.block, 0, this.blockLength);
+        this.deflater.finish();
+
+        int compressedLength = this.deflater.deflate(this.compressedBlock);
+
+        if (!this.deflater.finished()) {
+            throw new IllegalStateException();
+        }
+
+        try {
+            this.out.writeInt(this.blockLength);
+            this.out.writeInt(compressedLength);
+            this.out.write(this.compressedBlock, 0, compressedLength);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        this.blockLength = 0;
+    }
+
+    /**
+     * Write the specified value as a variable length integer of seven bits per byte into the current block.
+     *
+     * @param value the value
+     */
+    private void writeVariableLengthInt(int value) {
+        while ((value & ~0x7f) != 0) {
+            this.block[this.blockLength++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+
+        this.block[this.blockLength++] = (byte) value;
+    }
+
+    /**
+     * Write the specified value as four bytes into the current block.
+     *
+     * @param value the value
+     */
+    private void writeInt(int value) {
+        this.block[this.blockLength++] = (byte) (value >>> 24);
+        this.block[this.blockLength++] = (byte) (value >>> 16);
+        this.block[this.blockLength++] = (byte) (value >>> 8);
+        this.block[this.blockLength++] = (byte) value;
+    }
+
+    /**
+     * Map the specified signed value to an unsigned one, so that the values of small magnitude are encoded in few bytes.
+     *
+     * @param value the signed value
+     * @return the unsigned value
+     */
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Flush the pending block and close the instruction trace file.
+     */
+    @Override
+    public void close() {
+        this.flushBlock();
+
+        try {
+            this.out.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        this.deflater.end();
+    }
+
+    /**
+     * Get the number of instructions written.
+     *
+     * @return the number of instructions written
+     */
+    public long getNumInstructions() {
+        return numInstructions;
+    }
+}
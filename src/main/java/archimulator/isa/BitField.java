@@ -54,6 +54,33 @@ public class BitField {
         return MathHelper.bits(machineInstruction, this.hi, this.lo);
     }
 
+    /**
+     * Get the HI value.
+     *
+     * @return the HI value
+     */
+    public int getHi() {
+        return hi;
+    }
+
+    /**
+     * Get the LO value.
+     *
+     * @return the LO value
+     */
+    public int getLo() {
+        return lo;
+    }
+
+    /**
+     * Get the mask covering the field in a machine instruction.
+     *
+     * @return the mask covering the field in a machine instruction
+     */
+    public int getMask() {
+        return (int) (((1L << (this.hi - this.lo + 1)) - 1) << this.lo);
+    }
+
     /**
      * Opcode.
      */
@@ -29,8 +29,9 @@ import archimulator.common.report.Reportable;
 import archimulator.os.Kernel;
 import archimulator.uncore.cache.CacheGeometry;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -43,17 +44,17 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
     private int id;
     private boolean littleEndian;
 
-    private Map<Integer, Page> pages;
+    private Page[][] pageTable;
 
     private Kernel kernel;
     private int processId;
 
     private int numPages;
 
-    private Map<Integer, ByteBuffer> byteBuffers;
-
     private boolean speculative;
-    private Map<Integer, List<SpeculativeMemoryBlock>> speculativeMemoryBlocks;
+    private SpeculativeMemoryBlock[] speculativeMemoryBlockTable;
+    private List<SpeculativeMemoryBlock> speculativeMemoryBlocks;
+    private Deque<SpeculativeMemoryBlock> freeSpeculativeMemoryBlocks;
 
     /**
      * Create a "memory".
@@ -71,12 +72,12 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
 
         this.id = this.kernel.currentMemoryId++;
 
-        this.pages = new TreeMap<>();
-
-        this.byteBuffers = new HashMap<>();
+        this.pageTable = new Page[1 << (32 - getPageSizeInLog2() - PAGE_TABLE_LEVEL_2_BITS)][];
 
         this.speculative = false;
-        this.speculativeMemoryBlocks = new TreeMap<>();
+        this.speculativeMemoryBlockTable = new SpeculativeMemoryBlock[SpeculativeMemoryBlock.INITIAL_TABLE_SIZE];
+        this.speculativeMemoryBlocks = new ArrayList<>();
+        this.freeSpeculativeMemoryBlocks = new ArrayDeque<>();
     }
 
     /**
@@ -86,9 +87,7 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
      * @return a byte at the specified address
      */
     public byte readByte(int address) {
-        byte[] buffer = new byte[1];
-        this.access(address, 1, buffer, false, true);
-        return buffer[0];
+        return this.getData(address, 1)[this.getOffset(address)];
     }
 
     /**
@@ -98,9 +97,15 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
      * @return a half word at the specified address
      */
     public short readHalfWord(int address) {
-        byte[] buffer = new byte[2];
-        this.access(address, 2, buffer, false, true);
-        return ByteBuffer.wrap(buffer).order(this.littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN).getShort();
+        byte[] data = this.getData(address, 2);
+
+        if (data == null) {
+            byte[] buffer = new byte[2];
+            this.access(address, 2, buffer, false, true);
+            return (short) this.getValue(buffer, 0, 2);
+        }
+
+        return (short) this.getValue(data, this.getOffset(address), 2);
     }
 
     /**
@@ -110,9 +115,15 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
      * @return a word at the specified address
      */
     public int readWord(int address) {
-        byte[] buffer = new byte[4];
-        this.access(address, 4, buffer, false, true);
-        return ByteBuffer.wrap(buffer).order(this.littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN).getInt();
+        byte[] data = this.getData(address, 4);
+
+        if (data == null) {
+            byte[] buffer = new byte[4];
+            this.access(address, 4, buffer, false, true);
+            return (int) this.getValue(buffer, 0, 4);
+        }
+
+        return (int) this.getValue(data, this.getOffset(address), 4);
     }
 
     /**
@@ -122,9 +133,86 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
      * @return a double word at the specified address
      */
     public long readDoubleWord(int address) {
-        byte[] buffer = new byte[8];
-        this.access(address, 8, buffer, false, true);
-        return ByteBuffer.wrap(buffer).order(this.littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN).getLong();
+        byte[] data = this.getData(address, 8);
+
+        if (data == null) {
+            byte[] buffer = new byte[8];
+            this.access(address, 8, buffer, false, true);
+            return this.getValue(buffer, 0, 8);
+        }
+
+        return this.getValue(data, this.getOffset(address), 8);
+    }
+
+    /**
+     * Get the array backing the specified range of addresses, i.e., the speculative memory block in the speculative state or the page otherwise.
+     *
+     * @param address the starting address
+     * @param size    the size
+     * @return the array backing the specified range of addresses if the range does not straddle a block or page boundary; otherwise null
+     */
+    private byte[] getData(int address, int size) {
+        if (this.speculative) {
+            return (address & (SpeculativeMemoryBlock.BLOCK_SIZE - 1)) <= SpeculativeMemoryBlock.BLOCK_SIZE - size ? this.getSpeculativeMemoryBlock(address).data : null;
+        }
+
+        return isWithinPage(address, size) ? this.getOrAddPage(address).data : null;
+    }
+
+    /**
+     * Get the offset of the specified address within the array returned by {@link #getData(int, int)}.
+     *
+     * @param address the address
+     * @return the offset of the specified address within the array returned by {@link #getData(int, int)}
+     */
+    private int getOffset(int address) {
+        return this.speculative ? address & (SpeculativeMemoryBlock.BLOCK_SIZE - 1) : getDisplacement(address);
+    }
+
+    /**
+     * Get the value of the specified size stored at the specified offset of the specified array, honoring the endianness of the memory.
+     *
+     * @param data   the array
+     * @param offset the offset within the array
+     * @param size   the size in bytes of the value
+     * @return the value of the specified size stored at the specified offset of the specified array
+     */
+    private long getValue(byte[] data, int offset, int size) {
+        long value = 0;
+
+        if (this.littleEndian) {
+            for (int i = size - 1; i >= 0; i--) {
+                value = (value << 8) | (data[offset + i] & 0xff);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                value = (value << 8) | (data[offset + i] & 0xff);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Set the value of the specified size at the specified offset of the specified array, honoring the endianness of the memory.
+     *
+     * @param data   the array
+     * @param offset the offset within the array
+     * @param size   the size in bytes of the value
+     * @param value  the value
+     */
+    private void setValue(byte[] data, int offset, int size, long value) {
+        if (this.littleEndian) {
+            for (int i = 0; i < size; i++) {
+                data[offset + i] = (byte) value;
+                value >>>= 8;
+            }
+        } else {
+            for (int i = size - 1; i >= 0; i--) {
+                data[offset + i] = (byte) value;
+                value >>>= 8;
+            }
+        }
     }
 
     /**
@@ -165,8 +253,7 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
      * @param data    one byte of data to be written
      */
     public void writeByte(int address, byte data) {
-        byte[] buffer = new byte[]{data};
-        this.access(address, 1, buffer, true, true);
+        this.getData(address, 1)[this.getOffset(address)] = data;
     }
 
     /**
@@ -176,9 +263,16 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
      * @param data    one half word of data to be written
      */
     public void writeHalfWord(int address, short data) {
-        byte[] buffer = new byte[2];
-        ByteBuffer.wrap(buffer).order(this.littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN).putShort(data);
-        this.access(address, 2, buffer, true, true);
+        byte[] buffer = this.getData(address, 2);
+
+        if (buffer == null) {
+            buffer = new byte[2];
+            this.setValue(buffer, 0, 2, data);
+            this.access(address, 2, buffer, true, true);
+            return;
+        }
+
+        this.setValue(buffer, this.getOffset(address), 2, data);
     }
 
     /**
@@ -188,9 +282,16 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
      * @param data    one word of data to be written
      */
     public void writeWord(int address, int data) {
-        byte[] buffer = new byte[4];
-        ByteBuffer.wrap(buffer).order(this.littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN).putInt(data);
-        this.access(address, 4, buffer, true, true);
+        byte[] buffer = this.getData(address, 4);
+
+        if (buffer == null) {
+            buffer = new byte[4];
+            this.setValue(buffer, 0, 4, data);
+            this.access(address, 4, buffer, true, true);
+            return;
+        }
+
+        this.setValue(buffer, this.getOffset(address), 4, data);
     }
 
     /**
@@ -200,9 +301,16 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
      * @param data    one double word of data to be written
      */
     public void writeDoubleWord(int address, long data) {
-        byte[] buffer = new byte[8];
-        ByteBuffer.wrap(buffer).order(this.littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN).putLong(data);
-        this.access(address, 8, buffer, true, true);
+        byte[] buffer = this.getData(address, 8);
+
+        if (buffer == null) {
+            buffer = new byte[8];
+            this.setValue(buffer, 0, 8, data);
+            this.access(address, 8, buffer, true, true);
+            return;
+        }
+
+        this.setValue(buffer, this.getOffset(address), 8, data);
     }
 
     /**
@@ -259,6 +367,7 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
 
     /**
      * Perform a speculative read or write operation on the specified range of addresses.
+     * Writes only go to the speculative memory blocks, which are copied from the memory on first touch.
      *
      * @param address the starting address
      * @param size    the size
@@ -266,42 +375,79 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
      * @param write   a value indicating whether the access is a read or write
      */
     private void doSpeculativeAccess(int address, int size, byte[] buffer, boolean write) {
-        int tag = address >> SpeculativeMemoryBlock.BLOCK_LOGSIZE;
-        int index = tag % SpeculativeMemoryBlock.COUNT;
+        int offset = 0;
 
-        SpeculativeMemoryBlock blockFound = null;
+        while (size > 0) {
+            int displacement = address & (SpeculativeMemoryBlock.BLOCK_SIZE - 1);
+            int chunkSize = Math.min(size, SpeculativeMemoryBlock.BLOCK_SIZE - displacement);
 
-        if (this.speculativeMemoryBlocks.containsKey(index)) {
-            for (SpeculativeMemoryBlock blk : this.speculativeMemoryBlocks.get(index)) {
-                if (blk.tag == tag) {
-                    blockFound = blk;
-                    break;
-                }
+            SpeculativeMemoryBlock block = this.getSpeculativeMemoryBlock(address);
+
+            if (write) {
+                System.arraycopy(buffer, offset, block.data, displacement, chunkSize);
+            } else {
+                System.arraycopy(block.data, displacement, buffer, offset, chunkSize);
             }
+
+            size -= chunkSize;
+            offset += chunkSize;
+            address += chunkSize;
         }
+    }
 
-        if (blockFound == null) {
-            blockFound = new SpeculativeMemoryBlock(tag);
+    /**
+     * Get the speculative memory block containing the specified address, copying it from the memory on first touch.
+     *
+     * @param address the address
+     * @return the speculative memory block containing the specified address
+     */
+    private SpeculativeMemoryBlock getSpeculativeMemoryBlock(int address) {
+        int tag = address >>> SpeculativeMemoryBlock.BLOCK_LOGSIZE;
+        int mask = this.speculativeMemoryBlockTable.length - 1;
 
-            if (!this.speculativeMemoryBlocks.containsKey(index)) {
-                this.speculativeMemoryBlocks.put(index, new ArrayList<>());
+        int i = SpeculativeMemoryBlock.hash(tag) & mask;
+        for (SpeculativeMemoryBlock block; (block = this.speculativeMemoryBlockTable[i]) != null; i = (i + 1) & mask) {
+            if (block.tag == tag) {
+                return block;
             }
+        }
 
-            this.speculativeMemoryBlocks.get(index).add(0, blockFound);
+        SpeculativeMemoryBlock block = this.freeSpeculativeMemoryBlocks.isEmpty() ? new SpeculativeMemoryBlock() : this.freeSpeculativeMemoryBlocks.pop();
+        block.tag = tag;
 
-            this.doNonSpeculativeAccess(address & ~(SpeculativeMemoryBlock.BLOCK_SIZE - 1), SpeculativeMemoryBlock.BLOCK_SIZE, blockFound.data, write, false);
+        Page page = this.getPage(address);
+        if (page != null) {
+            System.arraycopy(page.data, getDisplacement(address & ~(SpeculativeMemoryBlock.BLOCK_SIZE - 1)), block.data, 0, SpeculativeMemoryBlock.BLOCK_SIZE);
+        } else {
+            Arrays.fill(block.data, (byte) 0);
         }
 
-        if ((size & (size - 1)) != 0 || size > SpeculativeMemoryBlock.BLOCK_SIZE || (address & (size - 1)) != 0) {
-            return;
+        block.slot = i;
+        this.speculativeMemoryBlockTable[i] = block;
+        this.speculativeMemoryBlocks.add(block);
+
+        if (this.speculativeMemoryBlocks.size() * 2 > this.speculativeMemoryBlockTable.length) {
+            this.resizeSpeculativeMemoryBlockTable(this.speculativeMemoryBlockTable.length * 2);
         }
 
-        int displacement = address & (SpeculativeMemoryBlock.BLOCK_SIZE - 1);
+        return block;
+    }
 
-        if (!write) {
-            System.arraycopy(blockFound.data, displacement, buffer, 0, size);
-        } else {
-            System.arraycopy(buffer, 0, blockFound.data, displacement, size);
+    /**
+     * Resize the speculative memory block table to the specified size.
+     *
+     * @param size the new size of the table
+     */
+    private void resizeSpeculativeMemoryBlockTable(int size) {
+        this.speculativeMemoryBlockTable = new SpeculativeMemoryBlock[size];
+
+        for (SpeculativeMemoryBlock block : this.speculativeMemoryBlocks) {
+            int i = SpeculativeMemoryBlock.hash(block.tag) & (size - 1);
+            while (this.speculativeMemoryBlockTable[i] != null) {
+                i = (i + 1) & (size - 1);
+            }
+            block.slot = i;
+            this.speculativeMemoryBlockTable[i] = block;
         }
     }
 
@@ -313,10 +459,16 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
     }
 
     /**
-     * Exit the speculative state.
+     * Exit the speculative state. The speculative memory blocks touched are discarded and recycled.
      */
     public void exitSpeculativeState() {
+        for (SpeculativeMemoryBlock block : this.speculativeMemoryBlocks) {
+            this.speculativeMemoryBlockTable[block.slot] = null;
+            this.freeSpeculativeMemoryBlocks.push(block);
+        }
+
         this.speculativeMemoryBlocks.clear();
+
         this.speculative = false;
     }
 
@@ -462,7 +614,19 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
     private Page getPage(int address) {
         int index = getIndex(address);
 
-        return this.pages.containsKey(index) ? this.pages.get(index) : null;
+        Page[] pages = this.pageTable[index >>> PAGE_TABLE_LEVEL_2_BITS];
+        return pages != null ? pages[index & (PAGE_TABLE_LEVEL_2_SIZE - 1)] : null;
+    }
+
+    /**
+     * Get the page containing the specified address, creating it if necessary.
+     *
+     * @param address the address
+     * @return the page containing the specified address
+     */
+    private Page getOrAddPage(int address) {
+        Page page = this.getPage(address);
+        return page != null ? page : this.addPage(getTag(address));
     }
 
     /**
@@ -477,11 +641,26 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
         this.numPages++;
         Page page = new Page(getExperiment().currentMemoryPageId++);
 
-        this.pages.put(index, page);
+        this.setPage(index, page);
 
         return page;
     }
 
+    /**
+     * Set the page at the specified index in the page table.
+     *
+     * @param index the index of the page
+     * @param page  the page
+     */
+    private void setPage(int index, Page page) {
+        Page[] pages = this.pageTable[index >>> PAGE_TABLE_LEVEL_2_BITS];
+        if (pages == null) {
+            pages = new Page[PAGE_TABLE_LEVEL_2_SIZE];
+            this.pageTable[index >>> PAGE_TABLE_LEVEL_2_BITS] = pages;
+        }
+        pages[index & (PAGE_TABLE_LEVEL_2_SIZE - 1)] = page;
+    }
+
     /**
      * Remove a page containing the specified address.
      *
@@ -490,7 +669,10 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
     private void removePage(int address) {
         int index = getIndex(address);
 
-        this.pages.remove(index);
+        Page[] pages = this.pageTable[index >>> PAGE_TABLE_LEVEL_2_BITS];
+        if (pages != null) {
+            pages[index & (PAGE_TABLE_LEVEL_2_SIZE - 1)] = null;
+        }
     }
 
     /**
@@ -515,32 +697,86 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
     }
 
     /**
-     * Act on when a page is created.
+     * Save the pages of the memory to the specified output. All-zero pages are saved without their contents.
      *
-     * @param id the ID of the newly created page
+     * @param out the output
+     * @throws IOException if an I/O error occurs
      */
-    protected void onPageCreated(int id) {
-        this.byteBuffers.put(id, ByteBuffer.allocate(Memory.getPageSize()).order(isLittleEndian() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN));
+    public void saveTo(DataOutput out) throws IOException {
+        if (this.speculative) {
+            throw new IllegalStateException();
+        }
+
+        out.writeInt(this.id);
+        out.writeInt(this.numPages);
+
+        int numPagesMapped = 0;
+        for (Page[] pages : this.pageTable) {
+            if (pages != null) {
+                for (Page page : pages) {
+                    if (page != null) {
+                        numPagesMapped++;
+                    }
+                }
+            }
+        }
+
+        out.writeInt(numPagesMapped);
+
+        for (int i = 0; i < this.pageTable.length; i++) {
+            Page[] pages = this.pageTable[i];
+            if (pages == null) {
+                continue;
+            }
+
+            for (int j = 0; j < pages.length; j++) {
+                Page page = pages[j];
+                if (page == null) {
+                    continue;
+                }
+
+                out.writeInt((i << PAGE_TABLE_LEVEL_2_BITS) | j);
+                out.writeInt(page.id);
+
+                boolean zero = true;
+                for (byte b : page.data) {
+                    if (b != 0) {
+                        zero = false;
+                        break;
+                    }
+                }
+
+                out.writeBoolean(zero);
+                if (!zero) {
+                    out.write(page.data);
+                }
+            }
+        }
     }
 
     /**
-     * Act on when a page is accessed.
+     * Load the pages of the memory from the specified input, replacing all the existing pages.
      *
-     * @param pageId       the ID of the page
-     * @param displacement the displacement within the page
-     * @param buffer       the buffer
-     * @param offset       the offset within the buffer
-     * @param size         the size of data to be accessed within the buffer
-     * @param write        whether the access is a read or write
+     * @param in the input
+     * @throws IOException if an I/O error occurs
      */
-    protected void doPageAccess(int pageId, int displacement, byte[] buffer, int offset, int size, boolean write) {
-        ByteBuffer bb = getByteBuffer(pageId);
-        bb.position(displacement);
+    public void loadFrom(DataInput in) throws IOException {
+        Arrays.fill(this.pageTable, null);
 
-        if (write) {
-            bb.put(buffer, offset, size);
-        } else {
-            bb.get(buffer, offset, size);
+        this.id = in.readInt();
+        this.numPages = in.readInt();
+
+        int numPagesMapped = in.readInt();
+
+        for (int k = 0; k < numPagesMapped; k++) {
+            int index = in.readInt();
+
+            Page page = new Page(in.readInt());
+            if (!in.readBoolean()) {
+                in.readFully(page.data);
+            }
+
+            this.setPage(index, page);
         }
     }
 
@@ -614,16 +850,6 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
         return numPages;
     }
 
-    /**
-     * Get the byte buffer for the specified page ID.
-     *
-     * @param pageId the ID of the page
-     * @return the byte buffer for the specified page ID.
-     */
-    private ByteBuffer getByteBuffer(int pageId) {
-        return this.byteBuffers.containsKey(pageId) ? this.byteBuffers.get(pageId) : null;
-    }
-
     /**
      * Get the name of the memory.
      *
@@ -640,6 +866,7 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
     private class Page {
         private int id;
         private int physicalAddress;
+        private byte[] data;
 
         /**
          * Create a page.
@@ -649,8 +876,7 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
         private Page(int id) {
             this.id = id;
             this.physicalAddress = this.id << Memory.getPageSizeInLog2();
-
-            onPageCreated(id);
+            this.data = new byte[Memory.getPageSize()];
         }
 
         /**
@@ -663,34 +889,50 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
          * @param write   a value indicating whether the access is a read or write
          */
         private void doAccess(int address, byte[] buffer, int offset, int size, boolean write) {
-            doPageAccess(id, getDisplacement(address), buffer, offset, size, write);
+            if (write) {
+                System.arraycopy(buffer, offset, this.data, getDisplacement(address), size);
+            } else {
+                System.arraycopy(this.data, getDisplacement(address), buffer, offset, size);
+            }
         }
     }
 
     /**
      * Speculative memory block. Used for representing a range of addresses involved in a speculative access.
      */
-    private class SpeculativeMemoryBlock {
+    private static class SpeculativeMemoryBlock {
         private int tag;
+        private int slot;
         private byte[] data;
 
         /**
          * Create a speculative memory block.
+         */
+        private SpeculativeMemoryBlock() {
+            this.data = new byte[BLOCK_SIZE];
+        }
+
+        /**
+         * Get the slot in the speculative memory block table for the specified tag.
          *
          * @param tag the tag
+         * @return the slot in the speculative memory block table for the specified tag
          */
-        private SpeculativeMemoryBlock(int tag) {
-            this.tag = tag;
-            this.data = new byte[BLOCK_SIZE];
+        private static int hash(int tag) {
+            int h = tag * 0x9e3779b9;
+            return h ^ (h >>> 16);
         }
 
         private static final int BLOCK_LOGSIZE = 8;
         private static final int BLOCK_SIZE = 1 << BLOCK_LOGSIZE;
-        private static final int COUNT = 1024;
+        private static final int INITIAL_TABLE_SIZE = 64;
     }
 
     private static final CacheGeometry geometry = new CacheGeometry(-1, 1, 1 << 12);
 
+    private static final int PAGE_TABLE_LEVEL_2_BITS = 10;
+    private static final int PAGE_TABLE_LEVEL_2_SIZE = 1 << PAGE_TABLE_LEVEL_2_BITS;
+
     /**
      * Get the displacement for the specified address.
      *
@@ -718,7 +960,18 @@ public class Memory extends BasicSimulationObject<CPUExperiment, Simulation>
      * @return the index for the specified address
      */
     private static int getIndex(int address) {
-        return CacheGeometry.getLineId(address, geometry);
+        return address >>> geometry.getLineSizeInLog2();
+    }
+
+    /**
+     * Get a value indicating whether the specified range of addresses lies within a single page or not.
+     *
+     * @param address the starting address
+     * @param size    the size
+     * @return a value indicating whether the specified range of addresses lies within a single page or not
+     */
+    private static boolean isWithinPage(int address, int size) {
+        return getDisplacement(address) <= getPageSize() - size;
     }
 
     /**
@@ -0,0 +1,241 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.isa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Table driven MIPS decoder.
+ * <p>
+ * The decode tree is generated from the mask, bits and decode condition of each mnemonic. It switches on the opcode
+ * first, then on whichever of the func, rs/fmt, rt and shift fields best separates the remaining candidates. Each leaf
+ * keeps its candidates in the order of {@link StaticInstruction#MNEMONICS}, so the first match wins exactly as in a
+ * linear scan over all the mnemonics.
+ *
+ * @author Min Cai
+ */
+public class MipsDecoder {
+    /**
+     * The fields to switch on below the opcode.
+     */
+    private static final BitField[] SELECTOR_FIELDS = new BitField[]{
+            BitField.FUNC, BitField.RS, BitField.RT, BitField.SHIFT
+    };
+
+    private static final DecodeNode ROOT;
+
+    /**
+     * Static constructor.
+     */
+    static {
+        ROOT = createSwitchNode(StaticInstruction.MNEMONICS, BitField.OPCODE, Arrays.asList(SELECTOR_FIELDS));
+    }
+
+    /**
+     * Decode the specified machine instruction.
+     *
+     * @param machineInstruction the machine instruction
+     * @return the mnemonic matching the specified machine instruction if any exists; otherwise null
+     */
+    public static Mnemonic decode(int machineInstruction) {
+        return ROOT.decode(machineInstruction);
+    }
+
+    /**
+     * Get a value indicating whether the specified mnemonic matches the specified machine instruction or not.
+     *
+     * @param mnemonic           the mnemonic
+     * @param machineInstruction the machine instruction
+     * @return a value indicating whether the specified mnemonic matches the specified machine instruction or not
+     */
+    private static boolean matches(Mnemonic mnemonic, int machineInstruction) {
+        BitField extraBitField = mnemonic.getExtraBitField();
+        return (machineInstruction & mnemonic.getMask()) == mnemonic.getBits()
+                && (extraBitField == null || extraBitField.valueOf(machineInstruction) == mnemonic.getExtraBitFieldValue());
+    }
+
+    /**
+     * Get a value indicating whether the specified mnemonic may match a machine instruction whose specified field has the specified value.
+     *
+     * @param mnemonic the mnemonic
+     * @param field    the field
+     * @param value    the value of the field
+     * @return a value indicating whether the specified mnemonic may match a machine instruction whose specified field has the specified value
+     */
+    private static boolean mayMatch(Mnemonic mnemonic, BitField field, int value) {
+        int fieldMask = field.getMask();
+        int fieldBits = value << field.getLo();
+
+        if ((fieldBits & mnemonic.getMask() & fieldMask) != (mnemonic.getBits() & mnemonic.getMask() & fieldMask)) {
+            return false;
+        }
+
+        BitField extraBitField = mnemonic.getExtraBitField();
+        if (extraBitField != null) {
+            int extraMask = extraBitField.getMask() & fieldMask;
+            int extraBits = mnemonic.getExtraBitFieldValue() << extraBitField.getLo();
+            if ((fieldBits & extraMask) != (extraBits & extraMask)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the candidates which may match a machine instruction whose specified field has the specified value.
+     *
+     * @param candidates the candidates
+     * @param field      the field
+     * @param value      the value of the field
+     * @return the candidates which may match a machine instruction whose specified field has the specified value
+     */
+    private static List<Mnemonic> select(List<Mnemonic> candidates, BitField field, int value) {
+        List<Mnemonic> selected = new ArrayList<>();
+        for (Mnemonic candidate : candidates) {
+            if (mayMatch(candidate, field, value)) {
+                selected.add(candidate);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Create the decode node for the specified candidates.
+     *
+     * @param candidates the candidates
+     * @param fields     the fields which are not yet switched on
+     * @return the decode node for the specified candidates
+     */
+    private static DecodeNode createNode(List<Mnemonic> candidates, List<BitField> fields) {
+        if (candidates.size() <= 1) {
+            return new LeafNode(candidates);
+        }
+
+        BitField bestField = null;
+        int bestMaxNumCandidates = candidates.size();
+
+        for (BitField field : fields) {
+            int maxNumCandidates = 0;
+            for (int value = 0; value <= field.getMask() >>> field.getLo(); value++) {
+                maxNumCandidates = Math.max(maxNumCandidates, select(candidates, field, value).size());
+            }
+
+            if (maxNumCandidates < bestMaxNumCandidates) {
+                bestField = field;
+                bestMaxNumCandidates = maxNumCandidates;
+            }
+        }
+
+        if (bestField == null) {
+            return new LeafNode(candidates);
+        }
+
+        List<BitField> remainingFields = new ArrayList<>(fields);
+        remainingFields.remove(bestField);
+
+        return createSwitchNode(candidates, bestField, remainingFields);
+    }
+
+    /**
+     * Create a switch node on the specified field for the specified candidates.
+     *
+     * @param candidates the candidates
+     * @param field      the field to switch on
+     * @param fields     the fields which are not yet switched on
+     * @return a switch node on the specified field for the specified candidates
+     */
+    private static DecodeNode createSwitchNode(List<Mnemonic> candidates, BitField field, List<BitField> fields) {
+        DecodeNode[] children = new DecodeNode[(field.getMask() >>> field.getLo()) + 1];
+        for (int value = 0; value < children.length; value++) {
+            children[value] = createNode(select(candidates, field, value), fields);
+        }
+        return new SwitchNode(field, children);
+    }
+
+    /**
+     * Decode node.
+     */
+    private interface DecodeNode {
+        /**
+         * Decode the specified machine instruction.
+         *
+         * @param machineInstruction the machine instruction
+         * @return the mnemonic matching the specified machine instruction if any exists; otherwise null
+         */
+        Mnemonic decode(int machineInstruction);
+    }
+
+    /**
+     * Decode node switching on the value of a field.
+     */
+    private static class SwitchNode implements DecodeNode {
+        private int lo;
+        private int mask;
+        private DecodeNode[] children;
+
+        /**
+         * Create a switch node.
+         *
+         * @param field    the field to switch on
+         * @param children the child nodes indexed by the value of the field
+         */
+        private SwitchNode(BitField field, DecodeNode[] children) {
+            this.lo = field.getLo();
+            this.mask = field.getMask() >>> field.getLo();
+            this.children = children;
+        }
+
+        @Override
+        public Mnemonic decode(int machineInstruction) {
+            return this.children[(machineInstruction >>> this.lo) & this.mask].decode(machineInstruction);
+        }
+    }
+
+    /**
+     * Decode node checking the remaining candidates in order.
+     */
+    private static class LeafNode implements DecodeNode {
+        private Mnemonic[] candidates;
+
+        /**
+         * Create a leaf node.
+         *
+         * @param candidates the candidates
+         */
+        private LeafNode(List<Mnemonic> candidates) {
+            this.candidates = candidates.toArray(new Mnemonic[candidates.size()]);
+        }
+
+        @Override
+        public Mnemonic decode(int machineInstruction) {
+            for (Mnemonic candidate : this.candidates) {
+                if (matches(candidate, machineInstruction)) {
+                    return candidate;
+                }
+            }
+
+            return null;
+        }
+    }
+}
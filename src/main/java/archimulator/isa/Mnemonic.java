@@ -651,6 +651,7 @@ public enum Mnemonic {
     UNKNOWN;
 
     private Method method;
+    private StaticInstructionExecutor executor;
 
     private int mask;
     private int bits;
@@ -736,6 +737,24 @@ public enum Mnemonic {
 
     }
 
+    /**
+     * Get the executor.
+     *
+     * @return the executor
+     */
+    public StaticInstructionExecutor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Set the executor.
+     *
+     * @param executor the executor
+     */
+    public void setExecutor(StaticInstructionExecutor executor) {
+        this.executor = executor;
+    }
+
     /**
      * Determine the instruction type for the specified collection of tags.
      *
@@ -86,7 +86,13 @@ public enum RegisterDependencyType {
      * @return the dependency type for the specified total ordered dependency
      */
     public static RegisterDependencyType getType(int dependency) {
-        return parse(dependency).getFirst();
+        if (dependency < ArchitecturalRegisterFile.NUM_INT_REGISTERS) {
+            return RegisterDependencyType.INTEGER;
+        } else if (dependency < ArchitecturalRegisterFile.NUM_INT_REGISTERS + ArchitecturalRegisterFile.NUM_FLOAT_REGISTERS) {
+            return RegisterDependencyType.FLOAT;
+        } else {
+            return RegisterDependencyType.MISC;
+        }
     }
 
     /**
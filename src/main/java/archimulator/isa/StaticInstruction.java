@@ -31,14 +31,13 @@ import archimulator.os.FunctionCallContext;
 import archimulator.util.Reference;
 import archimulator.util.math.MathHelper;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Static instruction.
@@ -53,7 +52,10 @@ public class StaticInstruction {
 
     private int nonEffectiveAddressBaseDependency;
 
-    private Map<RegisterDependencyType, Integer> numFreePhysicalRegistersToAllocate = new EnumMap<>(RegisterDependencyType.class);
+    private int[] sourceDependencies;
+    private int[] targetDependencies;
+
+    private int[] numFreePhysicalRegistersToAllocate = new int[RegisterDependencyType.values().length];
 
     /**
      * Create a static instruction.
@@ -71,15 +73,12 @@ public class StaticInstruction {
             this.nonEffectiveAddressBaseDependency = mnemonic.getNonEffectiveAddressBaseDep(machineInstruction);
         }
 
-        this.outputDependencies.stream().filter(outputDependency -> outputDependency != 0).forEach(outputDependency -> {
-            RegisterDependencyType outputDependencyType = RegisterDependencyType.getType(outputDependency);
-
-            if (!this.numFreePhysicalRegistersToAllocate.containsKey(outputDependencyType)) {
-                this.numFreePhysicalRegistersToAllocate.put(outputDependencyType, 0);
-            }
+        this.sourceDependencies = this.inputDependencies.stream().distinct().mapToInt(Integer::intValue).toArray();
+        this.targetDependencies = this.outputDependencies.stream().filter(outputDependency -> outputDependency != 0).distinct().mapToInt(Integer::intValue).toArray();
 
-            this.numFreePhysicalRegistersToAllocate.put(outputDependencyType, this.numFreePhysicalRegistersToAllocate.get(outputDependencyType) + 1);
-        });
+        for (int targetDependency : this.targetDependencies) {
+            this.numFreePhysicalRegistersToAllocate[RegisterDependencyType.getType(targetDependency).ordinal()]++;
+        }
     }
 
     /**
@@ -128,12 +127,31 @@ public class StaticInstruction {
     }
 
     /**
-     * Get the number of free physical registers to be allocated.
+     * Get the distinct input dependencies, in the order of their first occurrence, which are read through the rename table.
      *
-     * @return the number of free physical registers to be allocated
+     * @return the distinct input dependencies, in the order of their first occurrence
      */
-    public Map<RegisterDependencyType, Integer> getNumFreePhysicalRegistersToAllocate() {
-        return numFreePhysicalRegistersToAllocate;
+    public int[] getSourceDependencies() {
+        return sourceDependencies;
+    }
+
+    /**
+     * Get the distinct output dependencies other than the zero register, which are allocated physical registers at rename.
+     *
+     * @return the distinct output dependencies other than the zero register
+     */
+    public int[] getTargetDependencies() {
+        return targetDependencies;
+    }
+
+    /**
+     * Get the number of free physical registers of the specified type to be allocated.
+     *
+     * @param type the register dependency type
+     * @return the number of free physical registers of the specified type to be allocated
+     */
+    public int getNumFreePhysicalRegistersToAllocate(RegisterDependencyType type) {
+        return numFreePhysicalRegistersToAllocate[type.ordinal()];
     }
 
     private static final int FMT_SINGLE = 16;
@@ -217,11 +235,14 @@ public class StaticInstruction {
      * Static constructor.
      */
     static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
         Method[] declaredMethods = StaticInstruction.class.getDeclaredMethods();
         for (Method declaredMethod : declaredMethods) {
             StaticInstructionIntrinsic staticInstIntrinsic = declaredMethod.getAnnotation(StaticInstructionIntrinsic.class);
             if (staticInstIntrinsic != null) {
                 staticInstIntrinsic.mnemonic().setMethod(declaredMethod);
+                staticInstIntrinsic.mnemonic().setExecutor(createExecutor(lookup, declaredMethod));
             }
         }
 
@@ -2265,17 +2286,12 @@ public class StaticInstruction {
         int addr = getEffectiveAddress(context, machineInstruction);
         int size = 4 - (addr & 3);
 
-        byte[] src = new byte[4];
-        ByteBuffer.wrap(src).order(context.getProcess().isLittleEndian() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN).put(context.getProcess().getMemory().readBlock(addr, size));
-
-        byte[] dst = new byte[4];
-        ByteBuffer.wrap(dst).order(ByteOrder.LITTLE_ENDIAN).putInt(context.getRegisterFile().getGpr(BitField.RT.valueOf(machineInstruction)));
+        int rt = context.getRegisterFile().getGpr(BitField.RT.valueOf(machineInstruction));
 
         for (int i = 0; i < size; i++) {
-            dst[3 - i] = src[i];
+            rt = setByte(rt, 3 - i, context.getProcess().getMemory().readByte(addr + i));
         }
 
-        int rt = ByteBuffer.wrap(dst).order(ByteOrder.LITTLE_ENDIAN).getInt();
         context.getRegisterFile().setGpr(BitField.RT.valueOf(machineInstruction), rt);
     }
 
@@ -2295,17 +2311,12 @@ public class StaticInstruction {
         int addr = getEffectiveAddress(context, machineInstruction);
         int size = 1 + (addr & 3);
 
-        byte[] src = new byte[4];
-        ByteBuffer.wrap(src).order(context.getProcess().isLittleEndian() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN).put(context.getProcess().getMemory().readBlock(addr - size + 1, size));
-
-        byte[] dst = new byte[4];
-        ByteBuffer.wrap(dst).order(ByteOrder.LITTLE_ENDIAN).putInt(context.getRegisterFile().getGpr(BitField.RT.valueOf(machineInstruction)));
+        int rt = context.getRegisterFile().getGpr(BitField.RT.valueOf(machineInstruction));
 
         for (int i = 0; i < size; i++) {
-            dst[size - i - 1] = src[i];
+            rt = setByte(rt, size - i - 1, context.getProcess().getMemory().readByte(addr - size + 1 + i));
         }
 
-        int rt = ByteBuffer.wrap(dst).order(ByteOrder.LITTLE_ENDIAN).getInt();
         context.getRegisterFile().setGpr(BitField.RT.valueOf(machineInstruction), rt);
     }
 
@@ -2440,15 +2451,11 @@ public class StaticInstruction {
         int addr = getEffectiveAddress(context, machineInstruction);
         int size = 4 - (addr & 3);
 
-        byte[] src = new byte[4];
-        ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN).putInt(context.getRegisterFile().getGpr(BitField.RT.valueOf(machineInstruction)));
+        int rt = context.getRegisterFile().getGpr(BitField.RT.valueOf(machineInstruction));
 
-        byte[] dst = new byte[4];
         for (int i = 0; i < size; i++) {
-            dst[i] = src[3 - i];
+            context.getProcess().getMemory().writeByte(addr + i, getByte(rt, 3 - i));
         }
-
-        context.getProcess().getMemory().writeBlock(addr, size, dst);
     }
 
     /**
@@ -2467,15 +2474,11 @@ public class StaticInstruction {
         int addr = getEffectiveAddress(context, machineInstruction);
         int size = 1 + (addr & 3);
 
-        byte[] src = new byte[4];
-        ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN).putInt(context.getRegisterFile().getGpr(BitField.RT.valueOf(machineInstruction)));
+        int rt = context.getRegisterFile().getGpr(BitField.RT.valueOf(machineInstruction));
 
-        byte[] dst = new byte[4];
         for (int i = 0; i < size; i++) {
-            dst[i] = src[size - i - 1];
+            context.getProcess().getMemory().writeByte(addr - size + 1 + i, getByte(rt, size - i - 1));
         }
-
-        context.getProcess().getMemory().writeBlock(addr - size + 1, size, dst);
     }
 
     /**
@@ -2711,6 +2714,29 @@ public class StaticInstruction {
         return getEffectiveAddressBase(context, machineInstruction) + getEffectiveAddressDisplacement(machineInstruction);
     }
 
+    /**
+     * Get the specified byte of the specified word.
+     *
+     * @param word  the word
+     * @param index the index of the byte, counting from the least significant byte
+     * @return the specified byte of the specified word
+     */
+    private static byte getByte(int word, int index) {
+        return (byte) (word >>> (index * 8));
+    }
+
+    /**
+     * Set the specified byte of the specified word.
+     *
+     * @param word  the word
+     * @param index the index of the byte, counting from the least significant byte
+     * @param value the new value of the byte
+     * @return the word with the specified byte replaced
+     */
+    private static int setByte(int word, int index, byte value) {
+        return (word & ~(0xff << (index * 8))) | ((value & 0xff) << (index * 8));
+    }
+
     /**
      * Get the FCC value in the FCSR register.
      *
@@ -2843,6 +2869,30 @@ public class StaticInstruction {
         return context.getRegisterFile().getGpr(BitField.RS.valueOf(machineInstruction));
     }
 
+    /**
+     * Create an executor which directly invokes the specified static instruction intrinsic method.
+     *
+     * @param lookup the lookup object with private access to the static instruction intrinsic methods
+     * @param method the static instruction intrinsic method
+     * @return an executor which directly invokes the specified static instruction intrinsic method
+     */
+    private static StaticInstructionExecutor createExecutor(MethodHandles.Lookup lookup, Method method) {
+        try {
+            MethodHandle methodHandle = lookup.unreflect(method);
+
+            return (StaticInstructionExecutor) LambdaMetafactory.metafactory(
+                    lookup,
+                    "execute",
+                    MethodType.methodType(StaticInstructionExecutor.class),
+                    methodHandle.type(),
+                    methodHandle,
+                    methodHandle.type()
+            ).getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
     /**
      * Execute the specified static instruction under the specified context.
      *
@@ -2851,12 +2901,10 @@ public class StaticInstruction {
      */
     public static void execute(StaticInstruction staticInstruction, Context context) {
         int oldPc = context.getRegisterFile().getPc();
-        try {
-            staticInstruction.mnemonic.getMethod().invoke(null, context, staticInstruction.machineInstruction);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
+        staticInstruction.mnemonic.getExecutor().execute(context, staticInstruction.machineInstruction);
+        if (context.getBlockingEventDispatcher().hasListeners(InstructionFunctionallyExecutedEvent.class)) {
+            context.getBlockingEventDispatcher().dispatch(new InstructionFunctionallyExecutedEvent(context, oldPc, staticInstruction));
         }
-        context.getBlockingEventDispatcher().dispatch(new InstructionFunctionallyExecutedEvent(context, oldPc, staticInstruction));
     }
 
     /**
@@ -18,51 +18,22 @@
  * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
  * ****************************************************************************
  */
-package archimulator.uncore.coherence.msi.controller;
+package archimulator.isa;
 
-import java.util.ArrayList;
-import java.util.List;
+import archimulator.os.Context;
 
 /**
- * Directory entry.
+ * Static instruction executor, i.e., the direct handler bound to a mnemonic which executes a machine instruction under a context.
  *
  * @author Min Cai
  */
-public class DirectoryEntry {
-    private CacheController owner;
-    private List<CacheController> sharers;
-
-    /**
-     * Create a directory entry.
-     */
-    public DirectoryEntry() {
-        this.sharers = new ArrayList<>();
-    }
-
-    /**
-     * Get the owner L1 cache controller.
-     *
-     * @return the owner L1 cache controller
-     */
-    public CacheController getOwner() {
-        return owner;
-    }
-
-    /**
-     * Set the owner L1 cache controller.
-     *
-     * @param owner the owner L1 cache controller
-     */
-    public void setOwner(CacheController owner) {
-        this.owner = owner;
-    }
-
+@FunctionalInterface
+public interface StaticInstructionExecutor {
     /**
-     * Get the sharer list of L1 cache controllers.
+     * Execute the specified machine instruction under the specified context.
      *
-     * @return the sharer list of L1 cache controllers
+     * @param context            the context
+     * @param machineInstruction the machine instruction
      */
-    public List<CacheController> getSharers() {
-        return sharers;
-    }
+    void execute(Context context, int machineInstruction);
 }
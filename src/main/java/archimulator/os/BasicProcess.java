@@ -30,6 +30,7 @@ import archimulator.isa.StaticInstruction;
 import archimulator.isa.dissembler.MipsDisassembler;
 import archimulator.os.elf.ElfFile;
 import archimulator.os.elf.ElfSectionHeader;
+import archimulator.util.collection.IntegerObjectHashMap;
 
 import java.util.*;
 
@@ -39,8 +40,14 @@ import java.util.*;
  * @author Min Cai
  */
 public class BasicProcess extends Process {
-    private Map<Integer, Integer> pcsToMachineInstructions;
-    private Map<Integer, StaticInstruction> machineInstructionsToStaticInstructions;
+    /**
+     * The maximum number of instructions in a decoded basic block which is not covered by the control flow graphs.
+     */
+    private static final int MAX_DECODED_BASIC_BLOCK_SIZE = 64;
+
+    private IntegerObjectHashMap<StaticInstruction> pcsToStaticInstructions;
+
+    private IntegerObjectHashMap<DecodedBasicBlock> pcsToDecodedBasicBlocks;
 
     private Map<String, SortedMap<Integer, Instruction>> instructions;
     private ElfAnalyzer elfAnalyzer;
@@ -64,8 +71,9 @@ public class BasicProcess extends Process {
      */
     @Override
     protected void loadProgram(Kernel kernel, ContextMapping contextMapping) {
-        this.pcsToMachineInstructions = new TreeMap<>();
-        this.machineInstructionsToStaticInstructions = new TreeMap<>();
+        this.pcsToStaticInstructions = new IntegerObjectHashMap<>();
+
+        this.pcsToDecodedBasicBlocks = new IntegerObjectHashMap<>();
 
         this.instructions = new HashMap<>();
 
@@ -163,14 +171,10 @@ public class BasicProcess extends Process {
     private void predecode(String sectionName, Memory memory, int pc) {
         int machineInstruction = memory.readWord(pc);
 
-        this.pcsToMachineInstructions.put(pc, machineInstruction);
-
-        if (!this.machineInstructionsToStaticInstructions.containsKey(machineInstruction)) {
-            StaticInstruction staticInstruction = this.decode(machineInstruction);
-            this.machineInstructionsToStaticInstructions.put(machineInstruction, staticInstruction);
-        }
+        StaticInstruction staticInstruction = this.decode(machineInstruction);
+        this.pcsToStaticInstructions.put(pc, staticInstruction);
 
-        this.instructions.get(sectionName).put(pc, new Instruction(this, pc, this.getStaticInstruction(pc)));
+        this.instructions.get(sectionName).put(pc, new Instruction(this, pc, staticInstruction));
     }
 
     /**
@@ -186,7 +190,57 @@ public class BasicProcess extends Process {
 
     @Override
     public StaticInstruction getStaticInstruction(int pc) {
-        return this.machineInstructionsToStaticInstructions.get(this.pcsToMachineInstructions.get(pc));
+        return this.pcsToStaticInstructions.get(pc);
+    }
+
+    @Override
+    public DecodedBasicBlock getDecodedBasicBlock(int pc) {
+        DecodedBasicBlock decodedBasicBlock = this.pcsToDecodedBasicBlocks.get(pc);
+
+        if (decodedBasicBlock == null) {
+            List<StaticInstruction> staticInstructions = new ArrayList<>();
+
+            Instruction instruction = null;
+            for (SortedMap<Integer, Instruction> instructionsInSection : this.instructions.values()) {
+                instruction = instructionsInSection.get(pc);
+                if (instruction != null) {
+                    break;
+                }
+            }
+
+            if (instruction != null && instruction.getBasicBlock() != null) {
+                List<Instruction> instructionsInBasicBlock = instruction.getBasicBlock().getInstructions();
+                for (Instruction instructionInBasicBlock : instructionsInBasicBlock.subList(instructionsInBasicBlock.indexOf(instruction), instructionsInBasicBlock.size())) {
+                    staticInstructions.add(instructionInBasicBlock.getStaticInstruction());
+                }
+            } else {
+                for (int currentPc = pc; staticInstructions.size() < MAX_DECODED_BASIC_BLOCK_SIZE; currentPc += 4) {
+                    StaticInstruction staticInstruction = this.pcsToStaticInstructions.get(currentPc);
+                    if (staticInstruction == null) {
+                        break;
+                    }
+
+                    staticInstructions.add(staticInstruction);
+
+                    if (staticInstruction.getMnemonic().isControl()) {
+                        StaticInstruction delaySlotStaticInstruction = this.pcsToStaticInstructions.get(currentPc + 4);
+                        if (delaySlotStaticInstruction != null) {
+                            staticInstructions.add(delaySlotStaticInstruction);
+                        }
+                        break;
+                    }
+                }
+            }
+
+            if (staticInstructions.isEmpty()) {
+                return null;
+            }
+
+            decodedBasicBlock = new DecodedBasicBlock(pc, staticInstructions);
+            this.pcsToDecodedBasicBlocks.put(pc, decodedBasicBlock);
+        }
+
+        return decodedBasicBlock;
     }
 
     @Override
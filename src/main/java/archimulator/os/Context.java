@@ -25,8 +25,14 @@ import archimulator.core.Processor;
 import archimulator.core.Thread;
 import archimulator.isa.ArchitecturalRegisterFile;
 import archimulator.isa.StaticInstruction;
+import archimulator.isa.StaticInstructionExecutor;
+import archimulator.isa.StaticInstructionType;
+import archimulator.isa.event.InstructionFunctionallyExecutedEvent;
 import archimulator.os.signal.SignalMasks;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Stack;
 
@@ -86,6 +92,80 @@ public class Context extends BasicSimulationObject<CPUExperiment, Simulation>
         return new Context(kernel, process, null, regs, 0);
     }
 
+    /**
+     * Restore a context saved by {@link #saveTo(DataOutput)}. The process and the parent context, if any, must have been restored already.
+     *
+     * @param kernel the kernel
+     * @param in     the input
+     * @return the restored context
+     * @throws IOException if an I/O error occurs
+     */
+    public static Context restore(Kernel kernel, DataInput in) throws IOException {
+        Process process = kernel.getProcessFromId(in.readInt());
+        int parentId = in.readInt();
+        Context parent = parentId != -1 ? kernel.getContextFromId(parentId) : null;
+
+        if (process == null || parentId != -1 && parent == null) {
+            throw new IOException("Dangling process or parent context");
+        }
+
+        ArchitecturalRegisterFile registerFile = new ArchitecturalRegisterFile(process.isLittleEndian());
+        registerFile.loadFrom(in);
+
+        Context context = new Context(kernel, process, parent, registerFile, in.readInt());
+
+        context.id = in.readInt();
+        context.state = ContextState.valueOf(in.readUTF());
+        context.signalMasks.loadFrom(in);
+        context.threadId = in.readInt();
+        context.userId = in.readInt();
+        context.effectiveUserId = in.readInt();
+        context.groupId = in.readInt();
+        context.effectiveGroupId = in.readInt();
+        context.processId = in.readInt();
+
+        int numFunctionCallContexts = in.readInt();
+        for (int i = 0; i < numFunctionCallContexts; i++) {
+            context.functionCallContextStack.push(new FunctionCallContext(context, in.readInt(), in.readInt()));
+        }
+
+        return context;
+    }
+
+    /**
+     * Save the context to the specified output.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    public void saveTo(DataOutput out) throws IOException {
+        if (this.speculative) {
+            throw new IllegalStateException();
+        }
+
+        out.writeInt(this.process.getId());
+        out.writeInt(this.parent != null ? this.parent.getId() : -1);
+
+        this.registerFile.saveTo(out);
+
+        out.writeInt(this.signalFinish);
+        out.writeInt(this.id);
+        out.writeUTF(this.state.name());
+        this.signalMasks.saveTo(out);
+        out.writeInt(this.threadId);
+        out.writeInt(this.userId);
+        out.writeInt(this.effectiveUserId);
+        out.writeInt(this.groupId);
+        out.writeInt(this.effectiveGroupId);
+        out.writeInt(this.processId);
+
+        out.writeInt(this.functionCallContextStack.size());
+        for (FunctionCallContext functionCallContext : this.functionCallContextStack) {
+            out.writeInt(functionCallContext.getPc());
+            out.writeInt(functionCallContext.getTargetPc());
+        }
+    }
+
     /**
      * Create a context.
      *
@@ -164,14 +244,21 @@ public class Context extends BasicSimulationObject<CPUExperiment, Simulation>
      * @return the next static instruction
      */
     public StaticInstruction decodeNextInstruction() {
+        this.moveToNextInstruction();
+
+        return this.decode(this.getRegisterFile().getPc());
+    }
+
+    /**
+     * Move the PC (program counter) to the next instruction.
+     */
+    private void moveToNextInstruction() {
         this.getRegisterFile().setPc(this.getRegisterFile().getNpc());
         this.getRegisterFile().setNpc(this.getRegisterFile().getNnpc());
         this.getRegisterFile().setNnpc(this.getRegisterFile().getNnpc() + 4);
         this.getRegisterFile().setGpr(ArchitecturalRegisterFile.REGISTER_ZERO, 0);
 
         this.pseudoCallEncounteredInLastInstructionExecution = false;
-
-        return this.decode(this.getRegisterFile().getPc());
     }
 
     /**
@@ -184,6 +271,61 @@ public class Context extends BasicSimulationObject<CPUExperiment, Simulation>
         return this.process.getStaticInstruction(mappedPc);
     }
 
+    /**
+     * Decode the basic block starting at the specified mapped PC (program counter).
+     *
+     * @param mappedPc the mapped PC (program counter)
+     * @return the decoded basic block starting at the specified mapped PC (program counter), or null if the instructions have to be decoded one by one
+     */
+    protected DecodedBasicBlock decodeBasicBlock(int mappedPc) {
+        return this.process.getDecodedBasicBlock(mappedPc);
+    }
+
+    /**
+     * Execute the instructions from the next PC (program counter) to the end of its decoded basic block in one go.
+     * The execution stops early when the control flow leaves the block, a pseudocall is encountered or the context is not running anymore.
+     *
+     * @return the number of executed instructions which are neither NOPs nor pseudocalls
+     */
+    public int executeNextBasicBlock() {
+        DecodedBasicBlock decodedBasicBlock = this.decodeBasicBlock(this.getRegisterFile().getNpc());
+
+        if (decodedBasicBlock == null) {
+            StaticInstruction staticInstruction = this.decodeNextInstruction();
+            StaticInstruction.execute(staticInstruction, this);
+            return this.pseudoCallEncounteredInLastInstructionExecution || staticInstruction.getMnemonic().getType() == StaticInstructionType.NOP ? 0 : 1;
+        }
+
+        StaticInstruction[] staticInstructions = decodedBasicBlock.getStaticInstructions();
+        StaticInstructionExecutor[] executors = decodedBasicBlock.getExecutors();
+
+        int numInstructions = 0;
+
+        for (int i = 0; i < staticInstructions.length; i++) {
+            if (i > 0 && (this.state != ContextState.RUNNING || this.getRegisterFile().getNpc() != decodedBasicBlock.getEntryPc() + i * 4)) {
+                break;
+            }
+
+            this.moveToNextInstruction();
+
+            int pc = this.getRegisterFile().getPc();
+            executors[i].execute(this, staticInstructions[i].getMachineInstruction());
+            if (this.getBlockingEventDispatcher().hasListeners(InstructionFunctionallyExecutedEvent.class)) {
+                this.getBlockingEventDispatcher().dispatch(new InstructionFunctionallyExecutedEvent(this, pc, staticInstructions[i]));
+            }
+
+            if (this.pseudoCallEncounteredInLastInstructionExecution) {
+                break;
+            }
+
+            if (staticInstructions[i].getMnemonic().getType() != StaticInstructionType.NOP) {
+                numInstructions++;
+            }
+        }
+
+        return numInstructions;
+    }
+
     /**
      * Suspend the running of the context.
      */
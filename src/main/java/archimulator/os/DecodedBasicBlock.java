@@ -0,0 +1,90 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.os;
+
+import archimulator.isa.StaticInstruction;
+import archimulator.isa.StaticInstructionExecutor;
+
+import java.util.List;
+
+/**
+ * Decoded basic block, i.e., the run of predecoded static instructions from an entry PC (program counter) to the end of its basic block,
+ * together with the pre-resolved executors of the instructions.
+ *
+ * @author Min Cai
+ */
+public class DecodedBasicBlock {
+    private int entryPc;
+    private StaticInstruction[] staticInstructions;
+    private StaticInstructionExecutor[] executors;
+
+    /**
+     * Create a decoded basic block.
+     *
+     * @param entryPc            the entry PC (program counter)
+     * @param staticInstructions the list of static instructions starting from the entry PC
+     */
+    public DecodedBasicBlock(int entryPc, List<StaticInstruction> staticInstructions) {
+        this.entryPc = entryPc;
+        this.staticInstructions = staticInstructions.toArray(new StaticInstruction[staticInstructions.size()]);
+
+        this.executors = new StaticInstructionExecutor[this.staticInstructions.length];
+        for (int i = 0; i < this.staticInstructions.length; i++) {
+            this.executors[i] = this.staticInstructions[i].getMnemonic().getExecutor();
+        }
+    }
+
+    /**
+     * Get the entry PC (program counter).
+     *
+     * @return the entry PC (program counter)
+     */
+    public int getEntryPc() {
+        return entryPc;
+    }
+
+    /**
+     * Get the number of instructions.
+     *
+     * @return the number of instructions
+     */
+    public int getNumInstructions() {
+        return staticInstructions.length;
+    }
+
+    /**
+     * Get the array of static instructions.
+     *
+     * @return the array of static instructions
+     */
+    public StaticInstruction[] getStaticInstructions() {
+        return staticInstructions;
+    }
+
+    /**
+     * Get the array of the pre-resolved executors of the static instructions.
+     *
+     * @return the array of the pre-resolved executors of the static instructions
+     */
+    public StaticInstructionExecutor[] getExecutors() {
+        return executors;
+    }
+}
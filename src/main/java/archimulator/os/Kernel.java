@@ -31,6 +31,9 @@ import archimulator.os.event.SystemEvent;
 import archimulator.os.signal.SignalAction;
 import archimulator.util.buffer.CircularByteBuffer;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -44,6 +47,11 @@ import java.util.stream.Collectors;
  */
 public class Kernel extends BasicSimulationObject<CPUExperiment, Simulation>
         implements SimulationObject<CPUExperiment, Simulation> {
+    /**
+     * The interval in cycles at which the system events and signals are processed.
+     */
+    private static final int SYSTEM_EVENT_PROCESSING_INTERVAL = 1000;
+
     private List<Pipe> pipes;
     private List<SystemEvent> systemEvents;
     private List<SignalAction> signalActions;
@@ -97,6 +105,107 @@ public class Kernel extends BasicSimulationObject<CPUExperiment, Simulation>
         this.systemCallEmulation = new SystemCallEmulation(this);
     }
 
+    /**
+     * Save the whole state of the kernel, i.e., its processes and their memories, contexts, pipes, signal actions and open files, to the specified output.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if the kernel is in a state that cannot be saved, e.g., there are pending system events
+     */
+    public void saveTo(DataOutput out) throws IOException {
+        if (!this.systemEvents.isEmpty()) {
+            throw new IllegalStateException("Pending system events cannot be saved");
+        }
+
+        for (Context context : this.contexts) {
+            if (context.getParent() != null && !this.contexts.contains(context.getParent())) {
+                throw new IllegalStateException("Contexts of finished parents cannot be saved");
+            }
+        }
+
+        out.writeInt(this.currentPid);
+        out.writeInt(this.currentMemoryId);
+        out.writeInt(this.currentContextId);
+        out.writeInt(this.currentFd);
+        out.writeLong(this.currentCycle);
+
+        out.writeInt(getExperiment().currentProcessId);
+        out.writeInt(getExperiment().currentMemoryPageId);
+
+        out.writeInt(this.processes.size());
+        for (Process process : this.processes) {
+            out.writeInt(getExperiment().getConfig().getContextMappings().indexOf(process.getContextMapping()));
+            process.saveTo(out);
+        }
+
+        out.writeInt(this.contexts.size());
+        for (Context context : this.contexts) {
+            context.saveTo(out);
+        }
+
+        out.writeInt(this.pipes.size());
+        for (Pipe pipe : this.pipes) {
+            out.writeInt(pipe.getFileDescriptors()[0]);
+            out.writeInt(pipe.getFileDescriptors()[1]);
+            pipe.getBuffer().saveTo(out);
+        }
+
+        for (SignalAction signalAction : this.signalActions) {
+            signalAction.saveTo(out);
+        }
+
+        this.systemCallEmulation.saveTo(out);
+    }
+
+    /**
+     * Load the whole state of the kernel from the specified input. The kernel must be newly created.
+     *
+     * @param in the input
+     * @throws IOException if an I/O error occurs
+     */
+    public void loadFrom(DataInput in) throws IOException {
+        int currentPid = in.readInt();
+        int currentMemoryId = in.readInt();
+        int currentContextId = in.readInt();
+        int currentFd = in.readInt();
+        this.currentCycle = in.readLong();
+
+        int currentProcessId = in.readInt();
+        int currentMemoryPageId = in.readInt();
+
+        int numProcesses = in.readInt();
+        for (int i = 0; i < numProcesses; i++) {
+            Process process = new BasicProcess(this, getExperiment().getConfig().getContextMappings().get(in.readInt()));
+            process.loadFrom(in);
+        }
+
+        int numContexts = in.readInt();
+        for (int i = 0; i < numContexts; i++) {
+            this.contexts.add(Context.restore(this, in));
+        }
+
+        int numPipes = in.readInt();
+        for (int i = 0; i < numPipes; i++) {
+            Pipe pipe = new Pipe(new int[]{in.readInt(), in.readInt()});
+            pipe.getBuffer().loadFrom(in);
+            this.pipes.add(pipe);
+        }
+
+        for (SignalAction signalAction : this.signalActions) {
+            signalAction.loadFrom(in);
+        }
+
+        this.systemCallEmulation.loadFrom(in);
+
+        this.currentPid = currentPid;
+        this.currentMemoryId = currentMemoryId;
+        this.currentContextId = currentContextId;
+        this.currentFd = currentFd;
+
+        getExperiment().currentProcessId = currentProcessId;
+        getExperiment().currentMemoryPageId = currentMemoryPageId;
+    }
+
     /**
      * Get the process object from the specified process ID.
      *
@@ -339,7 +448,7 @@ public class Kernel extends BasicSimulationObject<CPUExperiment, Simulation>
      * Advance one cycle.
      */
     public void advanceOneCycle() {
-        if (this.currentCycle % 1000 == 0) {
+        if (this.currentCycle % SYSTEM_EVENT_PROCESSING_INTERVAL == 0) {
             this.processSystemEvents();
             this.processSignals();
         }
@@ -347,6 +456,24 @@ public class Kernel extends BasicSimulationObject<CPUExperiment, Simulation>
         this.currentCycle++;
     }
 
+    /**
+     * Get the number of the cycles from the current cycle on in which the system events and signals are not processed.
+     *
+     * @return the number of the cycles from the current cycle on in which the system events and signals are not processed
+     */
+    public long getNumIdleCycles() {
+        return (SYSTEM_EVENT_PROCESSING_INTERVAL - this.currentCycle % SYSTEM_EVENT_PROCESSING_INTERVAL) % SYSTEM_EVENT_PROCESSING_INTERVAL;
+    }
+
+    /**
+     * Skip the specified number of idle cycles.
+     *
+     * @param numCycles the number of idle cycles to be skipped
+     */
+    public void skipIdleCycles(long numCycles) {
+        this.currentCycle += numCycles;
+    }
+
     /**
      * Get the list of signal actions.
      *
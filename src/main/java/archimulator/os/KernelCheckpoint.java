@@ -0,0 +1,164 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.os;
+
+import archimulator.common.CPUExperimentConfig;
+import archimulator.common.ContextMapping;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Kernel checkpoint, i.e., a compressed binary image of the whole simulated machine state held by a kernel,
+ * used for starting detailed simulations directly at the region of interest (ROI).
+ * <p>
+ * The header of a checkpoint records the config values that the machine state depends on, i.e., the number of cores
+ * and threads per core, the context mappings and the index of the pseudo call marking the ROI, together with the size
+ * and the CRC-32 checksum of the contents of each executable, so that a checkpoint taken for a different config
+ * or for an executable rebuilt in place is never restored.
+ * <p>
+ * The cycle of the cycle accurate event queue is not recorded, as the detailed simulation restarts from cycle 0
+ * whether the kernel is handed over from the fast forward phase or restored from a checkpoint.
+ *
+ * @author Min Cai
+ */
+public class KernelCheckpoint {
+    private static final int MAGIC = 0x41434b50;
+    private static final int VERSION = 3;
+
+    /**
+     * Save the specified kernel to the specified checkpoint file.
+     * The file is written to a temporary file first and then moved in place, so that concurrent readers never see a partial checkpoint.
+     *
+     * @param kernel the kernel
+     * @param config the experiment config that the kernel is simulated for
+     * @param file   the checkpoint file
+     * @throws IOException if an I/O error occurs
+     */
+    public static void save(Kernel kernel, CPUExperimentConfig config, File file) throws IOException {
+        File parentFile = file.getAbsoluteFile().getParentFile();
+        if (!parentFile.exists() && !parentFile.mkdirs()) {
+            throw new IOException("Cannot create " + parentFile);
+        }
+
+        File tempFile = File.createTempFile(file.getName(), ".tmp", parentFile);
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tempFile))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(getConfigDescription(config));
+
+                kernel.saveTo(out);
+            }
+
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    /**
+     * Get a value indicating whether the specified file is a kernel checkpoint taken for the specified experiment config or not.
+     *
+     * @param config the experiment config
+     * @param file   the checkpoint file
+     * @return a value indicating whether the specified file is a kernel checkpoint taken for the specified experiment config or not
+     */
+    public static boolean matches(CPUExperimentConfig config, File file) {
+        if (!file.exists()) {
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            readHeader(config, file, in);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Load the specified newly created kernel from the specified checkpoint file.
+     *
+     * @param kernel the newly created kernel
+     * @param config the experiment config that the kernel is simulated for
+     * @param file   the checkpoint file
+     * @throws IOException if an I/O error occurs, or if the checkpoint was taken for a different experiment config
+     */
+    public static void load(Kernel kernel, CPUExperimentConfig config, File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            readHeader(config, file, in);
+
+            kernel.loadFrom(in);
+        }
+    }
+
+    /**
+     * Read the header of the specified checkpoint file and check it against the specified experiment config.
+     *
+     * @param config the experiment config
+     * @param file   the checkpoint file
+     * @param in     the input of the checkpoint file
+     * @throws IOException if an I/O error occurs, or if the checkpoint was taken for a different experiment config
+     */
+    private static void readHeader(CPUExperimentConfig config, File file, DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a kernel checkpoint: " + file);
+        }
+
+        String configDescription = in.readUTF();
+
+        if (!configDescription.equals(getConfigDescription(config))) {
+            throw new IOException(String.format("The kernel checkpoint %s was taken for a different config: %s", file, configDescription));
+        }
+    }
+
+    /**
+     * Get the description of the config values that the machine state held by a kernel depends on.
+     *
+     * @param config the experiment config
+     * @return the description of the config values that the machine state held by a kernel depends on
+     * @throws IOException if an I/O error occurs when reading the executables
+     */
+    private static String getConfigDescription(CPUExperimentConfig config) throws IOException {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(String.format("numCores=%d;numThreadsPerCore=%d;helperThreadPthreadSpawnIndex=%d",
+                config.getNumCores(), config.getNumThreadsPerCore(), config.getHelperThreadPthreadSpawnIndex()));
+
+        for (ContextMapping contextMapping : config.getContextMappings()) {
+            byte[] executable = Files.readAllBytes(new File(contextMapping.getExecutable()).toPath());
+
+            CRC32 crc32 = new CRC32();
+            crc32.update(executable);
+
+            sb.append(String.format(";context[%d]=%s %s;size=%d;crc32=%08x",
+                    contextMapping.getThreadId(), contextMapping.getExecutable(), contextMapping.getArguments(), executable.length, crc32.getValue()));
+        }
+
+        return sb.toString();
+    }
+}
@@ -108,6 +108,15 @@ public class NativeSystemCalls {
          */
         int close(int fd);
 
+        /**
+         * Duplicate a file descriptor onto the specified file descriptor, closing the latter first if it is open.
+         *
+         * @param oldFd the file descriptor to be duplicated
+         * @param newFd the file descriptor to be made a copy of the old one
+         * @return the new file descriptor if successful; otherwise -1
+         */
+        int dup2(int oldFd, int newFd);
+
         /**
          * lseek.
          *
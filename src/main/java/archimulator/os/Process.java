@@ -26,7 +26,10 @@ import archimulator.analysis.Function;
 import archimulator.analysis.Instruction;
 import archimulator.common.*;
 import archimulator.isa.*;
+import archimulator.util.collection.IntegerObjectHashMap;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
@@ -65,6 +68,8 @@ public abstract class Process
 
     private ContextMapping contextMapping;
 
+    private IntegerObjectHashMap<StaticInstruction> machineInstructionsToStaticInstructions = new IntegerObjectHashMap<>();
+
     /**
      * Create a process.
      *
@@ -132,20 +137,67 @@ public abstract class Process
     }
 
     /**
-     * Decode the specified machine instruction.
+     * Save the state of the process, including its memory, to the specified output.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    public void saveTo(DataOutput out) throws IOException {
+        out.writeInt(this.id);
+        out.writeInt(this.standardInFileDescriptor);
+        out.writeInt(this.standardOutFileDescriptor);
+        out.writeInt(this.stackBase);
+        out.writeInt(this.stackSize);
+        out.writeInt(this.textSize);
+        out.writeInt(this.environmentBase);
+        out.writeInt(this.heapTop);
+        out.writeInt(this.dataTop);
+        out.writeInt(this.programEntry);
+
+        this.memory.saveTo(out);
+    }
+
+    /**
+     * Load the state of the process, including its memory, from the specified input.
+     *
+     * @param in the input
+     * @throws IOException if an I/O error occurs
+     */
+    public void loadFrom(DataInput in) throws IOException {
+        this.id = in.readInt();
+        this.standardInFileDescriptor = in.readInt();
+        this.standardOutFileDescriptor = in.readInt();
+        this.stackBase = in.readInt();
+        this.stackSize = in.readInt();
+        this.textSize = in.readInt();
+        this.environmentBase = in.readInt();
+        this.heapTop = in.readInt();
+        this.dataTop = in.readInt();
+        this.programEntry = in.readInt();
+
+        this.memory.loadFrom(in);
+    }
+
+    /**
+     * Decode the specified machine instruction. Static instructions are interned per machine instruction.
      *
      * @param machineInstruction the machine instruction
      * @return the decoded static instruction
      */
-    protected StaticInstruction decode(int machineInstruction) {
-        for (Mnemonic mnemonic : StaticInstruction.MNEMONICS) {
-            BitField extraBitField = mnemonic.getExtraBitField();
-            if ((machineInstruction & mnemonic.getMask()) == mnemonic.getBits() && (extraBitField == null || extraBitField.valueOf(machineInstruction) == mnemonic.getExtraBitFieldValue())) {
-                return new StaticInstruction(mnemonic, machineInstruction);
+    public StaticInstruction decode(int machineInstruction) {
+        StaticInstruction staticInstruction = this.machineInstructionsToStaticInstructions.get(machineInstruction);
+
+        if (staticInstruction == null) {
+            Mnemonic mnemonic = MipsDecoder.decode(machineInstruction);
+            if (mnemonic == null) {
+                throw new IllegalArgumentException();
             }
+
+            staticInstruction = new StaticInstruction(mnemonic, machineInstruction);
+            this.machineInstructionsToStaticInstructions.put(machineInstruction, staticInstruction);
         }
 
-        throw new IllegalArgumentException();
+        return staticInstruction;
     }
 
     /**
@@ -156,6 +208,14 @@ public abstract class Process
      */
     public abstract StaticInstruction getStaticInstruction(int pc);
 
+    /**
+     * Get the decoded basic block starting at the specified program counter (PC).
+     *
+     * @param pc the program counter (PC)
+     * @return the decoded basic block starting at the specified program counter (PC) if it is in the text; otherwise null
+     */
+    public abstract DecodedBasicBlock getDecodedBasicBlock(int pc);
+
     /**
      * Get the ID of the process.
      *
@@ -28,9 +28,7 @@ import archimulator.os.signal.SignalMask;
 import archimulator.util.buffer.CircularByteBuffer;
 import org.jruby.ext.posix.FileStat;
 
-import java.io.FileDescriptor;
-import java.io.FileInputStream;
-import java.io.IOException;
+import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
@@ -58,6 +56,28 @@ public class SystemCallEmulation
         private int newlen;
     }
 
+    /**
+     * Host file opened by the simulated program.
+     */
+    private class OpenFile {
+        private String path;
+        private int hostFlags;
+        private int mode;
+
+        /**
+         * Create an open file.
+         *
+         * @param path      the path
+         * @param hostFlags the host open flags
+         * @param mode      the mode
+         */
+        private OpenFile(String path, int hostFlags, int mode) {
+            this.path = path;
+            this.hostFlags = hostFlags;
+            this.mode = mode;
+        }
+    }
+
     private Map<Integer, SystemCallHandler> handlers = new TreeMap<>();
     private int errno;
 
@@ -67,6 +87,8 @@ public class SystemCallEmulation
 
     private List<OpenFlagMapping> openFlagMappings;
 
+    private Map<Integer, OpenFile> openFiles = new TreeMap<>();
+
     /**
      * Create a system call emulation object.
      *
@@ -301,6 +323,58 @@ public class SystemCallEmulation
         }
     }
 
+    /**
+     * Save the state of the system call emulation, including the offsets of the open host files, to the specified output.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    public void saveTo(DataOutput out) throws IOException {
+        out.writeInt(this.stackLimit);
+
+        out.writeInt(this.openFiles.size());
+        for (Map.Entry<Integer, OpenFile> entry : this.openFiles.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeUTF(entry.getValue().path);
+            out.writeInt(entry.getValue().hostFlags);
+            out.writeInt(entry.getValue().mode);
+            out.writeInt(NativeSystemCalls.LIBC.lseek(entry.getKey(), 0, SEEK_CUR));
+        }
+    }
+
+    /**
+     * Load the state of the system call emulation from the specified input, reopening the open host files at their original descriptors and offsets.
+     *
+     * @param in the input
+     * @throws IOException if an I/O error occurs
+     */
+    public void loadFrom(DataInput in) throws IOException {
+        this.stackLimit = in.readInt();
+
+        int numOpenFiles = in.readInt();
+        for (int i = 0; i < numOpenFiles; i++) {
+            int fd = in.readInt();
+            OpenFile openFile = new OpenFile(in.readUTF(), in.readInt(), in.readInt());
+            int offset = in.readInt();
+
+            int hostFd = NativeSystemCalls.LIBC.open(openFile.path, openFile.hostFlags & ~(OpenFlags.O_CREAT | OpenFlags.O_EXCL | OpenFlags.O_TRUNC), openFile.mode);
+            if (hostFd == -1) {
+                throw new IOException("Cannot reopen " + openFile.path);
+            }
+
+            if (hostFd != fd) {
+                if (NativeSystemCalls.LIBC.dup2(hostFd, fd) == -1) {
+                    throw new IOException("Cannot reopen " + openFile.path + " at file descriptor " + fd);
+                }
+                NativeSystemCalls.LIBC.close(hostFd);
+            }
+
+            NativeSystemCalls.LIBC.lseek(fd, offset, SEEK_SET);
+
+            this.openFiles.put(fd, openFile);
+        }
+    }
+
     /**
      * Check if there is any system call error for the specified context.
      *
@@ -943,6 +1017,10 @@ public class SystemCallEmulation
 
         int ret = NativeSystemCalls.LIBC.close(fd);
 
+        if (ret != -1) {
+            this.openFiles.remove(fd);
+        }
+
         context.getRegisterFile().setGpr(ArchitecturalRegisterFile.REGISTER_V0, ret);
         error = checkSystemCallError(context);
     }
@@ -973,6 +1051,10 @@ public class SystemCallEmulation
 
         int ret = NativeSystemCalls.LIBC.open(path, hostFlags, mode);
 
+        if (ret != -1) {
+            this.openFiles.put(ret, new OpenFile(path, hostFlags, mode));
+        }
+
         context.getRegisterFile().setGpr(ArchitecturalRegisterFile.REGISTER_V0, ret);
         error = checkSystemCallError(context);
     }
@@ -1244,4 +1326,14 @@ public class SystemCallEmulation
      * Maximum buffer size.
      */
     private static final int MAX_BUFFER_SIZE = 1024;
+
+    /**
+     * The "whence" value for seeking to an absolute offset.
+     */
+    private static final int SEEK_SET = 0;
+
+    /**
+     * The "whence" value for seeking relative to the current offset.
+     */
+    private static final int SEEK_CUR = 1;
 }
@@ -22,6 +22,10 @@ package archimulator.os.signal;
 
 import archimulator.isa.Memory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Signal action.
  *
@@ -68,6 +72,34 @@ public class SignalAction {
         this.mask.saveTo(memory, address + MASK_OFFSET);
     }
 
+    /**
+     * Load the signal action from the specified input.
+     *
+     * @param in the input
+     * @throws IOException if an I/O error occurs
+     */
+    public void loadFrom(DataInput in) throws IOException {
+        this.flags = in.readInt();
+        this.handler = in.readInt();
+        this.restorer = in.readInt();
+
+        this.mask.loadFrom(in);
+    }
+
+    /**
+     * Save the signal action to the specified output.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    public void saveTo(DataOutput out) throws IOException {
+        out.writeInt(this.flags);
+        out.writeInt(this.handler);
+        out.writeInt(this.restorer);
+
+        this.mask.saveTo(out);
+    }
+
     /**
      * Get the flags.
      *
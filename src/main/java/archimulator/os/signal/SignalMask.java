@@ -24,6 +24,10 @@ import archimulator.isa.Memory;
 import archimulator.os.Kernel;
 import archimulator.util.math.MathHelper;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Signal mask.
  *
@@ -114,4 +118,28 @@ public class SignalMask implements Cloneable {
             memory.writeWord(address + i * 4, this.signals[i]);
         }
     }
+
+    /**
+     * Load the signal mask from the specified input.
+     *
+     * @param in the input
+     * @throws IOException if an I/O error occurs
+     */
+    public void loadFrom(DataInput in) throws IOException {
+        for (int i = 0; i < Kernel.MAX_SIGNAL / 32; i++) {
+            this.signals[i] = in.readInt();
+        }
+    }
+
+    /**
+     * Save the signal mask to the specified output.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    public void saveTo(DataOutput out) throws IOException {
+        for (int i = 0; i < Kernel.MAX_SIGNAL / 32; i++) {
+            out.writeInt(this.signals[i]);
+        }
+    }
 }
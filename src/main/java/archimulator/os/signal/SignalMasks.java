@@ -20,6 +20,10 @@
  */
 package archimulator.os.signal;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * A set of signal masks.
  *
@@ -39,6 +43,30 @@ public class SignalMasks {
         this.backup = new SignalMask();
     }
 
+    /**
+     * Load the set of signal masks from the specified input.
+     *
+     * @param in the input
+     * @throws IOException if an I/O error occurs
+     */
+    public void loadFrom(DataInput in) throws IOException {
+        this.pending.loadFrom(in);
+        this.blocked.loadFrom(in);
+        this.backup.loadFrom(in);
+    }
+
+    /**
+     * Save the set of signal masks to the specified output.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    public void saveTo(DataOutput out) throws IOException {
+        this.pending.saveTo(out);
+        this.blocked.saveTo(out);
+        this.backup.saveTo(out);
+    }
+
     /**
      * Get the pending signal mask.
      *
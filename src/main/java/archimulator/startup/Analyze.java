@@ -24,12 +24,16 @@ import archimulator.common.Experiment;
 import archimulator.util.csv.CSVHelper;
 import archimulator.util.plots.PlotHelper;
 
+import java.io.File;
+
 /**
  * Analyze.
  *
  * @author Min Cai
  */
 public class Analyze {
+    private static final File STATS_STORE_FILE = new File("results/stats.bin");
+
     public static void main(String[] args) {
         analyzeTrafficsAndDataPacketInjectionRates();
 
@@ -40,7 +44,7 @@ public class Analyze {
 
     public static void analyzeTrafficsAndDataPacketInjectionRates() {
         for (String traffic : Experiments.trafficsAndDataPacketInjectionRates.keySet()) {
-            Experiments.trafficsAndDataPacketInjectionRates.get(traffic).forEach(Experiment::loadStats);
+            Experiment.loadStats(Experiments.trafficsAndDataPacketInjectionRates.get(traffic), STATS_STORE_FILE);
             CSVHelper.toCsv(
                     String.format("results/trafficsAndDataPacketInjectionRates/t_%s.csv", traffic),
                     Experiments.trafficsAndDataPacketInjectionRates.get(traffic),
@@ -98,7 +102,7 @@ public class Analyze {
     }
 
     public static void analyzeAntPacketInjectionRates() {
-        Experiments.antPacketInjectionRates.forEach(Experiment::loadStats);
+        Experiment.loadStats(Experiments.antPacketInjectionRates, STATS_STORE_FILE);
         CSVHelper.toCsv(
                 "results/antPacketInjectionRates/result.csv",
                 Experiments.antPacketInjectionRates,
@@ -155,7 +159,7 @@ public class Analyze {
     }
 
     public static void analyzeAcoSelectionAlphasAndReinforcementFactors() {
-        Experiments.acoSelectionAlphasAndReinforcementFactors.forEach(Experiment::loadStats);
+        Experiment.loadStats(Experiments.acoSelectionAlphasAndReinforcementFactors, STATS_STORE_FILE);
         CSVHelper.toCsv(
                 "results/acoSelectionAlphasAndReinforcementFactors/result.csv",
                 Experiments.acoSelectionAlphasAndReinforcementFactors,
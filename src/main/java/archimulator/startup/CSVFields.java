@@ -28,6 +28,7 @@ import archimulator.util.csv.CSVField;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * CSV fields.
@@ -156,83 +157,83 @@ public class CSVFields {
     }
 
     public static String getSimulationTime(Experiment<? extends NoCConfig> experiment) {
-        return (String) experiment.getStatsMap().get(SIMULATION_PREFIX + "durationInSeconds");
+        return Objects.toString(experiment.getStat(SIMULATION_PREFIX + "durationInSeconds"), null);
     }
 
     public static String getTotalCycles(Experiment<? extends NoCConfig> experiment) {
         return String.format(
                 "%s",
-                experiment.getStatsMap().get(SIMULATION_PREFIX + "cycleAccurateEventQueue/currentCycle")
+                experiment.getStat(SIMULATION_PREFIX + "cycleAccurateEventQueue/currentCycle")
         );
     }
 
     public static String getNumPacketsTransmitted(Experiment<? extends NoCConfig> experiment) {
         return String.format(
                 "%s",
-                experiment.getStatsMap().get(NOC_PREFIX + "numPacketsTransmitted")
+                experiment.getStat(NOC_PREFIX + "numPacketsTransmitted")
         );
     }
 
     public static String getThroughput(Experiment<? extends NoCConfig> experiment) {
         return String.format(
                 "%s",
-                experiment.getStatsMap().get(NOC_PREFIX + "throughput")
+                experiment.getStat(NOC_PREFIX + "throughput")
         );
     }
 
     public static String getAveragePacketDelay(Experiment<? extends NoCConfig> experiment) {
         return String.format(
                 "%s",
-                experiment.getStatsMap().get(NOC_PREFIX + "averagePacketDelay")
+                experiment.getStat(NOC_PREFIX + "averagePacketDelay")
         );
     }
 
     public static String getAveragePacketHops(Experiment<? extends NoCConfig> experiment) {
         return String.format(
                 "%s",
-                experiment.getStatsMap().get(NOC_PREFIX + "averagePacketHops")
+                experiment.getStat(NOC_PREFIX + "averagePacketHops")
         );
     }
 
     public static String getNumPayloadPacketsTransmitted(Experiment<? extends NoCConfig> experiment) {
         return String.format(
                 "%s",
-                experiment.getStatsMap().get(NOC_PREFIX + "numPayloadPacketsTransmitted")
+                experiment.getStat(NOC_PREFIX + "numPayloadPacketsTransmitted")
         );
     }
 
     public static String getPayloadThroughput(Experiment<? extends NoCConfig> experiment) {
         return String.format(
                 "%s",
-                experiment.getStatsMap().get(NOC_PREFIX + "payloadThroughput")
+                experiment.getStat(NOC_PREFIX + "payloadThroughput")
         );
     }
 
     public static String getAveragePayloadPacketDelay(Experiment<? extends NoCConfig> experiment) {
         return String.format(
                 "%s",
-                experiment.getStatsMap().get(NOC_PREFIX + "averagePayloadPacketDelay")
+                experiment.getStat(NOC_PREFIX + "averagePayloadPacketDelay")
         );
     }
 
     public static String getAveragePayloadPacketHops(Experiment<? extends NoCConfig> experiment) {
         return String.format(
                 "%s",
-                experiment.getStatsMap().get(NOC_PREFIX + "averagePayloadPacketHops")
+                experiment.getStat(NOC_PREFIX + "averagePayloadPacketHops")
         );
     }
 
     public static String getAverageFlitPerStateDelay(Experiment<? extends NoCConfig> experiment, FlitState state) {
         return String.format(
                 "%s",
-                experiment.getStatsMap().get(NOC_PREFIX + String.format("averageFlitPerStateDelay::%s", state))
+                experiment.getStat(NOC_PREFIX + String.format("averageFlitPerStateDelay::%s", state))
         );
     }
 
     public static String getMaxFlitPerStateDelay(Experiment<? extends NoCConfig> experiment, FlitState state) {
         return String.format(
                 "%s",
-                experiment.getStatsMap().get(NOC_PREFIX + String.format("maxFlitPerStateDelay::%s", state))
+                experiment.getStat(NOC_PREFIX + String.format("maxFlitPerStateDelay::%s", state))
         );
     }
 }
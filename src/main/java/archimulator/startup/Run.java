@@ -21,14 +21,27 @@
 package archimulator.startup;
 
 import archimulator.common.Experiment;
+import archimulator.common.ExperimentSpool;
+import archimulator.uncore.noc.NoCExperiment;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Run.
  *
+ * With a spool directory as the argument, the experiments are submitted as jobs into the spool, run by this and any
+ * other sweep worker processes sharing the spool directory, and then analyzed when all of them have finished.
+ *
  * @author Min Cai
  */
 public class Run {
     public static void main(String[] args) {
+        if (args.length > 0) {
+            runSweep(args[0]);
+            return;
+        }
+
         for(String traffic : Experiments.trafficsAndDataPacketInjectionRates.keySet()) {
             Experiment.runExperiments(Experiments.trafficsAndDataPacketInjectionRates.get(traffic), true);
         }
@@ -37,4 +50,23 @@ public class Run {
 
         Experiment.runExperiments(Experiments.acoSelectionAlphasAndReinforcementFactors, true);
     }
+
+    /**
+     * Run all the experiments as a sweep over the specified spool directory.
+     *
+     * @param spoolDirectory the spool directory
+     */
+    private static void runSweep(String spoolDirectory) {
+        List<NoCExperiment> experiments = new ArrayList<>();
+        Experiments.trafficsAndDataPacketInjectionRates.values().forEach(experiments::addAll);
+        experiments.addAll(Experiments.antPacketInjectionRates);
+        experiments.addAll(Experiments.acoSelectionAlphasAndReinforcementFactors);
+
+        ExperimentSpool spool = new ExperimentSpool(spoolDirectory);
+        spool.submit(experiments);
+        spool.work();
+        spool.await(experiments);
+
+        Analyze.main(new String[0]);
+    }
 }
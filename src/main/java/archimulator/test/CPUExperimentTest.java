@@ -98,6 +98,25 @@ public class CPUExperimentTest {
         experiment.run();
     }
 
+    @Test
+    public void test_mst_ht_1000_buffer_level_sampled() {
+        CPUExperiment experiment = test(
+                ExperimentType.SAMPLED,
+                -1,
+                "benchmarks/Olden_Custom1/mst/ht/mst.mips",
+                "1000",
+                "test_results/mst_ht_1000_buffer_level_sampled",
+                "oddEven",
+                "bufferLevel"
+        );
+
+        experiment.getConfig().setSamplingPeriod(100000);
+        experiment.getConfig().setSamplingWarmupLength(20000);
+        experiment.getConfig().setSamplingUnitLength(2000);
+
+        experiment.run();
+    }
+
     private CPUExperiment test(
             ExperimentType experimentType,
             long numMaxInstructions,
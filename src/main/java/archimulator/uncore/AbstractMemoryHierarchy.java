@@ -21,7 +21,6 @@
 package archimulator.uncore;
 
 import archimulator.common.*;
-import archimulator.uncore.cache.CacheLine;
 import archimulator.uncore.coherence.msi.controller.*;
 import archimulator.uncore.coherence.msi.message.CoherenceMessage;
 import archimulator.uncore.dram.BasicMemoryController;
@@ -32,9 +31,7 @@ import archimulator.uncore.tlb.TranslationLookasideBuffer;
 import archimulator.util.event.BlockingEvent;
 import archimulator.util.event.BlockingEventDispatcher;
 import archimulator.util.event.CycleAccurateEventQueue;
-import archimulator.util.fsm.BasicFiniteStateMachine;
 
-import java.io.Serializable;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -131,20 +128,10 @@ public abstract class AbstractMemoryHierarchy
      * @param <StateT>        state
      * @param <ConditionT>    transition
      */
-    @SuppressWarnings("unchecked")
-    private <StateT extends Serializable, ConditionT> void dumpCacheControllerFsmStats(List<ExperimentStat> stats, GeneralCacheController<StateT, ConditionT> cacheController) {
-        List<BasicFiniteStateMachine<StateT, ConditionT>> finiteStateMachines = new ArrayList<>();
-
-        for (int set = 0; set < cacheController.getCache().getNumSets(); set++) {
-            for (CacheLine<StateT> line : cacheController.getCache().getLines(set)) {
-                BasicFiniteStateMachine<StateT, ConditionT> fsm = (BasicFiniteStateMachine<StateT, ConditionT>) line.getStateProvider();
-                finiteStateMachines.add(fsm);
-            }
-        }
-
+    private <StateT extends Enum<StateT>, ConditionT extends Enum<ConditionT>> void dumpCacheControllerFsmStats(List<ExperimentStat> stats, GeneralCacheController<StateT, ConditionT> cacheController) {
         Map<String, String> statsMap = new LinkedHashMap<>();
 
-        cacheController.getFsmFactory().dump(PREFIX_CC_FSM + cacheController.getName(), finiteStateMachines, statsMap);
+        cacheController.getFsmFactory().dump(PREFIX_CC_FSM + cacheController.getName(), cacheController.getFsmNumExecutions(), statsMap);
 
         stats.addAll(statsMap.entrySet().stream().map(entry -> new ExperimentStat(getSimulation().getPrefix(), entry.getKey(), entry.getValue())).collect(Collectors.toList()));
     }
@@ -159,6 +146,21 @@ public abstract class AbstractMemoryHierarchy
      */
     @Override
     public void transfer(final Controller from, final Controller to, int size, final CoherenceMessage message) {
+        PointToPointReorderBuffer p2pReorderBuffer = this.getP2pReorderBuffer(from, to);
+
+        p2pReorderBuffer.transfer(message);
+
+        this.getNet(from, to).transfer(from, to, size, () -> p2pReorderBuffer.onDestinationArrived(message));
+    }
+
+    /**
+     * Get the point to point reorder buffer between the source device and the destination device.
+     *
+     * @param from the source device
+     * @param to   the destination device
+     * @return the point to point reorder buffer between the source device and the destination device
+     */
+    protected PointToPointReorderBuffer getP2pReorderBuffer(Controller from, Controller to) {
         if (!this.p2pReorderBuffers.containsKey(from)) {
             this.p2pReorderBuffers.put(from, new HashMap<>());
         }
@@ -167,9 +169,7 @@ public abstract class AbstractMemoryHierarchy
             this.p2pReorderBuffers.get(from).put(to, new PointToPointReorderBuffer(from, to));
         }
 
-        this.p2pReorderBuffers.get(from).get(to).transfer(message);
-
-        this.getNet(from, to).transfer(from, to, size, () -> p2pReorderBuffers.get(from).get(to).onDestinationArrived(message));
+        return this.p2pReorderBuffers.get(from).get(to);
     }
 
     /**
@@ -59,7 +59,7 @@ public class MemoryHierarchyAccess {
      * @param onCompletedCallback the callback action performed when the access is completed
      */
     public MemoryHierarchyAccess(DynamicInstruction dynamicInstruction, Thread thread, MemoryHierarchyAccessType type, int virtualPc, int physicalAddress, int physicalTag, Runnable onCompletedCallback) {
-        this.id = thread.getSimulation().currentMemoryHierarchyAccessId++;
+        this.id = thread.getSimulation().currentMemoryHierarchyAccessId.getAndIncrement();
 
         this.dynamicInstruction = dynamicInstruction;
 
@@ -29,11 +29,16 @@ import archimulator.util.ValueProviderFactory;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Basic cache.
  *
+ * Line tags are kept in a packed, set-major tag array so that lookups and fills scan primitive ints
+ * instead of walking the cache line objects. Highly associative caches additionally keep a per-set bloom
+ * filter over the tags in use, which lets most misses skip the scan altogether.
+ *
  * @param <StateT> state
  * @author Min Cai
  */
@@ -45,6 +50,11 @@ public class BasicCache<StateT extends Serializable>
     private List<CacheSet<StateT>> sets;
     private int numTagsInUse;
 
+    private int associativity;
+    private int[] tags;
+    private CacheLine<StateT>[] lines;
+    private long[] tagFilters;
+
     /**
      * Create a basic cache.
      *
@@ -59,10 +69,148 @@ public class BasicCache<StateT extends Serializable>
         this.name = name;
         this.geometry = geometry;
 
+        this.associativity = geometry.getAssociativity();
+
+        int numLines = geometry.getNumSets() * this.associativity;
+
+        this.tags = new int[numLines];
+        Arrays.fill(this.tags, CacheLine.INVALID_TAG);
+
+        if (this.associativity >= TAG_FILTER_MIN_ASSOCIATIVITY) {
+            this.tagFilters = new long[geometry.getNumSets()];
+        }
+
+        @SuppressWarnings("unchecked")
+        CacheLine<StateT>[] lines = (CacheLine<StateT>[]) new CacheLine<?>[numLines];
+        this.lines = lines;
+
         this.sets = new ArrayList<>();
         for (int i = 0; i < this.getNumSets(); i++) {
-            this.sets.add(new CacheSet<>(this, this.getAssociativity(), i, cacheLineStateProviderFactory));
+            CacheSet<StateT> cacheSet = new CacheSet<>(this, this.associativity, i, cacheLineStateProviderFactory);
+            this.sets.add(cacheSet);
+
+            for (CacheLine<StateT> line : cacheSet.getLines()) {
+                this.lines[i * this.associativity + line.getWay()] = line;
+            }
+        }
+    }
+
+    @Override
+    public CacheLine<StateT> getLine(int set, int way) {
+        if (set < 0 || set >= this.getNumSets()) {
+            throw new IllegalArgumentException(String.format("set: %d, this.numSets: %d", set, this.getNumSets()));
+        }
+
+        if (way < 0 || way >= this.associativity) {
+            getSimulation().dumpPendingFlowTree();
+            System.out.flush();
+            throw new IllegalArgumentException(String.format("set: %d, way: %d, this.associativity: %d", set, way, this.associativity));
         }
+
+        return this.lines[set * this.associativity + way];
+    }
+
+    @Override
+    public int getLineTag(int set, int way) {
+        return this.tags[set * this.associativity + way];
+    }
+
+    @Override
+    public void setLineTag(int set, int way, int tag) {
+        int base = set * this.associativity;
+
+        if (tag != CacheLine.INVALID_TAG && this.mayContainTag(set, tag)) {
+            for (int i = base; i < base + this.associativity; i++) {
+                if (this.tags[i] == tag) {
+                    throw new IllegalArgumentException();
+                }
+            }
+        }
+
+        int oldTag = this.tags[base + way];
+
+        if (oldTag == CacheLine.INVALID_TAG && tag != CacheLine.INVALID_TAG) {
+            this.numTagsInUse++;
+        } else if (oldTag != CacheLine.INVALID_TAG && tag == CacheLine.INVALID_TAG) {
+            this.numTagsInUse--;
+        }
+
+        this.tags[base + way] = tag;
+
+        if (this.tagFilters != null) {
+            if (oldTag == CacheLine.INVALID_TAG) {
+                if (tag != CacheLine.INVALID_TAG) {
+                    this.tagFilters[set] |= getTagFilterBit(tag);
+                }
+            } else {
+                long tagFilter = 0;
+                for (int i = base; i < base + this.associativity; i++) {
+                    if (this.tags[i] != CacheLine.INVALID_TAG) {
+                        tagFilter |= getTagFilterBit(this.tags[i]);
+                    }
+                }
+                this.tagFilters[set] = tagFilter;
+            }
+        }
+    }
+
+    @Override
+    public int findWay(int address) {
+        return this.findWay(this.getSet(address), this.getTag(address));
+    }
+
+    @Override
+    public CacheLine<StateT> findLine(int address) {
+        int set = this.getSet(address);
+        int way = this.findWay(set, this.getTag(address));
+        return way != -1 ? this.lines[set * this.associativity + way] : null;
+    }
+
+    /**
+     * Find the way of the valid line holding the specified tag in the specified set.
+     *
+     * @param set the set index
+     * @param tag the tag
+     * @return the way of the valid line holding the specified tag in the specified set if any exists; otherwise -1
+     */
+    private int findWay(int set, int tag) {
+        if (!this.mayContainTag(set, tag)) {
+            return -1;
+        }
+
+        int base = set * this.associativity;
+
+        for (int way = 0; way < this.associativity; way++) {
+            if (this.tags[base + way] == tag) {
+                CacheLine<StateT> line = this.lines[base + way];
+
+                // tags are unique within a set, so there is no other candidate to look at.
+                return line.getState() != line.getInitialState() ? way : -1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get a value indicating whether the specified set may contain the specified tag.
+     *
+     * @param set the set index
+     * @param tag the tag
+     * @return false if the specified set definitely does not contain the specified tag; otherwise true
+     */
+    private boolean mayContainTag(int set, int tag) {
+        return this.tagFilters == null || (this.tagFilters[set] & getTagFilterBit(tag)) != 0;
+    }
+
+    /**
+     * Get the bloom filter bit for the specified tag.
+     *
+     * @param tag the tag
+     * @return the bloom filter bit for the specified tag
+     */
+    private static long getTagFilterBit(int tag) {
+        return 1L << ((tag * 0x9E3779B9) >>> 26);
     }
 
     /**
@@ -128,4 +276,9 @@ public class BasicCache<StateT extends Serializable>
     public void setNumTagsInUse(int numTagsInUse) {
         this.numTagsInUse = numTagsInUse;
     }
+
+    /**
+     * The minimum associativity for which the per-set tag bloom filters are maintained.
+     */
+    public static final int TAG_FILTER_MIN_ASSOCIATIVITY = 16;
 }
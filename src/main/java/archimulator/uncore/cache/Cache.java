@@ -59,6 +59,24 @@ public interface Cache<StateT extends Serializable> extends SimulationObject<CPU
         return this.getLines(set).get(way);
     }
 
+    /**
+     * Get the tag of the line at the specified set and way.
+     *
+     * @param set the set index
+     * @param way the way
+     * @return the tag of the line at the specified set and way
+     */
+    int getLineTag(int set, int way);
+
+    /**
+     * Set the tag of the line at the specified set and way.
+     *
+     * @param set the set index
+     * @param way the way
+     * @param tag the tag
+     */
+    void setLineTag(int set, int way, int tag);
+
     /**
      * Get the set at the specified index.
      *
@@ -37,7 +37,6 @@ public class CacheLine<StateT extends Serializable> extends Params {
     private int set;
     private int way;
 
-    private int tag;
     private MemoryHierarchyAccess access;
     private ValueProvider<StateT> stateProvider;
 
@@ -54,8 +53,6 @@ public class CacheLine<StateT extends Serializable> extends Params {
         this.set = set;
         this.way = way;
         this.stateProvider = stateProvider;
-
-        this.tag = -1;
     }
 
     /**
@@ -109,7 +106,7 @@ public class CacheLine<StateT extends Serializable> extends Params {
      * @return the tag
      */
     public int getTag() {
-        return tag;
+        return this.cache.getLineTag(this.set, this.way);
     }
 
     /**
@@ -118,21 +115,7 @@ public class CacheLine<StateT extends Serializable> extends Params {
      * @param tag the tag
      */
     public void setTag(int tag) {
-        if (tag != INVALID_TAG) {
-            for (CacheLine<StateT> line : this.cache.getLines(this.set)) {
-                if (line.getTag() == tag) {
-                    throw new IllegalArgumentException();
-                }
-            }
-        }
-
-        if (this.tag == INVALID_TAG && tag != INVALID_TAG) {
-            this.cache.setNumTagsInUse(this.cache.getNumTagsInUse() + 1);
-        } else if (this.tag != INVALID_TAG && tag == INVALID_TAG) {
-            this.cache.setNumTagsInUse(this.cache.getNumTagsInUse() - 1);
-        }
-
-        this.tag = tag;
+        this.cache.setLineTag(this.set, this.way, tag);
     }
 
     /**
@@ -173,7 +156,7 @@ public class CacheLine<StateT extends Serializable> extends Params {
 
     @Override
     public String toString() {
-        return String.format("%s [%d,%d] {%s} %s", getCache().getName(), getSet(), getWay(), getState(), tag == INVALID_TAG ? "N/A" : String.format("0x%08x", tag));
+        return String.format("%s [%d,%d] {%s} %s", getCache().getName(), getSet(), getWay(), getState(), getTag() == INVALID_TAG ? "N/A" : String.format("0x%08x", getTag()));
     }
 
     /**
@@ -30,6 +30,8 @@ import archimulator.uncore.helperThread.HelperThreadL2RequestProfilingHelper;
 import archimulator.uncore.helperThread.HelperThreadingHelper;
 import archimulator.uncore.mlp.BLPProfilingHelper;
 import archimulator.uncore.mlp.MLPProfilingHelper;
+import archimulator.util.event.PerCycleEvent;
+import archimulator.util.event.Quiescent;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,7 +41,7 @@ import java.util.List;
  *
  * @author Min Cai
  */
-public class IntervalHelper implements Reportable {
+public class IntervalHelper implements Reportable, Quiescent {
     /**
      * Interval.
      */
@@ -95,6 +97,8 @@ public class IntervalHelper implements Reportable {
         }
     }
 
+    private Simulation simulation;
+
     private int numCyclesElapsedPerInterval;
 
     private int numCyclesElapsed;
@@ -109,13 +113,15 @@ public class IntervalHelper implements Reportable {
      * @param simulation the simulation
      */
     public IntervalHelper(final Simulation simulation) {
+        this.simulation = simulation;
+
         this.numCyclesElapsedPerInterval = 5000000;
 
         this.intervals = new ArrayList<>();
 
         this.currentInterval = new Interval();
 
-        simulation.getCycleAccurateEventQueue().getPerCycleEvents().add(() -> {
+        simulation.getCycleAccurateEventQueue().getPerCycleEvents().add(new PerCycleEvent(() -> {
             if (simulation.getType() != SimulationType.FAST_FORWARD) {
                 numCyclesElapsed++;
 
@@ -127,7 +133,7 @@ public class IntervalHelper implements Reportable {
                     currentInterval = new Interval();
                 }
             }
-        });
+        }, this));
 
         simulation.getBlockingEventDispatcher().addListener(DynamicInstructionCommittedEvent.class, event -> {
             Thread thread = event.getDynamicInstruction().getThread();
@@ -194,6 +200,22 @@ public class IntervalHelper implements Reportable {
         });
     }
 
+    @Override
+    public long getNextBusyCycle() {
+        if (this.simulation.getType() == SimulationType.FAST_FORWARD) {
+            return NEVER;
+        }
+
+        return this.simulation.getCycleAccurateEventQueue().getCurrentCycle() + this.numCyclesElapsedPerInterval - this.numCyclesElapsed - 1;
+    }
+
+    @Override
+    public void skipIdleCycles(long numCycles) {
+        if (this.simulation.getType() != SimulationType.FAST_FORWARD) {
+            this.numCyclesElapsed += numCycles;
+        }
+    }
+
     @Override
     public void dumpStats(ReportNode reportNode) {
         reportNode.getChildren().add(new ReportNode(reportNode, "intervalHelper") {{
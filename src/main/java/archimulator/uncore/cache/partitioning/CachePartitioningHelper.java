@@ -27,6 +27,8 @@ import archimulator.common.SimulationType;
 import archimulator.core.Thread;
 import archimulator.uncore.cache.EvictableCache;
 import archimulator.uncore.coherence.msi.controller.DirectoryController;
+import archimulator.util.event.PerCycleEvent;
+import archimulator.util.event.Quiescent;
 import org.paukov.combinatorics.Factory;
 import org.paukov.combinatorics.Generator;
 import org.paukov.combinatorics.ICombinatoricsVector;
@@ -40,7 +42,7 @@ import java.util.function.Predicate;
  *
  * @author Min Cai
  */
-public abstract class CachePartitioningHelper implements Partitioner {
+public abstract class CachePartitioningHelper implements Partitioner, Quiescent {
     private EvictableCache<?> cache;
     private Predicate<Integer> shouldIncludePredicate;
 
@@ -78,7 +80,7 @@ public abstract class CachePartitioningHelper implements Partitioner {
 
         this.numCyclesElapsedPerInterval = 5000000;
 
-        this.cache.getCycleAccurateEventQueue().getPerCycleEvents().add(() -> {
+        this.cache.getCycleAccurateEventQueue().getPerCycleEvents().add(new PerCycleEvent(() -> {
             if (cache.getSimulation().getType() != SimulationType.FAST_FORWARD && canPartition(cache)) { //TODO: should not be hardcoded!!!
                 numCyclesElapsed++;
 
@@ -89,7 +91,23 @@ public abstract class CachePartitioningHelper implements Partitioner {
                     numIntervals++;
                 }
             }
-        });
+        }, this));
+    }
+
+    @Override
+    public long getNextBusyCycle() {
+        if (this.cache.getSimulation().getType() == SimulationType.FAST_FORWARD || !canPartition(this.cache)) {
+            return NEVER;
+        }
+
+        return this.cache.getCycleAccurateEventQueue().getCurrentCycle() + this.numCyclesElapsedPerInterval - this.numCyclesElapsed - 1;
+    }
+
+    @Override
+    public void skipIdleCycles(long numCycles) {
+        if (this.cache.getSimulation().getType() != SimulationType.FAST_FORWARD && canPartition(this.cache)) {
+            this.numCyclesElapsed += numCycles;
+        }
     }
 
     //TODO: to be refactored out!!!
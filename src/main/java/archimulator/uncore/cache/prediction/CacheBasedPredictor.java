@@ -146,6 +146,26 @@ public class CacheBasedPredictor<PredictableT extends Comparable<PredictableT>>
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public void update(int address, PredictableT observedValue, long numTimes) {
+        for (long i = 0; i < numTimes; i++) {
+            CacheLine<Boolean> lineFound = this.cache.findLine(address);
+            BooleanValueProvider stateProvider = lineFound != null ? (BooleanValueProvider) lineFound.getStateProvider() : null;
+
+            if (stateProvider != null
+                    && stateProvider.predictedValue == observedValue
+                    && stateProvider.confidence.isTaken()
+                    && stateProvider.confidence.getValue() == stateProvider.confidence.getMaxValue()) {
+                this.numHits += numTimes - i - 1;
+                this.update(address, observedValue);
+                return;
+            }
+
+            this.update(address, observedValue);
+        }
+    }
+
     @Override
     public void dumpStats(ReportNode reportNode) {
         reportNode.getChildren().add(new ReportNode(reportNode, cache.getName()) {{
@@ -45,6 +45,19 @@ public interface Predictor<PredictableT extends Comparable<PredictableT>> extend
      */
     void update(int address, PredictableT observedValue);
 
+    /**
+     * Update the observed value for the specified address for the specified number of times in a row.
+     *
+     * @param address       the address
+     * @param observedValue the observed value
+     * @param numTimes      the number of times
+     */
+    default void update(int address, PredictableT observedValue, long numTimes) {
+        for (long i = 0; i < numTimes; i++) {
+            this.update(address, observedValue);
+        }
+    }
+
     /**
      * Get the default value.
      *
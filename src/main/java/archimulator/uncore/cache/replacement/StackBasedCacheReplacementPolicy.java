@@ -24,17 +24,21 @@ import archimulator.uncore.cache.CacheLine;
 import archimulator.uncore.cache.EvictableCache;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Stack based cache replacement policy.
  *
+ * The recency stack of each set is kept as a pair of packed, set-major arrays mapping stack positions to ways
+ * and ways to stack positions, so that position queries are constant-time and moving a way within its stack
+ * only shifts the entries between its old and new stack positions.
+ *
  * @param <StateT> the state type of the parent evictable cache
  * @author Min Cai
  */
 public abstract class StackBasedCacheReplacementPolicy<StateT extends Serializable> extends AbstractCacheReplacementPolicy<StateT> {
-    private List<List<Integer>> stackEntries;
+    private int associativity;
+    private short[] stackWays;
+    private short[] stackPositions;
 
     /**
      * Create a stack based replacement policy for the specified evictable cache.
@@ -44,13 +48,15 @@ public abstract class StackBasedCacheReplacementPolicy<StateT extends Serializab
     public StackBasedCacheReplacementPolicy(EvictableCache<StateT> cache) {
         super(cache);
 
-        this.stackEntries = new ArrayList<>();
+        this.associativity = this.getCache().getAssociativity();
 
-        for (int set = 0; set < this.getCache().getNumSets(); set++) {
-            this.stackEntries.add(new ArrayList<>());
+        this.stackWays = new short[this.getCache().getNumSets() * this.associativity];
+        this.stackPositions = new short[this.stackWays.length];
 
-            for (int way = 0; way < this.getCache().getAssociativity(); way++) {
-                this.stackEntries.get(set).add(way);
+        for (int set = 0; set < this.getCache().getNumSets(); set++) {
+            for (int way = 0; way < this.associativity; way++) {
+                this.stackWays[set * this.associativity + way] = (short) way;
+                this.stackPositions[set * this.associativity + way] = (short) way;
             }
         }
     }
@@ -62,7 +68,7 @@ public abstract class StackBasedCacheReplacementPolicy<StateT extends Serializab
      * @return the way in the MRU position in the specified set
      */
     public int getMRU(int set) {
-        return this.getCacheLineInStackPosition(set, 0).getWay();
+        return this.getWayInStackPosition(set, 0);
     }
 
     /**
@@ -72,7 +78,7 @@ public abstract class StackBasedCacheReplacementPolicy<StateT extends Serializab
      * @return the way in the LRU position in the specified set
      */
     public int getLRU(int set) {
-        return this.getCacheLineInStackPosition(set, this.getCache().getAssociativity() - 1).getWay();
+        return this.getWayInStackPosition(set, this.associativity - 1);
     }
 
     /**
@@ -92,7 +98,7 @@ public abstract class StackBasedCacheReplacementPolicy<StateT extends Serializab
      * @param way the way
      */
     public void setLRU(int set, int way) {
-        this.setStackPosition(set, way, this.getCache().getAssociativity() - 1);
+        this.setStackPosition(set, way, this.associativity - 1);
     }
 
     /**
@@ -103,7 +109,8 @@ public abstract class StackBasedCacheReplacementPolicy<StateT extends Serializab
      * @return the way in the specified stack position in the specified set
      */
     public int getWayInStackPosition(int set, int stackPosition) {
-        return this.getCacheLineInStackPosition(set, stackPosition).getWay();
+        checkStackPosition(stackPosition);
+        return this.stackWays[set * this.associativity + stackPosition];
     }
 
     /**
@@ -114,7 +121,7 @@ public abstract class StackBasedCacheReplacementPolicy<StateT extends Serializab
      * @return the cache line in the specified stack position in the specified set
      */
     public CacheLine<StateT> getCacheLineInStackPosition(int set, int stackPosition) {
-        return this.getCache().getLine(set, this.stackEntries.get(set).get(stackPosition));
+        return this.getCache().getLine(set, this.getWayInStackPosition(set, stackPosition));
     }
 
     /**
@@ -125,8 +132,8 @@ public abstract class StackBasedCacheReplacementPolicy<StateT extends Serializab
      * @return the stack position (distance) for the specified way in the specified set
      */
     public int getStackPosition(int set, int way) {
-        Integer stackEntry = this.getStackEntry(set, way);
-        return this.stackEntries.get(set).indexOf(stackEntry);
+        checkWay(way);
+        return this.stackPositions[set * this.associativity + way];
     }
 
     /**
@@ -137,19 +144,49 @@ public abstract class StackBasedCacheReplacementPolicy<StateT extends Serializab
      * @param newStackPosition the new stack position (distance)
      */
     public void setStackPosition(int set, int way, int newStackPosition) {
-        Integer stackEntry = this.getStackEntry(set, way);
-        this.stackEntries.get(set).remove(stackEntry);
-        this.stackEntries.get(set).add(newStackPosition, stackEntry);
+        checkWay(way);
+        checkStackPosition(newStackPosition);
+
+        int base = set * this.associativity;
+        int oldStackPosition = this.stackPositions[base + way];
+
+        if (newStackPosition < oldStackPosition) {
+            for (int stackPosition = oldStackPosition; stackPosition > newStackPosition; stackPosition--) {
+                short shiftedWay = this.stackWays[base + stackPosition - 1];
+                this.stackWays[base + stackPosition] = shiftedWay;
+                this.stackPositions[base + shiftedWay] = (short) stackPosition;
+            }
+        } else {
+            for (int stackPosition = oldStackPosition; stackPosition < newStackPosition; stackPosition++) {
+                short shiftedWay = this.stackWays[base + stackPosition + 1];
+                this.stackWays[base + stackPosition] = shiftedWay;
+                this.stackPositions[base + shiftedWay] = (short) stackPosition;
+            }
+        }
+
+        this.stackWays[base + newStackPosition] = (short) way;
+        this.stackPositions[base + way] = (short) newStackPosition;
     }
 
     /**
-     * Get the stack entry at the specified set and way.
+     * Check that the specified way is within the associativity of the parent cache.
      *
-     * @param set the set index
      * @param way the way
-     * @return the stack entry at the specified set and way
      */
-    private Integer getStackEntry(int set, int way) {
-        return this.stackEntries.get(set).stream().filter(stackEntry -> stackEntry == way).findFirst().get();
+    private void checkWay(int way) {
+        if (way < 0 || way >= this.associativity) {
+            throw new IllegalArgumentException(String.format("way: %d, associativity: %d", way, this.associativity));
+        }
+    }
+
+    /**
+     * Check that the specified stack position is within the associativity of the parent cache.
+     *
+     * @param stackPosition the stack position
+     */
+    private void checkStackPosition(int stackPosition) {
+        if (stackPosition < 0 || stackPosition >= this.associativity) {
+            throw new IndexOutOfBoundsException(String.format("stackPosition: %d, associativity: %d", stackPosition, this.associativity));
+        }
     }
 }
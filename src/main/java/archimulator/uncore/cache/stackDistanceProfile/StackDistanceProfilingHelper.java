@@ -31,17 +31,21 @@ import archimulator.uncore.coherence.msi.controller.GeneralCacheController;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Stack;
-import java.util.TreeMap;
 
 /**
  * Stack distance profiling helper.
  *
+ * Only one in every {@link archimulator.common.CPUExperimentConfig#getL2StackDistanceProfilingSamplingPeriod()} L2 sets
+ * is profiled, and the counters of the sampled sets are scaled by the sampling period. The
+ * {@link StackDistanceProfiledEvent} is only dispatched for the accesses to the sampled sets, so its listeners see one
+ * in every sampling period accesses and have to scale their counts by {@link StackDistanceProfiledEvent#getSamplingPeriod()}.
+ *
  * @author Min Cai
  */
 public class StackDistanceProfilingHelper implements Reportable {
     private DirectoryController l2Controller;
-    private Map<Integer, Stack<Integer>> l2LruStacks;
+    private StackDistanceTracker[] l2LruStacks;
+    private int samplingPeriod;
     private StackDistanceProfile l2StackDistanceProfile;
 
     /**
@@ -51,7 +55,8 @@ public class StackDistanceProfilingHelper implements Reportable {
      */
     public StackDistanceProfilingHelper(Simulation simulation) {
         this.l2Controller = simulation.getProcessor().getMemoryHierarchy().getL2Controller();
-        this.l2LruStacks = new TreeMap<>();
+        this.l2LruStacks = new StackDistanceTracker[this.l2Controller.getCache().getNumSets()];
+        this.samplingPeriod = simulation.getExperiment().getConfig().getL2StackDistanceProfilingSamplingPeriod();
         this.l2StackDistanceProfile = new StackDistanceProfile(this.l2Controller.getCache().getAssociativity());
 
         simulation.getBlockingEventDispatcher().addListener(GeneralCacheControllerServiceNonblockingRequestEvent.class, event -> {
@@ -72,27 +77,18 @@ public class StackDistanceProfilingHelper implements Reportable {
         int tag = access.getPhysicalTag();
         int set = this.l2Controller.getCache().getSet(tag);
 
-        Stack<Integer> lruStack = getLruStack(set);
-
-        int stackDistance = lruStack.search(tag);
-
-        if (stackDistance != -1) {
-            lruStack.remove((Integer) tag);
-            stackDistance--;
+        if (set % this.samplingPeriod != 0) {
+            return;
         }
 
-        lruStack.push(tag);
-
-        if (lruStack.size() > this.l2Controller.getCache().getAssociativity()) {
-            lruStack.remove(lruStack.size() - 1);
-        }
+        int stackDistance = getLruStack(set).access(tag);
 
-        this.l2Controller.getBlockingEventDispatcher().dispatch(new StackDistanceProfiledEvent(this.l2Controller, access, hitInCache, set, way, stackDistance));
+        this.l2Controller.getBlockingEventDispatcher().dispatch(new StackDistanceProfiledEvent(this.l2Controller, access, hitInCache, set, way, stackDistance, this.samplingPeriod));
 
         if (stackDistance == -1) {
-            this.l2StackDistanceProfile.incrementMissCounter();
+            this.l2StackDistanceProfile.incrementMissCounter(this.samplingPeriod);
         } else {
-            this.l2StackDistanceProfile.incrementHitCounter(stackDistance);
+            this.l2StackDistanceProfile.incrementHitCounter(stackDistance, this.samplingPeriod);
         }
     }
 
@@ -135,12 +131,12 @@ public class StackDistanceProfilingHelper implements Reportable {
      * @param set the set index
      * @return the LRU stack for the specified set in the L2 cache
      */
-    private Stack<Integer> getLruStack(int set) {
-        if (!this.l2LruStacks.containsKey(set)) {
-            this.l2LruStacks.put(set, new Stack<>());
+    private StackDistanceTracker getLruStack(int set) {
+        if (this.l2LruStacks[set] == null) {
+            this.l2LruStacks[set] = new StackDistanceTracker(this.l2Controller.getCache().getAssociativity());
         }
 
-        return this.l2LruStacks.get(set);
+        return this.l2LruStacks[set];
     }
 
     /**
@@ -190,7 +186,8 @@ public class StackDistanceProfilingHelper implements Reportable {
     }
 
     /**
-     * An event when a stack distance is profiled.
+     * An event when a stack distance is profiled, which is only dispatched for the accesses to the sampled sets and
+     * hence stands for as many accesses as the sampling period.
      */
     public class StackDistanceProfiledEvent extends SimulationEvent {
         private GeneralCacheController cacheController;
@@ -199,6 +196,7 @@ public class StackDistanceProfilingHelper implements Reportable {
         private int set;
         private int way;
         private int stackDistance;
+        private int samplingPeriod;
 
         /**
          * Create an event when a stack distance is profiled.
@@ -209,8 +207,9 @@ public class StackDistanceProfilingHelper implements Reportable {
          * @param set             the set index
          * @param way             the way
          * @param stackDistance   the stack distance
+         * @param samplingPeriod  the sampling period, i.e., the number of accesses the event stands for
          */
-        public StackDistanceProfiledEvent(GeneralCacheController cacheController, MemoryHierarchyAccess access, boolean hitInCache, int set, int way, int stackDistance) {
+        public StackDistanceProfiledEvent(GeneralCacheController cacheController, MemoryHierarchyAccess access, boolean hitInCache, int set, int way, int stackDistance, int samplingPeriod) {
             super(cacheController);
 
             this.cacheController = cacheController;
@@ -219,6 +218,7 @@ public class StackDistanceProfilingHelper implements Reportable {
             this.set = set;
             this.way = way;
             this.stackDistance = stackDistance;
+            this.samplingPeriod = samplingPeriod;
         }
 
         /**
@@ -274,5 +274,14 @@ public class StackDistanceProfilingHelper implements Reportable {
         public int getStackDistance() {
             return stackDistance;
         }
+
+        /**
+         * Get the sampling period, i.e., the number of accesses the event stands for.
+         *
+         * @return the sampling period
+         */
+        public int getSamplingPeriod() {
+            return samplingPeriod;
+        }
     }
 }
@@ -0,0 +1,211 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.uncore.cache.stackDistanceProfile;
+
+import archimulator.util.collection.IntegerIntegerHashMap;
+
+import java.io.Serializable;
+
+/**
+ * LRU stack distance tracker.
+ *
+ * Each tracked tag is stamped with the time of its last access, and a Fenwick tree over the timestamps counts the
+ * tags accessed since, so that the stack distance of an access is computed in logarithmic time regardless of the
+ * stack depth. Tags falling off the bottom of the stack are dropped, and the timestamps are renumbered whenever
+ * they run out, which keeps the memory bounded by the maximum stack distance.
+ *
+ * @author Min Cai
+ */
+public class StackDistanceTracker implements Serializable {
+    private int maxStackDistance;
+
+    private IntegerIntegerHashMap timestamps;
+    private int[] tagsByTimestamp;
+    private boolean[] live;
+    private int[] tree;
+
+    private int numTimestamps;
+    private int size;
+
+    /**
+     * Create an LRU stack distance tracker.
+     *
+     * @param maxStackDistance the maximum stack distance, i.e., the depth of the LRU stack
+     */
+    public StackDistanceTracker(int maxStackDistance) {
+        if (maxStackDistance <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.maxStackDistance = maxStackDistance;
+
+        this.timestamps = new IntegerIntegerHashMap(maxStackDistance);
+
+        int capacity = maxStackDistance * 2;
+        this.tagsByTimestamp = new int[capacity];
+        this.live = new boolean[capacity];
+        this.tree = new int[capacity + 1];
+    }
+
+    /**
+     * Access the specified tag and move it to the top of the LRU stack.
+     *
+     * @param tag the tag
+     * @return the stack distance of the specified tag before the access if it is in the stack; otherwise -1
+     */
+    public int access(int tag) {
+        int lastTimestamp = this.timestamps.get(tag, -1);
+
+        int stackDistance = -1;
+
+        if (lastTimestamp != -1) {
+            stackDistance = this.size - this.prefixSum(lastTimestamp);
+            this.unmark(lastTimestamp);
+        }
+
+        if (this.numTimestamps == this.tagsByTimestamp.length) {
+            this.renumber();
+        }
+
+        int timestamp = this.numTimestamps++;
+        this.tagsByTimestamp[timestamp] = tag;
+        this.mark(timestamp);
+        this.timestamps.put(tag, timestamp);
+
+        if (this.size > this.maxStackDistance) {
+            int oldestTimestamp = this.findOldest();
+            this.unmark(oldestTimestamp);
+            this.timestamps.remove(this.tagsByTimestamp[oldestTimestamp]);
+        }
+
+        return stackDistance;
+    }
+
+    /**
+     * Mark the specified timestamp as the last access of a tag in the stack.
+     *
+     * @param timestamp the timestamp
+     */
+    private void mark(int timestamp) {
+        this.live[timestamp] = true;
+        this.size++;
+
+        for (int i = timestamp + 1; i < this.tree.length; i += i & -i) {
+            this.tree[i]++;
+        }
+    }
+
+    /**
+     * Unmark the specified timestamp.
+     *
+     * @param timestamp the timestamp
+     */
+    private void unmark(int timestamp) {
+        this.live[timestamp] = false;
+        this.size--;
+
+        for (int i = timestamp + 1; i < this.tree.length; i += i & -i) {
+            this.tree[i]--;
+        }
+    }
+
+    /**
+     * Get the number of marked timestamps up to and including the specified timestamp.
+     *
+     * @param timestamp the timestamp
+     * @return the number of marked timestamps up to and including the specified timestamp
+     */
+    private int prefixSum(int timestamp) {
+        int sum = 0;
+
+        for (int i = timestamp + 1; i > 0; i -= i & -i) {
+            sum += this.tree[i];
+        }
+
+        return sum;
+    }
+
+    /**
+     * Find the oldest marked timestamp, i.e., the one of the tag at the bottom of the stack.
+     *
+     * @return the oldest marked timestamp
+     */
+    private int findOldest() {
+        int position = 0;
+
+        for (int step = Integer.highestOneBit(this.tree.length - 1); step > 0; step >>= 1) {
+            if (position + step < this.tree.length && this.tree[position + step] < 1) {
+                position += step;
+            }
+        }
+
+        return position;
+    }
+
+    /**
+     * Renumber the marked timestamps from zero in their original order and rebuild the Fenwick tree.
+     */
+    private void renumber() {
+        int numLive = 0;
+
+        for (int timestamp = 0; timestamp < this.numTimestamps; timestamp++) {
+            if (this.live[timestamp]) {
+                int tag = this.tagsByTimestamp[timestamp];
+                this.live[timestamp] = false;
+                this.tagsByTimestamp[numLive] = tag;
+                this.live[numLive] = true;
+                this.timestamps.put(tag, numLive);
+                numLive++;
+            }
+        }
+
+        this.numTimestamps = numLive;
+
+        for (int i = 1; i < this.tree.length; i++) {
+            this.tree[i] = i <= numLive ? 1 : 0;
+        }
+
+        for (int i = 1; i < this.tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < this.tree.length) {
+                this.tree[parent] += this.tree[i];
+            }
+        }
+    }
+
+    /**
+     * Get the maximum stack distance, i.e., the depth of the LRU stack.
+     *
+     * @return the maximum stack distance
+     */
+    public int getMaxStackDistance() {
+        return maxStackDistance;
+    }
+
+    /**
+     * Get the number of tags in the stack.
+     *
+     * @return the number of tags in the stack
+     */
+    public int getSize() {
+        return size;
+    }
+}
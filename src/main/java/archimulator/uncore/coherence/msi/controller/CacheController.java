@@ -37,7 +37,10 @@ import archimulator.uncore.coherence.msi.fsm.CacheControllerFiniteStateMachine;
 import archimulator.uncore.coherence.msi.fsm.CacheControllerFiniteStateMachineFactory;
 import archimulator.uncore.coherence.msi.message.*;
 import archimulator.uncore.coherence.msi.state.CacheControllerState;
+import archimulator.util.ValueProvider;
+import archimulator.util.collection.IntegerObjectHashMap;
 
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
@@ -45,6 +48,10 @@ import java.util.function.BiConsumer;
 
 /**
  * Cache controller.
+ * <p>
+ * The coherence state of the lines is kept in per controller primitive arrays indexed by the line, i.e., set * associativity + way.
+ * A finite state machine object is only materialized for a line while it takes part in a transition or has a transaction in flight,
+ * and is released as soon as the line settles in a stable state.
  *
  * @author Min Cai
  */
@@ -56,6 +63,12 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
     private EnumMap<MemoryHierarchyAccessType, Integer> pendingAccessesPerType;
     private CacheControllerFiniteStateMachineFactory fsmFactory;
 
+    private int associativity;
+    private byte[] lineStates;
+    private int[] lineNumInvAcks;
+    private IntegerObjectHashMap<CacheControllerFiniteStateMachine> fsms;
+    private long[][] fsmNumExecutions;
+
     /**
      * Create a cache controller.
      *
@@ -66,11 +79,22 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
     public CacheController(MemoryHierarchy memoryHierarchy, final String name, MemoryDeviceType type) {
         super(memoryHierarchy, name, type);
 
-        this.cache = new BasicEvictableCache<>(memoryHierarchy, name, getGeometry(), getReplacementPolicyType(), args -> {
+        CacheGeometry geometry = getGeometry();
+
+        this.associativity = geometry.getAssociativity();
+
+        this.lineStates = new byte[geometry.getNumLines()];
+        Arrays.fill(this.lineStates, (byte) CacheControllerState.I.ordinal());
+
+        this.lineNumInvAcks = new int[geometry.getNumLines()];
+
+        this.fsms = new IntegerObjectHashMap<>();
+
+        this.cache = new BasicEvictableCache<>(memoryHierarchy, name, geometry, getReplacementPolicyType(), args -> {
             int set = (Integer) args[0];
             int way = (Integer) args[1];
 
-            return new CacheControllerFiniteStateMachine(name, set, way, this);
+            return new LineStateProvider(this.getLineIndex(set, way));
         });
 
         this.pendingAccesses = new HashMap<>();
@@ -81,6 +105,7 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
         this.pendingAccessesPerType.put(MemoryHierarchyAccessType.STORE, 0);
 
         this.fsmFactory = CacheControllerFiniteStateMachineFactory.getSingleton();
+        this.fsmNumExecutions = this.fsmFactory.newNumExecutions();
     }
 
     /**
@@ -265,8 +290,7 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
         final Runnable onStalledCallback = () -> onLoad(access, tag, loadFlow);
 
         this.access(loadFlow, access, tag, (set, way) -> {
-            CacheLine<CacheControllerState> line = getCache().getLine(set, way);
-            CacheControllerFiniteStateMachine fsm = (CacheControllerFiniteStateMachine) line.getStateProvider();
+            CacheControllerFiniteStateMachine fsm = getFsm(set, way);
             fsm.onEventLoad(loadFlow, tag, loadFlow.getOnCompletedCallback(), onStalledCallback);
         }, onStalledCallback);
     }
@@ -293,8 +317,7 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
         final Runnable onStalledCallback = () -> onStore(access, tag, storeFlow);
 
         this.access(storeFlow, access, tag, (set, way) -> {
-            CacheLine<CacheControllerState> line = getCache().getLine(set, way);
-            CacheControllerFiniteStateMachine fsm = (CacheControllerFiniteStateMachine) line.getStateProvider();
+            CacheControllerFiniteStateMachine fsm = getFsm(set, way);
             fsm.onEventStore(storeFlow, tag, storeFlow.getOnCompletedCallback(), onStalledCallback);
         }, onStalledCallback);
     }
@@ -306,8 +329,7 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
      */
     private void onFwdGetS(FwdGetSMessage message) {
         int way = this.cache.findWay(message.getTag());
-        CacheLine<CacheControllerState> line = this.getCache().getLine(this.getCache().getSet(message.getTag()), way);
-        CacheControllerFiniteStateMachine fsm = (CacheControllerFiniteStateMachine) line.getStateProvider();
+        CacheControllerFiniteStateMachine fsm = this.getFsm(this.getCache().getSet(message.getTag()), way);
         fsm.onEventFwdGetS(message, message.getRequester(), message.getTag());
     }
 
@@ -318,8 +340,7 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
      */
     private void onFwdGetM(FwdGetMMessage message) {
         int way = this.cache.findWay(message.getTag());
-        CacheLine<CacheControllerState> line = this.getCache().getLine(this.getCache().getSet(message.getTag()), way);
-        CacheControllerFiniteStateMachine fsm = (CacheControllerFiniteStateMachine) line.getStateProvider();
+        CacheControllerFiniteStateMachine fsm = this.getFsm(this.getCache().getSet(message.getTag()), way);
         fsm.onEventFwdGetM(message, message.getRequester(), message.getTag());
     }
 
@@ -330,8 +351,7 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
      */
     private void onInv(InvMessage message) {
         int way = this.cache.findWay(message.getTag());
-        CacheLine<CacheControllerState> line = this.getCache().getLine(this.getCache().getSet(message.getTag()), way);
-        CacheControllerFiniteStateMachine fsm = (CacheControllerFiniteStateMachine) line.getStateProvider();
+        CacheControllerFiniteStateMachine fsm = this.getFsm(this.getCache().getSet(message.getTag()), way);
         fsm.onEventInv(message, message.getRequester(), message.getTag());
     }
 
@@ -342,8 +362,7 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
      */
     private void onRecall(RecallMessage message) {
         int way = this.cache.findWay(message.getTag());
-        CacheLine<CacheControllerState> line = this.getCache().getLine(this.getCache().getSet(message.getTag()), way);
-        CacheControllerFiniteStateMachine fsm = (CacheControllerFiniteStateMachine) line.getStateProvider();
+        CacheControllerFiniteStateMachine fsm = this.getFsm(this.getCache().getSet(message.getTag()), way);
         fsm.onEventRecall(message, message.getTag());
     }
 
@@ -354,8 +373,7 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
      */
     private void onPutAck(PutAckMessage message) {
         int way = this.cache.findWay(message.getTag());
-        CacheLine<CacheControllerState> line = this.getCache().getLine(this.getCache().getSet(message.getTag()), way);
-        CacheControllerFiniteStateMachine fsm = (CacheControllerFiniteStateMachine) line.getStateProvider();
+        CacheControllerFiniteStateMachine fsm = this.getFsm(this.getCache().getSet(message.getTag()), way);
         fsm.onEventPutAck(message, message.getTag());
     }
 
@@ -366,8 +384,7 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
      */
     private void onData(DataMessage message) {
         int way = this.cache.findWay(message.getTag());
-        CacheLine<CacheControllerState> line = this.getCache().getLine(this.getCache().getSet(message.getTag()), way);
-        CacheControllerFiniteStateMachine fsm = (CacheControllerFiniteStateMachine) line.getStateProvider();
+        CacheControllerFiniteStateMachine fsm = this.getFsm(this.getCache().getSet(message.getTag()), way);
         fsm.onEventData(message, message.getSender(), message.getTag(), message.getNumInvAcks());
     }
 
@@ -378,8 +395,7 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
      */
     private void onInvAck(InvAckMessage message) {
         int way = this.cache.findWay(message.getTag());
-        CacheLine<CacheControllerState> line = this.getCache().getLine(this.getCache().getSet(message.getTag()), way);
-        CacheControllerFiniteStateMachine fsm = (CacheControllerFiniteStateMachine) line.getStateProvider();
+        CacheControllerFiniteStateMachine fsm = this.getFsm(this.getCache().getSet(message.getTag()), way);
         fsm.onEventInvAck(message, message.getSender(), message.getTag());
     }
 
@@ -400,8 +416,7 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
             onReplacementCompletedCallback.accept(set, cacheAccess.getWay());
         } else {
             if (cacheAccess.isReplacement()) {
-                CacheLine<CacheControllerState> line = this.getCache().getLine(set, cacheAccess.getWay());
-                CacheControllerFiniteStateMachine fsm = (CacheControllerFiniteStateMachine) line.getStateProvider();
+                CacheControllerFiniteStateMachine fsm = this.getFsm(set, cacheAccess.getWay());
                 fsm.onEventReplacement(producerFlow, tag, cacheAccess,
                         () -> onReplacementCompletedCallback.accept(set, cacheAccess.getWay()),
                         () -> getCycleAccurateEventQueue().schedule(CacheController.this, onReplacementStalledCallback, 1)
@@ -412,6 +427,113 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
         }
     }
 
+    /**
+     * Get the finite state machine of the line at the specified set and way, materializing it if the line has none.
+     *
+     * @param set the set index
+     * @param way the way
+     * @return the finite state machine of the line at the specified set and way
+     */
+    public CacheControllerFiniteStateMachine getFsm(int set, int way) {
+        if (way < 0 || way >= this.associativity) {
+            getSimulation().dumpPendingFlowTree();
+            System.out.flush();
+            throw new IllegalArgumentException(String.format("set: %d, way: %d, this.associativity: %d", set, way, this.associativity));
+        }
+
+        int line = this.getLineIndex(set, way);
+
+        CacheControllerFiniteStateMachine fsm = this.fsms.get(line);
+        if (fsm == null) {
+            fsm = new CacheControllerFiniteStateMachine(this.getName(), set, way, this);
+            this.fsms.put(line, fsm);
+        }
+
+        return fsm;
+    }
+
+    /**
+     * Release the specified finite state machine once its line has settled.
+     *
+     * @param fsm the finite state machine
+     */
+    public void releaseFsm(CacheControllerFiniteStateMachine fsm) {
+        int line = this.getLineIndex(fsm.getSet(), fsm.getWay());
+
+        if (this.fsms.get(line) == fsm) {
+            this.fsms.remove(line);
+        }
+    }
+
+    /**
+     * Get the number of materialized finite state machines.
+     *
+     * @return the number of materialized finite state machines
+     */
+    public int getNumFsms() {
+        return this.fsms.size();
+    }
+
+    /**
+     * Get the state of the line at the specified set and way.
+     *
+     * @param set the set index
+     * @param way the way
+     * @return the state of the line at the specified set and way
+     */
+    public CacheControllerState getLineState(int set, int way) {
+        return STATES[this.lineStates[this.getLineIndex(set, way)]];
+    }
+
+    /**
+     * Set the state of the line at the specified set and way.
+     *
+     * @param set   the set index
+     * @param way   the way
+     * @param state the state
+     */
+    public void setLineState(int set, int way, CacheControllerState state) {
+        this.lineStates[this.getLineIndex(set, way)] = (byte) state.ordinal();
+    }
+
+    /**
+     * Get the number of pending invalidation acknowledgements of the line at the specified set and way.
+     *
+     * @param set the set index
+     * @param way the way
+     * @return the number of pending invalidation acknowledgements of the line at the specified set and way
+     */
+    public int getLineNumInvAcks(int set, int way) {
+        return this.lineNumInvAcks[this.getLineIndex(set, way)];
+    }
+
+    /**
+     * Set the number of pending invalidation acknowledgements of the line at the specified set and way.
+     *
+     * @param set        the set index
+     * @param way        the way
+     * @param numInvAcks the number of pending invalidation acknowledgements
+     */
+    public void setLineNumInvAcks(int set, int way, int numInvAcks) {
+        this.lineNumInvAcks[this.getLineIndex(set, way)] = numInvAcks;
+    }
+
+    /**
+     * Get the index of the line at the specified set and way.
+     *
+     * @param set the set index
+     * @param way the way
+     * @return the index of the line at the specified set and way
+     */
+    private int getLineIndex(int set, int way) {
+        return set * this.associativity + way;
+    }
+
+    @Override
+    public long[][] getFsmNumExecutions() {
+        return fsmNumExecutions;
+    }
+
     /**
      * Get the core.
      *
@@ -473,4 +595,32 @@ public abstract class CacheController extends GeneralCacheController<CacheContro
     public String toString() {
         return this.getCache().getName();
     }
+
+    /**
+     * Line state provider backed by the state array of the owning cache controller.
+     */
+    private class LineStateProvider implements ValueProvider<CacheControllerState> {
+        private int line;
+
+        /**
+         * Create a line state provider.
+         *
+         * @param line the line index
+         */
+        private LineStateProvider(int line) {
+            this.line = line;
+        }
+
+        @Override
+        public CacheControllerState get() {
+            return STATES[lineStates[this.line]];
+        }
+
+        @Override
+        public CacheControllerState getInitialValue() {
+            return CacheControllerState.I;
+        }
+    }
+
+    private static final CacheControllerState[] STATES = CacheControllerState.values();
 }
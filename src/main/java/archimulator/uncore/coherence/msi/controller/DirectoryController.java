@@ -32,13 +32,22 @@ import archimulator.uncore.coherence.msi.fsm.DirectoryControllerFiniteStateMachi
 import archimulator.uncore.coherence.msi.message.*;
 import archimulator.uncore.coherence.msi.state.DirectoryControllerState;
 import archimulator.uncore.dram.MemoryController;
+import archimulator.util.ValueProvider;
+import archimulator.util.collection.IntegerObjectHashMap;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 
 /**
  * Directory controller.
+ * <p>
+ * The coherence state, the owner and the sharer bitmap of the lines are kept in per controller primitive arrays indexed by the line,
+ * i.e., set * associativity + way, where the owner and the sharers are identified by their indices in the list of upper level L1 cache controllers.
+ * A finite state machine object is only materialized for a line while it takes part in a transition or has a transaction in flight,
+ * and is released as soon as the line settles in a stable state.
  *
  * @author Min Cai
  */
@@ -50,6 +59,14 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
 
     private int numPendingMemoryAccesses;
 
+    private int associativity;
+    private byte[] lineStates;
+    private int[] lineOwners;
+    private long[] lineSharers;
+    private int numSharerWordsPerLine;
+    private IntegerObjectHashMap<DirectoryControllerFiniteStateMachine> fsms;
+    private long[][] fsmNumExecutions;
+
     /**
      * Create a directory controller.
      *
@@ -65,6 +82,16 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
                 getExperiment().getConfig().getL2LineSize()
         );
 
+        this.associativity = this.cacheGeometry.getAssociativity();
+
+        this.lineStates = new byte[this.cacheGeometry.getNumLines()];
+        Arrays.fill(this.lineStates, (byte) DirectoryControllerState.I.ordinal());
+
+        this.lineOwners = new int[this.cacheGeometry.getNumLines()];
+        Arrays.fill(this.lineOwners, -1);
+
+        this.fsms = new IntegerObjectHashMap<>();
+
         this.cache = new BasicEvictableCache<>(
                 memoryHierarchy,
                 name,
@@ -74,13 +101,14 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
                     int set = (Integer) args[0];
                     int way = (Integer) args[1];
 
-                    return new DirectoryControllerFiniteStateMachine(name, set, way, this);
+                    return new LineStateProvider(this.getLineIndex(set, way));
                 }
         );
 
         this.cacheControllers = new ArrayList<>();
 
         this.fsmFactory = DirectoryControllerFiniteStateMachineFactory.getSingleton();
+        this.fsmNumExecutions = this.fsmFactory.newNumExecutions();
     }
 
     public MemoryController getNext() {
@@ -130,8 +158,7 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
         final Runnable onStalledCallback = () -> onGetS(message);
 
         this.access(message, message.getAccess(), message.getRequester(), message.getTag(), (set, way) -> {
-            CacheLine<DirectoryControllerState> line = getCache().getLine(set, way);
-            DirectoryControllerFiniteStateMachine fsm = (DirectoryControllerFiniteStateMachine) line.getStateProvider();
+            DirectoryControllerFiniteStateMachine fsm = getFsm(set, way);
             fsm.onEventGetS(message, message.getRequester(), message.getTag(), onStalledCallback);
         }, onStalledCallback);
     }
@@ -145,8 +172,7 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
         final Runnable onStalledCallback = () -> onGetM(message);
 
         this.access(message, message.getAccess(), message.getRequester(), message.getTag(), (set, way) -> {
-            CacheLine<DirectoryControllerState> line = getCache().getLine(set, way);
-            DirectoryControllerFiniteStateMachine fsm = (DirectoryControllerFiniteStateMachine) line.getStateProvider();
+            DirectoryControllerFiniteStateMachine fsm = getFsm(set, way);
             fsm.onEventGetM(message, message.getRequester(), message.getTag(), onStalledCallback);
         }, onStalledCallback);
     }
@@ -161,8 +187,7 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
         int tag = message.getTag();
 
         int way = this.cache.findWay(tag);
-        CacheLine<DirectoryControllerState> line = this.cache.getLine(this.cache.getSet(tag), way);
-        DirectoryControllerFiniteStateMachine fsm = (DirectoryControllerFiniteStateMachine) line.getStateProvider();
+        DirectoryControllerFiniteStateMachine fsm = this.getFsm(this.cache.getSet(tag), way);
         fsm.onEventRecallAck(message, sender, tag);
     }
 
@@ -180,8 +205,7 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
         if (way == -1) {
             DirectoryControllerFiniteStateMachine.sendPutAckToReq(message, this, req, tag);
         } else {
-            CacheLine<DirectoryControllerState> line = this.cache.getLine(this.cache.getSet(tag), way);
-            DirectoryControllerFiniteStateMachine fsm = (DirectoryControllerFiniteStateMachine) line.getStateProvider();
+            DirectoryControllerFiniteStateMachine fsm = this.getFsm(this.cache.getSet(tag), way);
             fsm.onEventPutS(message, req, tag);
         }
     }
@@ -200,8 +224,7 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
         if (tag == -1) {
             DirectoryControllerFiniteStateMachine.sendPutAckToReq(message, this, req, tag);
         } else {
-            CacheLine<DirectoryControllerState> line = this.cache.getLine(this.cache.getSet(tag), way);
-            DirectoryControllerFiniteStateMachine fsm = (DirectoryControllerFiniteStateMachine) line.getStateProvider();
+            DirectoryControllerFiniteStateMachine fsm = this.getFsm(this.cache.getSet(tag), way);
             fsm.onEventPutMAndData(message, req, tag);
         }
     }
@@ -216,8 +239,7 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
         int tag = message.getTag();
 
         int way = this.cache.findWay(tag);
-        CacheLine<DirectoryControllerState> line = this.cache.getLine(this.cache.getSet(tag), way);
-        DirectoryControllerFiniteStateMachine fsm = (DirectoryControllerFiniteStateMachine) line.getStateProvider();
+        DirectoryControllerFiniteStateMachine fsm = this.getFsm(this.cache.getSet(tag), way);
         fsm.onEventData(message, sender, tag);
     }
 
@@ -235,9 +257,8 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
         final int set = this.cache.getSet(tag);
 
         for (CacheLine<DirectoryControllerState> line : this.cache.getLines(set)) {
-            DirectoryControllerFiniteStateMachine fsm = (DirectoryControllerFiniteStateMachine) line.getStateProvider();
-            if (line.getState() == DirectoryControllerState.MI_A || line.getState() == DirectoryControllerState.SI_A && fsm.getEvicterTag() == tag) {
-                fsm.stall(onReplacementStalledCallback);
+            if (line.getState() == DirectoryControllerState.MI_A || line.getState() == DirectoryControllerState.SI_A && this.getFsm(set, line.getWay()).getEvicterTag() == tag) {
+                this.getFsm(set, line.getWay()).stall(onReplacementStalledCallback);
                 return;
             }
         }
@@ -247,8 +268,7 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
             onReplacementCompletedCallback.accept(set, cacheAccess.getWay());
         } else {
             if (cacheAccess.isReplacement()) {
-                CacheLine<DirectoryControllerState> line = this.getCache().getLine(set, cacheAccess.getWay());
-                DirectoryControllerFiniteStateMachine fsm = (DirectoryControllerFiniteStateMachine) line.getStateProvider();
+                DirectoryControllerFiniteStateMachine fsm = this.getFsm(set, cacheAccess.getWay());
                 fsm.onEventReplacement(
                         producerFlow,
                         req,
@@ -281,6 +301,232 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
         return fsmFactory;
     }
 
+    /**
+     * Get the finite state machine of the line at the specified set and way, materializing it if the line has none.
+     *
+     * @param set the set index
+     * @param way the way
+     * @return the finite state machine of the line at the specified set and way
+     */
+    public DirectoryControllerFiniteStateMachine getFsm(int set, int way) {
+        if (way < 0 || way >= this.associativity) {
+            getSimulation().dumpPendingFlowTree();
+            System.out.flush();
+            throw new IllegalArgumentException(String.format("set: %d, way: %d, this.associativity: %d", set, way, this.associativity));
+        }
+
+        int line = this.getLineIndex(set, way);
+
+        DirectoryControllerFiniteStateMachine fsm = this.fsms.get(line);
+        if (fsm == null) {
+            fsm = new DirectoryControllerFiniteStateMachine(this.getName(), set, way, this);
+            this.fsms.put(line, fsm);
+        }
+
+        return fsm;
+    }
+
+    /**
+     * Release the specified finite state machine once its line has settled.
+     *
+     * @param fsm the finite state machine
+     */
+    public void releaseFsm(DirectoryControllerFiniteStateMachine fsm) {
+        int line = this.getLineIndex(fsm.getSet(), fsm.getWay());
+
+        if (this.fsms.get(line) == fsm) {
+            this.fsms.remove(line);
+        }
+    }
+
+    /**
+     * Get the number of materialized finite state machines.
+     *
+     * @return the number of materialized finite state machines
+     */
+    public int getNumFsms() {
+        return this.fsms.size();
+    }
+
+    /**
+     * Get the state of the line at the specified set and way.
+     *
+     * @param set the set index
+     * @param way the way
+     * @return the state of the line at the specified set and way
+     */
+    public DirectoryControllerState getLineState(int set, int way) {
+        return STATES[this.lineStates[this.getLineIndex(set, way)]];
+    }
+
+    /**
+     * Set the state of the line at the specified set and way.
+     *
+     * @param set   the set index
+     * @param way   the way
+     * @param state the state
+     */
+    public void setLineState(int set, int way, DirectoryControllerState state) {
+        this.lineStates[this.getLineIndex(set, way)] = (byte) state.ordinal();
+    }
+
+    /**
+     * Get the owner L1 cache controller of the line at the specified set and way.
+     *
+     * @param set the set index
+     * @param way the way
+     * @return the owner L1 cache controller of the line at the specified set and way if any exists; otherwise null
+     */
+    public CacheController getLineOwner(int set, int way) {
+        int owner = this.lineOwners[this.getLineIndex(set, way)];
+        return owner != -1 ? this.cacheControllers.get(owner) : null;
+    }
+
+    /**
+     * Set the owner L1 cache controller of the line at the specified set and way.
+     *
+     * @param set   the set index
+     * @param way   the way
+     * @param owner the owner L1 cache controller, or null to clear the owner
+     */
+    public void setLineOwner(int set, int way, CacheController owner) {
+        this.lineOwners[this.getLineIndex(set, way)] = owner != null ? this.getCacheControllerIndex(owner) : -1;
+    }
+
+    /**
+     * Get the sharer L1 cache controllers of the line at the specified set and way, in the order of the upper level L1 cache controllers.
+     *
+     * @param set the set index
+     * @param way the way
+     * @return the sharer L1 cache controllers of the line at the specified set and way
+     */
+    public List<CacheController> getLineSharers(int set, int way) {
+        List<CacheController> sharers = new ArrayList<>();
+
+        if (this.lineSharers != null) {
+            int offset = this.getLineIndex(set, way) * this.numSharerWordsPerLine;
+
+            for (int i = 0; i < this.numSharerWordsPerLine; i++) {
+                for (long word = this.lineSharers[offset + i]; word != 0; word &= word - 1) {
+                    sharers.add(this.cacheControllers.get(i * 64 + Long.numberOfTrailingZeros(word)));
+                }
+            }
+        }
+
+        return sharers;
+    }
+
+    /**
+     * Get the number of sharer L1 cache controllers of the line at the specified set and way.
+     *
+     * @param set the set index
+     * @param way the way
+     * @return the number of sharer L1 cache controllers of the line at the specified set and way
+     */
+    public int getLineNumSharers(int set, int way) {
+        int numSharers = 0;
+
+        if (this.lineSharers != null) {
+            int offset = this.getLineIndex(set, way) * this.numSharerWordsPerLine;
+
+            for (int i = 0; i < this.numSharerWordsPerLine; i++) {
+                numSharers += Long.bitCount(this.lineSharers[offset + i]);
+            }
+        }
+
+        return numSharers;
+    }
+
+    /**
+     * Get a value indicating whether the specified L1 cache controller is a sharer of the line at the specified set and way or not.
+     *
+     * @param set             the set index
+     * @param way             the way
+     * @param cacheController the L1 cache controller
+     * @return a value indicating whether the specified L1 cache controller is a sharer of the line at the specified set and way or not
+     */
+    public boolean isLineSharer(int set, int way, CacheController cacheController) {
+        if (cacheController == null || this.lineSharers == null) {
+            return false;
+        }
+
+        int index = this.getCacheControllerIndex(cacheController);
+        return (this.lineSharers[this.getLineIndex(set, way) * this.numSharerWordsPerLine + (index >> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * Add or remove the specified L1 cache controller to or from the sharers of the line at the specified set and way.
+     *
+     * @param set             the set index
+     * @param way             the way
+     * @param cacheController the L1 cache controller
+     * @param sharer          a value indicating whether the L1 cache controller is to be added or removed
+     */
+    public void setLineSharer(int set, int way, CacheController cacheController, boolean sharer) {
+        if (this.lineSharers == null) {
+            this.numSharerWordsPerLine = (this.cacheControllers.size() + 63) >> 6;
+            this.lineSharers = new long[this.cacheGeometry.getNumLines() * this.numSharerWordsPerLine];
+        }
+
+        int index = this.getCacheControllerIndex(cacheController);
+        if (index >= this.numSharerWordsPerLine * 64) {
+            throw new IllegalArgumentException();
+        }
+
+        int word = this.getLineIndex(set, way) * this.numSharerWordsPerLine + (index >> 6);
+
+        if (sharer) {
+            this.lineSharers[word] |= 1L << index;
+        } else {
+            this.lineSharers[word] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Clear the sharers of the line at the specified set and way.
+     *
+     * @param set the set index
+     * @param way the way
+     */
+    public void clearLineSharers(int set, int way) {
+        if (this.lineSharers != null) {
+            int offset = this.getLineIndex(set, way) * this.numSharerWordsPerLine;
+            Arrays.fill(this.lineSharers, offset, offset + this.numSharerWordsPerLine, 0L);
+        }
+    }
+
+    /**
+     * Get the index of the specified L1 cache controller in the list of upper level L1 cache controllers.
+     *
+     * @param cacheController the L1 cache controller
+     * @return the index of the specified L1 cache controller in the list of upper level L1 cache controllers
+     */
+    private int getCacheControllerIndex(CacheController cacheController) {
+        for (int i = 0; i < this.cacheControllers.size(); i++) {
+            if (this.cacheControllers.get(i) == cacheController) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * Get the index of the line at the specified set and way.
+     *
+     * @param set the set index
+     * @param way the way
+     * @return the index of the line at the specified set and way
+     */
+    private int getLineIndex(int set, int way) {
+        return set * this.associativity + way;
+    }
+
+    @Override
+    public long[][] getFsmNumExecutions() {
+        return fsmNumExecutions;
+    }
+
     @Override
     public CacheGeometry getGeometry() {
         return cacheGeometry;
@@ -323,4 +569,32 @@ public class DirectoryController extends GeneralCacheController<DirectoryControl
     public int getNumPendingMemoryAccesses() {
         return numPendingMemoryAccesses;
     }
+
+    /**
+     * Line state provider backed by the state array of the owning directory controller.
+     */
+    private class LineStateProvider implements ValueProvider<DirectoryControllerState> {
+        private int line;
+
+        /**
+         * Create a line state provider.
+         *
+         * @param line the line index
+         */
+        private LineStateProvider(int line) {
+            this.line = line;
+        }
+
+        @Override
+        public DirectoryControllerState get() {
+            return STATES[lineStates[this.line]];
+        }
+
+        @Override
+        public DirectoryControllerState getInitialValue() {
+            return DirectoryControllerState.I;
+        }
+    }
+
+    private static final DirectoryControllerState[] STATES = DirectoryControllerState.values();
 }
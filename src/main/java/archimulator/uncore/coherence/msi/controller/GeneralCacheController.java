@@ -26,17 +26,16 @@ import archimulator.uncore.MemoryHierarchy;
 import archimulator.uncore.cache.CacheGeometry;
 import archimulator.uncore.cache.EvictableCache;
 import archimulator.uncore.cache.MemoryDeviceType;
-import archimulator.util.fsm.FiniteStateMachineFactory;
-
-import java.io.Serializable;
+import archimulator.util.fsm.EnumFiniteStateMachineFactory;
 
 /**
  * General cache controller.
  *
- * @param <StateT> state
+ * @param <StateT>     state
+ * @param <ConditionT> condition
  * @author Min Cai
  */
-public abstract class GeneralCacheController<StateT extends Serializable, ConditionT> extends Controller implements Reportable {
+public abstract class GeneralCacheController<StateT extends Enum<StateT>, ConditionT extends Enum<ConditionT>> extends Controller implements Reportable {
     private long numDownwardReadHits;
     private long numDownwardReadMisses;
     private long numDownwardWriteHits;
@@ -212,5 +211,12 @@ public abstract class GeneralCacheController<StateT extends Serializable, Condit
      *
      * @return the finite state machine factory
      */
-    public abstract FiniteStateMachineFactory<StateT, ConditionT, ?> getFsmFactory();
+    public abstract EnumFiniteStateMachineFactory<StateT, ConditionT, ?> getFsmFactory();
+
+    /**
+     * Get the number of finite state machine transition executions indexed by the ordinals of the state and the condition, accumulated over all the lines.
+     *
+     * @return the number of finite state machine transition executions indexed by the ordinals of the state and the condition, accumulated over all the lines
+     */
+    public abstract long[][] getFsmNumExecutions();
 }
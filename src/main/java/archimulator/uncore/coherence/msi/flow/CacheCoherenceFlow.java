@@ -56,7 +56,6 @@ public abstract class CacheCoherenceFlow extends Params implements Node {
      * @param tag          the tag
      */
     public CacheCoherenceFlow(Controller generator, CacheCoherenceFlow producerFlow, MemoryHierarchyAccess access, int tag) {
-        this.id = generator.getSimulation().currentCacheCoherenceFlowId++;
         this.generator = generator;
         this.producerFlow = producerFlow;
         this.ancestorFlow = producerFlow == null ? this : producerFlow.ancestorFlow;
@@ -72,6 +71,22 @@ public abstract class CacheCoherenceFlow extends Params implements Node {
      */
     private void onCreate() {
         this.beginCycle = this.generator.getCycleAccurateEventQueue().getCurrentCycle();
+
+        if (this.generator.getSimulation().isSimulatingCoresInParallel()) {
+            synchronized (this.generator.getSimulation().pendingFlows) {
+                this.register();
+            }
+        } else {
+            this.register();
+        }
+    }
+
+    /**
+     * Register the cache coherence flow as pending.
+     */
+    private void register() {
+        this.id = this.generator.getSimulation().currentCacheCoherenceFlowId++;
+
         if (this.producerFlow == null) {
             this.generator.getSimulation().pendingFlows.add(this);
         } else {
@@ -86,6 +101,20 @@ public abstract class CacheCoherenceFlow extends Params implements Node {
     public void onCompleted() {
         this.completed = true;
         this.endCycle = this.generator.getCycleAccurateEventQueue().getCurrentCycle();
+
+        if (this.generator.getSimulation().isSimulatingCoresInParallel()) {
+            synchronized (this.generator.getSimulation().pendingFlows) {
+                this.unregister();
+            }
+        } else {
+            this.unregister();
+        }
+    }
+
+    /**
+     * Unregister the ancestor cache coherence flow as pending once all its descendant flows are completed.
+     */
+    private void unregister() {
         this.ancestorFlow.numPendingDescendantFlows--;
 
         if (this.ancestorFlow.numPendingDescendantFlows == 0) {
@@ -35,30 +35,33 @@ import archimulator.uncore.coherence.msi.flow.LoadFlow;
 import archimulator.uncore.coherence.msi.flow.StoreFlow;
 import archimulator.uncore.coherence.msi.message.*;
 import archimulator.uncore.coherence.msi.state.CacheControllerState;
-import archimulator.util.ValueProvider;
+import archimulator.util.Params;
 import archimulator.util.fsm.BasicFiniteStateMachine;
-import archimulator.util.fsm.event.ExitStateEvent;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * L1 cache controller finite state machine.
+ * <p>
+ * The state and the number of pending invalidation acknowledgements of the line live in the owning L1 cache controller,
+ * so that the finite state machine object can be dropped once the line is stable and materialized again on the next event.
  *
  * @author Min Cai
  */
-public class CacheControllerFiniteStateMachine extends BasicFiniteStateMachine<CacheControllerState, CacheControllerEventType> implements ValueProvider<CacheControllerState> {
+public class CacheControllerFiniteStateMachine extends BasicFiniteStateMachine<CacheControllerState, CacheControllerEventType> {
     private CacheController cacheController;
     private CacheControllerState previousState;
     private int set;
     private int way;
 
-    private int numInvAcks;
-
     private List<Runnable> stalledEvents = new ArrayList<>();
 
     private Runnable onCompletedCallback;
 
+    private int numPendingTransitions;
+
     /**
      * Create an L1 cache controller finite state machine.
      *
@@ -72,8 +75,37 @@ public class CacheControllerFiniteStateMachine extends BasicFiniteStateMachine<C
         this.set = set;
         this.way = way;
         this.cacheController = cacheController;
+    }
 
-        this.addListener(ExitStateEvent.class, exitStateEvent -> previousState = getState());
+    @Override
+    public CacheControllerState getState() {
+        return this.cacheController.getLineState(this.set, this.way);
+    }
+
+    @Override
+    public void setState(Object sender, CacheControllerEventType condition, Params params, CacheControllerState state) {
+        this.previousState = this.getState();
+        super.setState(sender, condition, params, state);
+    }
+
+    @Override
+    protected void writeState(CacheControllerState state) {
+        this.cacheController.setLineState(this.set, this.way, state);
+    }
+
+    @Override
+    public void incrementNumExecutions(CacheControllerState state, CacheControllerEventType condition) {
+        this.cacheController.getFsmNumExecutions()[state.ordinal()][condition.ordinal()]++;
+    }
+
+    @Override
+    public long getNumExecutionsByTransition(CacheControllerState state, CacheControllerEventType condition) {
+        return this.cacheController.getFsmNumExecutions()[state.ordinal()][condition.ordinal()];
+    }
+
+    @Override
+    public Map<CacheControllerState, Map<CacheControllerEventType, Long>> getNumExecutions() {
+        return this.cacheController.getFsmFactory().getNumExecutions(this.cacheController.getFsmNumExecutions());
     }
 
     /**
@@ -184,7 +216,7 @@ public class CacheControllerFiniteStateMachine extends BasicFiniteStateMachine<C
      *                     the number of pending invalidation acknowledgements expected
      */
     public void onEventData(CacheCoherenceFlow producerFlow, Controller sender, int tag, int numInvalidationAcknowledgements) {
-        this.numInvAcks += numInvalidationAcknowledgements;
+        this.setNumInvAcks(this.getNumInvAcks() + numInvalidationAcknowledgements);
 
         if (sender instanceof DirectoryController) {
             if (numInvalidationAcknowledgements == 0) {
@@ -194,7 +226,7 @@ public class CacheControllerFiniteStateMachine extends BasicFiniteStateMachine<C
                 DataFromDirAcksGt0Event dataFromDirAcksGt0Event = new DataFromDirAcksGt0Event(cacheController, producerFlow, sender, tag, producerFlow.getAccess());
                 this.fireTransition(sender + "." + String.format("0x%08x", tag), dataFromDirAcksGt0Event);
 
-                if (this.numInvAcks == 0) {
+                if (this.getNumInvAcks() == 0) {
                     onEventLastInvAck(producerFlow, tag);
                 }
             }
@@ -215,7 +247,7 @@ public class CacheControllerFiniteStateMachine extends BasicFiniteStateMachine<C
         InvAckEvent invAckEvent = new InvAckEvent(cacheController, producerFlow, sender, tag, producerFlow.getAccess());
         this.fireTransition(sender + "." + String.format("0x%08x", tag), invAckEvent);
 
-        if (this.numInvAcks == 0) {
+        if (this.getNumInvAcks() == 0) {
             onEventLastInvAck(producerFlow, tag);
         }
     }
@@ -230,18 +262,32 @@ public class CacheControllerFiniteStateMachine extends BasicFiniteStateMachine<C
         LastInvAckEvent lastInvAckEvent = new LastInvAckEvent(cacheController, producerFlow, tag, producerFlow.getAccess());
         this.fireTransition("<N/A>" + "." + String.format("0x%08x", tag), lastInvAckEvent);
 
-        this.numInvAcks = 0;
+        this.setNumInvAcks(0);
     }
 
     /**
      * Fire the predefined transition based on the specified sender and event.
+     * The transition is forwarded to the finite state machine currently materialized for the line if this one has already been released.
      *
      * @param sender the sender
      * @param event  the event
      */
     public void fireTransition(Object sender, CacheControllerEvent event) {
+        CacheControllerFiniteStateMachine fsm = cacheController.getFsm(set, way);
+        if (fsm != this) {
+            fsm.fireTransition(sender, event);
+            return;
+        }
+
         event.onCompleted();
+
+        this.numPendingTransitions++;
         cacheController.getFsmFactory().fireTransition(this, sender, event.getType(), event);
+        this.numPendingTransitions--;
+
+        if (this.numPendingTransitions == 0 && this.getState().isStable() && this.stalledEvents.isEmpty() && this.onCompletedCallback == null) {
+            cacheController.releaseFsm(this);
+        }
     }
 
     /**
@@ -333,7 +379,25 @@ public class CacheControllerFiniteStateMachine extends BasicFiniteStateMachine<C
      * Decrement the number of invalidation acknowledgements.
      */
     public void decrementInvAcks() {
-        this.numInvAcks--;
+        this.setNumInvAcks(this.getNumInvAcks() - 1);
+    }
+
+    /**
+     * Get the number of pending invalidation acknowledgements.
+     *
+     * @return the number of pending invalidation acknowledgements
+     */
+    public int getNumInvAcks() {
+        return this.cacheController.getLineNumInvAcks(this.set, this.way);
+    }
+
+    /**
+     * Set the number of pending invalidation acknowledgements.
+     *
+     * @param numInvAcks the number of pending invalidation acknowledgements
+     */
+    private void setNumInvAcks(int numInvAcks) {
+        this.cacheController.setLineNumInvAcks(this.set, this.way, numInvAcks);
     }
 
     /**
@@ -377,7 +441,9 @@ public class CacheControllerFiniteStateMachine extends BasicFiniteStateMachine<C
      * @param hitInCache a value indicating whether the access hits in the cache or not
      */
     public void fireServiceNonblockingRequestEvent(MemoryHierarchyAccess access, int tag, boolean hitInCache) {
-        this.getCacheController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerServiceNonblockingRequestEvent(this.getCacheController(), access, tag, getSet(), getWay(), hitInCache));
+        if (this.getCacheController().getBlockingEventDispatcher().hasListeners(GeneralCacheControllerServiceNonblockingRequestEvent.class)) {
+            this.getCacheController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerServiceNonblockingRequestEvent(this.getCacheController(), access, tag, getSet(), getWay(), hitInCache));
+        }
         this.getCacheController().updateStats(access.getType().isRead(), hitInCache);
     }
 
@@ -388,7 +454,9 @@ public class CacheControllerFiniteStateMachine extends BasicFiniteStateMachine<C
      * @param tag    the tag
      */
     public void fireReplacementEvent(MemoryHierarchyAccess access, int tag) {
-        this.getCacheController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerLineReplacementEvent(this.getCacheController(), access, tag, getSet(), getWay()));
+        if (this.getCacheController().getBlockingEventDispatcher().hasListeners(GeneralCacheControllerLineReplacementEvent.class)) {
+            this.getCacheController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerLineReplacementEvent(this.getCacheController(), access, tag, getSet(), getWay()));
+        }
     }
 
     /**
@@ -398,27 +466,9 @@ public class CacheControllerFiniteStateMachine extends BasicFiniteStateMachine<C
      * @param tag    the tag
      */
     public void fireNonblockingRequestHitToTransientTagEvent(MemoryHierarchyAccess access, int tag) {
-        this.getCacheController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerNonblockingRequestHitToTransientTagEvent(this.getCacheController(), access, tag, getSet(), getWay()));
-    }
-
-    /**
-     * Get the state of the owning L1 cache controller.
-     *
-     * @return the state of the owning L1 cache controller
-     */
-    @Override
-    public CacheControllerState get() {
-        return this.getState();
-    }
-
-    /**
-     * Get the initial state of the owning L1 cache controller.
-     *
-     * @return the initial state of the owning L1 cache controller
-     */
-    @Override
-    public CacheControllerState getInitialValue() {
-        return CacheControllerState.I;
+        if (this.getCacheController().getBlockingEventDispatcher().hasListeners(GeneralCacheControllerNonblockingRequestHitToTransientTagEvent.class)) {
+            this.getCacheController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerNonblockingRequestHitToTransientTagEvent(this.getCacheController(), access, tag, getSet(), getWay()));
+        }
     }
 
     /**
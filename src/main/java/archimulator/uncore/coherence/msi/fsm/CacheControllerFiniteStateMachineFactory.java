@@ -24,7 +24,7 @@ import archimulator.uncore.cache.CacheLine;
 import archimulator.uncore.coherence.msi.controller.CacheController;
 import archimulator.uncore.coherence.msi.event.cache.*;
 import archimulator.uncore.coherence.msi.state.CacheControllerState;
-import archimulator.util.fsm.FiniteStateMachineFactory;
+import archimulator.util.fsm.EnumFiniteStateMachineFactory;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -35,11 +35,13 @@ import java.util.function.Consumer;
  *
  * @author Min Cai
  */
-public class CacheControllerFiniteStateMachineFactory extends FiniteStateMachineFactory<CacheControllerState, CacheControllerEventType, CacheControllerFiniteStateMachine> {
+public class CacheControllerFiniteStateMachineFactory extends EnumFiniteStateMachineFactory<CacheControllerState, CacheControllerEventType, CacheControllerFiniteStateMachine> {
     /**
      * Create an L1 cache controller finite state machine factory.
      */
     private CacheControllerFiniteStateMachineFactory() {
+        super(CacheControllerState.class, CacheControllerEventType.class);
+
         Consumer<CacheControllerFiniteStateMachine> actionWhenStateChanged = fsm -> {
             if (fsm.getPreviousState() != fsm.getState()) {
                 if (fsm.getState().isStable()) {
@@ -389,6 +391,8 @@ public class CacheControllerFiniteStateMachineFactory extends FiniteStateMachine
                     fsm.getLine().setAccess(null);
                     fsm.getLine().setTag(CacheLine.INVALID_TAG);
                 }, CacheControllerState.I);
+
+        this.compile();
     }
 
     private static CacheControllerFiniteStateMachineFactory singleton;
@@ -398,7 +402,7 @@ public class CacheControllerFiniteStateMachineFactory extends FiniteStateMachine
      *
      * @return the L1 cache controller finite state machine factory singleton
      */
-    public static CacheControllerFiniteStateMachineFactory getSingleton() {
+    public static synchronized CacheControllerFiniteStateMachineFactory getSingleton() {
         if (singleton == null) {
             singleton = new CacheControllerFiniteStateMachineFactory();
         }
@@ -26,26 +26,27 @@ import archimulator.uncore.cache.CacheLine;
 import archimulator.uncore.coherence.event.*;
 import archimulator.uncore.coherence.msi.controller.CacheController;
 import archimulator.uncore.coherence.msi.controller.DirectoryController;
-import archimulator.uncore.coherence.msi.controller.DirectoryEntry;
 import archimulator.uncore.coherence.msi.event.directory.*;
 import archimulator.uncore.coherence.msi.flow.CacheCoherenceFlow;
 import archimulator.uncore.coherence.msi.message.*;
 import archimulator.uncore.coherence.msi.state.DirectoryControllerState;
-import archimulator.util.ValueProvider;
+import archimulator.util.Params;
 import archimulator.util.fsm.BasicFiniteStateMachine;
-import archimulator.util.fsm.event.ExitStateEvent;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Directory controller finite state machine.
+ * <p>
+ * The state, the owner and the sharers of the line live in the owning directory controller,
+ * so that the finite state machine object can be dropped once the line is stable and materialized again on the next event.
  *
  * @author Min Cai
  */
-public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachine<DirectoryControllerState, DirectoryControllerEventType> implements ValueProvider<DirectoryControllerState> {
+public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachine<DirectoryControllerState, DirectoryControllerEventType> {
     private DirectoryController directoryController;
-    private DirectoryEntry directoryEntry;
     private DirectoryControllerState previousState;
     private int set;
     private int way;
@@ -60,6 +61,8 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
 
     private int victimTag;
 
+    private int numPendingTransitions;
+
     /**
      * Create a directory controller finite state machine.
      *
@@ -73,12 +76,40 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
         this.set = set;
         this.way = way;
         this.directoryController = directoryController;
-        this.directoryEntry = new DirectoryEntry();
         this.stalledEvents = new ArrayList<>();
         this.evicterTag = CacheLine.INVALID_TAG;
         this.victimTag = CacheLine.INVALID_TAG;
+    }
+
+    @Override
+    public DirectoryControllerState getState() {
+        return this.directoryController.getLineState(this.set, this.way);
+    }
+
+    @Override
+    public void setState(Object sender, DirectoryControllerEventType condition, Params params, DirectoryControllerState state) {
+        this.previousState = this.getState();
+        super.setState(sender, condition, params, state);
+    }
+
+    @Override
+    protected void writeState(DirectoryControllerState state) {
+        this.directoryController.setLineState(this.set, this.way, state);
+    }
+
+    @Override
+    public void incrementNumExecutions(DirectoryControllerState state, DirectoryControllerEventType condition) {
+        this.directoryController.getFsmNumExecutions()[state.ordinal()][condition.ordinal()]++;
+    }
+
+    @Override
+    public long getNumExecutionsByTransition(DirectoryControllerState state, DirectoryControllerEventType condition) {
+        return this.directoryController.getFsmNumExecutions()[state.ordinal()][condition.ordinal()];
+    }
 
-        this.addListener(ExitStateEvent.class, exitStateEvent -> previousState = getState());
+    @Override
+    public Map<DirectoryControllerState, Map<DirectoryControllerEventType, Long>> getNumExecutions() {
+        return this.directoryController.getFsmFactory().getNumExecutions(this.directoryController.getFsmNumExecutions());
     }
 
     /**
@@ -147,7 +178,7 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param tag          the tag
      */
     public void onEventPutS(CacheCoherenceFlow producerFlow, CacheController requester, int tag) {
-        if (this.getDirectoryEntry().getSharers().size() > 1) {
+        if (this.getNumSharers() > 1) {
             PutSNotLastEvent putSNotLastEvent = new PutSNotLastEvent(this.directoryController, producerFlow, requester, tag, producerFlow.getAccess());
             this.fireTransition(requester + "." + String.format("0x%08x", tag), putSNotLastEvent);
         } else {
@@ -164,7 +195,7 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param tag          the tag
      */
     public void onEventPutMAndData(CacheCoherenceFlow producerFlow, CacheController requester, int tag) {
-        if (requester == this.getDirectoryEntry().getOwner()) {
+        if (requester == this.getOwner()) {
             PutMAndDataFromOwnerEvent putMAndDataFromOwnerEvent = new PutMAndDataFromOwnerEvent(this.directoryController, producerFlow, requester, tag, producerFlow.getAccess());
             this.fireTransition(requester + "." + String.format("0x%08x", tag), putMAndDataFromOwnerEvent);
         } else {
@@ -187,13 +218,28 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
 
     /**
      * Fire the predefined action based on the specified directory controller event.
+     * The transition is forwarded to the finite state machine currently materialized for the line if this one has already been released.
      *
      * @param sender the sender object
      * @param event  the directory controller event
      */
     public void fireTransition(Object sender, DirectoryControllerEvent event) {
+        DirectoryControllerFiniteStateMachine fsm = this.directoryController.getFsm(this.set, this.way);
+        if (fsm != this) {
+            fsm.fireTransition(sender, event);
+            return;
+        }
+
         event.onCompleted();
+
+        this.numPendingTransitions++;
         this.directoryController.getFsmFactory().fireTransition(this, sender, event.getType(), event);
+        this.numPendingTransitions--;
+
+        if (this.numPendingTransitions == 0 && this.getState().isStable() && this.stalledEvents.isEmpty() && this.onCompletedCallback == null
+                && this.numRecallAcks == 0 && this.evicterTag == CacheLine.INVALID_TAG && this.victimTag == CacheLine.INVALID_TAG) {
+            this.directoryController.releaseFsm(this);
+        }
     }
 
     /**
@@ -237,7 +283,9 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param hitInCache a value indicating whether the access hits in the cache or not
      */
     public void fireServiceNonblockingRequestEvent(MemoryHierarchyAccess access, int tag, boolean hitInCache) {
-        this.getDirectoryController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerServiceNonblockingRequestEvent(this.getDirectoryController(), access, tag, getSet(), getWay(), hitInCache));
+        if (this.getDirectoryController().getBlockingEventDispatcher().hasListeners(GeneralCacheControllerServiceNonblockingRequestEvent.class)) {
+            this.getDirectoryController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerServiceNonblockingRequestEvent(this.getDirectoryController(), access, tag, getSet(), getWay(), hitInCache));
+        }
         this.getDirectoryController().updateStats(access.getType().isRead(), hitInCache);
     }
 
@@ -249,7 +297,9 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param victimTag the victim tag
      */
     public void fireCacheLineInsertEvent(MemoryHierarchyAccess access, int tag, int victimTag) {
-        this.getDirectoryController().getBlockingEventDispatcher().dispatch(new LastLevelCacheControllerLineInsertEvent(this.getDirectoryController(), access, tag, getSet(), getWay(), victimTag));
+        if (this.getDirectoryController().getBlockingEventDispatcher().hasListeners(LastLevelCacheControllerLineInsertEvent.class)) {
+            this.getDirectoryController().getBlockingEventDispatcher().dispatch(new LastLevelCacheControllerLineInsertEvent(this.getDirectoryController(), access, tag, getSet(), getWay(), victimTag));
+        }
     }
 
     /**
@@ -259,7 +309,9 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param tag    the tag
      */
     public void fireReplacementEvent(MemoryHierarchyAccess access, int tag) {
-        this.getDirectoryController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerLineReplacementEvent(this.getDirectoryController(), access, tag, getSet(), getWay()));
+        if (this.getDirectoryController().getBlockingEventDispatcher().hasListeners(GeneralCacheControllerLineReplacementEvent.class)) {
+            this.getDirectoryController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerLineReplacementEvent(this.getDirectoryController(), access, tag, getSet(), getWay()));
+        }
     }
 
     /**
@@ -269,7 +321,9 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param tag    the tag
      */
     public void firePutSOrPutMAndDataFromOwnerEvent(MemoryHierarchyAccess access, int tag) {
-        this.getDirectoryController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerLastPutSOrPutMAndDataFromOwnerEvent(this.getDirectoryController(), access, tag, getSet(), getWay()));
+        if (this.getDirectoryController().getBlockingEventDispatcher().hasListeners(GeneralCacheControllerLastPutSOrPutMAndDataFromOwnerEvent.class)) {
+            this.getDirectoryController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerLastPutSOrPutMAndDataFromOwnerEvent(this.getDirectoryController(), access, tag, getSet(), getWay()));
+        }
     }
 
     /**
@@ -279,7 +333,9 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param tag    the tag
      */
     public void fireNonblockingRequestHitToTransientTagEvent(MemoryHierarchyAccess access, int tag) {
-        this.getDirectoryController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerNonblockingRequestHitToTransientTagEvent(this.getDirectoryController(), access, tag, getSet(), getWay()));
+        if (this.getDirectoryController().getBlockingEventDispatcher().hasListeners(GeneralCacheControllerNonblockingRequestHitToTransientTagEvent.class)) {
+            this.getDirectoryController().getBlockingEventDispatcher().dispatch(new GeneralCacheControllerNonblockingRequestHitToTransientTagEvent(this.getDirectoryController(), access, tag, getSet(), getWay()));
+        }
     }
 
     /**
@@ -336,7 +392,7 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param tag          the tag
      */
     public void sendFwdGetSToOwner(CacheCoherenceFlow producerFlow, CacheController requester, int tag) {
-        this.directoryController.transfer(getDirectoryEntry().getOwner(), 8, new FwdGetSMessage(this.directoryController, producerFlow, requester, tag, producerFlow.getAccess()));
+        this.directoryController.transfer(this.getOwner(), 8, new FwdGetSMessage(this.directoryController, producerFlow, requester, tag, producerFlow.getAccess()));
     }
 
     /**
@@ -347,7 +403,7 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param tag          the tag
      */
     public void sendFwdGetMToOwner(CacheCoherenceFlow producerFlow, CacheController requester, int tag) {
-        this.directoryController.transfer(getDirectoryEntry().getOwner(), 8, new FwdGetMMessage(this.directoryController, producerFlow, requester, tag, producerFlow.getAccess()));
+        this.directoryController.transfer(this.getOwner(), 8, new FwdGetMMessage(this.directoryController, producerFlow, requester, tag, producerFlow.getAccess()));
     }
 
     /**
@@ -358,7 +414,7 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param tag          the tag
      */
     public void sendInvToSharers(CacheCoherenceFlow producerFlow, CacheController requester, int tag) {
-        this.getDirectoryEntry().getSharers().stream().filter(sharer -> requester != sharer).forEach(sharer -> this.directoryController.transfer(sharer, 8, new InvMessage(this.directoryController, producerFlow, requester, tag, producerFlow.getAccess())));
+        this.getSharers().stream().filter(sharer -> requester != sharer).forEach(sharer -> this.directoryController.transfer(sharer, 8, new InvMessage(this.directoryController, producerFlow, requester, tag, producerFlow.getAccess())));
     }
 
     /**
@@ -368,7 +424,7 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param tag          the tag
      */
     public void sendRecallToOwner(CacheCoherenceFlow producerFlow, int tag) {
-        CacheController owner = getDirectoryEntry().getOwner();
+        CacheController owner = this.getOwner();
         if (owner.getCache().findWay(tag) == -1) {
             throw new IllegalArgumentException();
         }
@@ -383,7 +439,7 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param tag          the tag
      */
     public void sendRecallToSharers(CacheCoherenceFlow producerFlow, int tag) {
-        for (CacheController sharer : this.getDirectoryEntry().getSharers()) {
+        for (CacheController sharer : this.getSharers()) {
             if (sharer.getCache().findWay(tag) == -1) {
                 throw new IllegalArgumentException();
             }
@@ -414,12 +470,12 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param requester the requester L1 cache controller
      */
     public void addRequesterAndOwnerToSharers(CacheController requester) {
-        if (this.getDirectoryEntry().getSharers().contains(requester) || this.getDirectoryEntry().getSharers().contains(this.getDirectoryEntry().getOwner())) {
+        if (this.isSharer(requester) || this.isSharer(this.getOwner())) {
             throw new IllegalArgumentException();
         }
 
-        this.getDirectoryEntry().getSharers().add(requester);
-        this.getDirectoryEntry().getSharers().add(this.getDirectoryEntry().getOwner());
+        this.directoryController.setLineSharer(this.set, this.way, requester, true);
+        this.directoryController.setLineSharer(this.set, this.way, this.getOwner(), true);
     }
 
     /**
@@ -428,11 +484,11 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param requester the requester L1 cache controller
      */
     public void addRequesterToSharers(CacheController requester) {
-        if (this.getDirectoryEntry().getSharers().contains(requester)) {
+        if (this.isSharer(requester)) {
             throw new IllegalArgumentException();
         }
 
-        this.getDirectoryEntry().getSharers().add(requester);
+        this.directoryController.setLineSharer(this.set, this.way, requester, true);
     }
 
     /**
@@ -441,11 +497,11 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param requester the requester L1 cache controller
      */
     public void removeRequesterFromSharers(CacheController requester) {
-        if (!this.getDirectoryEntry().getSharers().contains(requester)) {
+        if (!this.isSharer(requester)) {
             throw new IllegalArgumentException();
         }
 
-        this.getDirectoryEntry().getSharers().remove(requester);
+        this.directoryController.setLineSharer(this.set, this.way, requester, false);
     }
 
     /**
@@ -454,50 +510,58 @@ public class DirectoryControllerFiniteStateMachine extends BasicFiniteStateMachi
      * @param requester the requester L1 cache controller
      */
     public void setOwnerToRequester(CacheController requester) {
-        this.getDirectoryEntry().setOwner(requester);
+        this.directoryController.setLineOwner(this.set, this.way, requester);
     }
 
     /**
      * Clear the list of sharers.
      */
     public void clearSharers() {
-        this.getDirectoryEntry().getSharers().clear();
+        this.directoryController.clearLineSharers(this.set, this.way);
     }
 
     /**
      * Clear the owner L1 cache controller.
      */
     public void clearOwner() {
-        this.getDirectoryEntry().setOwner(null);
+        this.directoryController.setLineOwner(this.set, this.way, null);
     }
 
     /**
-     * Get the state of the owning directory controller.
+     * Get the owner L1 cache controller.
      *
-     * @return the state of the owning directory controller
+     * @return the owner L1 cache controller if any exists; otherwise null
      */
-    @Override
-    public DirectoryControllerState get() {
-        return this.getState();
+    public CacheController getOwner() {
+        return this.directoryController.getLineOwner(this.set, this.way);
     }
 
     /**
-     * Get the initial state of the owning directory controller.
+     * Get the list of sharer L1 cache controllers.
      *
-     * @return the initial state of the owning directory controller
+     * @return the list of sharer L1 cache controllers
      */
-    @Override
-    public DirectoryControllerState getInitialValue() {
-        return DirectoryControllerState.I;
+    public List<CacheController> getSharers() {
+        return this.directoryController.getLineSharers(this.set, this.way);
+    }
+
+    /**
+     * Get the number of sharer L1 cache controllers.
+     *
+     * @return the number of sharer L1 cache controllers
+     */
+    public int getNumSharers() {
+        return this.directoryController.getLineNumSharers(this.set, this.way);
     }
 
     /**
-     * Get the directory entry.
+     * Get a value indicating whether the specified L1 cache controller is a sharer or not.
      *
-     * @return the directory entry
+     * @param cacheController the L1 cache controller
+     * @return a value indicating whether the specified L1 cache controller is a sharer or not
      */
-    public DirectoryEntry getDirectoryEntry() {
-        return directoryEntry;
+    public boolean isSharer(CacheController cacheController) {
+        return this.directoryController.isLineSharer(this.set, this.way, cacheController);
     }
 
     /**
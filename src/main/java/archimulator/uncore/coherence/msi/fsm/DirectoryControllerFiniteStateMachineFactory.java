@@ -21,28 +21,26 @@
 package archimulator.uncore.coherence.msi.fsm;
 
 import archimulator.uncore.cache.CacheLine;
-import archimulator.uncore.coherence.msi.controller.CacheController;
 import archimulator.uncore.coherence.msi.event.directory.*;
 import archimulator.uncore.coherence.msi.state.DirectoryControllerState;
-import archimulator.util.fsm.FiniteStateMachineFactory;
+import archimulator.util.fsm.EnumFiniteStateMachineFactory;
 
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import static ch.lambdaj.Lambda.*;
-import static org.hamcrest.Matchers.not;
-
 /**
  * Directory controller finite state machine factory.
  *
  * @author Min Cai
  */
-public class DirectoryControllerFiniteStateMachineFactory extends FiniteStateMachineFactory<DirectoryControllerState, DirectoryControllerEventType, DirectoryControllerFiniteStateMachine> {
+public class DirectoryControllerFiniteStateMachineFactory extends EnumFiniteStateMachineFactory<DirectoryControllerState, DirectoryControllerEventType, DirectoryControllerFiniteStateMachine> {
     /**
      * Create a directory controller finite state machine factory.
      */
     private DirectoryControllerFiniteStateMachineFactory() {
+        super(DirectoryControllerState.class, DirectoryControllerEventType.class);
+
         Consumer<DirectoryControllerFiniteStateMachine> actionWhenStateChanged = fsm -> {
             if (fsm.getPreviousState() != fsm.getState() && fsm.getState().isStable()) {
                 Runnable onCompletedCallback = fsm.getOnCompletedCallback();
@@ -184,7 +182,7 @@ public class DirectoryControllerFiniteStateMachineFactory extends FiniteStateMac
                 }, DirectoryControllerState.S)
                 .onCondition(DirectoryControllerEventType.GETM, (fsm, sender, eventType, params) -> {
                     GetMEvent event = (GetMEvent) params;
-                    fsm.sendDataToRequester(event, event.getRequester(), event.getTag(), select(fsm.getDirectoryEntry().getSharers(), having(on(CacheController.class), not(event.getRequester()))).size());
+                    fsm.sendDataToRequester(event, event.getRequester(), event.getTag(), fsm.getNumSharers() - (fsm.isSharer(event.getRequester()) ? 1 : 0));
                     fsm.sendInvToSharers(event, event.getRequester(), event.getTag());
                     fsm.clearSharers();
                     fsm.setOwnerToRequester(event.getRequester());
@@ -192,7 +190,7 @@ public class DirectoryControllerFiniteStateMachineFactory extends FiniteStateMac
                 }, DirectoryControllerState.M)
                 .onCondition(DirectoryControllerEventType.REPLACEMENT, (fsm, sender, eventType, params) -> {
                     ReplacementEvent event = (ReplacementEvent) params;
-                    fsm.setNumRecallAcks(fsm.getDirectoryEntry().getSharers().size());
+                    fsm.setNumRecallAcks(fsm.getNumSharers());
                     fsm.sendRecallToSharers(event, fsm.getLine().getTag());
                     fsm.clearSharers();
                     fsm.setOnCompletedCallback(event.getOnCompletedCallback());
@@ -367,6 +365,8 @@ public class DirectoryControllerFiniteStateMachineFactory extends FiniteStateMac
                     PutMAndDataFromNonOwnerEvent event = (PutMAndDataFromNonOwnerEvent) params;
                     fsm.sendPutAckToReq(event, event.getRequester(), event.getTag());
                 }, DirectoryControllerState.SI_A);
+
+        this.compile();
     }
 
     private static DirectoryControllerFiniteStateMachineFactory singleton;
@@ -376,7 +376,7 @@ public class DirectoryControllerFiniteStateMachineFactory extends FiniteStateMac
      *
      * @return the directory controller finite state machine factory singleton
      */
-    public static DirectoryControllerFiniteStateMachineFactory getSingleton() {
+    public static synchronized DirectoryControllerFiniteStateMachineFactory getSingleton() {
         if (singleton == null) {
             singleton = new DirectoryControllerFiniteStateMachineFactory();
         }
@@ -45,6 +45,10 @@ import java.util.TreeMap;
 /**
  * Hotspot profiling helper.
  *
+ * The summary statistics on the L2 stack distances are fed by the stack distance profiling helper, which only profiles
+ * the sampled L2 sets. Their means and extremes describe the sampled accesses, whereas their counts cover only one in
+ * every {@link archimulator.common.CPUExperimentConfig#getL2StackDistanceProfilingSamplingPeriod()} L2 accesses.
+ *
  * @author Min Cai
  */
 public class HotspotProfilingHelper implements Reportable {
@@ -25,6 +25,8 @@ import archimulator.common.SimulationEvent;
 import archimulator.common.SimulationType;
 import archimulator.uncore.dram.BasicMemoryController;
 import archimulator.uncore.dram.MemoryController;
+import archimulator.util.event.PerCycleEvent;
+import archimulator.util.event.Quiescent;
 import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
 
 import java.util.LinkedHashMap;
@@ -36,7 +38,7 @@ import java.util.function.Function;
  *
  * @author Min Cai
  */
-public class BLPProfilingHelper {
+public class BLPProfilingHelper implements Quiescent {
     /**
      * DRAM Bank access BLP profiled event
      */
@@ -120,20 +122,34 @@ public class BLPProfilingHelper {
 
         memoryController.getBlockingEventDispatcher().addListener(BasicMemoryController.EndAccessEvent.class, this::profileEndServicingL2Miss);
 
-        memoryController.getCycleAccurateEventQueue().getPerCycleEvents().add(() -> {
+        memoryController.getCycleAccurateEventQueue().getPerCycleEvents().add(new PerCycleEvent(() -> {
             if (simulation.getType() != SimulationType.FAST_FORWARD) {
-                updateBlpCostsPerCycle();
+                updateBlpCostsPerCycle(1);
             }
-        });
+        }, this));
     }
 
 
     /**
      * To be invoked per cycle for updating BLP-costs for in-flight DRAM bank accesses.
+     *
+     * @param numCycles the number of cycles in which the set of in-flight DRAM bank accesses does not change
      */
-    private void updateBlpCostsPerCycle() {
+    private void updateBlpCostsPerCycle(long numCycles) {
         for (PendingDramBankAccess pendingDramBankAccess : this.pendingDRAMBankAccesses.values()) {
-            pendingDramBankAccess.setBlpCost(pendingDramBankAccess.getBlpCost() + (double) 1 / this.pendingDRAMBankAccesses.size());
+            pendingDramBankAccess.setBlpCost(pendingDramBankAccess.getBlpCost() + numCycles * ((double) 1 / this.pendingDRAMBankAccesses.size()));
+        }
+    }
+
+    @Override
+    public long getNextBusyCycle() {
+        return NEVER;
+    }
+
+    @Override
+    public void skipIdleCycles(long numCycles) {
+        if (this.memoryController.getSimulation().getType() != SimulationType.FAST_FORWARD) {
+            this.updateBlpCostsPerCycle(numCycles);
         }
     }
 
@@ -29,6 +29,8 @@ import archimulator.uncore.MemoryHierarchyAccess;
 import archimulator.uncore.coherence.event.GeneralCacheControllerServiceNonblockingRequestEvent;
 import archimulator.uncore.coherence.event.LastLevelCacheControllerLineInsertEvent;
 import archimulator.uncore.coherence.msi.controller.DirectoryController;
+import archimulator.util.event.PerCycleEvent;
+import archimulator.util.event.Quiescent;
 import archimulator.util.math.Quantizer;
 
 import java.util.LinkedHashMap;
@@ -40,7 +42,7 @@ import java.util.TreeMap;
  *
  * @author Min Cai
  */
-public class MLPProfilingHelper implements Reportable {
+public class MLPProfilingHelper implements Reportable, Quiescent {
     /**
      * L2 miss MLP profiled event.
      */
@@ -138,11 +140,11 @@ public class MLPProfilingHelper implements Reportable {
             }
         });
 
-        this.l2Controller.getCycleAccurateEventQueue().getPerCycleEvents().add(() -> {
+        this.l2Controller.getCycleAccurateEventQueue().getPerCycleEvents().add(new PerCycleEvent(() -> {
             if (simulation.getType() != SimulationType.FAST_FORWARD) {
-                updateL2MlpCostsPerCycle();
+                updateL2MlpCostsPerCycle(1);
             }
-        });
+        }, this));
 
         this.l2Controller.getBlockingEventDispatcher().addListener(MLPProfilingHelper.L2MissMLPProfiledEvent.class, event -> {
             double mlpCost = event.getPendingL2Miss().getMlpCost();
@@ -158,19 +160,33 @@ public class MLPProfilingHelper implements Reportable {
 
     /**
      * To be invoked per cycle for updating MLP-costs for in-flight L2 cache accesses.
+     *
+     * @param numCycles the number of cycles in which the set of in-flight L2 cache accesses does not change
      */
-    private void updateL2MlpCostsPerCycle() {
+    private void updateL2MlpCostsPerCycle(long numCycles) {
         int mlp = this.pendingL2Misses.size();
 
         if (!this.pendingL2Misses.isEmpty()) {
             for (PendingL2Miss pendingL2Miss : this.pendingL2Misses.values()) {
-                pendingL2Miss.setMlpCost(pendingL2Miss.getMlpCost() + (double) 1 / mlp);
+                pendingL2Miss.setMlpCost(pendingL2Miss.getMlpCost() + numCycles * ((double) 1 / mlp));
             }
 
             if (!this.numCyclesPerMlp.containsKey(mlp)) {
                 this.numCyclesPerMlp.put(mlp, 0L);
             }
-            this.numCyclesPerMlp.put(mlp, this.numCyclesPerMlp.get(mlp) + 1);
+            this.numCyclesPerMlp.put(mlp, this.numCyclesPerMlp.get(mlp) + numCycles);
+        }
+    }
+
+    @Override
+    public long getNextBusyCycle() {
+        return NEVER;
+    }
+
+    @Override
+    public void skipIdleCycles(long numCycles) {
+        if (this.l2Controller.getSimulation().getType() != SimulationType.FAST_FORWARD) {
+            this.updateL2MlpCostsPerCycle(numCycles);
         }
     }
 
@@ -34,9 +34,11 @@ import archimulator.util.dateTime.DateHelper;
 import archimulator.util.event.BlockingEvent;
 import archimulator.util.event.BlockingEventDispatcher;
 import archimulator.util.event.CycleAccurateEventQueue;
+import archimulator.util.event.Quiescent;
 import org.apache.commons.lang.time.DurationFormatUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Random;
@@ -103,8 +105,6 @@ public class NoCExperiment extends Experiment<NoCExperimentConfig> implements No
 
         this.random = this.getConfig().getRandSeed() != -1 ? new Random(this.getConfig().getRandSeed()) : new Random();
 
-        this.cycleAccurateEventQueue = new CycleAccurateEventQueue();
-
         this.blockingEventDispatcher = new BlockingEventDispatcher<>();
     }
 
@@ -113,6 +113,8 @@ public class NoCExperiment extends Experiment<NoCExperimentConfig> implements No
      */
     @Override
     protected void simulate() {
+        this.cycleAccurateEventQueue = new CycleAccurateEventQueue(this.getConfig().getCycleAccurateEventQueueType());
+
         Logger.info(Logger.SIMULATOR, "", this.cycleAccurateEventQueue.getCurrentCycle());
 
         this.network = NetworkFactory.create(this, this.cycleAccurateEventQueue, this.numNodes);
@@ -157,6 +159,7 @@ public class NoCExperiment extends Experiment<NoCExperimentConfig> implements No
                 && (this.getMaxPackets() == -1 || network.getNumPacketsReceived() < this.getMaxPackets())) {
             cycleAccurateEventQueue.advanceOneCycle();
             this.blockingEventDispatcher.dispatch(new NoCExperimentAdvanceOneCycleEvent());
+            this.skipIdleCycles(this.getMaxCycles() == -1 ? Quiescent.NEVER : this.getMaxCycles());
         }
 
         if (!this.isNoDrain()) {
@@ -165,6 +168,7 @@ public class NoCExperiment extends Experiment<NoCExperimentConfig> implements No
             while (network.getNumPacketsReceived() != network.getNumPacketsTransmitted()) {
                 cycleAccurateEventQueue.advanceOneCycle();
                 this.blockingEventDispatcher.dispatch(new NoCExperimentAdvanceOneCycleEvent());
+                this.skipIdleCycles(Quiescent.NEVER);
             }
         }
 
@@ -177,6 +181,23 @@ public class NoCExperiment extends Experiment<NoCExperimentConfig> implements No
         this.blockingEventDispatcher.dispatch(new NoCExperimentEndedEvent());
     }
 
+    @Override
+    public long getNumCyclesSimulated() {
+        CycleAccurateEventQueue cycleAccurateEventQueue = this.cycleAccurateEventQueue;
+        return cycleAccurateEventQueue != null ? cycleAccurateEventQueue.getCurrentCycle() : 0;
+    }
+
+    /**
+     * Skip the idle cycles up to the specified limit if idle cycle skipping is enabled.
+     *
+     * @param limit the cycle beyond which no cycles are skipped
+     */
+    private void skipIdleCycles(long limit) {
+        if (this.getConfig().isIdleCycleSkippingEnabled()) {
+            this.cycleAccurateEventQueue.skipIdleCycles(limit, Collections.emptyList());
+        }
+    }
+
     /**
      * Collect the statistics.
      */
@@ -392,7 +413,7 @@ public class NoCExperiment extends Experiment<NoCExperimentConfig> implements No
      * @return the output directory
      */
     @Override
-    protected String getOutputDirectory() {
+    public String getOutputDirectory() {
         return outputDirectory;
     }
 
@@ -21,6 +21,8 @@
 package archimulator.uncore.noc;
 
 import archimulator.common.NoCConfig;
+import archimulator.util.event.CycleAccurateEventQueue;
+import archimulator.util.event.CycleAccurateEventQueueType;
 
 /**
  * NoC experiment config.
@@ -28,6 +30,10 @@ import archimulator.common.NoCConfig;
  * @author Min Cai
  */
 public class NoCExperimentConfig implements NoCConfig {
+    private CycleAccurateEventQueueType cycleAccurateEventQueueType;
+
+    private boolean idleCycleSkippingEnabled;
+
     private int randSeed;
 
     private String routing;
@@ -58,6 +64,10 @@ public class NoCExperimentConfig implements NoCConfig {
      * Create a NoC experiment config.
      */
     public NoCExperimentConfig() {
+        this.cycleAccurateEventQueueType = CycleAccurateEventQueue.DEFAULT_TYPE;
+
+        this.idleCycleSkippingEnabled = false;
+
         this.randSeed = 13;
         this.routing = "oddEven";
         this.selection = "aco";
@@ -77,6 +87,42 @@ public class NoCExperimentConfig implements NoCConfig {
         this.dataPacketSize = 16;
     }
 
+    /**
+     * Get the cycle accurate event queue type.
+     *
+     * @return the cycle accurate event queue type
+     */
+    public CycleAccurateEventQueueType getCycleAccurateEventQueueType() {
+        return cycleAccurateEventQueueType;
+    }
+
+    /**
+     * Set the cycle accurate event queue type.
+     *
+     * @param cycleAccurateEventQueueType the cycle accurate event queue type
+     */
+    public void setCycleAccurateEventQueueType(CycleAccurateEventQueueType cycleAccurateEventQueueType) {
+        this.cycleAccurateEventQueueType = cycleAccurateEventQueueType;
+    }
+
+    /**
+     * Get a boolean value indicating whether idle cycle skipping is enabled or not.
+     *
+     * @return a boolean value indicating whether idle cycle skipping is enabled or not
+     */
+    public boolean isIdleCycleSkippingEnabled() {
+        return idleCycleSkippingEnabled;
+    }
+
+    /**
+     * Set a boolean value indicating whether idle cycle skipping is enabled or not.
+     *
+     * @param idleCycleSkippingEnabled a boolean value indicating whether idle cycle skipping is enabled or not
+     */
+    public void setIdleCycleSkippingEnabled(boolean idleCycleSkippingEnabled) {
+        this.idleCycleSkippingEnabled = idleCycleSkippingEnabled;
+    }
+
     /**
      * Get the random seed.
      *
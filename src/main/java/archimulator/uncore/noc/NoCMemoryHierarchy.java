@@ -26,7 +26,10 @@ import archimulator.common.report.Reportable;
 import archimulator.uncore.AbstractMemoryHierarchy;
 import archimulator.uncore.MemoryDevice;
 import archimulator.uncore.Net;
+import archimulator.uncore.PointToPointReorderBuffer;
+import archimulator.uncore.coherence.msi.controller.Controller;
 import archimulator.uncore.coherence.msi.controller.L1IController;
+import archimulator.uncore.coherence.msi.message.CoherenceMessage;
 import archimulator.uncore.noc.routers.FlitState;
 import archimulator.uncore.noc.prediction.RouterCongestionStatusPredictionHelper;
 import archimulator.util.event.BlockingEvent;
@@ -111,6 +114,38 @@ public class NoCMemoryHierarchy extends AbstractMemoryHierarchy implements Net,
         return this;
     }
 
+    /**
+     * Transfer a message of the specified size from the source device to the destination device.
+     * <p>
+     * A message sent by a core simulated in parallel is handed over to the rest of the simulated system in the next cycle,
+     * when it is put into the point to point reorder buffer and received by the network just as the packet of a message sent serially is.
+     *
+     * @param from    the source device
+     * @param to      the destination device
+     * @param size    the size of the message to be transferred
+     * @param message the message to be transferred
+     */
+    @Override
+    public void transfer(Controller from, Controller to, int size, CoherenceMessage message) {
+        if (from.getCycleAccurateEventQueue() == this.getCycleAccurateEventQueue()) {
+            super.transfer(from, to, size, message);
+            return;
+        }
+
+        long beginCycle = from.getCycleAccurateEventQueue().getCurrentCycle();
+
+        this.getCycleAccurateEventQueue().schedule(this, () -> {
+            PointToPointReorderBuffer p2pReorderBuffer = this.getP2pReorderBuffer(from, to);
+
+            p2pReorderBuffer.transfer(message);
+
+            DataPacket packet = new DataPacket(this.network, this.devicesToNodeIds.get(from), this.devicesToNodeIds.get(to), size, () -> p2pReorderBuffer.onDestinationArrived(message));
+            packet.setBeginCycle(beginCycle);
+
+            this.network.receive(packet);
+        }, 1);
+    }
+
     /**
      * Transfer a message of the specified size from the source device to the destination device.
      *
@@ -129,6 +164,22 @@ public class NoCMemoryHierarchy extends AbstractMemoryHierarchy implements Net,
         this.getCycleAccurateEventQueue().schedule(this, () -> this.network.receive(packet), 1);
     }
 
+    /**
+     * Get the lower bound of the number of cycles taken to transfer a message from the source device to the destination device,
+     * i.e., the cycle taken to inject the packet plus one cycle per hop along the shortest route.
+     *
+     * @param deviceFrom the source device
+     * @param deviceTo   the destination device
+     * @return the lower bound of the number of cycles taken to transfer a message from the source device to the destination device
+     */
+    public int getMinTransferLatency(MemoryDevice deviceFrom, MemoryDevice deviceTo) {
+        int src = this.devicesToNodeIds.get(deviceFrom);
+        int dest = this.devicesToNodeIds.get(deviceTo);
+
+        return 1 + Math.abs(Node.getX(this.network, src) - Node.getX(this.network, dest))
+                + Math.abs(Node.getY(this.network, src) - Node.getY(this.network, dest));
+    }
+
     /**
      * Dump the statistics into the specified report node.
      *
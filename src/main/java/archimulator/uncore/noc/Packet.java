@@ -166,6 +166,15 @@ public abstract class Packet {
         return beginCycle;
     }
 
+    /**
+     * Set the cycle when the packet is generated at the source node.
+     *
+     * @param beginCycle the cycle when the packet is generated at the source node
+     */
+    public void setBeginCycle(long beginCycle) {
+        this.beginCycle = beginCycle;
+    }
+
     /**
      * Get the cycle when the packet arrives at the destination node.
      *
@@ -33,13 +33,17 @@ import archimulator.uncore.noc.routers.InputVirtualChannel;
 import archimulator.util.event.BlockingEvent;
 import archimulator.util.event.BlockingEventDispatcher;
 import archimulator.util.event.CycleAccurateEventQueue;
+import archimulator.util.event.PerCycleEvent;
+import archimulator.util.event.Quiescent;
 
 /**
  * Router congestion status prediction helper.
  *
  * @author Min Cai
  */
-public class RouterCongestionStatusPredictionHelper implements Reportable {
+public class RouterCongestionStatusPredictionHelper implements Reportable, Quiescent {
+    private Network network;
+
     private Predictor<RouterCongestionStatus> routerCongestionStatusPredictor;
 
     /**
@@ -48,6 +52,8 @@ public class RouterCongestionStatusPredictionHelper implements Reportable {
      * @param network the parent network
      */
     public RouterCongestionStatusPredictionHelper(Network network) {
+        this.network = network;
+
         this.routerCongestionStatusPredictor = new CacheBasedPredictor<>(
                 new SimulationObject() {
                     @Override
@@ -82,22 +88,40 @@ public class RouterCongestionStatusPredictionHelper implements Reportable {
                 RouterCongestionStatus.NOT_CONGESTED
         );
 
-        network.getCycleAccurateEventQueue().getPerCycleEvents().add(() -> {
-            for(Node node : network.getNodes()) {
-                int freeSlots = 0;
+        network.getCycleAccurateEventQueue().getPerCycleEvents().add(new PerCycleEvent(() -> updateRouterCongestionStatuses(1), this));
+    }
 
-                for(InputPort inputPort : node.getRouter().getInputPorts().values()) {
-                    for(InputVirtualChannel inputVirtualChannel : inputPort.getVirtualChannels()) {
-                        freeSlots += node.getRouter().getFreeSlots(inputPort.getDirection(), inputVirtualChannel.getId());
-                    }
-                }
+    /**
+     * Update the router congestion status predictor with the current router congestion statuses.
+     *
+     * @param numCycles the number of cycles in which the router congestion statuses do not change
+     */
+    private void updateRouterCongestionStatuses(long numCycles) {
+        for(Node node : this.network.getNodes()) {
+            int freeSlots = 0;
 
-                getRouterCongestionStatusPredictor().update(
-                        node.getId(),
-                        freeSlots > 720 ? RouterCongestionStatus.NOT_CONGESTED : RouterCongestionStatus.CONGESTED
-                );
+            for(InputPort inputPort : node.getRouter().getInputPorts().values()) {
+                for(InputVirtualChannel inputVirtualChannel : inputPort.getVirtualChannels()) {
+                    freeSlots += node.getRouter().getFreeSlots(inputPort.getDirection(), inputVirtualChannel.getId());
+                }
             }
-        });
+
+            getRouterCongestionStatusPredictor().update(
+                    node.getId(),
+                    freeSlots > 720 ? RouterCongestionStatus.NOT_CONGESTED : RouterCongestionStatus.CONGESTED,
+                    numCycles
+            );
+        }
+    }
+
+    @Override
+    public long getNextBusyCycle() {
+        return NEVER;
+    }
+
+    @Override
+    public void skipIdleCycles(long numCycles) {
+        this.updateRouterCongestionStatuses(numCycles);
     }
 
     /**
@@ -23,6 +23,8 @@ package archimulator.uncore.noc.routers;
 import archimulator.uncore.noc.Direction;
 import archimulator.uncore.noc.Node;
 import archimulator.uncore.noc.Packet;
+import archimulator.util.event.PerCycleEvent;
+import archimulator.util.event.Quiescent;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,7 +36,7 @@ import java.util.TreeMap;
  *
  * @author Min Cai
  */
-public class Router {
+public class Router implements Quiescent {
     private Node node;
 
     private List<Packet> injectionBuffer;
@@ -77,7 +79,7 @@ public class Router {
             this.numInflightNonHeadFlits.put(flitState, 0);
         }
 
-        this.node.getNetwork().getCycleAccurateEventQueue().getPerCycleEvents().add(this::advanceOneCycle);
+        this.node.getNetwork().getCycleAccurateEventQueue().getPerCycleEvents().add(new PerCycleEvent(this::advanceOneCycle, this));
     }
 
     /**
@@ -99,6 +101,33 @@ public class Router {
         }
     }
 
+    @Override
+    public long getNextBusyCycle() {
+        if (!this.getNode().getNetwork().getEnvironment().isInDetailedSimulationMode()) {
+            return NEVER;
+        }
+
+        if (!this.injectionBuffer.isEmpty()) {
+            return this.node.getNetwork().getCycleAccurateEventQueue().getCurrentCycle();
+        }
+
+        for (FlitState flitState : FlitState.values()) {
+            if (flitState == FlitState.LINK_TRAVERSAL || flitState == FlitState.DESTINATION_ARRIVED) {
+                continue;
+            }
+
+            if (this.numInflightHeadFlits.get(flitState) != 0 || this.numInflightNonHeadFlits.get(flitState) != 0) {
+                return this.node.getNetwork().getCycleAccurateEventQueue().getCurrentCycle();
+            }
+        }
+
+        return NEVER;
+    }
+
+    @Override
+    public void skipIdleCycles(long numCycles) {
+    }
+
     /**
      * The link traversal stage.
      */
@@ -22,7 +22,11 @@ package archimulator.uncore.noc.traffics;
 
 import archimulator.uncore.noc.Network;
 import archimulator.uncore.noc.Node;
+import archimulator.util.event.PerCycleEvent;
+import archimulator.util.event.Quiescent;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 
 /**
@@ -30,13 +34,16 @@ import java.util.List;
  *
  * @author Min Cai
  */
-public abstract class SyntheticTrafficGenerator {
+public abstract class SyntheticTrafficGenerator implements Quiescent {
     private Network network;
     private double packetInjectionRate;
     private PacketFactory packetFactory;
     private int packetSize;
     private long maxPackets;
 
+    private Deque<Double> preparedRandomValues;
+    private Deque<Integer> numPreparedRandomValuesPerCycle;
+
     /**
      * Create a synthetic traffic generator.
      *
@@ -59,19 +66,26 @@ public abstract class SyntheticTrafficGenerator {
         this.packetSize = packetSize;
         this.maxPackets = maxPackets;
 
-        this.network.getCycleAccurateEventQueue().getPerCycleEvents().add(this::generateTraffic);
+        this.preparedRandomValues = new ArrayDeque<>();
+        this.numPreparedRandomValuesPerCycle = new ArrayDeque<>();
+
+        this.network.getCycleAccurateEventQueue().getPerCycleEvents().add(new PerCycleEvent(this::generateTraffic, this));
     }
 
     /**
      * Generate traffic.
      */
     private void generateTraffic() {
+        int numPreparedRandomValues = this.numPreparedRandomValuesPerCycle.isEmpty() ? 0 : this.numPreparedRandomValuesPerCycle.poll();
+
         for(Node node : this.getSrcNodes()) {
             if(!this.network.isAcceptPacket() || this.maxPackets != -1 && this.network.getNumPacketsReceived() > this.maxPackets) {
                 break;
             }
 
-            boolean valid = this.network.getEnvironment().getRandom().nextDouble() <= this.packetInjectionRate;
+            double randomValue = numPreparedRandomValues-- > 0 ? this.preparedRandomValues.poll() : this.network.getEnvironment().getRandom().nextDouble();
+
+            boolean valid = randomValue <= this.packetInjectionRate;
             if(valid) {
                 int src = node.getId();
                 int dest = this.dest(src);
@@ -83,6 +97,62 @@ public abstract class SyntheticTrafficGenerator {
         }
     }
 
+    @Override
+    public long getNextBusyCycle() {
+        return NEVER;
+    }
+
+    @Override
+    public long prepareIdleCycles(long numCycles) {
+        long numIdleCycles = 0;
+
+        // the random values are drawn per cycle and source node, as they would be in the cycles skipped
+        while (numIdleCycles < numCycles && this.prepareIdleCycle()) {
+            numIdleCycles++;
+        }
+
+        return numIdleCycles;
+    }
+
+    /**
+     * Prepare the next cycle that is not yet prepared to be skipped as an idle cycle, drawing the random values for it.
+     *
+     * @return a value indicating whether the next cycle that is not yet prepared can be skipped as an idle cycle or not
+     */
+    private boolean prepareIdleCycle() {
+        int numRandomValues = 0;
+        boolean idle = true;
+
+        for(Node ignored : this.getSrcNodes()) {
+            if(!this.network.isAcceptPacket() || this.maxPackets != -1 && this.network.getNumPacketsReceived() > this.maxPackets) {
+                break;
+            }
+
+            double randomValue = this.network.getEnvironment().getRandom().nextDouble();
+
+            this.preparedRandomValues.add(randomValue);
+            numRandomValues++;
+
+            if(randomValue <= this.packetInjectionRate) {
+                idle = false;
+                break;
+            }
+        }
+
+        this.numPreparedRandomValuesPerCycle.add(numRandomValues);
+
+        return idle;
+    }
+
+    @Override
+    public void skipIdleCycles(long numCycles) {
+        for (long i = 0; i < numCycles; i++) {
+            for (int numRandomValues = this.numPreparedRandomValuesPerCycle.poll(); numRandomValues > 0; numRandomValues--) {
+                this.preparedRandomValues.poll();
+            }
+        }
+    }
+
     /**
      * Get the list of source nodes.
      *
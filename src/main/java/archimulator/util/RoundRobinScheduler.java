@@ -20,10 +20,10 @@
  */
 package archimulator.util;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 import java.util.function.Function;
-import java.util.function.Predicate;
 
 /**
  * Round robin scheduler.
@@ -33,7 +33,7 @@ import java.util.function.Predicate;
  */
 public class RoundRobinScheduler<ResourceT> {
     private final List<ResourceT> resources;
-    private final Predicate<ResourceT> predicate;
+    private final ResourcePredicate<ResourceT> predicate;
     private final Function<ResourceT, Boolean> consumeAction;
     private final int quant;
 
@@ -41,6 +41,12 @@ public class RoundRobinScheduler<ResourceT> {
 
     private BitSet stalled;
 
+    private long[] firstIdleCycles;
+
+    private long[] numTestsInPeriod;
+
+    private boolean countingTests;
+
     /**
      * Create a round robin scheduler.
      *
@@ -49,7 +55,7 @@ public class RoundRobinScheduler<ResourceT> {
      * @param consumeAction the consume action
      * @param quant the quant
      */
-    public RoundRobinScheduler(List<ResourceT> resources, Predicate<ResourceT> predicate, Function<ResourceT, Boolean> consumeAction, int quant) {
+    public RoundRobinScheduler(List<ResourceT> resources, ResourcePredicate<ResourceT> predicate, Function<ResourceT, Boolean> consumeAction, int quant) {
         this.resources = resources;
         this.predicate = predicate;
         this.consumeAction = consumeAction;
@@ -64,12 +70,78 @@ public class RoundRobinScheduler<ResourceT> {
      * Consume next.
      */
     public void consumeNext() {
-        this.resourceId = consumeNext(this.resourceId);
+        this.resourceId = consumeNext(this.resourceId, this.consumeAction);
+    }
+
+    /**
+     * Skip the specified number of idle cycles, in which the consume action fails on any resource.
+     * <p>
+     * As the predicate does not change in idle cycles, the resource ID after an idle cycle depends on the one before it only,
+     * so that the resource IDs repeat themselves after at most as many idle cycles as there are resources plus one.
+     * Only the cycles before the first period, one period and the cycles after the last whole period are simulated,
+     * while the predicate tests in the other whole periods are made in bulk on each resource.
+     *
+     * @param numCycles the number of idle cycles to be skipped
+     */
+    public void skipIdleCycles(long numCycles) {
+        // the list of resources may be filled after the scheduler is created
+        if (this.numTestsInPeriod == null || this.numTestsInPeriod.length != this.resources.size()) {
+            this.firstIdleCycles = new long[this.resources.size() + 1];
+            this.numTestsInPeriod = new long[this.resources.size()];
+        }
+
+        Arrays.fill(this.firstIdleCycles, -1);
+
+        for (long i = 0; i < numCycles; i++) {
+            // the resource ID is -1 when no resource satisfies the predicate
+            long firstIdleCycle = this.firstIdleCycles[this.resourceId + 1];
+
+            if (firstIdleCycle != -1) {
+                long period = i - firstIdleCycle;
+                long numPeriods = (numCycles - i) / period;
+
+                if (numPeriods > 0) {
+                    Arrays.fill(this.numTestsInPeriod, 0);
+
+                    this.countingTests = true;
+
+                    for (long j = 0; j < period; j++) {
+                        this.resourceId = consumeNext(this.resourceId, resource -> false);
+                    }
+
+                    this.countingTests = false;
+
+                    for (int k = 0; k < this.resources.size(); k++) {
+                        if (this.numTestsInPeriod[k] > 0 && numPeriods > 1) {
+                            this.predicate.test(this.resources.get(k), this.numTestsInPeriod[k] * (numPeriods - 1));
+                        }
+                    }
+                }
+
+                for (long j = (numCycles - i) % period; j > 0; j--) {
+                    this.resourceId = consumeNext(this.resourceId, resource -> false);
+                }
+
+                return;
+            }
+
+            this.firstIdleCycles[this.resourceId + 1] = i;
+
+            this.resourceId = consumeNext(this.resourceId, resource -> false);
+        }
+    }
+
+    private boolean test(int resourceId) {
+        if (this.countingTests) {
+            this.numTestsInPeriod[resourceId]++;
+        }
+
+        return this.predicate.test(this.resources.get(resourceId), 1);
     }
 
     private int findNext(BitSet except) {
         for (int i = 0; i < this.resources.size(); i++) {
-            if (this.predicate.test(this.resources.get(i)) && !except.get(i)) {
+            if (test(i) && !except.get(i)) {
                 return i;
             }
         }
@@ -77,13 +149,13 @@ public class RoundRobinScheduler<ResourceT> {
         return -1;
     }
 
-    private int consumeNext(int resourceId) {
+    private int consumeNext(int resourceId, Function<ResourceT, Boolean> consumeAction) {
         this.stalled.clear();
 
         resourceId = (resourceId + 1) % this.resources.size();
 
         for (int numConsumed = 0; numConsumed < this.quant; numConsumed++) {
-            if (this.stalled.get(resourceId) || !this.predicate.test(this.resources.get(resourceId))) {
+            if (this.stalled.get(resourceId) || !test(resourceId)) {
                 resourceId = findNext(this.stalled);
             }
 
@@ -91,11 +163,28 @@ public class RoundRobinScheduler<ResourceT> {
                 break;
             }
 
-            if (!this.consumeAction.apply(this.resources.get(resourceId))) {
+            if (!consumeAction.apply(this.resources.get(resourceId))) {
                 this.stalled.set(resourceId);
             }
         }
 
         return resourceId;
     }
+
+    /**
+     * Resource predicate.
+     *
+     * @param <ResourceT> the type of the resource
+     */
+    @FunctionalInterface
+    public interface ResourcePredicate<ResourceT> {
+        /**
+         * Test the specified resource the specified number of times in a row, during which the resource does not change.
+         *
+         * @param resource the resource
+         * @param numTimes the number of times
+         * @return a value indicating whether the specified resource satisfies the predicate or not
+         */
+        boolean test(ResourceT resource, long numTimes);
+    }
 }
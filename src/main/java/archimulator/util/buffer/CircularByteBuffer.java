@@ -20,6 +20,9 @@
  */
 package archimulator.util.buffer;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 
 /**
@@ -149,6 +152,35 @@ public class CircularByteBuffer {
         }
     }
 
+    /**
+     * Load the contents of the circular byte buffer from the specified input.
+     *
+     * @param in the input
+     * @throws IOException if an I/O error occurs
+     */
+    public void loadFrom(DataInput in) throws IOException {
+        if (in.readInt() != buffer.capacity()) {
+            throw new IOException("Capacity mismatch");
+        }
+
+        in.readFully(buffer.array());
+        readIndex = in.readInt();
+        writeIndex = in.readInt();
+    }
+
+    /**
+     * Save the contents of the circular byte buffer to the specified output.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    public void saveTo(DataOutput out) throws IOException {
+        out.writeInt(buffer.capacity());
+        out.write(buffer.array());
+        out.writeInt(readIndex);
+        out.writeInt(writeIndex);
+    }
+
     /**
      * Get a boolean value indicating whether the circular byte buffer is empty or not.
      *
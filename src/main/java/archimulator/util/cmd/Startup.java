@@ -37,10 +37,12 @@ public class Startup {
     public static void main(String[] args) {
         SimulateCommand simulateCommand = new SimulateCommand();
         NoCSimulateCommand noCSimulateCommand = new NoCSimulateCommand();
+        SweepWorkerCommand sweepWorkerCommand = new SweepWorkerCommand();
 
         JCommander commander = new JCommander();
         commander.addCommand(simulateCommand);
         commander.addCommand(noCSimulateCommand);
+        commander.addCommand(sweepWorkerCommand);
 
         try {
             commander.parse(args);
@@ -55,6 +57,9 @@ public class Startup {
                     case "noc_simulate":
                         noCSimulateCommand.run();
                         break;
+                    case "sweep_worker":
+                        sweepWorkerCommand.run();
+                        break;
                     default:
                         commander.usage();
                         break;
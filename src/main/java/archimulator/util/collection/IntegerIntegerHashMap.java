@@ -0,0 +1,207 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.util.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from primitive integers to primitive integers.
+ *
+ * @author Min Cai
+ */
+public class IntegerIntegerHashMap implements Serializable {
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    /**
+     * Create an integer-integer hash map.
+     */
+    public IntegerIntegerHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create an integer-integer hash map.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public IntegerIntegerHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize * 2 - 1, DEFAULT_INITIAL_CAPACITY - 1)) << 1;
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Get the value associated with the specified key.
+     *
+     * @param key          the key
+     * @param defaultValue the default value
+     * @return the value associated with the specified key if any exists; otherwise the default value
+     */
+    public int get(int key, int defaultValue) {
+        for (int i = hash(key) & this.mask; ; i = (i + 1) & this.mask) {
+            if (!this.used[i]) {
+                return defaultValue;
+            }
+
+            if (this.keys[i] == key) {
+                return this.values[i];
+            }
+        }
+    }
+
+    /**
+     * Get a value indicating whether the map contains the specified key or not.
+     *
+     * @param key the key
+     * @return a value indicating whether the map contains the specified key or not
+     */
+    public boolean containsKey(int key) {
+        for (int i = hash(key) & this.mask; this.used[i]; i = (i + 1) & this.mask) {
+            if (this.keys[i] == key) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Associate the specified value with the specified key.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(int key, int value) {
+        int i = hash(key) & this.mask;
+        while (this.used[i]) {
+            if (this.keys[i] == key) {
+                this.values[i] = value;
+                return;
+            }
+            i = (i + 1) & this.mask;
+        }
+
+        this.keys[i] = key;
+        this.values[i] = value;
+        this.used[i] = true;
+
+        if (++this.size * 2 > this.keys.length) {
+            this.resize(this.keys.length * 2);
+        }
+    }
+
+    /**
+     * Remove the entry associated with the specified key.
+     *
+     * @param key the key
+     * @return a value indicating whether an entry was removed or not
+     */
+    public boolean remove(int key) {
+        int i = hash(key) & this.mask;
+        while (this.used[i]) {
+            if (this.keys[i] == key) {
+                this.used[i] = false;
+                this.size--;
+
+                for (int j = (i + 1) & this.mask; this.used[j]; j = (j + 1) & this.mask) {
+                    int home = hash(this.keys[j]) & this.mask;
+                    if (((j - home) & this.mask) >= ((j - i) & this.mask)) {
+                        this.keys[i] = this.keys[j];
+                        this.values[i] = this.values[j];
+                        this.used[i] = true;
+                        this.used[j] = false;
+                        i = j;
+                    }
+                }
+
+                return true;
+            }
+            i = (i + 1) & this.mask;
+        }
+
+        return false;
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public void clear() {
+        Arrays.fill(this.used, false);
+        this.size = 0;
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Resize the backing arrays to the specified capacity.
+     *
+     * @param capacity the new capacity
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        boolean[] oldUsed = this.used;
+
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int j = hash(oldKeys[i]) & this.mask;
+                while (this.used[j]) {
+                    j = (j + 1) & this.mask;
+                }
+                this.keys[j] = oldKeys[i];
+                this.values[j] = oldValues[i];
+                this.used[j] = true;
+            }
+        }
+    }
+
+    /**
+     * Spread the bits of the specified key.
+     *
+     * @param key the key
+     * @return the hash code of the specified key
+     */
+    private static int hash(int key) {
+        int h = key * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
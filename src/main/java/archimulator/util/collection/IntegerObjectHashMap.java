@@ -0,0 +1,204 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.util.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map keyed by primitive integers, used on hot paths where boxing the keys of a {@link java.util.Map} is too costly.
+ *
+ * @param <V> the type of the values
+ * @author Min Cai
+ */
+public class IntegerObjectHashMap<V> implements Serializable {
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Create an integer-object hash map.
+     */
+    public IntegerObjectHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create an integer-object hash map.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public IntegerObjectHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize * 2 - 1, DEFAULT_INITIAL_CAPACITY - 1)) << 1;
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Get the value associated with the specified key.
+     *
+     * @param key the key
+     * @return the value associated with the specified key if any exists; otherwise null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        for (int i = hash(key) & this.mask; ; i = (i + 1) & this.mask) {
+            Object value = this.values[i];
+            if (value == null || this.keys[i] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    /**
+     * Get a value indicating whether the map contains the specified key or not.
+     *
+     * @param key the key
+     * @return a value indicating whether the map contains the specified key or not
+     */
+    public boolean containsKey(int key) {
+        return this.get(key) != null;
+    }
+
+    /**
+     * Associate the specified non-null value with the specified key.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the value previously associated with the specified key if any exists; otherwise null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException();
+        }
+
+        int i = hash(key) & this.mask;
+        while (this.values[i] != null) {
+            if (this.keys[i] == key) {
+                V oldValue = (V) this.values[i];
+                this.values[i] = value;
+                return oldValue;
+            }
+            i = (i + 1) & this.mask;
+        }
+
+        this.keys[i] = key;
+        this.values[i] = value;
+
+        if (++this.size * 2 > this.keys.length) {
+            this.resize(this.keys.length * 2);
+        }
+
+        return null;
+    }
+
+    /**
+     * Remove the entry associated with the specified key.
+     *
+     * @param key the key
+     * @return the value previously associated with the specified key if any exists; otherwise null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i = hash(key) & this.mask;
+        while (this.values[i] != null) {
+            if (this.keys[i] == key) {
+                V oldValue = (V) this.values[i];
+                this.values[i] = null;
+                this.size--;
+
+                for (int j = (i + 1) & this.mask; this.values[j] != null; j = (j + 1) & this.mask) {
+                    int home = hash(this.keys[j]) & this.mask;
+                    if (((j - home) & this.mask) >= ((j - i) & this.mask)) {
+                        this.keys[i] = this.keys[j];
+                        this.values[i] = this.values[j];
+                        this.values[j] = null;
+                        i = j;
+                    }
+                }
+
+                return oldValue;
+            }
+            i = (i + 1) & this.mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public void clear() {
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Resize the backing arrays to the specified capacity.
+     *
+     * @param capacity the new capacity
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        int[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int j = hash(oldKeys[i]) & this.mask;
+                while (this.values[j] != null) {
+                    j = (j + 1) & this.mask;
+                }
+                this.keys[j] = oldKeys[i];
+                this.values[j] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Spread the bits of the specified key.
+     *
+     * @param key the key
+     * @return the hash code of the specified key
+     */
+    private static int hash(int key) {
+        int h = key * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
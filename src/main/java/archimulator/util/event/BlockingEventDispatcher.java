@@ -21,6 +21,7 @@
 package archimulator.util.event;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,9 @@ import java.util.function.Consumer;
 
 /**
  * Blocking event dispatcher.
+ * The listeners to be notified are compiled into a frozen array per event class whenever the listeners change, so that dispatching costs one lookup and no allocation.
+ * Dispatching is not synchronized by default since the simulation loop is single threaded;
+ * synchronized dispatching has to be enabled while events are dispatched from several threads, e.g., when the cores are simulated in parallel.
  *
  * @param <BlockingEventT> the type of the event
  * @author Min Cai
@@ -44,12 +48,26 @@ public class BlockingEventDispatcher<BlockingEventT extends BlockingEvent> {
      */
     protected final List<BiConsumer<Object, BlockingEventT>> anyListeners;
 
+    /**
+     * Map of the frozen arrays of the listeners, including the any listeners, to be notified per event class.
+     */
+    private volatile Map<Class<?>, BiConsumer<Object, ? super BlockingEventT>[]> compiledListeners;
+
+    /**
+     * The frozen array of the any listeners, which are the only listeners to be notified for the event classes without any listeners.
+     */
+    private volatile BiConsumer<Object, ? super BlockingEventT>[] compiledAnyListeners;
+
+    private volatile boolean synchronizedDispatchEnabled;
+
     /**
      * Create a blocking event dispatcher.
      */
     public BlockingEventDispatcher() {
         this.listeners = new LinkedHashMap<>();
         this.anyListeners = new ArrayList<>();
+
+        this.compile();
     }
 
     /**
@@ -58,7 +76,7 @@ public class BlockingEventDispatcher<BlockingEventT extends BlockingEvent> {
      * @param <BlockingEventK> the type of the event
      * @param event            the event
      */
-    public synchronized <BlockingEventK extends BlockingEventT> void dispatch(BlockingEventK event) {
+    public <BlockingEventK extends BlockingEventT> void dispatch(BlockingEventK event) {
         this.dispatch(null, event);
     }
 
@@ -69,21 +87,80 @@ public class BlockingEventDispatcher<BlockingEventT extends BlockingEvent> {
      * @param sender           the sender
      * @param event            the event
      */
-    @SuppressWarnings({"unchecked"})
-    public synchronized <BlockingEventK extends BlockingEventT> void dispatch(Object sender, BlockingEventK event) {
-        Class<? extends BlockingEventT> eventClass = (Class<? extends BlockingEventT>) event.getClass();
-
-        if (this.listeners.containsKey(eventClass)) {
-            for (BiConsumer<?, ? extends BlockingEventT> listener : this.listeners.get(eventClass)) {
-                ((BiConsumer<Object, BlockingEventK>) listener).accept(sender, event);
+    public <BlockingEventK extends BlockingEventT> void dispatch(Object sender, BlockingEventK event) {
+        if (this.synchronizedDispatchEnabled) {
+            synchronized (this) {
+                this.notifyListeners(sender, event);
             }
+        } else {
+            this.notifyListeners(sender, event);
         }
+    }
 
-        for (BiConsumer<Object, BlockingEventT> anyListener : this.anyListeners) {
-            anyListener.accept(sender, event);
+    /**
+     * Notify the listeners of the specified event from the specified sender.
+     *
+     * @param sender the sender
+     * @param event  the event
+     */
+    private void notifyListeners(Object sender, BlockingEventT event) {
+        for (BiConsumer<Object, ? super BlockingEventT> listener : this.getCompiledListeners(event.getClass())) {
+            listener.accept(sender, event);
         }
     }
 
+    /**
+     * Get the frozen array of the listeners to be notified for the specified event class.
+     *
+     * @param eventClass the event class
+     * @return the frozen array of the listeners to be notified for the specified event class
+     */
+    private BiConsumer<Object, ? super BlockingEventT>[] getCompiledListeners(Class<?> eventClass) {
+        BiConsumer<Object, ? super BlockingEventT>[] compiledListenersInTheEventClass = this.compiledListeners.get(eventClass);
+        return compiledListenersInTheEventClass != null ? compiledListenersInTheEventClass : this.compiledAnyListeners;
+    }
+
+    /**
+     * Get a value indicating whether there is any listener to be notified for the specified event class or not.
+     * Producers use it to skip constructing the events which nobody listens to.
+     *
+     * @param eventClass the event class
+     * @return a value indicating whether there is any listener to be notified for the specified event class or not
+     */
+    public boolean hasListeners(Class<? extends BlockingEventT> eventClass) {
+        return this.getCompiledListeners(eventClass).length > 0;
+    }
+
+    /**
+     * Rebuild the frozen arrays of the listeners.
+     */
+    private void compile() {
+        BiConsumer<Object, ? super BlockingEventT>[] compiledAnyListeners = toListenerArray(this.anyListeners);
+
+        Map<Class<?>, BiConsumer<Object, ? super BlockingEventT>[]> compiledListeners = new IdentityHashMap<>(this.listeners.size());
+
+        this.listeners.forEach((eventClass, listenersInTheEventClass) -> {
+            List<BiConsumer<?, ?>> compiledListenersInTheEventClass = new ArrayList<>(listenersInTheEventClass);
+            compiledListenersInTheEventClass.addAll(this.anyListeners);
+            compiledListeners.put(eventClass, toListenerArray(compiledListenersInTheEventClass));
+        });
+
+        this.compiledAnyListeners = compiledAnyListeners;
+        this.compiledListeners = compiledListeners;
+    }
+
+    /**
+     * Freeze the specified listeners into an array.
+     * The listeners registered for an event class only receive the events of that class, so they are safe to be invoked with the events of the type of the dispatcher.
+     *
+     * @param listeners the listeners
+     * @return the frozen array of the specified listeners
+     */
+    @SuppressWarnings("unchecked")
+    private BiConsumer<Object, ? super BlockingEventT>[] toListenerArray(List<? extends BiConsumer<?, ?>> listeners) {
+        return (BiConsumer<Object, ? super BlockingEventT>[]) listeners.toArray(new BiConsumer<?, ?>[listeners.size()]);
+    }
+
     /**
      * Add a listener for the specified event class.
      *
@@ -110,6 +187,8 @@ public class BlockingEventDispatcher<BlockingEventT extends BlockingEvent> {
         if (!this.listeners.get(eventClass).contains(listener)) {
             this.listeners.get(eventClass).add(listener);
         }
+
+        this.compile();
     }
 
     /**
@@ -121,6 +200,8 @@ public class BlockingEventDispatcher<BlockingEventT extends BlockingEvent> {
         if (!this.anyListeners.contains(listener)) {
             this.anyListeners.add(listener);
         }
+
+        this.compile();
     }
 
     /**
@@ -143,6 +224,8 @@ public class BlockingEventDispatcher<BlockingEventT extends BlockingEvent> {
                 }
             }
         }
+
+        this.compile();
     }
 
     /**
@@ -154,6 +237,8 @@ public class BlockingEventDispatcher<BlockingEventT extends BlockingEvent> {
         if (this.anyListeners.contains(listener)) {
             this.anyListeners.remove(listener);
         }
+
+        this.compile();
     }
 
     /**
@@ -167,6 +252,8 @@ public class BlockingEventDispatcher<BlockingEventT extends BlockingEvent> {
         if (this.listeners.containsKey(eventClass)) {
             this.listeners.get(eventClass).remove(listener);
         }
+
+        this.compile();
     }
 
     /**
@@ -174,6 +261,8 @@ public class BlockingEventDispatcher<BlockingEventT extends BlockingEvent> {
      */
     public synchronized void clearListeners() {
         this.listeners.clear();
+
+        this.compile();
     }
 
     /**
@@ -185,6 +274,24 @@ public class BlockingEventDispatcher<BlockingEventT extends BlockingEvent> {
         return this.listeners.isEmpty();
     }
 
+    /**
+     * Get a value indicating whether the dispatching of events is synchronized or not.
+     *
+     * @return a value indicating whether the dispatching of events is synchronized or not
+     */
+    public boolean isSynchronizedDispatchEnabled() {
+        return synchronizedDispatchEnabled;
+    }
+
+    /**
+     * Set a value indicating whether the dispatching of events is synchronized or not.
+     *
+     * @param synchronizedDispatchEnabled a value indicating whether the dispatching of events is synchronized or not
+     */
+    public void setSynchronizedDispatchEnabled(boolean synchronizedDispatchEnabled) {
+        this.synchronizedDispatchEnabled = synchronizedDispatchEnabled;
+    }
+
     /**
      * Proxy action.
      *
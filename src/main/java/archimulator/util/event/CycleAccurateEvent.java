@@ -32,6 +32,11 @@ public class CycleAccurateEvent implements Comparable<CycleAccurateEvent> {
     private long when;
     private long id;
 
+    /**
+     * The next event in the same bucket of a timing wheel.
+     */
+    CycleAccurateEvent next;
+
     /**
      * Create a cycle accurate event.
      *
@@ -56,6 +61,15 @@ public class CycleAccurateEvent implements Comparable<CycleAccurateEvent> {
         return id;
     }
 
+    /**
+     * Set the ID of the event, which orders the events taking place at the same cycle.
+     *
+     * @param id the ID of the event
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
     /**
      * Get the cycle at which the event is scheduled.
      *
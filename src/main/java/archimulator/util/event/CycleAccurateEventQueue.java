@@ -22,7 +22,6 @@ package archimulator.util.event;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.PriorityBlockingQueue;
 
 /**
  * Cycle accurate event queue.
@@ -30,31 +29,80 @@ import java.util.concurrent.PriorityBlockingQueue;
  * @author Min Cai
  */
 public class CycleAccurateEventQueue {
+    /**
+     * The default cycle accurate event queue type, shared by the experiments and the queues created directly.
+     */
+    public static final CycleAccurateEventQueueType DEFAULT_TYPE = CycleAccurateEventQueueType.TIMING_WHEEL;
+
     private long currentCycle;
-    private PriorityBlockingQueue<CycleAccurateEvent> events;
+    private CycleAccurateEventQueueType type;
+    private CycleAccurateEventQueueEngine engine;
     private List<Runnable> perCycleEvents;
+    private long numSkippedIdleCycles;
+    private CycleAccurateEventQueueGateway gateway;
 
     /**
-     * Create a cycle accurate event queue.
+     * Create a cycle accurate event queue of the default type.
      */
     public CycleAccurateEventQueue() {
-        this.events = new PriorityBlockingQueue<>();
+        this(DEFAULT_TYPE);
+    }
+
+    /**
+     * Create a cycle accurate event queue.
+     *
+     * @param type the cycle accurate event queue type
+     */
+    public CycleAccurateEventQueue(CycleAccurateEventQueueType type) {
+        this(type, 0);
+    }
+
+    /**
+     * Create a cycle accurate event queue starting from the specified cycle.
+     *
+     * @param type         the cycle accurate event queue type
+     * @param currentCycle the current cycle
+     */
+    public CycleAccurateEventQueue(CycleAccurateEventQueueType type, long currentCycle) {
+        this.type = type;
+        this.engine = createEngine(type);
         this.perCycleEvents = new ArrayList<>();
+        this.currentCycle = currentCycle;
+    }
+
+    /**
+     * Create a cycle accurate event queue engine based on the specified type.
+     *
+     * @param type the cycle accurate event queue type
+     * @return the newly created cycle accurate event queue engine based on the specified type
+     */
+    private static CycleAccurateEventQueueEngine createEngine(CycleAccurateEventQueueType type) {
+        switch (type) {
+            case HEAP:
+                return new HeapCycleAccurateEventQueueEngine();
+            case TIMING_WHEEL:
+                return new TimingWheelCycleAccurateEventQueueEngine();
+            default:
+                throw new IllegalArgumentException();
+        }
     }
 
     /**
      * Advance for one cycle.
      */
     public void advanceOneCycle() {
-        while (!this.events.isEmpty()) {
-            CycleAccurateEvent event = this.events.peek();
+        CycleAccurateEvent event;
 
-            if (event.getWhen() > this.currentCycle) {
-                break;
+        while ((event = this.engine.poll(this.currentCycle)) != null) {
+            if (this.gateway != null) {
+                this.gateway.onTakingPlace(this, event);
             }
 
             event.getAction().run();
-            this.events.remove(event);
+        }
+
+        if (this.gateway != null && !this.perCycleEvents.isEmpty()) {
+            this.gateway.onPerCycleEventsTakingPlace(this);
         }
 
         this.perCycleEvents.forEach(Runnable::run);
@@ -62,6 +110,73 @@ public class CycleAccurateEventQueue {
         this.currentCycle++;
     }
 
+    /**
+     * Skip the idle cycles from the current cycle on, i.e., the cycles before the earliest one in which any cycle accurate event takes place,
+     * any per-cycle event or any of the specified quiescent objects may have work to do, or the specified limit is reached.
+     * Nothing is skipped unless all the per-cycle events are quiescent and the idle cycles are bounded.
+     *
+     * @param limit      the cycle beyond which no cycles are skipped
+     * @param quiescents the list of quiescent objects which are driven outside the queue
+     * @return the number of skipped idle cycles
+     */
+    public long skipIdleCycles(long limit, List<? extends Quiescent> quiescents) {
+        long target = limit;
+
+        long nextEventWhen = this.engine.getNextWhen();
+        if (nextEventWhen != -1) {
+            target = Math.min(target, nextEventWhen);
+        }
+
+        if (target <= this.currentCycle) {
+            return 0;
+        }
+
+        for (Quiescent quiescent : quiescents) {
+            target = Math.min(target, quiescent.getNextBusyCycle());
+
+            if (target <= this.currentCycle) {
+                return 0;
+            }
+        }
+
+        for (Runnable perCycleEvent : this.perCycleEvents) {
+            if (!(perCycleEvent instanceof Quiescent)) {
+                return 0;
+            }
+
+            target = Math.min(target, ((Quiescent) perCycleEvent).getNextBusyCycle());
+
+            if (target <= this.currentCycle) {
+                return 0;
+            }
+        }
+
+        if (target == Quiescent.NEVER) {
+            return 0;
+        }
+
+        long numCycles = target - this.currentCycle;
+
+        for (Runnable perCycleEvent : this.perCycleEvents) {
+            numCycles = ((Quiescent) perCycleEvent).prepareIdleCycles(numCycles);
+        }
+
+        if (numCycles > 0) {
+            for (Quiescent quiescent : quiescents) {
+                quiescent.skipIdleCycles(numCycles);
+            }
+
+            for (Runnable perCycleEvent : this.perCycleEvents) {
+                ((Quiescent) perCycleEvent).skipIdleCycles(numCycles);
+            }
+
+            this.currentCycle += numCycles;
+            this.numSkippedIdleCycles += numCycles;
+        }
+
+        return numCycles;
+    }
+
     /**
      * Schedule the specified action to be performed after the specified delay in cycles.
      *
@@ -71,10 +186,57 @@ public class CycleAccurateEventQueue {
      * @return the newly created cycle accurate event
      */
     public CycleAccurateEventQueue schedule(Object sender, Runnable action, int delay) {
-        this.schedule(new CycleAccurateEvent(this, sender, action, this.currentCycle + delay));
+        if (this.gateway != null && this.gateway.offer(this, sender, action, delay)) {
+            return this;
+        }
+
+        CycleAccurateEvent event = new CycleAccurateEvent(this, sender, action, this.currentCycle + delay);
+
+        this.schedule(event);
+
+        if (this.gateway != null) {
+            this.gateway.onScheduled(this, event);
+        }
+
         return this;
     }
 
+    /**
+     * Schedule the specified action to be performed at the specified cycle with the specified event ID, bypassing the gateway if any.
+     * The event takes place after the other events at the same cycle with smaller IDs and before the ones with larger IDs.
+     *
+     * @param sender the event sender
+     * @param action the action that is to be performed when the specified event takes place
+     * @param when   the cycle at which the specified event takes place, which must not be earlier than the current cycle
+     * @param id     the ID of the event
+     */
+    public void scheduleAt(Object sender, Runnable action, long when, long id) {
+        if (when < this.currentCycle) {
+            throw new IllegalArgumentException(String.format("when (%d) cannot be earlier than the current cycle (%d)", when, this.currentCycle));
+        }
+
+        CycleAccurateEvent event = new CycleAccurateEvent(this, sender, action, when);
+        event.setId(id);
+
+        this.schedule(event);
+    }
+
+    /**
+     * Move all the pending events into the specified cycle accurate event queue, which must not be ahead of this one, keeping their IDs.
+     *
+     * @param queue the cycle accurate event queue to which the pending events are moved
+     */
+    public void moveEventsTo(CycleAccurateEventQueue queue) {
+        List<CycleAccurateEvent> events = this.engine.removeAll();
+
+        this.engine = createEngine(this.type);
+
+        for (CycleAccurateEvent event : events) {
+            queue.engine.add(event);
+            queue.currentId = Math.max(queue.currentId, event.getId() + 1);
+        }
+    }
+
     /**
      * Schedule the specified cycle accurate event.
      *
@@ -82,15 +244,20 @@ public class CycleAccurateEventQueue {
      */
     private void schedule(CycleAccurateEvent event) {
         event.setScheduledTime(this.getCurrentCycle());
-        this.events.add(event);
+        this.engine.add(event);
     }
 
     /**
      * Reset the current cycle to 0.
      */
     public void resetCurrentCycle() {
-        for (CycleAccurateEvent event : this.events) {
+        List<CycleAccurateEvent> events = this.engine.removeAll();
+
+        this.engine = createEngine(this.type);
+
+        for (CycleAccurateEvent event : events) {
             event.setWhen(event.getWhen() - this.currentCycle);
+            this.engine.add(event);
         }
 
         this.currentCycle = 0;
@@ -105,6 +272,42 @@ public class CycleAccurateEventQueue {
         return this.currentCycle;
     }
 
+    /**
+     * Get the cycle accurate event queue type.
+     *
+     * @return the cycle accurate event queue type
+     */
+    public CycleAccurateEventQueueType getType() {
+        return type;
+    }
+
+    /**
+     * Get the number of skipped idle cycles.
+     *
+     * @return the number of skipped idle cycles
+     */
+    public long getNumSkippedIdleCycles() {
+        return numSkippedIdleCycles;
+    }
+
+    /**
+     * Get the gateway which takes over the scheduling of the events crossing to this queue from other host threads.
+     *
+     * @return the gateway which takes over the scheduling of the events crossing to this queue from other host threads if any; otherwise null
+     */
+    public CycleAccurateEventQueueGateway getGateway() {
+        return gateway;
+    }
+
+    /**
+     * Set the gateway which takes over the scheduling of the events crossing to this queue from other host threads.
+     *
+     * @param gateway the gateway which takes over the scheduling of the events crossing to this queue from other host threads, or null if there is none
+     */
+    public void setGateway(CycleAccurateEventQueueGateway gateway) {
+        this.gateway = gateway;
+    }
+
     /**
      * Get the list of actions that is to be performed at each cycle.
      *
@@ -116,7 +319,7 @@ public class CycleAccurateEventQueue {
 
     @Override
     public String toString() {
-        return String.format("CycleAccurateEventQueue{currentCycle=%d, events=%s}", currentCycle, events);
+        return String.format("CycleAccurateEventQueue{currentCycle=%d, type=%s, engine=%s}", currentCycle, type, engine);
     }
 
     /**
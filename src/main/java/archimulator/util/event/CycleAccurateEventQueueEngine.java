@@ -0,0 +1,76 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the PickaPack library.
+ * <p>
+ * PickaPack is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PickaPack is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PickaPack. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.util.event;
+
+import java.util.List;
+
+/**
+ * Cycle accurate event queue engine, which holds the future events of a cycle accurate event queue
+ * in the order of their cycles and IDs.
+ *
+ * @author Min Cai
+ */
+public interface CycleAccurateEventQueueEngine {
+    /**
+     * Add the specified event.
+     *
+     * @param event the event that is to be added
+     */
+    void add(CycleAccurateEvent event);
+
+    /**
+     * Remove and return the earliest event which takes place no later than the specified cycle.
+     *
+     * @param currentCycle the current cycle
+     * @return the earliest event which takes place no later than the specified cycle if any exists; otherwise null
+     */
+    CycleAccurateEvent poll(long currentCycle);
+
+    /**
+     * Get the cycle at which the earliest event takes place.
+     *
+     * @return the cycle at which the earliest event takes place if any exists; otherwise -1
+     */
+    long getNextWhen();
+
+    /**
+     * Remove all the events.
+     *
+     * @return the list of removed events, in the order of their cycles and IDs
+     */
+    List<CycleAccurateEvent> removeAll();
+
+    /**
+     * Get the number of events.
+     *
+     * @return the number of events
+     */
+    int size();
+
+    /**
+     * Get a value indicating whether there is no events or not.
+     *
+     * @return a value indicating whether there is no events or not
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.util.event;
+
+/**
+ * Gateway of cycle accurate event queues driven by different host threads,
+ * which takes over the scheduling of the events that cross from one queue to another
+ * and keeps track of the order in which the events are scheduled and take place.
+ *
+ * @author Min Cai
+ */
+public interface CycleAccurateEventQueueGateway {
+    /**
+     * Offer the specified action which is to be scheduled on the specified queue after the specified delay in cycles.
+     *
+     * @param queue  the cycle accurate event queue on which the action is to be scheduled
+     * @param sender the event sender
+     * @param action the action that is to be performed when the event takes place
+     * @param delay  the delay in cycles after which the event takes place
+     * @return a value indicating whether the gateway has taken over the scheduling or not,
+     * in which case the queue must not schedule the action by itself
+     */
+    boolean offer(CycleAccurateEventQueue queue, Object sender, Runnable action, int delay);
+
+    /**
+     * Act on when the specified event has been scheduled on the specified queue by the queue itself.
+     *
+     * @param queue the cycle accurate event queue
+     * @param event the event
+     */
+    void onScheduled(CycleAccurateEventQueue queue, CycleAccurateEvent event);
+
+    /**
+     * Act on when the specified event is about to take place on the specified queue.
+     *
+     * @param queue the cycle accurate event queue
+     * @param event the event
+     */
+    void onTakingPlace(CycleAccurateEventQueue queue, CycleAccurateEvent event);
+
+    /**
+     * Act on when the per-cycle events are about to take place on the specified queue, after all the events of the current cycle.
+     *
+     * @param queue the cycle accurate event queue
+     */
+    void onPerCycleEventsTakingPlace(CycleAccurateEventQueue queue);
+}
@@ -0,0 +1,84 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the PickaPack library.
+ * <p>
+ * PickaPack is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PickaPack is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PickaPack. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.util.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Cycle accurate event queue engine based on a binary heap.
+ *
+ * @author Min Cai
+ */
+public class HeapCycleAccurateEventQueueEngine implements CycleAccurateEventQueueEngine {
+    private PriorityQueue<CycleAccurateEvent> events;
+
+    /**
+     * Create a cycle accurate event queue engine based on a binary heap.
+     */
+    public HeapCycleAccurateEventQueueEngine() {
+        this.events = new PriorityQueue<>();
+    }
+
+    @Override
+    public void add(CycleAccurateEvent event) {
+        this.events.add(event);
+    }
+
+    @Override
+    public CycleAccurateEvent poll(long currentCycle) {
+        CycleAccurateEvent event = this.events.peek();
+
+        if (event == null || event.getWhen() > currentCycle) {
+            return null;
+        }
+
+        return this.events.poll();
+    }
+
+    @Override
+    public long getNextWhen() {
+        CycleAccurateEvent event = this.events.peek();
+        return event != null ? event.getWhen() : -1;
+    }
+
+    @Override
+    public List<CycleAccurateEvent> removeAll() {
+        List<CycleAccurateEvent> result = new ArrayList<>(this.events.size());
+
+        while (!this.events.isEmpty()) {
+            result.add(this.events.poll());
+        }
+
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return this.events.size();
+    }
+
+    @Override
+    public String toString() {
+        return this.events.toString();
+    }
+}
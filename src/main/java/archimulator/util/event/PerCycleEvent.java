@@ -0,0 +1,62 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the PickaPack library.
+ * <p>
+ * PickaPack is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PickaPack is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PickaPack. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.util.event;
+
+/**
+ * Per-cycle event, i.e., an action performed at each cycle by a cycle accurate event queue, which can be skipped in idle cycles.
+ *
+ * @author Min Cai
+ */
+public class PerCycleEvent implements Runnable, Quiescent {
+    private Runnable action;
+    private Quiescent quiescent;
+
+    /**
+     * Create a per-cycle event.
+     *
+     * @param action    the action that is to be performed at each cycle
+     * @param quiescent the quiescent object which reports and skips the idle cycles of the action
+     */
+    public PerCycleEvent(Runnable action, Quiescent quiescent) {
+        this.action = action;
+        this.quiescent = quiescent;
+    }
+
+    @Override
+    public void run() {
+        this.action.run();
+    }
+
+    @Override
+    public long getNextBusyCycle() {
+        return this.quiescent.getNextBusyCycle();
+    }
+
+    @Override
+    public long prepareIdleCycles(long numCycles) {
+        return this.quiescent.prepareIdleCycles(numCycles);
+    }
+
+    @Override
+    public void skipIdleCycles(long numCycles) {
+        this.quiescent.skipIdleCycles(numCycles);
+    }
+}
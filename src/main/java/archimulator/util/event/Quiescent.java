@@ -0,0 +1,62 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the PickaPack library.
+ * <p>
+ * PickaPack is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PickaPack is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PickaPack. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.util.event;
+
+/**
+ * Quiescent, i.e., an object driven by a cycle accurate event queue which can report that it has nothing to do until a future cycle,
+ * so that the idle cycles in between can be skipped.
+ *
+ * @author Min Cai
+ */
+public interface Quiescent {
+    /**
+     * The cycle returned by an object which has nothing to do until it is woken up by a cycle accurate event.
+     */
+    long NEVER = Long.MAX_VALUE;
+
+    /**
+     * Get the earliest cycle from which the object may have work to do other than updating its per-cycle counters,
+     * provided that no cycle accurate events take place in between.
+     *
+     * @return the earliest cycle from which the object may have work to do; the current cycle if it is busy;
+     * or {@link #NEVER} if it has nothing to do until it is woken up by a cycle accurate event
+     */
+    long getNextBusyCycle();
+
+    /**
+     * Prepare up to the specified number of the next cycles that are not yet prepared to be skipped as idle cycles.
+     * Objects consuming random numbers at each cycle draw them here, in the same order as they would do in the skipped cycles,
+     * and keep the ones drawn for the cycles that are prepared but not skipped for when the cycles take place.
+     *
+     * @param numCycles the maximum number of cycles to be prepared
+     * @return the number of the next cycles that can be skipped as idle cycles, which is not greater than the specified number of cycles
+     */
+    default long prepareIdleCycles(long numCycles) {
+        return numCycles;
+    }
+
+    /**
+     * Skip the specified number of idle cycles, fast-forwarding the per-cycle counters in closed form.
+     *
+     * @param numCycles the number of idle cycles to be skipped
+     */
+    void skipIdleCycles(long numCycles);
+}
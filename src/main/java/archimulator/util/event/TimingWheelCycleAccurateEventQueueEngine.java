@@ -0,0 +1,240 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the PickaPack library.
+ * <p>
+ * PickaPack is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PickaPack is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PickaPack. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.util.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Cycle accurate event queue engine based on a timing wheel.
+ * <p>
+ * Events which take place within the window of the next {@link #getNumBuckets()} cycles are kept in per-cycle buckets,
+ * while distant events are kept in an overflow heap and moved into the wheel as the window slides.
+ * As event IDs are allocated in the order of scheduling, appending to a bucket keeps the events in each bucket ordered by their IDs;
+ * the events given their IDs explicitly are inserted in order.
+ *
+ * @author Min Cai
+ */
+public class TimingWheelCycleAccurateEventQueueEngine implements CycleAccurateEventQueueEngine {
+    /**
+     * The default number of buckets.
+     */
+    public static final int DEFAULT_NUM_BUCKETS = 1024;
+
+    private int numBuckets;
+    private int mask;
+
+    private CycleAccurateEvent[] heads;
+    private CycleAccurateEvent[] tails;
+
+    private long cursor;
+
+    private int numEventsInWheel;
+
+    private PriorityQueue<CycleAccurateEvent> overdueEvents;
+    private PriorityQueue<CycleAccurateEvent> overflowEvents;
+
+    /**
+     * Create a cycle accurate event queue engine based on a timing wheel with the default number of buckets.
+     */
+    public TimingWheelCycleAccurateEventQueueEngine() {
+        this(DEFAULT_NUM_BUCKETS);
+    }
+
+    /**
+     * Create a cycle accurate event queue engine based on a timing wheel.
+     *
+     * @param numBuckets the number of buckets, which must be a power of two
+     */
+    public TimingWheelCycleAccurateEventQueueEngine(int numBuckets) {
+        if (numBuckets <= 0 || (numBuckets & (numBuckets - 1)) != 0) {
+            throw new IllegalArgumentException("numBuckets must be a power of two: " + numBuckets);
+        }
+
+        this.numBuckets = numBuckets;
+        this.mask = numBuckets - 1;
+
+        this.heads = new CycleAccurateEvent[numBuckets];
+        this.tails = new CycleAccurateEvent[numBuckets];
+
+        this.overdueEvents = new PriorityQueue<>();
+        this.overflowEvents = new PriorityQueue<>();
+    }
+
+    @Override
+    public void add(CycleAccurateEvent event) {
+        long when = event.getWhen();
+
+        if (when < this.cursor) {
+            this.overdueEvents.add(event);
+        } else if (when - this.cursor < this.numBuckets) {
+            this.append(event);
+        } else {
+            this.overflowEvents.add(event);
+        }
+    }
+
+    @Override
+    public CycleAccurateEvent poll(long currentCycle) {
+        if (!this.overdueEvents.isEmpty()) {
+            return this.overdueEvents.peek().getWhen() <= currentCycle ? this.overdueEvents.poll() : null;
+        }
+
+        while (this.cursor <= currentCycle) {
+            if (this.numEventsInWheel == 0) {
+                long target = this.overflowEvents.isEmpty() ? currentCycle + 1 : Math.min(currentCycle + 1, this.overflowEvents.peek().getWhen());
+
+                if (target > this.cursor) {
+                    this.cursor = target;
+                    this.migrate();
+                    continue;
+                }
+            }
+
+            int index = (int) (this.cursor & this.mask);
+
+            CycleAccurateEvent event = this.heads[index];
+
+            if (event != null) {
+                this.heads[index] = event.next;
+                if (event.next == null) {
+                    this.tails[index] = null;
+                }
+                event.next = null;
+                this.numEventsInWheel--;
+                return event;
+            }
+
+            this.cursor++;
+            this.migrate();
+        }
+
+        return null;
+    }
+
+    /**
+     * Move the overflow events which fall into the window of the wheel into their buckets.
+     */
+    private void migrate() {
+        while (!this.overflowEvents.isEmpty() && this.overflowEvents.peek().getWhen() - this.cursor < this.numBuckets) {
+            this.append(this.overflowEvents.poll());
+        }
+    }
+
+    /**
+     * Append the specified event to its bucket, which is kept sorted by event ID.
+     *
+     * @param event the event
+     */
+    private void append(CycleAccurateEvent event) {
+        int index = (int) (event.getWhen() & this.mask);
+
+        if (this.tails[index] == null) {
+            this.heads[index] = event;
+            this.tails[index] = event;
+        } else if (this.tails[index].getId() < event.getId()) {
+            this.tails[index].next = event;
+            this.tails[index] = event;
+        } else if (this.heads[index].getId() > event.getId()) {
+            event.next = this.heads[index];
+            this.heads[index] = event;
+        } else {
+            // the events given IDs out of order are kept sorted by ID in the bucket
+            CycleAccurateEvent previous = this.heads[index];
+            while (previous.next.getId() < event.getId()) {
+                previous = previous.next;
+            }
+
+            event.next = previous.next;
+            previous.next = event;
+        }
+
+        this.numEventsInWheel++;
+    }
+
+    @Override
+    public long getNextWhen() {
+        if (!this.overdueEvents.isEmpty()) {
+            return this.overdueEvents.peek().getWhen();
+        }
+
+        if (this.numEventsInWheel > 0) {
+            for (long when = this.cursor; ; when++) {
+                if (this.heads[(int) (when & this.mask)] != null) {
+                    return when;
+                }
+            }
+        }
+
+        return this.overflowEvents.isEmpty() ? -1 : this.overflowEvents.peek().getWhen();
+    }
+
+    @Override
+    public List<CycleAccurateEvent> removeAll() {
+        List<CycleAccurateEvent> result = new ArrayList<>(this.size());
+
+        while (!this.overdueEvents.isEmpty()) {
+            result.add(this.overdueEvents.poll());
+        }
+
+        for (long when = this.cursor; this.numEventsInWheel > 0; when++) {
+            int index = (int) (when & this.mask);
+
+            for (CycleAccurateEvent event = this.heads[index]; event != null; ) {
+                CycleAccurateEvent next = event.next;
+                event.next = null;
+                result.add(event);
+                this.numEventsInWheel--;
+                event = next;
+            }
+
+            this.heads[index] = null;
+            this.tails[index] = null;
+        }
+
+        while (!this.overflowEvents.isEmpty()) {
+            result.add(this.overflowEvents.poll());
+        }
+
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return this.overdueEvents.size() + this.numEventsInWheel + this.overflowEvents.size();
+    }
+
+    /**
+     * Get the number of buckets.
+     *
+     * @return the number of buckets
+     */
+    public int getNumBuckets() {
+        return numBuckets;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TimingWheelCycleAccurateEventQueueEngine{cursor=%d, numEventsInWheel=%d, numOverdueEvents=%d, numOverflowEvents=%d}",
+                cursor, numEventsInWheel, overdueEvents.size(), overflowEvents.size());
+    }
+}
@@ -56,10 +56,6 @@ public class BasicFiniteStateMachine<StateT, ConditionT> extends Params implemen
     public BasicFiniteStateMachine(String name, StateT state) {
         this.name = name;
         this.state = state;
-
-        this.eventDispatcher = new BlockingEventDispatcher<>();
-
-        this.numExecutions = new LinkedHashMap<>();
     }
 
     /**
@@ -70,6 +66,10 @@ public class BasicFiniteStateMachine<StateT, ConditionT> extends Params implemen
      * @param listener   the listener that is to be added for the specified event class
      */
     public <EventT extends FiniteStateMachineEvent> void addListener(Class<EventT> eventClass, Consumer<EventT> listener) {
+        if (this.eventDispatcher == null) {
+            this.eventDispatcher = new BlockingEventDispatcher<>();
+        }
+
         this.eventDispatcher.addListener(eventClass, listener);
     }
 
@@ -81,7 +81,9 @@ public class BasicFiniteStateMachine<StateT, ConditionT> extends Params implemen
      * @param listener   the listener that is to removed for the specified event class
      */
     public <EventT extends FiniteStateMachineEvent> void removeListener(Class<EventT> eventClass, Consumer<EventT> listener) {
-        this.eventDispatcher.removeListener(eventClass, listener);
+        if (this.eventDispatcher != null) {
+            this.eventDispatcher.removeListener(eventClass, listener);
+        }
     }
 
     /**
@@ -115,11 +117,15 @@ public class BasicFiniteStateMachine<StateT, ConditionT> extends Params implemen
 
     @Override
     public long getNumExecutionsByTransition(StateT state, ConditionT condition) {
-        return this.numExecutions.containsKey(state) && this.numExecutions.get(state).containsKey(condition) ? this.numExecutions.get(state).get(condition) : 0L;
+        return this.numExecutions != null && this.numExecutions.containsKey(state) && this.numExecutions.get(state).containsKey(condition) ? this.numExecutions.get(state).get(condition) : 0L;
     }
 
     @Override
     public Map<StateT, Map<ConditionT, Long>> getNumExecutions() {
+        if (this.numExecutions == null) {
+            this.numExecutions = new LinkedHashMap<>();
+        }
+
         return numExecutions;
     }
 
@@ -136,10 +142,24 @@ public class BasicFiniteStateMachine<StateT, ConditionT> extends Params implemen
 
         this.settingStates = true;
 
-        this.eventDispatcher.dispatch(new ExitStateEvent(this, sender, condition, params));
-        this.state = state;
-        this.eventDispatcher.dispatch(new EnterStateEvent(this, sender, condition, params));
+        if (this.eventDispatcher != null && this.eventDispatcher.hasListeners(ExitStateEvent.class)) {
+            this.eventDispatcher.dispatch(new ExitStateEvent(this, sender, condition, params));
+        }
+        this.writeState(state);
+        if (this.eventDispatcher != null && this.eventDispatcher.hasListeners(EnterStateEvent.class)) {
+            this.eventDispatcher.dispatch(new EnterStateEvent(this, sender, condition, params));
+        }
 
         this.settingStates = false;
     }
+
+    /**
+     * Store the specified state as the current state, without firing any events.
+     * Subclasses keeping their state outside the finite state machine object override this method along with {@link #getState()}.
+     *
+     * @param state the new state
+     */
+    protected void writeState(StateT state) {
+        this.state = state;
+    }
 }
@@ -0,0 +1,144 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the PickaPack library.
+ * <p>
+ * PickaPack is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PickaPack is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PickaPack. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.util.fsm;
+
+import archimulator.util.Params;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Finite state machine factory over enumerated states and conditions.
+ * The declared transitions are compiled into a dense table indexed by the ordinals of the state and the condition,
+ * so that firing a transition takes a pair of array lookups instead of a pair of map lookups.
+ * The transitions are compiled again on the first transition fired after any change made through {@link #inState(Object)} or {@link #clear()}.
+ *
+ * @author Min Cai
+ * @param <StateT> the type of the states
+ * @param <ConditionT> the type of the conditions
+ * @param <FiniteStateMachineT> the type of the finite state machines
+ */
+public class EnumFiniteStateMachineFactory<StateT extends Enum<StateT>, ConditionT extends Enum<ConditionT>, FiniteStateMachineT extends FiniteStateMachine<StateT, ConditionT>> extends FiniteStateMachineFactory<StateT, ConditionT, FiniteStateMachineT> {
+    private int numStates;
+    private int numConditions;
+
+    private volatile StateTransitions<StateT, ConditionT, FiniteStateMachineT>.StateTransition[][] table;
+
+    /**
+     * Create an enumerated finite state machine factory.
+     *
+     * @param stateClass the class of the states
+     * @param conditionClass the class of the conditions
+     */
+    public EnumFiniteStateMachineFactory(Class<StateT> stateClass, Class<ConditionT> conditionClass) {
+        this.numStates = stateClass.getEnumConstants().length;
+        this.numConditions = conditionClass.getEnumConstants().length;
+    }
+
+    @Override
+    public StateTransitions<StateT, ConditionT, FiniteStateMachineT> inState(StateT state) {
+        this.table = null;
+        return super.inState(state);
+    }
+
+    @Override
+    public void clear() {
+        this.table = null;
+        super.clear();
+    }
+
+    /**
+     * Compile the declared transitions into the transition table.
+     */
+    public void compile() {
+        @SuppressWarnings("unchecked")
+        StateTransitions<StateT, ConditionT, FiniteStateMachineT>.StateTransition[][] table = (StateTransitions<StateT, ConditionT, FiniteStateMachineT>.StateTransition[][]) new StateTransitions<?, ?, ?>.StateTransition[this.numStates][this.numConditions];
+
+        for (StateTransitions<StateT, ConditionT, FiniteStateMachineT> stateTransitions : this.transitions.values()) {
+            for (StateTransitions<StateT, ConditionT, FiniteStateMachineT>.StateTransition stateTransition : stateTransitions.getPerStateTransitions().values()) {
+                table[stateTransition.getState().ordinal()][stateTransition.getCondition().ordinal()] = stateTransition;
+            }
+        }
+
+        this.table = table;
+    }
+
+    @Override
+    public void fireTransition(FiniteStateMachineT fsm, Object sender, ConditionT condition, Params params) {
+        StateTransitions<StateT, ConditionT, FiniteStateMachineT>.StateTransition[][] table = this.table;
+        if (table == null) {
+            this.compile();
+            table = this.table;
+        }
+
+        StateTransitions<StateT, ConditionT, FiniteStateMachineT>.StateTransition stateTransition = table[fsm.getState().ordinal()][condition.ordinal()];
+        if (stateTransition != null) {
+            stateTransition.fire(fsm, sender, condition, params);
+        } else {
+            super.fireTransition(fsm, sender, condition, params);
+        }
+    }
+
+    /**
+     * Create a table of the number of executions indexed by the ordinals of the state and the condition.
+     *
+     * @return a newly created table of the number of executions indexed by the ordinals of the state and the condition
+     */
+    public long[][] newNumExecutions() {
+        return new long[this.numStates][this.numConditions];
+    }
+
+    /**
+     * Get the map of the number of executions ordered by the declared states and conditions from the specified table.
+     *
+     * @param numExecutions the table of the number of executions indexed by the ordinals of the state and the condition
+     * @return the map of the number of executions ordered by the declared states and conditions
+     */
+    public Map<StateT, Map<ConditionT, Long>> getNumExecutions(long[][] numExecutions) {
+        Map<StateT, Map<ConditionT, Long>> result = new LinkedHashMap<>();
+
+        for (StateT state : this.transitions.keySet()) {
+            for (ConditionT condition : this.transitions.get(state).getPerStateTransitions().keySet()) {
+                long numExecutionsPerCondition = numExecutions[state.ordinal()][condition.ordinal()];
+                if (numExecutionsPerCondition > 0) {
+                    result.computeIfAbsent(state, k -> new LinkedHashMap<>()).put(condition, numExecutionsPerCondition);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Dump.
+     *
+     * @param name the name of the finite state machine factory.
+     * @param numExecutions the table of the number of executions indexed by the ordinals of the state and the condition
+     * @param stats the map of statistics
+     */
+    public void dump(String name, long[][] numExecutions, Map<String, String> stats) {
+        for (StateT state : this.transitions.keySet()) {
+            for (ConditionT condition : this.transitions.get(state).getPerStateTransitions().keySet()) {
+                stats.put(String.format("%s.%s.%s", name, state, condition), "" + numExecutions[state.ordinal()][condition.ordinal()]);
+            }
+        }
+    }
+}
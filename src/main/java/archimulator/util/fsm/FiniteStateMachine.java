@@ -23,6 +23,7 @@ package archimulator.util.fsm;
 import archimulator.util.Params;
 
 import java.io.Serializable;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -49,6 +50,17 @@ public interface FiniteStateMachine<StateT, ConditionT> extends Serializable {
      */
     Map<StateT, Map<ConditionT, Long>> getNumExecutions();
 
+    /**
+     * Increment the number of executions by the specified transition.
+     *
+     * @param state     the state
+     * @param condition the condition
+     */
+    default void incrementNumExecutions(StateT state, ConditionT condition) {
+        Map<ConditionT, Long> numExecutionsPerState = this.getNumExecutions().computeIfAbsent(state, k -> new LinkedHashMap<>());
+        numExecutionsPerState.put(condition, numExecutionsPerState.getOrDefault(condition, 0L) + 1);
+    }
+
     /**
      * Get the current state.
      *
@@ -23,7 +23,6 @@ package archimulator.util.fsm;
 import archimulator.util.Params;
 
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -112,28 +111,6 @@ public class FiniteStateMachineFactory<StateT, ConditionT, FiniteStateMachineT e
         }
     }
 
-    /**
-     * Dump.
-     *
-     * @param name the name of the finite state machine factory.
-     * @param fsms the list of the finite state machines
-     * @param stats the map of statistics
-     */
-    public void dump(String name, List<? extends FiniteStateMachine<StateT, ConditionT>> fsms, Map<String, String> stats) {
-        for (StateT state : this.transitions.keySet()) {
-            StateTransitions<StateT, ConditionT, FiniteStateMachineT> stateTransitions = this.transitions.get(state);
-            Map<ConditionT, StateTransitions<StateT, ConditionT, FiniteStateMachineT>.StateTransition> perStateTransitions = stateTransitions.getPerStateTransitions();
-            for (ConditionT condition : perStateTransitions.keySet()) {
-                long numExecutions = 0;
-                for (FiniteStateMachine<StateT, ConditionT> fsm : fsms) {
-                    numExecutions += fsm.getNumExecutionsByTransition(state, condition);
-                }
-
-                stats.put(String.format("%s.%s.%s", name, state, condition), "" + numExecutions);
-            }
-        }
-    }
-
     /**
      * Get the transitions specified in the finite state machine factory.
      *
@@ -192,16 +192,9 @@ public class StateTransitions<StateT, ConditionT, FiniteStateMachineT extends Fi
      * @param params the event parameters
      */
     void fireTransition(FiniteStateMachineT fsm, Object sender, ConditionT condition, Params params) {
-        if (this.perStateTransitions.containsKey(condition)) {
-            StateTransition stateTransition = this.perStateTransitions.get(condition);
-            fsmFactory.changeState(fsm, sender, condition, params, stateTransition.apply(fsm, sender, condition, params));
-            if (stateTransition.onCompletedCallback != null) {
-                stateTransition.onCompletedCallback.accept(fsm);
-            }
-
-            if (this.onCompletedCallback != null) {
-                this.onCompletedCallback.accept(fsm);
-            }
+        StateTransition stateTransition = this.perStateTransitions.get(condition);
+        if (stateTransition != null) {
+            stateTransition.fire(fsm, sender, condition, params);
         } else {
             throw new IllegalArgumentException("Unexpected condition " + condition + " in state " + this.state + " is not among " + this.perStateTransitions.keySet());
         }
@@ -215,6 +208,7 @@ public class StateTransitions<StateT, ConditionT, FiniteStateMachineT extends Fi
         private ConditionT condition;
         private StateT newState;
         private List<FiniteStateMachineAction<FiniteStateMachineT, ConditionT, ? extends Params>> actions;
+        private FiniteStateMachineAction<FiniteStateMachineT, ConditionT, Params>[] actionArray;
         private Consumer<FiniteStateMachineT> onCompletedCallback;
 
         /**
@@ -231,33 +225,46 @@ public class StateTransitions<StateT, ConditionT, FiniteStateMachineT extends Fi
             this.condition = condition;
             this.newState = newState;
             this.actions = actions;
+            @SuppressWarnings("unchecked")
+            FiniteStateMachineAction<FiniteStateMachineT, ConditionT, Params>[] actionArray = (FiniteStateMachineAction<FiniteStateMachineT, ConditionT, Params>[]) actions.toArray(new FiniteStateMachineAction<?, ?, ?>[actions.size()]);
+            this.actionArray = actionArray;
             this.onCompletedCallback = onCompletedCallback;
         }
 
         /**
-         * Perform the transition.
+         * Perform the transition, change the state of the finite state machine and run the callback actions.
          *
          * @param fsm the finite state machine
          * @param sender the event sender
          * @param condition the condition
          * @param params the event parameters
-         * @return the new state
          */
-        @SuppressWarnings("unchecked")
-        public StateT apply(FiniteStateMachineT fsm, Object sender, ConditionT condition, Params params) {
-            for (FiniteStateMachineAction<FiniteStateMachineT, ConditionT, ? extends Params> action : this.actions) {
-                ((FiniteStateMachineAction<FiniteStateMachineT, ConditionT, Params>) action).apply(fsm, sender, condition, params);
+        void fire(FiniteStateMachineT fsm, Object sender, ConditionT condition, Params params) {
+            fsmFactory.changeState(fsm, sender, condition, params, this.apply(fsm, sender, condition, params));
+            if (this.onCompletedCallback != null) {
+                this.onCompletedCallback.accept(fsm);
             }
 
-            if (!fsm.getNumExecutions().containsKey(state)) {
-                fsm.getNumExecutions().put(state, new LinkedHashMap<>());
+            if (StateTransitions.this.onCompletedCallback != null) {
+                StateTransitions.this.onCompletedCallback.accept(fsm);
             }
+        }
 
-            if (!fsm.getNumExecutions().get(state).containsKey(condition)) {
-                fsm.getNumExecutions().get(state).put(condition, 0L);
+        /**
+         * Perform the transition.
+         *
+         * @param fsm the finite state machine
+         * @param sender the event sender
+         * @param condition the condition
+         * @param params the event parameters
+         * @return the new state
+         */
+        public StateT apply(FiniteStateMachineT fsm, Object sender, ConditionT condition, Params params) {
+            for (FiniteStateMachineAction<FiniteStateMachineT, ConditionT, Params> action : this.actionArray) {
+                action.apply(fsm, sender, condition, params);
             }
 
-            fsm.getNumExecutions().get(state).put(condition, fsm.getNumExecutions().get(state).get(condition) + 1);
+            fsm.incrementNumExecutions(state, condition);
 
             if (this.newState == null) {
                 return fsm.getState();
@@ -0,0 +1,54 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.common;
+
+import org.junit.Test;
+
+/**
+ * CPU experiment config test.
+ *
+ * @author Min Cai
+ */
+public class CPUExperimentConfigTest {
+    @Test
+    public void testTraceReplayInDetailedExperiments() {
+        CPUExperimentConfig config = new CPUExperimentConfig();
+        config.setType(ExperimentType.DETAILED);
+        config.setTraceReplayDirectory("traces");
+        config.validate();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTraceReplayInSampledExperiments() {
+        CPUExperimentConfig config = new CPUExperimentConfig();
+        config.setType(ExperimentType.SAMPLED);
+        config.setTraceReplayDirectory("traces");
+        config.validate();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTraceReplayInTwoPhaseExperiments() {
+        CPUExperimentConfig config = new CPUExperimentConfig();
+        config.setType(ExperimentType.TWO_PHASE);
+        config.setTraceReplayDirectory("traces");
+        config.validate();
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.common;
+
+import archimulator.util.serialization.JsonSerializationHelper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Experiment test, which checks loading the statistics of experiments through a columnar statistics store.
+ *
+ * @author Min Cai
+ */
+public class ExperimentTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testLoadStatsThroughStatsStore() {
+        File statsStoreFile = new File(this.temporaryFolder.getRoot(), "stats.bin");
+
+        TestExperiment experiment1 = new TestExperiment(new File(this.temporaryFolder.getRoot(), "e1"));
+        TestExperiment experiment2 = new TestExperiment(new File(this.temporaryFolder.getRoot(), "e2"));
+
+        writeStats(experiment1, "simulation/cycles", "1000", "simulation/ipc", "0.75", "simulation/name", "mst");
+        writeStats(experiment2, "simulation/cycles", "2000", "simulation/ipc", "1.5", "simulation/name", "em3d");
+
+        List<TestExperiment> experiments = Arrays.asList(experiment1, experiment2);
+
+        Experiment.loadStats(experiments, statsStoreFile);
+
+        long length = statsStoreFile.length();
+        assertTrue(length > 0);
+
+        assertEquals(1000L, experiment1.getStat("simulation/cycles"));
+        assertEquals(0.75, experiment1.getStatAsDouble("simulation/ipc"), 0);
+        assertEquals("em3d", experiment2.getStat("simulation/name"));
+        assertNull(experiment2.getStat("simulation/missing"));
+        assertTrue(Double.isNaN(experiment2.getStatAsDouble("simulation/name")));
+
+        assertEquals(Arrays.asList("simulation/cycles", "simulation/ipc", "simulation/name"), Arrays.asList(experiment1.getStatsMap().keySet().toArray()));
+
+        Experiment.loadStats(experiments, statsStoreFile);
+
+        assertEquals("the unchanged statistics are not to be appended again", length, statsStoreFile.length());
+
+        writeStats(experiment2, "simulation/cycles", "3000", "simulation/ipc", "1.5", "simulation/name", "em3d");
+        assertTrue(new File(experiment2.getOutputDirectory(), "stats.json").setLastModified(System.currentTimeMillis() + 10000));
+
+        Experiment.loadStats(experiments, statsStoreFile);
+
+        assertTrue(statsStoreFile.length() > length);
+        assertEquals(1000L, experiment1.getStat("simulation/cycles"));
+        assertEquals(3000L, experiment2.getStat("simulation/cycles"));
+    }
+
+    @Test
+    public void testLoadStatsFromJson() {
+        TestExperiment experiment = new TestExperiment(new File(this.temporaryFolder.getRoot(), "e"));
+
+        writeStats(experiment, "simulation/cycles", "1000", "simulation/name", "mst");
+
+        experiment.loadStats();
+
+        assertEquals("1000", experiment.getStat("simulation/cycles"));
+        assertEquals(1000, experiment.getStatAsDouble("simulation/cycles"), 0);
+        assertTrue(Double.isNaN(experiment.getStatAsDouble("simulation/name")));
+    }
+
+    /**
+     * Write the "stats.json" file of the specified experiment from the specified alternating statistic paths and values.
+     *
+     * @param experiment     the experiment
+     * @param pathsAndValues the alternating statistic paths and values
+     */
+    private static void writeStats(Experiment<?> experiment, String... pathsAndValues) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+
+        for (int i = 0; i < pathsAndValues.length; i += 2) {
+            stats.put(pathsAndValues[i], pathsAndValues[i + 1]);
+        }
+
+        File outputDirectory = new File(experiment.getOutputDirectory());
+
+        if (!outputDirectory.exists() && !outputDirectory.mkdirs()) {
+            throw new RuntimeException();
+        }
+
+        JsonSerializationHelper.writeJsonFile(stats, experiment.getOutputDirectory(), "stats.json");
+    }
+
+    /**
+     * An experiment whose statistics are written by the test.
+     */
+    private static class TestExperiment extends Experiment<Object> {
+        private File outputDirectory;
+
+        /**
+         * Create an experiment whose statistics are written by the test.
+         *
+         * @param outputDirectory the output directory
+         */
+        private TestExperiment(File outputDirectory) {
+            super(new Object());
+            this.outputDirectory = outputDirectory;
+        }
+
+        @Override
+        protected void simulate() {
+        }
+
+        @Override
+        protected String getOutputDirectory() {
+            return this.outputDirectory.getPath();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.common;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Parallel detailed simulation engine test, which checks that simulating the cores in parallel with a quantum of one cycle reproduces
+ * simulating them serially exactly, and that simulating them in parallel with the default quantum reports its deviation from the serial simulation.
+ *
+ * @author Min Cai
+ */
+public class ParallelDetailedSimulationEngineTest {
+    private static final String EXECUTABLE = "benchmarks/Olden_Custom1/mst/ht/mst.mips";
+
+    private static final String PREFIX_PARALLEL_DETAILED_SIMULATION = "detailed/simulation/parallelDetailedSimulation/";
+
+    private static final List<String> KEYS_WALL_CLOCK = Arrays.asList(
+            "detailed/simulation/beginTimeAsString",
+            "detailed/simulation/endTimeAsString",
+            "detailed/simulation/duration",
+            "detailed/simulation/durationInSeconds",
+            "detailed/simulation/cyclesPerSecond",
+            "detailed/simulation/instructionsPerSecond"
+    );
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testQuantumOfOneCycleReproducesSerialSimulation() {
+        CPUExperiment serialExperiment = createExperiment(false, 0, "serial");
+        serialExperiment.run();
+
+        CPUExperiment parallelExperiment = createExperiment(true, 1, "parallel");
+        parallelExperiment.run();
+
+        assertEquals(ExperimentState.COMPLETED, serialExperiment.getState());
+        assertEquals(ExperimentState.COMPLETED, parallelExperiment.getState());
+
+        assertFalse(serialExperiment.getStatsMap().containsKey(PREFIX_PARALLEL_DETAILED_SIMULATION + "numQuanta"));
+
+        assertEquals(1, parallelExperiment.getStatAsDouble(PREFIX_PARALLEL_DETAILED_SIMULATION + "quantum"), 0);
+        assertTrue(parallelExperiment.getStatAsDouble(PREFIX_PARALLEL_DETAILED_SIMULATION + "numCrossPartitionEvents") > 0);
+        assertEquals(0, parallelExperiment.getStatAsDouble(PREFIX_PARALLEL_DETAILED_SIMULATION + "numDelayedCrossPartitionEvents"), 0);
+
+        assertTrue(serialExperiment.getStatAsDouble("detailed/simulation/cycleAccurateEventQueue/currentCycle") > 0);
+        assertEquals(getSimulatedStats(serialExperiment), getSimulatedStats(parallelExperiment));
+    }
+
+    @Test
+    public void testDefaultQuantumReportsDeviation() {
+        CPUExperiment parallelExperiment = createExperiment(true, 0, "parallel");
+        parallelExperiment.run();
+
+        assertEquals(ExperimentState.COMPLETED, parallelExperiment.getState());
+
+        double lookahead = parallelExperiment.getStatAsDouble(PREFIX_PARALLEL_DETAILED_SIMULATION + "lookahead");
+        double quantum = parallelExperiment.getStatAsDouble(PREFIX_PARALLEL_DETAILED_SIMULATION + "quantum");
+        double numQuanta = parallelExperiment.getStatAsDouble(PREFIX_PARALLEL_DETAILED_SIMULATION + "numQuanta");
+        double numCycles = parallelExperiment.getStatAsDouble("detailed/simulation/cycleAccurateEventQueue/currentCycle");
+
+        assertTrue(lookahead > 1);
+        assertEquals(lookahead, quantum, 0);
+        assertTrue(numQuanta < numCycles);
+
+        double numDelayedCrossPartitionEvents = parallelExperiment.getStatAsDouble(PREFIX_PARALLEL_DETAILED_SIMULATION + "numDelayedCrossPartitionEvents");
+        double maxCrossPartitionEventDelay = parallelExperiment.getStatAsDouble(PREFIX_PARALLEL_DETAILED_SIMULATION + "maxCrossPartitionEventDelay");
+
+        assertTrue(numDelayedCrossPartitionEvents <= parallelExperiment.getStatAsDouble(PREFIX_PARALLEL_DETAILED_SIMULATION + "numCrossPartitionEvents"));
+        assertTrue(maxCrossPartitionEventDelay < quantum);
+        assertTrue(parallelExperiment.getStatsMap().containsKey(PREFIX_PARALLEL_DETAILED_SIMULATION + "numQuantaWithDeferredContextSwitches"));
+    }
+
+    /**
+     * Get the stats of the specified experiment describing the simulated system, i.e., excluding the wall clock time related ones
+     * and the ones of the parallel detailed simulation engine.
+     *
+     * @param experiment the experiment
+     * @return the stats of the specified experiment describing the simulated system
+     */
+    private static Map<String, Object> getSimulatedStats(CPUExperiment experiment) {
+        Map<String, Object> stats = new LinkedHashMap<>(experiment.getStatsMap());
+
+        stats.keySet().removeIf(key -> KEYS_WALL_CLOCK.contains(key) || key.startsWith(PREFIX_PARALLEL_DETAILED_SIMULATION));
+
+        return stats;
+    }
+
+    /**
+     * Create a detailed experiment running two processes and simulating the cores either in parallel or serially.
+     *
+     * @param parallel a value indicating whether the cores are simulated in parallel or not
+     * @param quantum  the maximum number of cycles in a quantum, or zero for the lookahead
+     * @param name     the name of the output directory
+     * @return the newly created detailed experiment
+     */
+    private CPUExperiment createExperiment(boolean parallel, int quantum, String name) {
+        CPUExperiment experiment = new CPUExperiment();
+
+        experiment.getConfig().setType(ExperimentType.DETAILED);
+        experiment.getConfig().setNumMaxInstructions(20000);
+
+        experiment.getConfig().setNumCores(4);
+        experiment.getConfig().setNumThreadsPerCore(1);
+
+        experiment.getConfig().getContextMappings().add(new ContextMapping(0, EXECUTABLE, "100"));
+        experiment.getConfig().getContextMappings().add(new ContextMapping(1, EXECUTABLE, "100"));
+
+        experiment.getConfig().setParallelDetailedSimulationEnabled(parallel);
+        experiment.getConfig().setParallelDetailedSimulationQuantum(quantum);
+
+        experiment.getConfig().setOutputDirectory(new File(this.temporaryFolder.getRoot(), name).getPath());
+
+        return experiment;
+    }
+}
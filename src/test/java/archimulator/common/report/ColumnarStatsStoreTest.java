@@ -0,0 +1,146 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.common.report;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Columnar statistics store test.
+ *
+ * @author Min Cai
+ */
+public class ColumnarStatsStoreTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testMissingFile() {
+        ColumnarStatsStore store = new ColumnarStatsStore(new File(this.temporaryFolder.getRoot(), "stats.bin"));
+
+        assertTrue(store.getRowKeys().isEmpty());
+        assertTrue(store.getPaths().isEmpty());
+        assertNull(store.get("a", "x"));
+        assertNull(store.getRow("a"));
+    }
+
+    @Test
+    public void testAppendReloadAndQuery() throws IOException {
+        File file = new File(this.temporaryFolder.getRoot(), "stats.bin");
+
+        Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+        rows.put("a", row("cycles", "100", "ipc", "0.5", "name", "mst", "mixed", "1"));
+        rows.put("b", row("cycles", "-7", "ipc", "1.25", "name", "em3d", "mixed", "x"));
+        rows.put("c", row("cycles", "3", "name", "health"));
+
+        Map<String, Map<String, String>> metadata = new LinkedHashMap<>();
+        metadata.put("a", Collections.singletonMap("source", "a/stats.json"));
+
+        ColumnarStatsStore.append(file, rows, metadata);
+
+        ColumnarStatsStore store = new ColumnarStatsStore(file);
+
+        assertEquals(Arrays.asList("a", "b", "c"), store.getRowKeys());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("cycles", "ipc", "name", "mixed")), store.getPaths());
+
+        assertEquals(ColumnarStatsStore.ColumnType.LONG, store.getColumnType("cycles"));
+        assertEquals(ColumnarStatsStore.ColumnType.DOUBLE, store.getColumnType("ipc"));
+        assertEquals(ColumnarStatsStore.ColumnType.STRING, store.getColumnType("name"));
+        assertEquals(ColumnarStatsStore.ColumnType.STRING, store.getColumnType("mixed"));
+        assertNull(store.getColumnType("source"));
+
+        assertEquals(100L, store.get("a", "cycles"));
+        assertEquals(-7L, store.getLong("b", "cycles", 0));
+        assertEquals(0.5, store.get("a", "ipc"));
+        assertEquals("em3d", store.get("b", "name"));
+        assertEquals("1", store.get("a", "mixed"));
+        assertEquals(-1, store.getLong("a", "ipc", -1));
+
+        assertNull(store.get("c", "ipc"));
+        assertTrue(Double.isNaN(store.getDouble("c", "ipc")));
+        assertTrue(Double.isNaN(store.getDouble("a", "name")));
+        assertArrayEquals(new double[]{0.5, 1.25, Double.NaN}, store.getDoubles(Arrays.asList("a", "b", "c"), "ipc"), 0);
+
+        assertEquals("a/stats.json", store.getMetadata("a", "source"));
+        assertNull(store.getMetadata("b", "source"));
+        assertNull(store.getMetadata("d", "source"));
+
+        assertEquals(row("cycles", 100L, "ipc", 0.5, "name", "mst", "mixed", "1"), store.getRow("a"));
+        assertEquals(row("cycles", 3L, "name", "health"), store.getRow("c"));
+    }
+
+    @Test
+    public void testLaterRowsSupersedeEarlierOnes() throws IOException {
+        File file = new File(this.temporaryFolder.getRoot(), "stats.bin");
+
+        Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+        rows.put("a", row("cycles", "100", "ipc", "0.5"));
+        rows.put("b", row("cycles", "200", "ipc", "0.25"));
+        ColumnarStatsStore.append(file, rows, Collections.singletonMap("a", Collections.singletonMap("version", "1")));
+
+        rows = new LinkedHashMap<>();
+        rows.put("a", row("cycles", "150", "ipc", "not available"));
+        ColumnarStatsStore.append(file, rows, Collections.singletonMap("a", Collections.singletonMap("version", "2")));
+
+        ColumnarStatsStore.append(file, Collections.emptyMap());
+
+        ColumnarStatsStore store = new ColumnarStatsStore(file);
+
+        assertEquals(Arrays.asList("b", "a"), store.getRowKeys());
+
+        assertEquals(150L, store.get("a", "cycles"));
+        assertEquals("not available", store.get("a", "ipc"));
+        assertEquals("2", store.getMetadata("a", "version"));
+
+        assertEquals(200L, store.get("b", "cycles"));
+        assertEquals(0.25, store.get("b", "ipc"));
+
+        assertEquals(ColumnarStatsStore.ColumnType.STRING, store.getColumnType("ipc"));
+        assertEquals(ColumnarStatsStore.ColumnType.LONG, store.getColumnType("cycles"));
+    }
+
+    /**
+     * Create a row from the specified alternating statistic paths and values.
+     *
+     * @param pathsAndValues the alternating statistic paths and values
+     * @return the newly created row
+     */
+    private static Map<String, Object> row(Object... pathsAndValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+
+        for (int i = 0; i < pathsAndValues.length; i += 2) {
+            row.put((String) pathsAndValues[i], pathsAndValues[i + 1]);
+        }
+
+        return row;
+    }
+}
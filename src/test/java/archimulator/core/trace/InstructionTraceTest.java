@@ -0,0 +1,266 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.core.trace;
+
+import archimulator.isa.Memory;
+import archimulator.isa.MipsDecoder;
+import archimulator.isa.StaticInstruction;
+import archimulator.isa.StaticInstructionType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instruction trace test, which writes synthetic instruction streams by an instruction trace writer and checks that an
+ * instruction trace reader reads them back unchanged.
+ *
+ * @author Min Cai
+ */
+public class InstructionTraceTest {
+    /**
+     * The machine instructions used in the synthetic instruction streams: addiu, lw, sw, beq, j and nop.
+     */
+    private static final int[] MACHINE_INSTRUCTIONS = {
+            0x25080001, 0x8d090000, 0xad090004, 0x10000004, 0x08000040, 0x00000000
+    };
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testEmpty() throws IOException {
+        File file = this.temporaryFolder.newFile();
+
+        new InstructionTraceWriter(file).close();
+
+        InstructionTraceReader reader = new InstructionTraceReader(file);
+        assertFalse(reader.readNext(new InstructionTraceRecord()));
+        reader.close();
+    }
+
+    @Test
+    public void testSequential() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+
+        int pc = 0x00400000;
+        int effectiveAddress = 0x10000000;
+
+        for (int i = 0; i < 1000; i++) {
+            int machineInstruction = MACHINE_INSTRUCTIONS[i % 3];
+            entries.add(new Entry(pc, machineInstruction, effectiveAddress, pc + 4, pc + 8));
+            pc += 4;
+            effectiveAddress += 4;
+        }
+
+        roundTrip(entries);
+    }
+
+    @Test
+    public void testNegativeDeltasAndJumps() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+
+        entries.add(new Entry(0x00400100, MACHINE_INSTRUCTIONS[1], 0x7fff0000, 0x00400104, 0x00400108));
+        entries.add(new Entry(0x00400104, MACHINE_INSTRUCTIONS[2], 0x10000000, 0x00400108, 0x0040010c));
+        entries.add(new Entry(0x00400108, MACHINE_INSTRUCTIONS[3], 0, 0x0040010c, 0x00400000));
+        entries.add(new Entry(0x0040010c, MACHINE_INSTRUCTIONS[5], 0, 0x00400000, 0x00400004));
+        entries.add(new Entry(0x00400000, MACHINE_INSTRUCTIONS[1], 0x0fffff00, 0x00400004, 0x00400008));
+        entries.add(new Entry(0x00800000, MACHINE_INSTRUCTIONS[0], 0, 0x00800004, 0x00800008));
+        entries.add(new Entry(0x00000000, MACHINE_INSTRUCTIONS[2], 0xfffffffc, 0x00000004, 0x00000008));
+        entries.add(new Entry(0x7ffffff8, MACHINE_INSTRUCTIONS[1], 0x00000000, 0x7ffffffc, 0x80000000));
+        entries.add(new Entry(0x00400000, MACHINE_INSTRUCTIONS[0], 0, 0x00400004, 0x00400008));
+
+        roundTrip(entries);
+    }
+
+    @Test
+    public void testMachineInstructionChangesAtSamePc() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+
+        for (int i = 0; i < 60; i++) {
+            int machineInstruction = MACHINE_INSTRUCTIONS[(i / 2) % MACHINE_INSTRUCTIONS.length];
+            entries.add(new Entry(0x00400200, machineInstruction, 0x10000000 + i * 8, 0x00400200, 0x00400204));
+        }
+
+        roundTrip(entries);
+    }
+
+    @Test
+    public void testPageRemaps() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+
+        int pageSize = 1 << Memory.getPageSizeInLog2();
+
+        for (int i = 0; i < 100; i++) {
+            int virtualAddress = 0x10000000 + (i % 4) * pageSize + 16;
+            Entry entry = new Entry(0x00400000 + i * 4, MACHINE_INSTRUCTIONS[1], virtualAddress, 0x00400004 + i * 4, 0x00400008 + i * 4);
+            entry.physicalAddress = ((i % 3) * 4 + i % 4) * pageSize + 16;
+            entries.add(entry);
+        }
+
+        roundTrip(entries);
+    }
+
+    @Test
+    public void testRandom() throws IOException {
+        Random random = new Random(1);
+
+        int pageSize = 1 << Memory.getPageSizeInLog2();
+
+        List<Entry> entries = new ArrayList<>();
+
+        int pc = 0x00400000;
+
+        for (int i = 0; i < 200000; i++) {
+            if (random.nextInt(10) == 0) {
+                pc = 0x00400000 + random.nextInt(256) * 4;
+            }
+
+            int machineInstruction = random.nextInt(50) == 0
+                    ? MACHINE_INSTRUCTIONS[random.nextInt(MACHINE_INSTRUCTIONS.length)]
+                    : MACHINE_INSTRUCTIONS[(pc >>> 2) % MACHINE_INSTRUCTIONS.length];
+
+            int effectiveAddress = random.nextBoolean()
+                    ? 0x10000000 + random.nextInt(64) * pageSize + random.nextInt(pageSize)
+                    : random.nextInt();
+
+            int npc = random.nextInt(8) == 0 ? 0x00400000 + random.nextInt(256) * 4 : pc + 4;
+            int nnpc = random.nextInt(8) == 0 ? 0x00400000 + random.nextInt(256) * 4 : npc + 4;
+
+            Entry entry = new Entry(pc, machineInstruction, effectiveAddress, npc, nnpc);
+
+            if (random.nextInt(4) == 0) {
+                entry.physicalAddress = random.nextInt(1 << 16) * pageSize + Memory.getDisplacement(effectiveAddress);
+            }
+
+            entries.add(entry);
+
+            pc = random.nextInt(20) == 0 ? pc : npc;
+        }
+
+        File file = roundTrip(entries);
+
+        assertTrue("the instruction trace should span several blocks", file.length() > InstructionTraceWriter.BLOCK_SIZE);
+    }
+
+    /**
+     * Write the specified entries into an instruction trace file, read them back and check that they are unchanged.
+     *
+     * @param entries the list of entries
+     * @return the instruction trace file
+     * @throws IOException if the instruction trace file cannot be created
+     */
+    private File roundTrip(List<Entry> entries) throws IOException {
+        File file = this.temporaryFolder.newFile();
+
+        Map<Integer, StaticInstruction> staticInstructions = new HashMap<>();
+
+        InstructionTraceWriter writer = new InstructionTraceWriter(file);
+
+        for (Entry entry : entries) {
+            if (entry.physicalAddress != -1) {
+                writer.writePageMapping(entry.effectiveAddress, entry.physicalAddress);
+            }
+
+            StaticInstruction staticInstruction = staticInstructions.computeIfAbsent(
+                    entry.machineInstruction, machineInstruction -> new StaticInstruction(MipsDecoder.decode(machineInstruction), machineInstruction)
+            );
+
+            writer.write(entry.pc, staticInstruction, entry.effectiveAddress, entry.npc, entry.nnpc);
+        }
+
+        writer.close();
+
+        assertEquals(entries.size(), writer.getNumInstructions());
+
+        InstructionTraceReader reader = new InstructionTraceReader(file);
+
+        InstructionTraceRecord record = new InstructionTraceRecord();
+
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+
+            assertTrue("instruction #" + i, reader.readNext(record));
+
+            assertEquals("pc of instruction #" + i, entry.pc, record.getPc());
+            assertEquals("machine instruction of instruction #" + i, entry.machineInstruction, record.getStaticInstruction().getMachineInstruction());
+
+            StaticInstructionType type = record.getStaticInstruction().getMnemonic().getType();
+
+            if (type == StaticInstructionType.LOAD || type == StaticInstructionType.STORE) {
+                assertEquals("effective address of instruction #" + i, entry.effectiveAddress, record.getEffectiveAddress());
+            }
+
+            assertEquals("npc of instruction #" + i, entry.npc, record.getNpc());
+            assertEquals("nnpc of instruction #" + i, entry.nnpc, record.getNnpc());
+
+            if (entry.physicalAddress != -1) {
+                assertEquals("physical address of instruction #" + i, entry.physicalAddress, reader.getPhysicalAddress(entry.effectiveAddress));
+            }
+        }
+
+        assertFalse(reader.readNext(record));
+        assertEquals(entries.size(), reader.getNumInstructions());
+
+        reader.close();
+
+        return file;
+    }
+
+    /**
+     * An instruction in a synthetic instruction stream, optionally preceded by the mapping of its effective address.
+     */
+    private static class Entry {
+        private int pc;
+        private int machineInstruction;
+        private int effectiveAddress;
+        private int npc;
+        private int nnpc;
+        private int physicalAddress;
+
+        /**
+         * Create an instruction in a synthetic instruction stream.
+         *
+         * @param pc                 the PC
+         * @param machineInstruction the machine instruction
+         * @param effectiveAddress   the effective address
+         * @param npc                the NPC
+         * @param nnpc               the NNPC
+         */
+        private Entry(int pc, int machineInstruction, int effectiveAddress, int npc, int nnpc) {
+            this.pc = pc;
+            this.machineInstruction = machineInstruction;
+            this.effectiveAddress = effectiveAddress;
+            this.npc = npc;
+            this.nnpc = nnpc;
+            this.physicalAddress = -1;
+        }
+    }
+}
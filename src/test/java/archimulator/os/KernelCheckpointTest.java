@@ -0,0 +1,176 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.os;
+
+import archimulator.common.CPUExperiment;
+import archimulator.common.ContextMapping;
+import archimulator.common.ExperimentState;
+import archimulator.common.ExperimentType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kernel checkpoint test, which checks that a two phase experiment restored from an ROI checkpoint gives the same statistics
+ * as the one doing the fast forward, and that a checkpoint taken for a different config or executable is never restored.
+ *
+ * @author Min Cai
+ */
+public class KernelCheckpointTest {
+    private static final String EXECUTABLE = "benchmarks/Olden_Custom1/mst/ht/mst.mips";
+
+    private static final List<String> WALL_CLOCK_STAT_KEYS = Arrays.asList(
+            "beginTimeAsString", "endTimeAsString", "duration", "durationInSeconds", "cyclesPerSecond", "instructionsPerSecond"
+    );
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSaveAndRestore() {
+        File roiCheckpointFile = new File(this.temporaryFolder.getRoot(), "roi.ckpt");
+
+        CPUExperiment fastForwardedExperiment = createExperiment("100", roiCheckpointFile, "fastForwarded");
+        fastForwardedExperiment.run();
+
+        assertEquals(ExperimentState.COMPLETED, fastForwardedExperiment.getState());
+        assertTrue(roiCheckpointFile.exists());
+        assertTrue(fastForwardedExperiment.getStatsMap().containsKey("twoPhase/phase0/simulation/numInstructions"));
+
+        assertTrue(KernelCheckpoint.matches(fastForwardedExperiment.getConfig(), roiCheckpointFile));
+        assertFalse(KernelCheckpoint.matches(fastForwardedExperiment.getConfig(), new File(this.temporaryFolder.getRoot(), "missing.ckpt")));
+
+        assertFalse(KernelCheckpoint.matches(createExperiment("200", roiCheckpointFile, "differentArguments").getConfig(), roiCheckpointFile));
+
+        CPUExperiment experimentWithDifferentRoi = createExperiment("100", roiCheckpointFile, "differentRoi");
+        experimentWithDifferentRoi.getConfig().setHelperThreadPthreadSpawnIndex(3721);
+        assertFalse(KernelCheckpoint.matches(experimentWithDifferentRoi.getConfig(), roiCheckpointFile));
+
+        CPUExperiment experimentWithDifferentNumCores = createExperiment("100", roiCheckpointFile, "differentNumCores");
+        experimentWithDifferentNumCores.getConfig().setNumCores(2);
+        assertFalse(KernelCheckpoint.matches(experimentWithDifferentNumCores.getConfig(), roiCheckpointFile));
+
+        CPUExperiment restoredExperiment = createExperiment("100", roiCheckpointFile, "restored");
+        restoredExperiment.run();
+
+        assertEquals(ExperimentState.COMPLETED, restoredExperiment.getState());
+        assertFalse(restoredExperiment.getStatsMap().containsKey("twoPhase/phase0/simulation/numInstructions"));
+
+        Map<String, Object> expectedStats = getDetailedPhaseStats(fastForwardedExperiment);
+
+        assertFalse(expectedStats.isEmpty());
+        assertEquals(expectedStats, getDetailedPhaseStats(restoredExperiment));
+    }
+
+    @Test
+    public void testRejectChangedExecutable() throws IOException {
+        File executable = new File(this.temporaryFolder.getRoot(), "mst.mips");
+        Files.copy(new File(EXECUTABLE).toPath(), executable.toPath());
+
+        File roiCheckpointFile = new File(this.temporaryFolder.getRoot(), "roi.ckpt");
+
+        CPUExperiment fastForwardedExperiment = createExperiment(executable.getPath(), "100", roiCheckpointFile, "fastForwarded");
+        fastForwardedExperiment.run();
+
+        assertEquals(ExperimentState.COMPLETED, fastForwardedExperiment.getState());
+        assertTrue(KernelCheckpoint.matches(fastForwardedExperiment.getConfig(), roiCheckpointFile));
+
+        try (RandomAccessFile file = new RandomAccessFile(executable, "rw")) {
+            file.seek(file.length() - 1);
+            int lastByte = file.read();
+            file.seek(file.length() - 1);
+            file.write(~lastByte);
+        }
+
+        assertFalse(KernelCheckpoint.matches(createExperiment(executable.getPath(), "100", roiCheckpointFile, "changedExecutable").getConfig(), roiCheckpointFile));
+    }
+
+    /**
+     * Create a two phase experiment on the specified arguments using the specified ROI checkpoint file.
+     *
+     * @param arguments         the arguments
+     * @param roiCheckpointFile the ROI checkpoint file
+     * @param name              the name of the output directory
+     * @return the newly created two phase experiment
+     */
+    private CPUExperiment createExperiment(String arguments, File roiCheckpointFile, String name) {
+        return createExperiment(EXECUTABLE, arguments, roiCheckpointFile, name);
+    }
+
+    /**
+     * Create a two phase experiment on the specified executable and arguments using the specified ROI checkpoint file.
+     *
+     * @param executable        the executable
+     * @param arguments         the arguments
+     * @param roiCheckpointFile the ROI checkpoint file
+     * @param name              the name of the output directory
+     * @return the newly created two phase experiment
+     */
+    private CPUExperiment createExperiment(String executable, String arguments, File roiCheckpointFile, String name) {
+        CPUExperiment experiment = new CPUExperiment();
+
+        experiment.getConfig().setType(ExperimentType.TWO_PHASE);
+        experiment.getConfig().setNumMaxInstructions(20000);
+
+        experiment.getConfig().setNumCores(4);
+        experiment.getConfig().setNumThreadsPerCore(1);
+
+        experiment.getConfig().getContextMappings().add(new ContextMapping(0, executable, arguments));
+
+        experiment.getConfig().setSelection("bufferLevel");
+
+        experiment.getConfig().setRoiCheckpointFile(roiCheckpointFile.getPath());
+        experiment.getConfig().setOutputDirectory(new File(this.temporaryFolder.getRoot(), name).getPath());
+
+        return experiment;
+    }
+
+    /**
+     * Get the statistics of the detailed phase of the specified two phase experiment, excluding the ones on the wall clock time.
+     *
+     * @param experiment the two phase experiment
+     * @return the statistics of the detailed phase of the specified two phase experiment, excluding the ones on the wall clock time
+     */
+    private static Map<String, Object> getDetailedPhaseStats(CPUExperiment experiment) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Object> entry : experiment.getStatsMap().entrySet()) {
+            String key = entry.getKey();
+
+            if (key.startsWith("twoPhase/phase1/") && !WALL_CLOCK_STAT_KEYS.contains(key.substring(key.lastIndexOf('/') + 1))) {
+                stats.put(key, entry.getValue());
+            }
+        }
+
+        return stats;
+    }
+}
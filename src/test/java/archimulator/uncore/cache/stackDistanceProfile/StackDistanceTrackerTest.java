@@ -0,0 +1,173 @@
+/**
+ * ****************************************************************************
+ * Copyright (c) 2010-2016 by Min Cai (min.cai.china@gmail.com).
+ * <p>
+ * This file is part of the Archimulator multicore architectural simulator.
+ * <p>
+ * Archimulator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Archimulator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with Archimulator. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package archimulator.uncore.cache.stackDistanceProfile;
+
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Stack distance tracker test, which checks the tracker against a naive LRU list on random access streams.
+ *
+ * @author Min Cai
+ */
+public class StackDistanceTrackerTest {
+    private static final int NUM_ACCESSES = 200000;
+
+    @Test
+    public void testSmallStack() {
+        test(1, 4, 1, 1);
+    }
+
+    @Test
+    public void testSingleSet() {
+        test(1, 8, 64, 2);
+    }
+
+    @Test
+    public void testDeepStack() {
+        test(1, 256, 1024, 3);
+    }
+
+    @Test
+    public void testMultipleSets() {
+        test(64, 8, 32, 4);
+    }
+
+    @Test
+    public void testMultipleSetsWithSampling() {
+        test(64, 8, 32, 4, 4);
+        test(64, 16, 48, 5, 8);
+        test(63, 4, 16, 6, 5);
+    }
+
+    /**
+     * Check the stack distances and the scaled stack distance profile computed by the trackers without sampling.
+     *
+     * @param numSets          the number of sets
+     * @param maxStackDistance the maximum stack distance
+     * @param numTagsPerSet    the number of distinct tags per set
+     * @param seed             the random seed
+     */
+    private static void test(int numSets, int maxStackDistance, int numTagsPerSet, long seed) {
+        test(numSets, maxStackDistance, numTagsPerSet, seed, 1);
+    }
+
+    /**
+     * Check the stack distances computed by the trackers of the sampled sets against the naive LRU lists, and the
+     * stack distance profile of the sampled sets scaled by the sampling period against the one of all the sets.
+     *
+     * @param numSets          the number of sets
+     * @param maxStackDistance the maximum stack distance
+     * @param numTagsPerSet    the number of distinct tags per set
+     * @param seed             the random seed
+     * @param samplingPeriod   the sampling period
+     */
+    private static void test(int numSets, int maxStackDistance, int numTagsPerSet, long seed, int samplingPeriod) {
+        Random random = new Random(seed);
+
+        StackDistanceTracker[] trackers = new StackDistanceTracker[numSets];
+        List<List<Integer>> lruLists = new LinkedList<>();
+
+        for (int set = 0; set < numSets; set++) {
+            if (set % samplingPeriod == 0) {
+                trackers[set] = new StackDistanceTracker(maxStackDistance);
+            }
+
+            lruLists.add(new LinkedList<>());
+        }
+
+        StackDistanceProfile sampledProfile = new StackDistanceProfile(maxStackDistance);
+        StackDistanceProfile fullProfile = new StackDistanceProfile(maxStackDistance);
+
+        for (int i = 0; i < NUM_ACCESSES; i++) {
+            int set = random.nextInt(numSets);
+            int tag = (random.nextBoolean() ? random.nextInt(Math.max(1, maxStackDistance / 2)) : random.nextInt(numTagsPerSet)) * numSets + set;
+
+            int expectedStackDistance = access(lruLists.get(set), tag, maxStackDistance);
+
+            if (expectedStackDistance == -1) {
+                fullProfile.incrementMissCounter();
+            } else {
+                fullProfile.incrementHitCounter(expectedStackDistance);
+            }
+
+            if (trackers[set] != null) {
+                int stackDistance = trackers[set].access(tag);
+
+                assertEquals("access #" + i + " to tag " + tag + " in set " + set, expectedStackDistance, stackDistance);
+                assertEquals(Math.min(lruLists.get(set).size(), maxStackDistance), trackers[set].getSize());
+
+                if (stackDistance == -1) {
+                    sampledProfile.incrementMissCounter(samplingPeriod);
+                } else {
+                    sampledProfile.incrementHitCounter(stackDistance, samplingPeriod);
+                }
+            }
+        }
+
+        if (samplingPeriod == 1) {
+            assertEquals(fullProfile.getHitCounters(), sampledProfile.getHitCounters());
+            assertEquals(fullProfile.getMissCounter(), sampledProfile.getMissCounter());
+        } else {
+            assertEquals(fullProfile.getMissCounter(), sampledProfile.getMissCounter(), NUM_ACCESSES * 0.02);
+            assertEquals(sum(fullProfile.getHitCounters()), sum(sampledProfile.getHitCounters()), NUM_ACCESSES * 0.02);
+        }
+    }
+
+    /**
+     * Get the sum of the specified counters.
+     *
+     * @param counters the counters
+     * @return the sum of the specified counters
+     */
+    private static int sum(List<Integer> counters) {
+        return counters.stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Access the specified tag in the specified naive LRU list.
+     *
+     * @param lruList          the LRU list, with the most recently used tag at the head
+     * @param tag              the tag
+     * @param maxStackDistance the maximum stack distance
+     * @return the stack distance of the specified tag before the access if it is in the list; otherwise -1
+     */
+    private static int access(List<Integer> lruList, int tag, int maxStackDistance) {
+        int stackDistance = lruList.indexOf(tag);
+
+        if (stackDistance != -1) {
+            lruList.remove(stackDistance);
+        }
+
+        lruList.add(0, tag);
+
+        if (lruList.size() > maxStackDistance) {
+            lruList.remove(lruList.size() - 1);
+        }
+
+        return stackDistance;
+    }
+}